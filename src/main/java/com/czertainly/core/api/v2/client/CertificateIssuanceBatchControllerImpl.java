@@ -0,0 +1,49 @@
+package com.czertainly.core.api.v2.client;
+
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
+import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.v2.ClientOperationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bulk issuance of certificates. Requests are accepted for asynchronous issue and progress of the batch is polled.
+ */
+@RestController
+@RequestMapping("/v2/operations/authorities/{authorityUuid}/raProfiles/{raProfileUuid}/certificates/batches")
+@Tag(name = "Client Operations v2", description = "Bulk certificate issuance")
+public class CertificateIssuanceBatchControllerImpl {
+
+    @Autowired
+    private ClientOperationService clientOperationService;
+
+    @Operation(summary = "Issue multiple Certificates in batch")
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public CertificateIssuanceBatchDto issueCertificates(
+            @PathVariable String authorityUuid,
+            @PathVariable String raProfileUuid,
+            @RequestBody List<ClientCertificateSignRequestDto> requests) throws ConnectorException {
+        return clientOperationService.issueCertificates(SecuredParentUUID.fromString(authorityUuid), SecuredUUID.fromString(raProfileUuid), requests);
+    }
+
+    @Operation(summary = "Get progress of Certificate issuance batch")
+    @GetMapping(path = "/{batchUuid}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CertificateIssuanceBatchDto getCertificateIssuanceBatch(
+            @PathVariable String authorityUuid,
+            @PathVariable String raProfileUuid,
+            @PathVariable String batchUuid) throws NotFoundException {
+        return clientOperationService.getCertificateIssuanceBatch(SecuredParentUUID.fromString(authorityUuid), SecuredUUID.fromString(raProfileUuid), UUID.fromString(batchUuid));
+    }
+}
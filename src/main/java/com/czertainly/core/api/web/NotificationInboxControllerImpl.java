@@ -0,0 +1,40 @@
+package com.czertainly.core.api.web;
+
+import com.czertainly.api.exception.ValidationException;
+import com.czertainly.core.model.NotificationInboxDto;
+import com.czertainly.core.service.NotificationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Inbox of notifications of logged user paginated by cursor, so reading further pages does not get slower with size of the inbox
+ */
+@RestController
+@RequestMapping("/v1/notifications/inbox")
+@Tag(name = "Notification Management", description = "Inbox of notifications of logged user")
+public class NotificationInboxControllerImpl {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Operation(summary = "List page of notifications of logged user")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public NotificationInboxDto listInboxNotifications(
+            @RequestParam(defaultValue = "false") boolean unread,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int itemsPerPage) throws ValidationException {
+        return notificationService.listInboxNotifications(unread, cursor, itemsPerPage);
+    }
+
+    @Operation(summary = "Get number of unread notifications of logged user")
+    @GetMapping(path = "/unreadCount", produces = MediaType.APPLICATION_JSON_VALUE)
+    public long getUnreadNotificationsCount() {
+        return notificationService.getUnreadNotificationsCount();
+    }
+}
@@ -18,6 +18,9 @@ import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContent;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributeContentItems;
+import com.czertainly.core.attribute.engine.records.ObjectAttributeContentProjection;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent;
 import com.czertainly.core.dao.entity.AttributeContent2Object;
 import com.czertainly.core.dao.entity.AttributeContentItem;
@@ -30,6 +33,7 @@ import com.czertainly.core.dao.repository.AttributeRelationRepository;
 import com.czertainly.core.model.SearchFieldObject;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.SecurityResourceFilter;
+import com.czertainly.core.util.AttributeContentHashUtil;
 import com.czertainly.core.util.AuthHelper;
 import com.czertainly.core.util.SearchHelper;
 import com.fasterxml.jackson.databind.DeserializationFeature;
@@ -55,6 +59,7 @@ public class AttributeEngine {
     private static final Logger logger = LoggerFactory.getLogger(AttributeEngine.class);
     private static final Pattern UUID_REGEX = Pattern.compile("^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$");
     private static final ObjectMapper ATTRIBUTES_OBJECT_MAPPER = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final int BULK_LOOKUP_CHUNK_SIZE = 1000;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -165,7 +170,92 @@ public class AttributeEngine {
     // TODO: make it generic to be used also for DATA attributes and update DTOs accordingly
     public List<MetadataResponseDto> getMappedMetadataContent(ObjectAttributeContentInfo contentInfo) {
         List<ObjectAttributeContentDetail> objectMetadataContents = attributeContent2ObjectRepository.getObjectAttributeContentDetail(AttributeType.META, contentInfo.connectorUuid(), null, contentInfo.objectType(), contentInfo.objectUuid(), contentInfo.sourceObjectType(), contentInfo.sourceObjectUuid());
+        return mapMetadataContent(objectMetadataContents);
+    }
+
+    /**
+     * Loads mapped metadata of multiple objects with single query per chunk of objects
+     *
+     * @param connectorUuid    UUID of connector to filter metadata by, all connectors if null
+     * @param objectType       type of objects
+     * @param objectUuids      UUIDs of objects
+     * @param sourceObjectType type of source object to filter metadata by, all sources if null
+     * @param sourceObjectUuid UUID of source object to filter metadata by, all sources if null
+     * @return mapped metadata by object UUID, objects without metadata have empty list
+     */
+    public Map<UUID, List<MetadataResponseDto>> getObjectsMappedMetadataContent(UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids, Resource sourceObjectType, UUID sourceObjectUuid) {
+        Map<UUID, List<ObjectAttributeContentDetail>> objectsContents = new HashMap<>();
+        for (ObjectAttributeContentProjection projection : loadObjectsAttributeContentProjection(List.of(AttributeType.META), connectorUuid, objectType, objectUuids, sourceObjectType, sourceObjectUuid)) {
+            objectsContents.computeIfAbsent(projection.objectUuid(), k -> new ArrayList<>()).add(projection.toContentDetail());
+        }
+
+        Map<UUID, List<MetadataResponseDto>> mapping = new HashMap<>();
+        for (UUID objectUuid : objectUuids) {
+            mapping.put(objectUuid, mapMetadataContent(objectsContents.getOrDefault(objectUuid, List.of())));
+        }
+        return mapping;
+    }
+
+    /**
+     * Loads metadata and custom attributes of object with single query
+     *
+     * @param objectType type of object
+     * @param objectUuid UUID of object
+     * @return mapped metadata and custom attributes content of object
+     */
+    public ObjectAttributesContent getObjectMetadataAndCustomAttributesContent(Resource objectType, UUID objectUuid) {
+        return getObjectsMetadataAndCustomAttributesContent(objectType, List.of(objectUuid)).get(objectUuid);
+    }
+
+    /**
+     * Loads metadata and custom attributes of multiple objects with single query per chunk of objects.
+     * Custom attributes content is filtered by permissions of logged user the same way as for single object.
+     *
+     * @param objectType  type of objects
+     * @param objectUuids UUIDs of objects
+     * @return mapped metadata and custom attributes content by object UUID
+     */
+    public Map<UUID, ObjectAttributesContent> getObjectsMetadataAndCustomAttributesContent(Resource objectType, Collection<UUID> objectUuids) {
+        SecurityResourceFilter securityResourceFilter = loadCustomAttributesSecurityResourceFilter();
+
+        Map<UUID, List<ObjectAttributeContentDetail>> objectsMetadataContents = new HashMap<>();
+        Map<UUID, List<ObjectAttributeContent>> objectsCustomContents = new HashMap<>();
+        for (ObjectAttributeContentProjection projection : loadObjectsAttributeContentProjection(List.of(AttributeType.META, AttributeType.CUSTOM), null, objectType, objectUuids, null, null)) {
+            if (projection.type() == AttributeType.META) {
+                objectsMetadataContents.computeIfAbsent(projection.objectUuid(), k -> new ArrayList<>()).add(projection.toContentDetail());
+            } else if (isCustomAttributeContentAllowed(projection.definitionUuid(), securityResourceFilter)) {
+                objectsCustomContents.computeIfAbsent(projection.objectUuid(), k -> new ArrayList<>()).add(projection.toContent());
+            }
+        }
+
+        Map<UUID, ObjectAttributesContent> mapping = new HashMap<>();
+        for (UUID objectUuid : objectUuids) {
+            mapping.put(objectUuid, new ObjectAttributesContent(mapMetadataContent(objectsMetadataContents.getOrDefault(objectUuid, List.of())), getResponseAttributes(objectsCustomContents.getOrDefault(objectUuid, List.of()))));
+        }
+        return mapping;
+    }
+
+    private List<ObjectAttributeContentProjection> loadObjectsAttributeContentProjection(List<AttributeType> attributeTypes, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids, Resource sourceObjectType, UUID sourceObjectUuid) {
+        List<ObjectAttributeContentProjection> projections = new ArrayList<>();
+        List<UUID> uuids = new ArrayList<>(new HashSet<>(objectUuids));
+        for (int i = 0; i < uuids.size(); i += BULK_LOOKUP_CHUNK_SIZE) {
+            List<UUID> uuidsChunk = uuids.subList(i, Math.min(i + BULK_LOOKUP_CHUNK_SIZE, uuids.size()));
+            projections.addAll(attributeContent2ObjectRepository.getObjectsAttributeContentProjection(attributeTypes, AttributeType.CUSTOM, connectorUuid, objectType, uuidsChunk, sourceObjectType, sourceObjectUuid));
+        }
+        return projections;
+    }
 
+    private boolean isCustomAttributeContentAllowed(UUID definitionUuid, SecurityResourceFilter securityResourceFilter) {
+        if (securityResourceFilter == null) {
+            return true;
+        }
+        if (securityResourceFilter.areOnlySpecificObjectsAllowed()) {
+            return securityResourceFilter.getAllowedObjects().contains(definitionUuid);
+        }
+        return !securityResourceFilter.getForbiddenObjects().contains(definitionUuid);
+    }
+
+    private List<MetadataResponseDto> mapMetadataContent(List<ObjectAttributeContentDetail> objectMetadataContents) {
         Map<UUID, String> connectorMapping = new HashMap<>();
         Map<UUID, Map<Resource, Map<UUID, ResponseMetadataDto>>> mapping = new HashMap<>();
         for (ObjectAttributeContentDetail objectMetadataContent : objectMetadataContents) {
@@ -433,29 +523,59 @@ public class AttributeEngine {
             return;
         }
 
-        for (MetadataAttribute metadataAttribute : attributes) {
-            if (metadataAttribute.getType() != AttributeType.META) {
-                continue;
-            }
-
-            updateMetadataAttribute(metadataAttribute, objectAttributeContentInfo);
-        }
+        updateObjectsMetadataAttributes(Map.of(objectAttributeContentInfo, attributes));
     }
 
     public void updateMetadataAttribute(MetadataAttribute metadataAttribute, ObjectAttributeContentInfo objectAttributeContentInfo) throws AttributeException {
-        UUID connectorUuid = objectAttributeContentInfo.connectorUuid();
-        List<BaseAttributeContent> contentItems = metadataAttribute.getContent();
-        AttributeDefinition attributeDefinition = updateMetadataAttributeDefinition(metadataAttribute, connectorUuid);
-
         if (objectAttributeContentInfo.connectorUuid() == null) {
             throw new AttributeException("Cannot update metadata content without specifying connector UUID.");
         }
 
-        // delete content of metadata for this object as its content should be replaced
-        if (metadataAttribute.getProperties().isOverwrite()) {
-            deleteObjectAttributeDefinitionContent(attributeDefinition.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid());
+        updateObjectsMetadataAttributes(Map.of(objectAttributeContentInfo, List.of(metadataAttribute)));
+    }
+
+    /**
+     * Updates metadata of multiple objects at once. Metadata definitions are registered once per batch and content of all objects
+     * is persisted through bulk attribute content creation.
+     *
+     * @param objectsMetadata metadata attributes mapped by object content info, connector UUID has to be specified for every object
+     * @throws AttributeException when metadata definition or content is not valid
+     */
+    public void updateObjectsMetadataAttributes(Map<ObjectAttributeContentInfo, List<MetadataAttribute>> objectsMetadata) throws AttributeException {
+        Map<String, AttributeDefinition> definitionsMapping = new HashMap<>();
+        List<ObjectAttributeContentItems> objectsContentItems = new ArrayList<>();
+        for (Map.Entry<ObjectAttributeContentInfo, List<MetadataAttribute>> objectMetadata : objectsMetadata.entrySet()) {
+            ObjectAttributeContentInfo objectAttributeContentInfo = objectMetadata.getKey();
+            if (objectAttributeContentInfo.connectorUuid() == null) {
+                throw new AttributeException("Cannot update metadata content without specifying connector UUID.");
+            }
+            if (objectMetadata.getValue() == null) {
+                continue;
+            }
+
+            for (MetadataAttribute metadataAttribute : objectMetadata.getValue()) {
+                if (metadataAttribute.getType() != AttributeType.META) {
+                    continue;
+                }
+
+                // content has to be read before definition update since definition does not hold the content
+                List<BaseAttributeContent> contentItems = metadataAttribute.getContent();
+                String definitionKey = objectAttributeContentInfo.connectorUuid() + "|" + metadataAttribute.getUuid() + "|" + metadataAttribute.getName();
+                AttributeDefinition attributeDefinition = definitionsMapping.get(definitionKey);
+                if (attributeDefinition == null) {
+                    attributeDefinition = updateMetadataAttributeDefinition(metadataAttribute, objectAttributeContentInfo.connectorUuid());
+                    definitionsMapping.put(definitionKey, attributeDefinition);
+                }
+
+                // delete content of metadata for this object as its content should be replaced
+                if (metadataAttribute.getProperties().isOverwrite()) {
+                    deleteObjectAttributeDefinitionContent(attributeDefinition.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid());
+                }
+                objectsContentItems.add(new ObjectAttributeContentItems(attributeDefinition, objectAttributeContentInfo, contentItems));
+            }
         }
-        createObjectAttributeContent(attributeDefinition, objectAttributeContentInfo, contentItems);
+
+        createObjectAttributesContent(objectsContentItems);
     }
 
     public List<DataAttribute> getDefinitionObjectAttributeContent(AttributeType attributeType, UUID connectorUuid, String operation, Resource objectType, UUID objectUuid) {
@@ -594,10 +714,12 @@ public class AttributeEngine {
         // delete all content for operation
         ObjectAttributeContentInfo objectAttributeContentInfo = new ObjectAttributeContentInfo(connectorUuid, objectType, objectUuid);
         deleteOperationObjectAttributesContent(AttributeType.DATA, operation, objectAttributeContentInfo);
+        List<ObjectAttributeContentItems> objectContentItems = new ArrayList<>();
         for (RequestAttributeDto requestAttribute : requestAttributes) {
             AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndConnectorUuidAndAttributeUuidAndName(AttributeType.DATA, connectorUuid, UUID.fromString(requestAttribute.getUuid()), requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
-            createObjectAttributeContent(attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent());
+            objectContentItems.add(new ObjectAttributeContentItems(attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent()));
         }
+        createObjectAttributesContent(objectContentItems);
 
         return getObjectDataAttributesContent(connectorUuid, operation, objectType, objectUuid);
     }
@@ -611,12 +733,14 @@ public class AttributeEngine {
         SecurityResourceFilter securityResourceFilter = loadCustomAttributesSecurityResourceFilter();
         validateCustomAttributesContent(objectType, requestAttributes, securityResourceFilter);
 
+        ObjectAttributeContentInfo objectAttributeContentInfo = new ObjectAttributeContentInfo(objectType, objectUuid);
+        List<ObjectAttributeContentItems> objectContentItems = new ArrayList<>();
         if (securityResourceFilter == null) {
             // custom attributes content is automatically replaced
             deleteObjectAttributeContentByType(AttributeType.CUSTOM, objectType, objectUuid);
             for (RequestAttributeDto requestAttribute : requestAttributes) {
                 AttributeDefinition attributeDefinition = attributeDefinitionRepository.findByTypeAndName(AttributeType.CUSTOM, requestAttribute.getName()).orElseThrow(() -> new NotFoundException(AttributeDefinition.class, requestAttribute.getName()));
-                createObjectAttributeContent(attributeDefinition, new ObjectAttributeContentInfo(objectType, objectUuid), requestAttribute.getContent());
+                objectContentItems.add(new ObjectAttributeContentItems(attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent()));
             }
         } else {
             for (RequestAttributeDto requestAttribute : requestAttributes) {
@@ -632,9 +756,10 @@ public class AttributeEngine {
                 }
 
                 deleteObjectAttributeDefinitionContent(attributeDefinition.getUuid(), objectType, objectUuid);
-                createObjectAttributeContent(attributeDefinition, new ObjectAttributeContentInfo(objectType, objectUuid), requestAttribute.getContent());
+                objectContentItems.add(new ObjectAttributeContentItems(attributeDefinition, objectAttributeContentInfo, requestAttribute.getContent()));
             }
         }
+        createObjectAttributesContent(objectContentItems);
 
         return getObjectCustomAttributesContent(objectType, objectUuid, securityResourceFilter);
     }
@@ -828,6 +953,19 @@ public class AttributeEngine {
         logger.debug("Deleted {} attribute content items for {} with UUID {}", deletedCount, contentInfo.objectType().getLabel(), contentInfo.objectUuid());
     }
 
+    /**
+     * Deletes attribute content of given type and connector for multiple objects at once. Only content not originating from source object is deleted.
+     *
+     * @param attributeType type of attributes
+     * @param connectorUuid UUID of connector of attributes
+     * @param objectType    type of objects
+     * @param objectUuids   UUIDs of objects
+     */
+    public void deleteObjectsAttributesContent(AttributeType attributeType, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids) {
+        long deletedCount = attributeContent2ObjectRepository.deleteObjectsAttributeContent(attributeType, connectorUuid, objectType, objectUuids);
+        logger.debug("Deleted {} {} attribute content items of connector {} for {} {} objects", deletedCount, attributeType.getLabel(), connectorUuid, objectUuids.size(), objectType.getLabel());
+    }
+
     public void deleteOperationObjectAttributesContent(AttributeType attributeType, String operation, ObjectAttributeContentInfo contentInfo) {
         logger.debug("Deleting the {} attribute content of operation {} for resource {} with UUID {}. Info: {}", attributeType.getLabel(), operation, contentInfo.objectType().getLabel(), contentInfo.objectUuid(), contentInfo);
         long deletedCount = attributeContent2ObjectRepository.deleteByAttributeContentItemAttributeDefinitionTypeAndAttributeContentItemAttributeDefinitionOperationAndConnectorUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(attributeType, operation, contentInfo.connectorUuid(), contentInfo.objectType(), contentInfo.objectUuid(), contentInfo.sourceObjectType(), contentInfo.sourceObjectUuid());
@@ -835,42 +973,115 @@ public class AttributeEngine {
     }
 
     private void createObjectAttributeContent(AttributeDefinition attributeDefinition, ObjectAttributeContentInfo objectAttributeContentInfo, List<BaseAttributeContent> attributeContentItems) throws AttributeException {
-        logger.debug("Creating the attribute content for attribute {} of type {}. Info: {}", attributeDefinition.getName(), attributeDefinition.getType().getLabel(), objectAttributeContentInfo);
+        createObjectAttributesContent(List.of(new ObjectAttributeContentItems(attributeDefinition, objectAttributeContentInfo, attributeContentItems)));
+    }
 
-        validateAttributeContent(attributeDefinition, attributeContentItems);
-        for (int i = 0; i < attributeContentItems.size(); i++) {
-            AttributeContentItem contentItemEntity;
-            BaseAttributeContent<?> attributeContentItem = attributeContentItems.get(i);
-            Optional<AttributeContentItem> contentItemEntityResponse = attributeContentItemRepository.findByJsonAndAttributeDefinitionUuid(attributeContentItem, attributeDefinition.getUuid());
+    /**
+     * Creates attribute content of multiple objects and attribute definitions at once. Existing content items are resolved
+     * by hash of their JSON with one lookup per chunk, new content items and object mappings are inserted in JDBC batches.
+     *
+     * @param objectsContentItems content items of attribute definitions for objects
+     * @throws AttributeException when content is not valid for its attribute definition
+     */
+    public void createObjectAttributesContent(List<ObjectAttributeContentItems> objectsContentItems) throws AttributeException {
+        // validate all content before anything is written and compute hashes of content items
+        Set<UUID> definitionUuids = new HashSet<>();
+        Set<UUID> objectUuids = new HashSet<>();
+        Map<BaseAttributeContent<?>, String> contentItemsHashes = new IdentityHashMap<>();
+        for (ObjectAttributeContentItems objectContentItems : objectsContentItems) {
+            AttributeDefinition attributeDefinition = objectContentItems.attributeDefinition();
+            logger.debug("Creating the attribute content for attribute {} of type {}. Info: {}", attributeDefinition.getName(), attributeDefinition.getType().getLabel(), objectContentItems.contentInfo());
+
+            validateAttributeContent(attributeDefinition, objectContentItems.contentItems());
+            if (objectContentItems.contentItems() == null || objectContentItems.contentItems().isEmpty()) {
+                continue;
+            }
+            definitionUuids.add(attributeDefinition.getUuid());
+            objectUuids.add(objectContentItems.contentInfo().objectUuid());
+            for (BaseAttributeContent<?> attributeContentItem : objectContentItems.contentItems()) {
+                contentItemsHashes.put(attributeContentItem, AttributeContentHashUtil.hash(attributeContentItem));
+            }
+        }
+        if (contentItemsHashes.isEmpty()) {
+            return;
+        }
 
-            // check if content item for this attribute definition exists to don't create duplicate items
-            if (contentItemEntityResponse.isPresent()) {
-                contentItemEntity = contentItemEntityResponse.get();
+        // resolve existing content items to don't create duplicate items and create missing ones
+        Map<ContentItemKey, AttributeContentItem> contentItemsMapping = loadContentItems(definitionUuids, new HashSet<>(contentItemsHashes.values()));
+        Set<ObjectContentMappingKey> existingMappings = loadObjectContentMappings(contentItemsMapping.values(), objectUuids);
+        List<AttributeContentItem> newContentItems = new ArrayList<>();
+        for (ObjectAttributeContentItems objectContentItems : objectsContentItems) {
+            if (objectContentItems.contentItems() == null) {
+                continue;
+            }
+            for (BaseAttributeContent<?> attributeContentItem : objectContentItems.contentItems()) {
+                ContentItemKey contentItemKey = new ContentItemKey(objectContentItems.attributeDefinition().getUuid(), contentItemsHashes.get(attributeContentItem));
+                if (!contentItemsMapping.containsKey(contentItemKey)) {
+                    AttributeContentItem contentItemEntity = new AttributeContentItem();
+                    contentItemEntity.setJson(attributeContentItem);
+                    contentItemEntity.setSearchValues(objectContentItems.attributeDefinition().getContentType());
+                    contentItemEntity.setAttributeDefinitionUuid(contentItemKey.definitionUuid());
+                    contentItemsMapping.put(contentItemKey, contentItemEntity);
+                    newContentItems.add(contentItemEntity);
+                }
+            }
+        }
+        attributeContentItemRepository.saveAll(newContentItems);
+
+        List<AttributeContent2Object> newObjectContentItems = new ArrayList<>();
+        for (ObjectAttributeContentItems objectContentItems : objectsContentItems) {
+            if (objectContentItems.contentItems() == null) {
+                continue;
+            }
+            ObjectAttributeContentInfo objectAttributeContentInfo = objectContentItems.contentInfo();
+            for (int i = 0; i < objectContentItems.contentItems().size(); i++) {
+                BaseAttributeContent<?> attributeContentItem = objectContentItems.contentItems().get(i);
+                AttributeContentItem contentItemEntity = contentItemsMapping.get(new ContentItemKey(objectContentItems.attributeDefinition().getUuid(), contentItemsHashes.get(attributeContentItem)));
 
-                // check if that content item is not already assigned to same object for meta attribute
+                // check if that content item is not already assigned to same object
                 // TODO: do we need to allow duplicate content items for one attribute definition? Maybe if attribute is list or do this check just for META attributes?
-                var aco = attributeContent2ObjectRepository.getByConnectorUuidAndAttributeContentItemUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(objectAttributeContentInfo.connectorUuid(), contentItemEntity.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid(), objectAttributeContentInfo.sourceObjectType(), objectAttributeContentInfo.sourceObjectUuid());
-                if (!aco.isEmpty()) {
+                if (!existingMappings.add(new ObjectContentMappingKey(objectAttributeContentInfo.connectorUuid(), contentItemEntity.getUuid(), objectAttributeContentInfo.objectType(), objectAttributeContentInfo.objectUuid(), objectAttributeContentInfo.sourceObjectType(), objectAttributeContentInfo.sourceObjectUuid()))) {
                     continue;
                 }
-            } else {
-                contentItemEntity = new AttributeContentItem();
-                contentItemEntity.setJson(attributeContentItem);
-                contentItemEntity.setAttributeDefinitionUuid(attributeDefinition.getUuid());
-                contentItemEntity = attributeContentItemRepository.save(contentItemEntity);
+
+                final AttributeContent2Object objectContentItem = new AttributeContent2Object();
+                objectContentItem.setObjectUuid(objectAttributeContentInfo.objectUuid());
+                objectContentItem.setObjectType(objectAttributeContentInfo.objectType());
+                objectContentItem.setConnectorUuid(objectAttributeContentInfo.connectorUuid());
+                objectContentItem.setSourceObjectUuid(objectAttributeContentInfo.sourceObjectUuid());
+                objectContentItem.setSourceObjectType(objectAttributeContentInfo.sourceObjectType());
+                objectContentItem.setSourceObjectName(objectAttributeContentInfo.sourceObjectName());
+                objectContentItem.setOrder(i);
+                objectContentItem.setAttributeContentItem(contentItemEntity);
+                newObjectContentItems.add(objectContentItem);
+            }
+        }
+        attributeContent2ObjectRepository.saveAll(newObjectContentItems);
+        logger.debug("Created {} attribute content items and {} object attribute content mappings.", newContentItems.size(), newObjectContentItems.size());
+    }
+
+    private Map<ContentItemKey, AttributeContentItem> loadContentItems(Set<UUID> definitionUuids, Set<String> jsonHashes) {
+        Map<ContentItemKey, AttributeContentItem> contentItemsMapping = new HashMap<>();
+        List<String> hashes = new ArrayList<>(jsonHashes);
+        for (int i = 0; i < hashes.size(); i += BULK_LOOKUP_CHUNK_SIZE) {
+            List<String> hashesChunk = hashes.subList(i, Math.min(i + BULK_LOOKUP_CHUNK_SIZE, hashes.size()));
+            for (AttributeContentItem contentItem : attributeContentItemRepository.findByAttributeDefinitionUuidInAndJsonHashIn(definitionUuids, hashesChunk)) {
+                contentItemsMapping.putIfAbsent(new ContentItemKey(contentItem.getAttributeDefinitionUuid(), contentItem.getJsonHash()), contentItem);
             }
+        }
+        return contentItemsMapping;
+    }
 
-            final AttributeContent2Object objectContentItem = new AttributeContent2Object();
-            objectContentItem.setObjectUuid(objectAttributeContentInfo.objectUuid());
-            objectContentItem.setObjectType(objectAttributeContentInfo.objectType());
-            objectContentItem.setConnectorUuid(objectAttributeContentInfo.connectorUuid());
-            objectContentItem.setSourceObjectUuid(objectAttributeContentInfo.sourceObjectUuid());
-            objectContentItem.setSourceObjectType(objectAttributeContentInfo.sourceObjectType());
-            objectContentItem.setSourceObjectName(objectAttributeContentInfo.sourceObjectName());
-            objectContentItem.setOrder(i);
-            objectContentItem.setAttributeContentItem(contentItemEntity);
-            attributeContent2ObjectRepository.save(objectContentItem);
+    private Set<ObjectContentMappingKey> loadObjectContentMappings(Collection<AttributeContentItem> contentItems, Set<UUID> objectUuids) {
+        Set<ObjectContentMappingKey> mappings = new HashSet<>();
+        List<UUID> contentItemUuids = contentItems.stream().map(AttributeContentItem::getUuid).toList();
+        for (int i = 0; i < contentItemUuids.size(); i += BULK_LOOKUP_CHUNK_SIZE) {
+            List<UUID> contentItemUuidsChunk = contentItemUuids.subList(i, Math.min(i + BULK_LOOKUP_CHUNK_SIZE, contentItemUuids.size()));
+            for (AttributeContent2Object aco : attributeContent2ObjectRepository.findByAttributeContentItemUuidInAndObjectUuidIn(contentItemUuidsChunk, objectUuids)) {
+                mappings.add(new ObjectContentMappingKey(aco.getConnectorUuid(), aco.getAttributeContentItemUuid(), aco.getObjectType(), aco.getObjectUuid(), aco.getSourceObjectType(), aco.getSourceObjectUuid()));
+            }
         }
+        return mappings;
     }
 
     private List<ValidationError> validateAttributesContent(Map<String, AttributeDefinition> definitionsMapping, List<RequestAttributeDto> attributes) {
@@ -964,4 +1175,10 @@ public class AttributeEngine {
 
         return loadAllContent ? null : authHelper.loadObjectPermissions(Resource.ATTRIBUTE, ResourceAction.MEMBERS);
     }
+
+    private record ContentItemKey(UUID definitionUuid, String jsonHash) {
+    }
+
+    private record ObjectContentMappingKey(UUID connectorUuid, UUID contentItemUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid) {
+    }
 }
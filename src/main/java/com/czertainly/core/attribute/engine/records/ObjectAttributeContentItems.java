@@ -0,0 +1,18 @@
+package com.czertainly.core.attribute.engine.records;
+
+import com.czertainly.api.model.common.attribute.v2.content.BaseAttributeContent;
+import com.czertainly.core.dao.entity.AttributeDefinition;
+
+import java.util.List;
+import java.util.Objects;
+
+public record ObjectAttributeContentItems(
+        AttributeDefinition attributeDefinition,
+        ObjectAttributeContentInfo contentInfo,
+        List<BaseAttributeContent> contentItems
+) {
+    public ObjectAttributeContentItems {
+        Objects.requireNonNull(attributeDefinition);
+        Objects.requireNonNull(contentInfo);
+    }
+}
@@ -0,0 +1,33 @@
+package com.czertainly.core.attribute.engine.records;
+
+import com.czertainly.api.model.common.attribute.v2.AttributeType;
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
+import com.czertainly.api.model.common.attribute.v2.content.BaseAttributeContent;
+import com.czertainly.api.model.core.auth.Resource;
+
+import java.util.UUID;
+
+public record ObjectAttributeContentProjection(
+    UUID objectUuid,
+    UUID definitionUuid,
+    UUID uuid,
+    String name,
+    String label,
+    AttributeType type,
+    AttributeContentType contentType,
+    BaseAttributeContent<?> contentItem,
+    UUID connectorUuid,
+    String connectorName,
+    Resource sourceObjectType,
+    UUID sourceObjectUuid,
+    String sourceObjectName
+)
+{
+    public ObjectAttributeContent toContent() {
+        return new ObjectAttributeContent(uuid, name, label, type, contentType, contentItem);
+    }
+
+    public ObjectAttributeContentDetail toContentDetail() {
+        return new ObjectAttributeContentDetail(uuid, name, label, type, contentType, contentItem, connectorUuid, connectorName, sourceObjectType, sourceObjectUuid, sourceObjectName);
+    }
+}
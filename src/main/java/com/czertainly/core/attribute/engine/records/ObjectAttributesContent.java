@@ -0,0 +1,12 @@
+package com.czertainly.core.attribute.engine.records;
+
+import com.czertainly.api.model.client.attribute.ResponseAttributeDto;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
+
+import java.util.List;
+
+public record ObjectAttributesContent(
+    List<MetadataResponseDto> metadata,
+    List<ResponseAttributeDto> customAttributes
+)
+{}
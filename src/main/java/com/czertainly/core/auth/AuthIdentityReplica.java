@@ -0,0 +1,316 @@
+package com.czertainly.core.auth;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.auth.RoleDetailDto;
+import com.czertainly.api.model.core.auth.RoleDto;
+import com.czertainly.api.model.core.auth.UserDetailDto;
+import com.czertainly.api.model.core.auth.UserDto;
+import com.czertainly.core.dao.entity.auth.RoleIdentity;
+import com.czertainly.core.dao.entity.auth.UserIdentity;
+import com.czertainly.core.dao.repository.auth.RoleIdentityRepository;
+import com.czertainly.core.dao.repository.auth.UserIdentityRepository;
+import com.czertainly.core.event.transaction.AuthIdentityChangedEvent;
+import com.czertainly.core.security.authn.client.RoleManagementApiClient;
+import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Local replica of user and role identities managed by Auth service. Identities are persisted in database and indexed in memory,
+ * so owner filters, owner lookups and resolution of notification recipients do not call Auth service.
+ * Replica is fully synchronized by scheduled job and updated after users and roles are changed through Core.
+ * Since the job and changes run only on one node, every node reloads its in-memory index from database periodically.
+ * Auth service is called on lookup only when identity is not present in replica yet.
+ */
+@Component
+public class AuthIdentityReplica {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthIdentityReplica.class);
+
+    private UserManagementApiClient userManagementApiClient;
+    private RoleManagementApiClient roleManagementApiClient;
+    private UserIdentityRepository userIdentityRepository;
+    private RoleIdentityRepository roleIdentityRepository;
+
+    private volatile Index index = Index.EMPTY;
+
+    @Autowired
+    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
+        this.userManagementApiClient = userManagementApiClient;
+    }
+
+    @Autowired
+    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
+        this.roleManagementApiClient = roleManagementApiClient;
+    }
+
+    @Autowired
+    public void setUserIdentityRepository(UserIdentityRepository userIdentityRepository) {
+        this.userIdentityRepository = userIdentityRepository;
+    }
+
+    @Autowired
+    public void setRoleIdentityRepository(RoleIdentityRepository roleIdentityRepository) {
+        this.roleIdentityRepository = roleIdentityRepository;
+    }
+
+    @EventListener({ApplicationReadyEvent.class})
+    @Transactional
+    public synchronized void initialize() {
+        loadIndex();
+        logger.info("Loaded replica of {} users and {} roles", index.users().size(), index.roles().size());
+        if (index.users().isEmpty()) {
+            try {
+                synchronizeReplica();
+            } catch (Exception e) {
+                logger.warn("Unable to synchronize replica of users and roles with Auth service: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get usernames of all users sorted alphabetically
+     *
+     * @return list of usernames
+     */
+    public List<String> getUsernames() {
+        return index.usernames();
+    }
+
+    public List<UserInfo> getUsers() {
+        return List.copyOf(index.users().values());
+    }
+
+    public List<RoleInfo> getRoles() {
+        return List.copyOf(index.roles().values());
+    }
+
+    /**
+     * Find user in replica, Auth service is called only when user is not replicated yet
+     *
+     * @param userUuid UUID of user
+     * @return user identity or empty when user does not exist
+     */
+    public Optional<UserInfo> findUser(UUID userUuid) {
+        UserInfo user = index.users().get(userUuid);
+        if (user != null) {
+            return Optional.of(user);
+        }
+
+        try {
+            UserDetailDto userDetail = userManagementApiClient.getUserDetail(userUuid.toString());
+            return Optional.of(new UserInfo(userUuid, userDetail.getUsername(), userDetail.getEmail()));
+        } catch (Exception e) {
+            logger.debug("User with UUID {} not found in Auth service: {}", userUuid, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Find role in replica, Auth service is called only when role is not replicated yet
+     *
+     * @param roleUuid UUID of role
+     * @return role identity or empty when role does not exist
+     */
+    public Optional<RoleInfo> findRole(UUID roleUuid) {
+        RoleInfo role = index.roles().get(roleUuid);
+        if (role != null) {
+            return Optional.of(role);
+        }
+
+        try {
+            RoleDetailDto roleDetail = roleManagementApiClient.getRoleDetail(roleUuid.toString());
+            return Optional.of(new RoleInfo(roleUuid, roleDetail.getName(), roleDetail.getEmail()));
+        } catch (Exception e) {
+            logger.debug("Role with UUID {} not found in Auth service: {}", roleUuid, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public List<UUID> getRoleUserUuids(UUID roleUuid) {
+        return index.roleUsers().getOrDefault(roleUuid, List.of());
+    }
+
+    public List<UUID> getGroupUserUuids(UUID groupUuid) {
+        return index.groupUsers().getOrDefault(groupUuid, List.of());
+    }
+
+    /**
+     * Reload in-memory index from database, so changes of replica made by other nodes are applied
+     */
+    @Scheduled(fixedDelayString = "${auth.identity-replica.reload-interval:PT1M}", initialDelayString = "${auth.identity-replica.reload-interval:PT1M}")
+    @Transactional(readOnly = true)
+    public synchronized void reloadIndex() {
+        loadIndex();
+        logger.debug("Reloaded replica of {} users and {} roles", index.users().size(), index.roles().size());
+    }
+
+    /**
+     * Synchronize replica with all users and roles of Auth service
+     */
+    @Transactional
+    public synchronized void synchronize() {
+        synchronizeReplica();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public synchronized void handleAuthIdentityChangedEvent(AuthIdentityChangedEvent event) {
+        try {
+            if (event.resource() == Resource.USER) {
+                if (event.removed()) userIdentityRepository.deleteById(event.uuid());
+                else refreshUser(event.uuid());
+            } else if (event.resource() == Resource.ROLE) {
+                if (event.removed()) removeRole(event.uuid());
+                else refreshRole(event.uuid());
+            }
+        } catch (Exception e) {
+            logger.warn("Unable to update replica of {} with UUID {}, it will be updated by next synchronization: {}", event.resource().getLabel(), event.uuid(), e.getMessage());
+            return;
+        }
+        loadIndex();
+    }
+
+    private void loadIndex() {
+        index = Index.build(userIdentityRepository.findAllWithMemberships(), roleIdentityRepository.findAll());
+    }
+
+    private void synchronizeReplica() {
+        long start = System.currentTimeMillis();
+        List<RoleDto> roles = roleManagementApiClient.getRoles().getData();
+        List<UserDto> users = userManagementApiClient.getUsers().getData();
+        Map<UUID, Set<UUID>> userRoles = new HashMap<>();
+        for (RoleDto role : roles) {
+            UUID roleUuid = UUID.fromString(role.getUuid());
+            for (UserDto roleUser : roleManagementApiClient.getRoleUsers(role.getUuid())) {
+                userRoles.computeIfAbsent(UUID.fromString(roleUser.getUuid()), k -> new HashSet<>()).add(roleUuid);
+            }
+        }
+
+        Map<UUID, RoleIdentity> existingRoles = roleIdentityRepository.findAll().stream().collect(Collectors.toMap(RoleIdentity::getUuid, Function.identity()));
+        List<RoleIdentity> roleIdentities = new ArrayList<>();
+        for (RoleDto role : roles) {
+            UUID roleUuid = UUID.fromString(role.getUuid());
+            RoleIdentity roleIdentity = Objects.requireNonNullElseGet(existingRoles.remove(roleUuid), () -> newRoleIdentity(roleUuid));
+            roleIdentity.setName(role.getName());
+            roleIdentity.setEmail(role.getEmail());
+            roleIdentities.add(roleIdentity);
+        }
+        roleIdentities = roleIdentityRepository.saveAll(roleIdentities);
+        roleIdentityRepository.deleteAll(existingRoles.values());
+
+        Map<UUID, UserIdentity> existingUsers = userIdentityRepository.findAllWithMemberships().stream().collect(Collectors.toMap(UserIdentity::getUuid, Function.identity()));
+        List<UserIdentity> userIdentities = new ArrayList<>();
+        for (UserDto user : users) {
+            UUID userUuid = UUID.fromString(user.getUuid());
+            UserIdentity userIdentity = Objects.requireNonNullElseGet(existingUsers.remove(userUuid), () -> newUserIdentity(userUuid));
+            updateUserIdentity(userIdentity, user, userRoles.getOrDefault(userUuid, Set.of()));
+            userIdentities.add(userIdentity);
+        }
+        userIdentities = userIdentityRepository.saveAll(userIdentities);
+        userIdentityRepository.deleteAll(existingUsers.values());
+
+        index = Index.build(userIdentities, roleIdentities);
+        logger.info("Replica of users and roles synchronized with Auth service: {} users, {} roles in {} ms", userIdentities.size(), roleIdentities.size(), System.currentTimeMillis() - start);
+    }
+
+    private void refreshUser(UUID userUuid) {
+        UserDetailDto userDetail = userManagementApiClient.getUserDetail(userUuid.toString());
+        Set<UUID> roleUuids = userManagementApiClient.getUserRoles(userUuid.toString()).stream().map(r -> UUID.fromString(r.getUuid())).collect(Collectors.toSet());
+
+        UserIdentity userIdentity = userIdentityRepository.findById(userUuid).orElseGet(() -> newUserIdentity(userUuid));
+        updateUserIdentity(userIdentity, userDetail, roleUuids);
+        userIdentityRepository.save(userIdentity);
+    }
+
+    private void refreshRole(UUID roleUuid) {
+        RoleDetailDto roleDetail = roleManagementApiClient.getRoleDetail(roleUuid.toString());
+        Set<UUID> userUuids = roleManagementApiClient.getRoleUsers(roleUuid.toString()).stream().map(u -> UUID.fromString(u.getUuid())).collect(Collectors.toSet());
+
+        RoleIdentity roleIdentity = roleIdentityRepository.findById(roleUuid).orElseGet(() -> newRoleIdentity(roleUuid));
+        roleIdentity.setName(roleDetail.getName());
+        roleIdentity.setEmail(roleDetail.getEmail());
+        roleIdentityRepository.save(roleIdentity);
+
+        for (UserIdentity userIdentity : userIdentityRepository.findAllWithMemberships()) {
+            if (userUuids.contains(userIdentity.getUuid())) {
+                userIdentity.getRoleUuids().add(roleUuid);
+            } else {
+                userIdentity.getRoleUuids().remove(roleUuid);
+            }
+        }
+    }
+
+    private void removeRole(UUID roleUuid) {
+        roleIdentityRepository.deleteById(roleUuid);
+        for (UserIdentity userIdentity : userIdentityRepository.findAllWithMemberships()) {
+            userIdentity.getRoleUuids().remove(roleUuid);
+        }
+    }
+
+    private static void updateUserIdentity(UserIdentity userIdentity, UserDto user, Set<UUID> roleUuids) {
+        userIdentity.setUsername(user.getUsername());
+        userIdentity.setEmail(user.getEmail());
+        Set<UUID> groupUuids = user.getGroups() == null ? Set.of() : user.getGroups().stream().map(g -> UUID.fromString(g.getUuid())).collect(Collectors.toSet());
+        // collections are updated in place, so only changed memberships are written
+        userIdentity.getGroupUuids().retainAll(groupUuids);
+        userIdentity.getGroupUuids().addAll(groupUuids);
+        userIdentity.getRoleUuids().retainAll(roleUuids);
+        userIdentity.getRoleUuids().addAll(roleUuids);
+    }
+
+    private static UserIdentity newUserIdentity(UUID userUuid) {
+        UserIdentity userIdentity = new UserIdentity();
+        userIdentity.setUuid(userUuid);
+        return userIdentity;
+    }
+
+    private static RoleIdentity newRoleIdentity(UUID roleUuid) {
+        RoleIdentity roleIdentity = new RoleIdentity();
+        roleIdentity.setUuid(roleUuid);
+        return roleIdentity;
+    }
+
+    public record UserInfo(UUID uuid, String username, String email) {
+    }
+
+    public record RoleInfo(UUID uuid, String name, String email) {
+    }
+
+    private record Index(Map<UUID, UserInfo> users, Map<UUID, RoleInfo> roles, Map<UUID, List<UUID>> roleUsers, Map<UUID, List<UUID>> groupUsers, List<String> usernames) {
+
+        private static final Index EMPTY = new Index(Map.of(), Map.of(), Map.of(), Map.of(), List.of());
+
+        private static Index build(Collection<UserIdentity> userIdentities, Collection<RoleIdentity> roleIdentities) {
+            Map<UUID, UserInfo> users = new HashMap<>();
+            Map<UUID, List<UUID>> roleUsers = new HashMap<>();
+            Map<UUID, List<UUID>> groupUsers = new HashMap<>();
+            for (UserIdentity userIdentity : userIdentities) {
+                users.put(userIdentity.getUuid(), new UserInfo(userIdentity.getUuid(), userIdentity.getUsername(), userIdentity.getEmail()));
+                userIdentity.getRoleUuids().forEach(roleUuid -> roleUsers.computeIfAbsent(roleUuid, k -> new ArrayList<>()).add(userIdentity.getUuid()));
+                userIdentity.getGroupUuids().forEach(groupUuid -> groupUsers.computeIfAbsent(groupUuid, k -> new ArrayList<>()).add(userIdentity.getUuid()));
+            }
+            Map<UUID, RoleInfo> roles = roleIdentities.stream().collect(Collectors.toMap(RoleIdentity::getUuid, r -> new RoleInfo(r.getUuid(), r.getName(), r.getEmail())));
+            List<String> usernames = users.values().stream().map(UserInfo::username).sorted().toList();
+
+            return new Index(Map.copyOf(users), Map.copyOf(roles), copyOfLists(roleUsers), copyOfLists(groupUsers), usernames);
+        }
+
+        private static Map<UUID, List<UUID>> copyOfLists(Map<UUID, List<UUID>> map) {
+            return map.entrySet().stream().collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> List.copyOf(e.getValue())));
+        }
+    }
+}
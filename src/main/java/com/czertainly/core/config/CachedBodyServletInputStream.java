@@ -7,19 +7,36 @@ import java.io.IOException;
 import java.io.InputStream;
 
 public class CachedBodyServletInputStream extends ServletInputStream {
-    private InputStream cachedBodyInputStream;
+    private final InputStream cachedBodyInputStream;
+    private boolean finished;
 
     public CachedBodyServletInputStream(byte[] cachedBody) {
-        this.cachedBodyInputStream = new ByteArrayInputStream(cachedBody);
+        this(new ByteArrayInputStream(cachedBody));
+    }
+
+    public CachedBodyServletInputStream(InputStream cachedBodyInputStream) {
+        this.cachedBodyInputStream = cachedBodyInputStream;
     }
 
     @Override
     public int read() throws IOException {
-        return cachedBodyInputStream.read();
+        int read = cachedBodyInputStream.read();
+        finished = read == -1;
+        return read;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = cachedBodyInputStream.read(b, off, len);
+        finished = read == -1;
+        return read;
     }
 
     @Override
     public boolean isFinished() {
+        if (finished) {
+            return true;
+        }
         try {
             return cachedBodyInputStream.available() == 0;
         } catch (IOException e) {
@@ -36,4 +53,9 @@ public class CachedBodyServletInputStream extends ServletInputStream {
     public void setReadListener(ReadListener listener) {
 
     }
+
+    @Override
+    public void close() throws IOException {
+        cachedBodyInputStream.close();
+    }
 }
@@ -3,47 +3,46 @@ package com.czertainly.core.config;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.WriteListener;
 import java.io.IOException;
-import java.io.OutputStream;
 
 public class CachedBodyServletOutputStream extends ServletOutputStream {
 
-    private final OutputStream outputStream;
+    private final ServletOutputStream outputStream;
     private final CustomHttpServletResponseWrapper wrappedResponse;
-    private final ServletOutputStream servletOutputStream = new ServletOutputStream(){
-        WriteListener writeListener = null;
-
-        @Override
-        public void setWriteListener(WriteListener writeListener) {
-            this.writeListener = writeListener;
-        }
-
-        public boolean isReady(){
-            return true;
-        }
-        @Override
-        public void write(int w) throws IOException {
-            outputStream.write(w);
-            wrappedResponse.rawData.add((byte) w);
-        }
-    };
-
-    public CachedBodyServletOutputStream(CustomHttpServletResponseWrapper wrappedResponse) throws IOException {
-        this.outputStream = wrappedResponse.response.getOutputStream();
+
+    public CachedBodyServletOutputStream(ServletOutputStream outputStream, CustomHttpServletResponseWrapper wrappedResponse) {
+        this.outputStream = outputStream;
         this.wrappedResponse = wrappedResponse;
     }
 
-
     @Override
     public void setWriteListener(WriteListener writeListener) {
-        servletOutputStream.setWriteListener( writeListener );
+        outputStream.setWriteListener(writeListener);
     }
+
     @Override
-    public boolean isReady(){
-        return servletOutputStream.isReady();
+    public boolean isReady() {
+        return outputStream.isReady();
     }
 
     @Override
     public void write(int w) throws IOException {
-        servletOutputStream.write(w);
+        outputStream.write(w);
+        wrappedResponse.capture(w);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        outputStream.write(b, off, len);
+        wrappedResponse.capture(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        outputStream.close();
     }
 }
@@ -1,31 +1,93 @@
 package com.czertainly.core.config;
 
-import org.springframework.util.StreamUtils;
-
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
+
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
-public class CustomHttpServletRequestWrapper extends HttpServletRequestWrapper {
+/**
+ * Request with cached body that can be read repeatedly, e.g. for tracing of protocol messages. Bodies up to memory threshold
+ * are kept in memory, larger bodies are spooled to temporary file that is deleted when the wrapper is closed.
+ */
+public class CustomHttpServletRequestWrapper extends HttpServletRequestWrapper implements Closeable {
 
-    private byte[] cachedBody;
+    private static final int BUFFER_SIZE = 8192;
 
-    public CustomHttpServletRequestWrapper(HttpServletRequest request) throws IOException {
+    private final byte[] cachedBody;
+    private final Path spooledBody;
+
+    public CustomHttpServletRequestWrapper(HttpServletRequest request, long memoryThreshold, long maxBodySize) throws IOException {
         super(request);
-        InputStream requestInputStream = request.getInputStream();
-        this.cachedBody = StreamUtils.copyToByteArray(requestInputStream);
+        if (request.getContentLengthLong() > maxBodySize) {
+            throw new RequestBodyTooLargeException(maxBodySize);
+        }
+
+        long contentLength = request.getContentLengthLong();
+        ByteArrayOutputStream memoryBody = new ByteArrayOutputStream(contentLength > 0 && contentLength <= memoryThreshold ? (int) contentLength : BUFFER_SIZE);
+        Path spooledFile = null;
+        OutputStream body = memoryBody;
+        try {
+            InputStream requestInputStream = request.getInputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long bodySize = 0;
+            int read;
+            while ((read = requestInputStream.read(buffer)) != -1) {
+                bodySize += read;
+                if (bodySize > maxBodySize) {
+                    throw new RequestBodyTooLargeException(maxBodySize);
+                }
+                if (spooledFile == null && bodySize > memoryThreshold) {
+                    spooledFile = Files.createTempFile("czertainly-request-", ".body");
+                    body = new BufferedOutputStream(Files.newOutputStream(spooledFile), BUFFER_SIZE);
+                    memoryBody.writeTo(body);
+                    memoryBody = null;
+                }
+                body.write(buffer, 0, read);
+            }
+            body.close();
+        } catch (IOException e) {
+            if (spooledFile != null) {
+                body.close();
+                Files.deleteIfExists(spooledFile);
+            }
+            throw e;
+        }
+
+        this.cachedBody = spooledFile == null ? memoryBody.toByteArray() : null;
+        this.spooledBody = spooledFile;
+    }
+
+    public boolean isSpooled() {
+        return spooledBody != null;
     }
 
     @Override
     public ServletInputStream getInputStream() throws IOException {
-        return new CachedBodyServletInputStream(this.cachedBody);
+        return spooledBody == null
+                ? new CachedBodyServletInputStream(this.cachedBody)
+                : new CachedBodyServletInputStream(new BufferedInputStream(Files.newInputStream(spooledBody), BUFFER_SIZE));
     }
 
     @Override
     public BufferedReader getReader() throws IOException {
-        ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(this.cachedBody);
-        return new BufferedReader(new InputStreamReader(byteArrayInputStream));
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(getInputStream(), encoding != null ? Charset.forName(encoding) : Charset.defaultCharset()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spooledBody != null) {
+            Files.deleteIfExists(spooledBody);
+        }
     }
-}
 
+    public static class RequestBodyTooLargeException extends IOException {
+        public RequestBodyTooLargeException(long maxBodySize) {
+            super("Request body exceeds maximum size of %d bytes".formatted(maxBodySize));
+        }
+    }
+}
@@ -3,35 +3,74 @@ package com.czertainly.core.config;
 import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.Charset;
 
+/**
+ * Response that keeps copy of the beginning of the body written to the client, up to capture limit, e.g. for tracing of protocol messages
+ */
 public class CustomHttpServletResponseWrapper extends HttpServletResponseWrapper {
 
-    public List<Byte> rawData = new ArrayList<>();
-    public HttpServletResponse response;
+    private final ByteArrayOutputStream capturedBody = new ByteArrayOutputStream();
+    private final int captureLimit;
     private CachedBodyServletOutputStream servletStream;
+    private PrintWriter writer;
 
-    CustomHttpServletResponseWrapper(HttpServletResponse response) throws IOException {
+    CustomHttpServletResponseWrapper(HttpServletResponse response, int captureLimit) {
         super(response);
-        this.response = response;
-        this.servletStream = new CachedBodyServletOutputStream(this);
+        this.captureLimit = captureLimit;
     }
 
     @Override
     public ServletOutputStream getOutputStream() throws IOException {
+        if (servletStream == null) {
+            servletStream = new CachedBodyServletOutputStream(getResponse().getOutputStream(), this);
+        }
         return servletStream;
     }
+
+    @Override
     public PrintWriter getWriter() throws IOException {
-        String encoding = getCharacterEncoding();
-        if ( encoding != null ) {
-            return new PrintWriter(new OutputStreamWriter(servletStream, encoding));
-        } else {
-            return new PrintWriter(new OutputStreamWriter(servletStream));
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), encoding != null ? Charset.forName(encoding) : Charset.defaultCharset()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
         }
+        super.flushBuffer();
     }
 
+    /**
+     * Get captured beginning of the response body
+     *
+     * @return captured bytes, at most capture limit of them
+     */
+    public byte[] getCapturedBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return capturedBody.toByteArray();
+    }
+
+    void capture(int b) {
+        if (capturedBody.size() < captureLimit) {
+            capturedBody.write(b);
+        }
+    }
+
+    void capture(byte[] b, int off, int len) {
+        int remaining = captureLimit - capturedBody.size();
+        if (remaining > 0) {
+            capturedBody.write(b, off, Math.min(len, remaining));
+        }
+    }
 }
@@ -8,8 +8,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
@@ -18,6 +20,16 @@ import java.io.IOException;
 @Component
 public class ProtocolValidationFilter extends OncePerRequestFilter {
 
+    private static final String PROTOCOLS_PATH_PREFIX = "/api/v1/protocols/";
+
+    // maximum size of body of protocol request, larger requests are rejected
+    @Value("${protocol.request.max-body-size:10MB}")
+    private DataSize maxBodySize;
+
+    // bodies of protocol requests above the threshold are spooled to temporary file instead of memory
+    @Value("${protocol.request.memory-threshold:64KB}")
+    private DataSize memoryThreshold;
+
     private HandlerExceptionResolver resolver;
 
     private AuthHelper authHelper;
@@ -32,30 +44,52 @@ public class ProtocolValidationFilter extends OncePerRequestFilter {
         this.resolver = resolver;
     }
 
+    public void setMaxBodySize(DataSize maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    public void setMemoryThreshold(DataSize memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain filterChain) throws ServletException, IOException {
 
-        CustomHttpServletRequestWrapper requestWrapper = new CustomHttpServletRequestWrapper(request);
-        CustomHttpServletResponseWrapper responseWrapper = new CustomHttpServletResponseWrapper(response);
         String requestUri = request.getRequestURI();
 
-        if (!requestUri.startsWith("/api/v1/protocols/")) {
-            filterChain.doFilter(requestWrapper, responseWrapper);
+        if (!requestUri.startsWith(PROTOCOLS_PATH_PREFIX)) {
+            // body of other requests is not cached and is streamed directly to controllers
+            filterChain.doFilter(request, response);
         } else if (requestUri.startsWith("/api/v1/protocols/scep/")) {
             logger.info("SCEP Request from " + request.getRemoteAddr() + " for " + requestUri);
             authHelper.authenticateAsSystemUser(AuthHelper.SCEP_USERNAME);
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            doFilterWithCachedBody(request, response, filterChain);
         } else if (requestUri.startsWith("/api/v1/protocols/acme/")) {
             logger.info("ACME Request from " + request.getRemoteAddr() + " for " + requestUri);
             authHelper.authenticateAsSystemUser(AuthHelper.ACME_USERNAME);
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            doFilterWithCachedBody(request, response, filterChain);
         } else if (requestUri.startsWith("/api/v1/protocols/cmp/")) {
             logger.info("CMPv2 Request from " + request.getRemoteAddr() + " for " + requestUri);
             authHelper.authenticateAsSystemUser(AuthHelper.CMP_USERNAME);
-            filterChain.doFilter(requestWrapper, responseWrapper);
+            doFilterWithCachedBody(request, response, filterChain);
         } else {
             resolver.resolveException(request, response, null, new ValidationException("Invalid protocol request"));
         }
 
     }
+
+    private void doFilterWithCachedBody(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        CustomHttpServletRequestWrapper requestWrapper;
+        try {
+            requestWrapper = new CustomHttpServletRequestWrapper(request, memoryThreshold.toBytes(), maxBodySize.toBytes());
+        } catch (CustomHttpServletRequestWrapper.RequestBodyTooLargeException e) {
+            logger.warn("Protocol request from " + request.getRemoteAddr() + " for " + request.getRequestURI() + " rejected: " + e.getMessage());
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, e.getMessage());
+            return;
+        }
+
+        try (requestWrapper) {
+            filterChain.doFilter(requestWrapper, new CustomHttpServletResponseWrapper(response, (int) Math.min(memoryThreshold.toBytes(), Integer.MAX_VALUE)));
+        }
+    }
 }
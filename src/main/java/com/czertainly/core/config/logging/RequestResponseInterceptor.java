@@ -1,5 +1,6 @@
 package com.czertainly.core.config.logging;
 
+import com.czertainly.core.config.CustomHttpServletRequestWrapper;
 import com.czertainly.core.config.CustomHttpServletResponseWrapper;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
@@ -13,6 +14,7 @@ import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -31,7 +33,9 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
         if (logger.isTraceEnabled()) {
-            String body = servletInputStreamToString(request.getInputStream());
+            // only cached bodies of protocol requests can be read here, body of other requests is left for controller
+            CustomHttpServletRequestWrapper cachedRequest = WebUtils.getNativeRequest(request, CustomHttpServletRequestWrapper.class);
+            String body = cachedRequest == null ? "<not cached>" : cachedRequest.isSpooled() ? "<spooled to file>" : servletInputStreamToString(cachedRequest.getInputStream());
             ToStringBuilder traceMessage = new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
                     .append("METHOD", request.getMethod())
                     .append("PATH", request.getRequestURI())
@@ -51,12 +55,8 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
     public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
                            @Nullable ModelAndView modelAndView) throws Exception {
         if (logger.isTraceEnabled()) {
-            String responseBody;
-            try {
-                responseBody = getResponseAsString((CustomHttpServletResponseWrapper) response);
-            } catch (ClassCastException e) {
-                responseBody = "";
-            }
+            CustomHttpServletResponseWrapper cachedResponse = WebUtils.getNativeResponse(response, CustomHttpServletResponseWrapper.class);
+            String responseBody = cachedResponse == null ? "" : getResponseAsString(cachedResponse);
             List<String> responseHeaders = response.getHeaderNames().stream()
                     .map(r -> r + " : " + response.getHeaders(r)).collect(Collectors.toList());
             ToStringBuilder traceMessage = new ToStringBuilder(this, ToStringStyle.NO_CLASS_NAME_STYLE)
@@ -71,12 +71,7 @@ public class RequestResponseInterceptor implements HandlerInterceptor {
     }
 
     public String getResponseAsString(CustomHttpServletResponseWrapper wrappedResponse) {
-        byte[] data = new byte[wrappedResponse.rawData.size()];
-        for (int i = 0; i < data.length; i++) {
-            data[i] = wrappedResponse.rawData.get(i);
-        }
-        String responseBody = new String(data);
-        return responseBody;
+        return new String(wrappedResponse.getCapturedBody());
     }
 
     private String servletInputStreamToString(ServletInputStream stream) throws IOException {
@@ -0,0 +1,85 @@
+package com.czertainly.core.connector;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Circuit breaker of communication with one connector. After configured number of consecutive communication failures
+ * the circuit is opened and requests to connector are rejected without calling it until open duration elapses.
+ * Then one probe request is let through, its success closes the circuit again, its failure opens it for another period.
+ */
+public class ConnectorCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private Instant openedAt;
+    private boolean probeInProgress;
+
+    public ConnectorCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * Checks if request to connector can be sent
+     *
+     * @return true if request can be sent, false if circuit is open and request should fail fast
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            state = State.HALF_OPEN;
+            probeInProgress = false;
+        }
+
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInProgress) {
+                    yield false;
+                }
+                probeInProgress = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        openedAt = null;
+        probeInProgress = false;
+    }
+
+    public synchronized void recordFailure() {
+        ++consecutiveFailures;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.instant();
+            probeInProgress = false;
+        }
+    }
+
+    /**
+     * Records call that neither proved nor disproved availability of connector, probe of half open circuit can be sent again
+     */
+    public synchronized void recordIgnored() {
+        probeInProgress = false;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
@@ -0,0 +1,235 @@
+package com.czertainly.core.connector;
+
+import com.czertainly.api.clients.AttributeApiClient;
+import com.czertainly.api.clients.ConnectorApiClient;
+import com.czertainly.api.clients.HealthApiClient;
+import com.czertainly.api.exception.ConnectorCommunicationException;
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.model.client.connector.InfoResponse;
+import com.czertainly.api.model.common.HealthDto;
+import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.api.model.core.connector.FunctionGroupCode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Per connector cache of metadata retrieved from connectors (supported function groups with endpoints and attribute definitions)
+ * together with circuit breaker of each connector. Cached metadata expire after configured time and are refreshed
+ * when connector is reconnected, edited or its health is checked.
+ */
+@Component
+public class ConnectorMetadataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectorMetadataCache.class);
+
+    @Value("${connector.metadata-cache.ttl:PT10M}")
+    private Duration cacheTtl;
+
+    @Value("${connector.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${connector.circuit-breaker.open-duration:PT30S}")
+    private Duration openDuration;
+
+    @Autowired
+    private ConnectorApiClient connectorApiClient;
+    @Autowired
+    private AttributeApiClient attributeApiClient;
+    @Autowired
+    private HealthApiClient healthApiClient;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<UUID, ConnectorMetadata> connectorsMetadata = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    public interface ConnectorCall<T> {
+        T call() throws ConnectorException;
+    }
+
+    /**
+     * Executes call to connector guarded by its circuit breaker. Only communication failures (connector unreachable,
+     * timeouts) count as failures, error responses of connector mean the connector is available.
+     *
+     * @param connector connector to call
+     * @param call      call to connector
+     * @return result of the call
+     * @throws ConnectorException when call fails or circuit of connector is open
+     */
+    public <T> T execute(ConnectorDto connector, ConnectorCall<T> call) throws ConnectorException {
+        return execute(connector, call, false);
+    }
+
+    private <T> T execute(ConnectorDto connector, ConnectorCall<T> call, boolean ignoreOpenCircuit) throws ConnectorException {
+        UUID connectorUuid = getConnectorUuid(connector);
+        if (connectorUuid == null) {
+            return call.call();
+        }
+
+        ConnectorCircuitBreaker circuitBreaker = getConnectorMetadata(connectorUuid).circuitBreaker;
+        if (!circuitBreaker.allowRequest() && !ignoreOpenCircuit) {
+            throw new ConnectorCommunicationException("Connector is not available, requests are suspended after repeated communication failures.", connector);
+        }
+
+        try {
+            T result = call.call();
+            circuitBreaker.recordSuccess();
+            return result;
+        } catch (ConnectorCommunicationException e) {
+            recordFailure(connector, circuitBreaker, e);
+            throw e;
+        } catch (RuntimeException e) {
+            // runtime exceptions of client not caused by communication are failures of caller or mapping of response, not of connector
+            if (isCommunicationFailure(e)) {
+                recordFailure(connector, circuitBreaker, e);
+            } else {
+                circuitBreaker.recordIgnored();
+            }
+            throw e;
+        } catch (ConnectorException e) {
+            circuitBreaker.recordSuccess();
+            throw e;
+        }
+    }
+
+    private void recordFailure(ConnectorDto connector, ConnectorCircuitBreaker circuitBreaker, Exception e) {
+        circuitBreaker.recordFailure();
+        if (circuitBreaker.getState() == ConnectorCircuitBreaker.State.OPEN) {
+            logger.warn("Circuit of connector {} is open after communication failure: {}", connector.getName(), e.getMessage());
+        }
+    }
+
+    private static boolean isCommunicationFailure(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientRequestException || cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public List<InfoResponse> getSupportedFunctions(ConnectorDto connector) throws ConnectorException {
+        UUID connectorUuid = getConnectorUuid(connector);
+        if (connectorUuid != null) {
+            CachedValue<List<InfoResponse>> cachedFunctions = getConnectorMetadata(connectorUuid).supportedFunctions;
+            if (isValid(cachedFunctions)) {
+                return cachedFunctions.value();
+            }
+        }
+        return refreshSupportedFunctions(connector);
+    }
+
+    /**
+     * Loads supported functions from connector regardless of cached value and drops cached attribute definitions of connector
+     *
+     * @param connector connector
+     * @return functions supported by connector
+     * @throws ConnectorException when functions could not be retrieved from connector
+     */
+    public List<InfoResponse> refreshSupportedFunctions(ConnectorDto connector) throws ConnectorException {
+        List<InfoResponse> functions = execute(connector, () -> connectorApiClient.listSupportedFunctions(connector));
+        UUID connectorUuid = getConnectorUuid(connector);
+        if (connectorUuid != null) {
+            ConnectorMetadata connectorMetadata = getConnectorMetadata(connectorUuid);
+            connectorMetadata.attributeDefinitions.clear();
+            connectorMetadata.supportedFunctions = new CachedValue<>(functions == null ? List.of() : List.copyOf(functions), clock.instant());
+        }
+        return functions;
+    }
+
+    public List<BaseAttribute> getAttributeDefinitions(ConnectorDto connector, FunctionGroupCode functionGroup, String kind) throws ConnectorException {
+        UUID connectorUuid = getConnectorUuid(connector);
+        if (connectorUuid == null) {
+            return attributeApiClient.listAttributeDefinitions(connector, functionGroup, kind);
+        }
+
+        String key = functionGroup.name() + "|" + kind;
+        ConnectorMetadata connectorMetadata = getConnectorMetadata(connectorUuid);
+        CachedValue<List<BaseAttribute>> cachedDefinitions = connectorMetadata.attributeDefinitions.get(key);
+        if (isValid(cachedDefinitions)) {
+            return cachedDefinitions.value();
+        }
+
+        List<BaseAttribute> definitions = execute(connector, () -> attributeApiClient.listAttributeDefinitions(connector, functionGroup, kind));
+        connectorMetadata.attributeDefinitions.put(key, new CachedValue<>(definitions == null ? List.of() : List.copyOf(definitions), clock.instant()));
+        return definitions;
+    }
+
+    /**
+     * Checks health of connector. Health check is sent even when circuit of connector is open and its result updates
+     * the circuit, cached metadata of connector are dropped to be refreshed on next use.
+     *
+     * @param connector connector
+     * @return health of connector
+     * @throws ConnectorException when health could not be retrieved from connector
+     */
+    public HealthDto checkHealth(ConnectorDto connector) throws ConnectorException {
+        UUID connectorUuid = getConnectorUuid(connector);
+        if (connectorUuid != null) {
+            evictMetadata(connectorUuid);
+        }
+        return execute(connector, () -> healthApiClient.checkHealth(connector), true);
+    }
+
+    /**
+     * Drops cached metadata of connector, circuit breaker state is kept
+     *
+     * @param connectorUuid UUID of connector
+     */
+    public void evictMetadata(UUID connectorUuid) {
+        ConnectorMetadata connectorMetadata = connectorsMetadata.get(connectorUuid);
+        if (connectorMetadata != null) {
+            connectorMetadata.supportedFunctions = null;
+            connectorMetadata.attributeDefinitions.clear();
+        }
+    }
+
+    /**
+     * Removes all state kept for connector, used when connector is deleted
+     *
+     * @param connectorUuid UUID of connector
+     */
+    public void remove(UUID connectorUuid) {
+        connectorsMetadata.remove(connectorUuid);
+    }
+
+    private ConnectorMetadata getConnectorMetadata(UUID connectorUuid) {
+        return connectorsMetadata.computeIfAbsent(connectorUuid, uuid -> new ConnectorMetadata(new ConnectorCircuitBreaker(failureThreshold, openDuration, clock)));
+    }
+
+    private boolean isValid(CachedValue<?> cachedValue) {
+        return cachedValue != null && clock.instant().isBefore(cachedValue.loadedAt().plus(cacheTtl));
+    }
+
+    private static UUID getConnectorUuid(ConnectorDto connector) {
+        return connector.getUuid() == null || connector.getUuid().isBlank() ? null : UUID.fromString(connector.getUuid());
+    }
+
+    private record CachedValue<T>(T value, Instant loadedAt) {
+    }
+
+    private static class ConnectorMetadata {
+        private final ConnectorCircuitBreaker circuitBreaker;
+        private final Map<String, CachedValue<List<BaseAttribute>>> attributeDefinitions = new ConcurrentHashMap<>();
+        private volatile CachedValue<List<InfoResponse>> supportedFunctions;
+
+        private ConnectorMetadata(ConnectorCircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+    }
+}
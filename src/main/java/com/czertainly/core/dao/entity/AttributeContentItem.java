@@ -1,6 +1,9 @@
 package com.czertainly.core.dao.entity;
 
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
 import com.czertainly.api.model.common.attribute.v2.content.BaseAttributeContent;
+import com.czertainly.core.util.AttributeContentHashUtil;
+import com.czertainly.core.util.AttributeContentSearchValues;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
@@ -10,6 +13,9 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
 import org.hibernate.type.SqlTypes;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
@@ -34,6 +40,34 @@ public class AttributeContentItem extends UniquelyIdentified {
     @JdbcTypeCode(SqlTypes.JSON)
     private BaseAttributeContent<?> json;
 
+    @Setter(AccessLevel.NONE)
+    @Column(name = "json_hash")
+    private String jsonHash;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "string_value")
+    private String stringValue;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "number_value")
+    private Double numberValue;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "date_value")
+    private LocalDate dateValue;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "time_value")
+    private LocalTime timeValue;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "datetime_value")
+    private OffsetDateTime datetimeValue;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "boolean_value")
+    private Boolean booleanValue;
+
     @JsonBackReference
     @OneToMany(mappedBy = "attributeContentItem", fetch = FetchType.LAZY)
     @ToString.Exclude
@@ -44,6 +78,26 @@ public class AttributeContentItem extends UniquelyIdentified {
         this.attributeDefinitionUuid = attributeDefinition.getUuid();
     }
 
+    public void setJson(BaseAttributeContent<?> json) {
+        this.json = json;
+        this.jsonHash = AttributeContentHashUtil.hash(json);
+    }
+
+    /**
+     * Fills typed search columns from JSON of content item. Needs to be called after JSON is set.
+     *
+     * @param contentType content type of attribute definition of content item
+     */
+    public void setSearchValues(AttributeContentType contentType) {
+        AttributeContentSearchValues searchValues = AttributeContentSearchValues.fromContent(json, contentType);
+        this.stringValue = searchValues.stringValue();
+        this.numberValue = searchValues.numberValue();
+        this.dateValue = searchValues.dateValue();
+        this.timeValue = searchValues.timeValue();
+        this.datetimeValue = searchValues.datetimeValue();
+        this.booleanValue = searchValues.booleanValue();
+    }
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
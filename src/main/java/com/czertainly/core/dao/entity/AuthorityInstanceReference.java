@@ -11,6 +11,7 @@ import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -36,6 +37,9 @@ public class AuthorityInstanceReference extends UniquelyIdentifiedAndAudited imp
     @Column(name = "status")
     private String status;
 
+    @Column(name = "status_updated_at")
+    private OffsetDateTime statusUpdatedAt;
+
     @Column(name = "kind")
     private String kind;
 
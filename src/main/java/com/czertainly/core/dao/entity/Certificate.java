@@ -195,6 +195,9 @@ public class Certificate extends UniquelyIdentifiedAndAudited implements Seriali
     @Column(name = "source_certificate_uuid")
     private UUID sourceCertificateUuid;
 
+    @Column(name = "issuance_batch_uuid")
+    private UUID issuanceBatchUuid;
+
     @Column(name = "trusted_ca")
     private Boolean trustedCa;
 
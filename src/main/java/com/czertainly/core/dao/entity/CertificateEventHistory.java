@@ -50,7 +50,7 @@ public class CertificateEventHistory extends UniquelyIdentifiedAndAudited implem
     @Override
     public CertificateEventHistoryDto mapToDto(){
         CertificateEventHistoryDto certificateEventHistoryDto = new CertificateEventHistoryDto();
-        certificateEventHistoryDto.setCertificateUuid(certificate.getUuid().toString());
+        certificateEventHistoryDto.setCertificateUuid(certificateUuid.toString());
         certificateEventHistoryDto.setEvent(event);
         try {
             certificateEventHistoryDto.setAdditionalInformation(
@@ -10,6 +10,7 @@ import lombok.*;
 import org.hibernate.proxy.HibernateProxy;
 
 import java.io.Serializable;
+import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -32,6 +33,9 @@ public class EntityInstanceReference extends UniquelyIdentifiedAndAudited implem
     @Column(name = "status")
     private String status;
 
+    @Column(name = "status_updated_at")
+    private OffsetDateTime statusUpdatedAt;
+
     @Column(name = "kind")
     private String kind;
 
@@ -38,7 +38,10 @@ public class Notification extends UniquelyIdentified {
 
     public NotificationDto mapToDto() {
         Optional<NotificationRecipient> notificationRecipient = this.notificationRecipients.stream().findFirst();
+        return mapToDto(notificationRecipient.map(NotificationRecipient::getReadAt).orElse(null));
+    }
 
+    public NotificationDto mapToDto(Date readAt) {
         NotificationDto dto = new NotificationDto();
         dto.setUuid(this.getUuid());
         dto.setMessage(this.message);
@@ -48,7 +51,7 @@ public class Notification extends UniquelyIdentified {
         if (this.targetObjectIdentification != null) {
             dto.setTargetObjectIdentification(List.of(this.targetObjectIdentification.split(",")));
         }
-        notificationRecipient.ifPresent(recipient -> dto.setReadAt(recipient.getReadAt()));
+        dto.setReadAt(readAt);
         return dto;
     }
 
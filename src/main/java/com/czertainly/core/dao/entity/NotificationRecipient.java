@@ -22,6 +22,9 @@ public class NotificationRecipient extends UniquelyIdentified {
     @Column(name = "user_uuid", nullable = false)
     private UUID userUuid;
 
+    @Column(name = "sent_at", nullable = false)
+    private Date sentAt;
+
     @Column(name = "read_at")
     private Date readAt;
 
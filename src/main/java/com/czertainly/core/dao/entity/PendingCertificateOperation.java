@@ -0,0 +1,59 @@
+package com.czertainly.core.dao.entity;
+
+import com.czertainly.api.model.connector.v2.CertificateDataResponseDto;
+import com.czertainly.core.model.auth.ResourceAction;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.SqlTypes;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "pending_certificate_operation")
+public class PendingCertificateOperation extends UniquelyIdentified {
+
+    @Column(name = "certificate_uuid", nullable = false)
+    private UUID certificateUuid;
+
+    @Column(name = "operation", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private ResourceAction operation;
+
+    @Column(name = "authority_instance_reference_uuid")
+    private UUID authorityInstanceReferenceUuid;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "authority_completed_at")
+    private OffsetDateTime authorityCompletedAt;
+
+    @Column(name = "authority_response", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @ToString.Exclude
+    private CertificateDataResponseDto authorityResponse;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        PendingCertificateOperation that = (PendingCertificateOperation) o;
+        return getUuid() != null && Objects.equals(getUuid(), that.getUuid());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
@@ -48,6 +48,12 @@ public class ScheduledJobHistory extends UniquelyIdentified {
     @Column(name = "result_object_identification")
     private String resultObjectIdentification;
 
+    @Column(name = "checkpoint")
+    private String checkpoint;
+
+    @Column(name = "processed_items", nullable = false)
+    private int processedItems;
+
     public ScheduledJobHistoryDto mapToDto() {
         final ScheduledJobHistoryDto schedulerJobHistoryDto = new ScheduledJobHistoryDto();
         schedulerJobHistoryDto.setJobUuid(this.uuid);
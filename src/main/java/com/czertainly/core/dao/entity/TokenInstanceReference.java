@@ -2,6 +2,7 @@ package com.czertainly.core.dao.entity;
 
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
+import com.czertainly.api.model.connector.cryptography.token.TokenInstanceStatusDto;
 import com.czertainly.api.model.core.cryptography.token.TokenInstanceDetailDto;
 import com.czertainly.api.model.core.cryptography.token.TokenInstanceDto;
 import com.czertainly.api.model.core.cryptography.token.TokenInstanceStatusDetailDto;
@@ -11,9 +12,12 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.SqlTypes;
 
 import java.io.Serializable;
+import java.time.OffsetDateTime;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
@@ -37,6 +41,14 @@ public class TokenInstanceReference extends UniquelyIdentifiedAndAudited impleme
     @Enumerated(EnumType.STRING)
     private TokenInstanceStatus status;
 
+    @Column(name = "status_detail", columnDefinition = "jsonb")
+    @JdbcTypeCode(SqlTypes.JSON)
+    @ToString.Exclude
+    private TokenInstanceStatusDto statusDetail;
+
+    @Column(name = "status_updated_at")
+    private OffsetDateTime statusUpdatedAt;
+
     @Column(name = "kind")
     private String kind;
 
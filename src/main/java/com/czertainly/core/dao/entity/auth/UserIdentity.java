@@ -0,0 +1,57 @@
+package com.czertainly.core.dao.entity.auth;
+
+import com.czertainly.core.dao.entity.UniquelyIdentified;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Local replica of user identity managed by Auth service
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "user_identity")
+public class UserIdentity extends UniquelyIdentified {
+
+    @Column(name = "username", nullable = false)
+    private String username;
+
+    @Column(name = "email")
+    private String email;
+
+    @ElementCollection
+    @CollectionTable(name = "user_identity_role", joinColumns = @JoinColumn(name = "user_uuid"))
+    @Column(name = "role_uuid", nullable = false)
+    @ToString.Exclude
+    private Set<UUID> roleUuids = new HashSet<>();
+
+    @ElementCollection
+    @CollectionTable(name = "user_identity_group", joinColumns = @JoinColumn(name = "user_uuid"))
+    @Column(name = "group_uuid", nullable = false)
+    @ToString.Exclude
+    private Set<UUID> groupUuids = new HashSet<>();
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        UserIdentity that = (UserIdentity) o;
+        return getUuid() != null && Objects.equals(getUuid(), that.getUuid());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
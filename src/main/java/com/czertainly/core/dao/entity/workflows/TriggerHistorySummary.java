@@ -0,0 +1,65 @@
+package com.czertainly.core.dao.entity.workflows;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.UniquelyIdentified;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.proxy.HibernateProxy;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Aggregated results of triggers evaluated for trigger association object (e.g. discovery), stored instead of trigger histories of individual objects
+ */
+@Getter
+@Setter
+@ToString
+@RequiredArgsConstructor
+@Entity
+@Table(name = "trigger_history_summary")
+public class TriggerHistorySummary extends UniquelyIdentified {
+
+    @Column(name = "trigger_association_resource", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Resource triggerAssociationResource;
+
+    @Column(name = "trigger_association_object_uuid", nullable = false)
+    private UUID triggerAssociationObjectUuid;
+
+    @Column(name = "objects_resource", nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Resource objectsResource;
+
+    @Column(name = "objects_evaluated", nullable = false)
+    private int objectsEvaluated;
+
+    @Column(name = "objects_matched", nullable = false)
+    private int objectsMatched;
+
+    @Column(name = "objects_ignored", nullable = false)
+    private int objectsIgnored;
+
+    @Column(name = "objects_failed", nullable = false)
+    private int objectsFailed;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Override
+    public final boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null) return false;
+        Class<?> oEffectiveClass = o instanceof HibernateProxy ? ((HibernateProxy) o).getHibernateLazyInitializer().getPersistentClass() : o.getClass();
+        Class<?> thisEffectiveClass = this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass() : this.getClass();
+        if (thisEffectiveClass != oEffectiveClass) return false;
+        TriggerHistorySummary that = (TriggerHistorySummary) o;
+        return getUuid() != null && Objects.equals(getUuid(), that.getUuid());
+    }
+
+    @Override
+    public final int hashCode() {
+        return this instanceof HibernateProxy ? ((HibernateProxy) this).getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+    }
+}
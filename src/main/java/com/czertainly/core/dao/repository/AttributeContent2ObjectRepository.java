@@ -5,6 +5,7 @@ import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContent;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentDetail;
+import com.czertainly.core.attribute.engine.records.ObjectAttributeContentProjection;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent;
 import com.czertainly.core.dao.entity.AttributeContent2Object;
 import com.czertainly.core.model.SearchFieldObject;
@@ -12,6 +13,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +22,8 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
 
     List<AttributeContent2Object> getByConnectorUuidAndAttributeContentItemUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(UUID connectorUuid, UUID attributeContentItemUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
 
+    List<AttributeContent2Object> findByAttributeContentItemUuidInAndObjectUuidIn(Collection<UUID> attributeContentItemUuids, Collection<UUID> objectUuids);
+
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContent(
                 ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json)
@@ -95,6 +99,21 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
             """)
     List<ObjectAttributeContentDetail> getObjectAttributeContentDetail(AttributeType attributeType, UUID connectorUuid, String operation, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
 
+    @Query("""
+            SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeContentProjection(
+                aco.objectUuid, ad.uuid, ad.attributeUuid, ad.name, ad.label, ad.type, ad.contentType, aci.json, aco.connectorUuid, c.name, aco.sourceObjectType, aco.sourceObjectUuid, aco.sourceObjectName)
+                FROM AttributeContent2Object aco
+                LEFT JOIN Connector c ON c.uuid = aco.connectorUuid
+                JOIN AttributeContentItem aci ON aci.uuid = aco.attributeContentItemUuid
+                JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid
+                WHERE ad.type IN (?1) AND (ad.type <> ?2 OR ad.enabled = true)
+                    AND (CAST(?3 AS java.util.UUID) IS NULL OR aco.connectorUuid = ?3)
+                    AND aco.objectType = ?4 AND aco.objectUuid IN (?5)
+                    AND (?6 IS NULL OR aco.sourceObjectType = ?6) AND (CAST(?7 AS java.util.UUID) IS NULL OR aco.sourceObjectUuid = ?7)
+                ORDER BY aco.objectUuid, aci.attributeDefinitionUuid, aco.order
+            """)
+    List<ObjectAttributeContentProjection> getObjectsAttributeContentProjection(Collection<AttributeType> attributeTypes, AttributeType enabledOnlyAttributeType, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids, Resource sourceObjectType, UUID sourceObjectUuid);
+
     @Query("""
             SELECT new com.czertainly.core.attribute.engine.records.ObjectAttributeDefinitionContent(
                 ad.attributeUuid, ad.definition, aci.json)
@@ -120,4 +139,13 @@ public interface AttributeContent2ObjectRepository extends SecurityFilterReposit
     long deleteByAttributeContentItemAttributeDefinitionTypeAndConnectorUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(AttributeType attributeType, UUID connectorUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
     long deleteByAttributeContentItemAttributeDefinitionTypeAndAttributeContentItemAttributeDefinitionOperationAndConnectorUuidAndObjectTypeAndObjectUuidAndSourceObjectTypeAndSourceObjectUuid(AttributeType attributeType, String operation, UUID connectorUuid, Resource objectType, UUID objectUuid, Resource sourceObjectType, UUID sourceObjectUuid);
 
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            DELETE FROM AttributeContent2Object aco
+                WHERE (aco.connectorUuid = ?2 OR (CAST(?2 AS java.util.UUID) IS NULL AND aco.connectorUuid IS NULL)) AND aco.objectType = ?3 AND aco.objectUuid IN (?4) AND aco.sourceObjectType IS NULL
+                    AND aco.attributeContentItemUuid IN (
+                        SELECT aci.uuid FROM AttributeContentItem aci JOIN AttributeDefinition ad ON ad.uuid = aci.attributeDefinitionUuid WHERE ad.type = ?1)
+            """)
+    int deleteObjectsAttributeContent(AttributeType attributeType, UUID connectorUuid, Resource objectType, Collection<UUID> objectUuids);
+
 }
@@ -6,6 +6,8 @@ import com.czertainly.core.dao.entity.AttributeContentItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +16,8 @@ public interface AttributeContentItemRepository extends JpaRepository<AttributeC
 
     Optional<AttributeContentItem> findByJsonAndAttributeDefinitionUuid(BaseAttributeContent<?> attributeContent, UUID definitionUuid);
 
+    List<AttributeContentItem> findByAttributeDefinitionUuidInAndJsonHashIn(Collection<UUID> definitionUuids, Collection<String> jsonHashes);
+
     long deleteByAttributeDefinitionUuid(UUID definitionUuid);
     long deleteByAttributeDefinitionTypeAndAttributeDefinitionConnectorUuid(AttributeType attributeType, UUID connectorUuid);
 
@@ -1,8 +1,12 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.AuthorityInstanceReference;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +16,8 @@ public interface AuthorityInstanceReferenceRepository extends SecurityFilterRepo
     Optional<AuthorityInstanceReference> findByUuid(UUID uuid);
 
     Optional<AuthorityInstanceReference> findByName(String name);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE AuthorityInstanceReference a SET a.status = ?2, a.statusUpdatedAt = ?3 WHERE a.uuid IN (?1)")
+    int updateStatus(Collection<UUID> uuids, String status, OffsetDateTime statusUpdatedAt);
 }
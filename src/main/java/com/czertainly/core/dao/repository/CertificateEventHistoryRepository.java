@@ -2,11 +2,24 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateEventHistory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface CertificateEventHistoryRepository extends SecurityFilterRepository<CertificateEventHistory, Long> {
     List<CertificateEventHistory> findByCertificateOrderByCreatedDesc(Certificate certificate);
+
+    List<CertificateEventHistory> findByCertificateUuidOrderByCreatedDescUuidDesc(UUID certificateUuid, Pageable pageable);
+
+    @Query("""
+            SELECT h FROM CertificateEventHistory h WHERE h.certificateUuid = ?1
+            AND (h.created < ?2 OR (h.created = ?2 AND h.uuid < ?3))
+            ORDER BY h.created DESC, h.uuid DESC
+            """)
+    List<CertificateEventHistory> findByCertificateUuidBefore(UUID certificateUuid, OffsetDateTime created, UUID uuid, Pageable pageable);
 }
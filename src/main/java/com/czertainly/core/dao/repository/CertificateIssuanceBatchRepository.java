@@ -0,0 +1,14 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.CertificateIssuanceBatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CertificateIssuanceBatchRepository extends JpaRepository<CertificateIssuanceBatch, UUID> {
+
+    Optional<CertificateIssuanceBatch> findByUuidAndRaProfileUuid(UUID uuid, UUID raProfileUuid);
+}
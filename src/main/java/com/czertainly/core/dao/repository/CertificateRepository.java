@@ -5,13 +5,17 @@ import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateContent;
 import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.repository.custom.CustomCertificateRepository;
+import com.czertainly.core.model.CertificateRaProfileProjection;
+import com.czertainly.core.model.CertificateStateCountProjection;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,6 +28,9 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
 
     List<Certificate> findAllByUuidIn(List<UUID> uuids);
 
+    @Query("SELECT c.uuid FROM Certificate c WHERE c.uuid IN (?1)")
+    List<UUID> findUuidsByUuidIn(Collection<UUID> uuids);
+
     @EntityGraph(attributePaths = {"certificateContent", "groups", "owner"})
     Optional<Certificate> findWithAssociationsByUuid(UUID uuid);
 
@@ -35,10 +42,34 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
 
     List<Certificate> findByRaProfile(RaProfile raProfile);
 
+    @Query("""
+            SELECT new com.czertainly.core.model.CertificateRaProfileProjection(c.uuid, rp.uuid, rp.name, air.connectorUuid)
+                FROM Certificate c
+                JOIN c.raProfile rp
+                LEFT JOIN rp.authorityInstanceReference air
+                WHERE c.uuid IN (?1)
+            """)
+    List<CertificateRaProfileProjection> findRaProfilesOfCertificates(Collection<UUID> certificateUuids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Certificate c SET c.raProfileUuid = NULL WHERE c.raProfileUuid = ?1")
+    int removeRaProfile(UUID raProfileUuid);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Certificate c SET c.raProfileUuid = NULL WHERE c.uuid IN (?1) AND c.raProfileUuid IS NOT NULL")
+    int removeRaProfileOfCertificates(Collection<UUID> certificateUuids);
+
     List<Certificate> findByKeyUuid(UUID keyUuid);
 
     List<Certificate> findBySourceCertificateUuid(UUID sourceCertificateUuid);
 
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Certificate c SET c.issuanceBatchUuid = ?1 WHERE c.uuid IN (?2)")
+    int setIssuanceBatchOfCertificates(UUID issuanceBatchUuid, Collection<UUID> certificateUuids);
+
+    @Query("SELECT new com.czertainly.core.model.CertificateStateCountProjection(c.state, COUNT(c)) FROM Certificate c WHERE c.issuanceBatchUuid = ?1 GROUP BY c.state")
+    List<CertificateStateCountProjection> countStatesByIssuanceBatchUuid(UUID issuanceBatchUuid);
+
     @Query("SELECT DISTINCT signatureAlgorithm FROM Certificate")
     List<String> findDistinctSignatureAlgorithm();
 
@@ -55,6 +86,8 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
 
     List<Certificate> findByPublicKeyFingerprint(String fingerprint);
 
+    List<Certificate> findByPublicKeyFingerprintIn(Collection<String> fingerprints);
+
     @Query("SELECT COUNT(*) FROM Certificate c WHERE c.certificateContentId IS NOT NULL AND c.validationStatus NOT IN :skipStatuses")
     long countCertificatesToCheckStatus(@Param("skipStatuses") List<CertificateValidationStatus> skipStatuses);
 
@@ -66,6 +99,10 @@ public interface CertificateRepository extends SecurityFilterRepository<Certific
                                              @Param("skipStatuses") List<CertificateValidationStatus> skipStatuses,
                                              Pageable pageable);
 
+    @Modifying
+    @Query("UPDATE Certificate c SET c.statusValidationTimestamp = ?2 WHERE c.uuid = ?1")
+    int updateStatusValidationTimestamp(UUID certificateUuid, LocalDateTime statusValidationTimestamp);
+
     List<Certificate> findByComplianceResultContaining(String ruleUuid);
 
     List<Certificate> findByRaProfileAndComplianceStatusIsNotNull(RaProfile raProfile);
@@ -2,6 +2,7 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.CryptographicKey;
 import com.czertainly.core.dao.entity.CryptographicKeyItem;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -18,4 +19,7 @@ public interface CryptographicKeyItemRepository extends SecurityFilterRepository
     Optional<CryptographicKeyItem> findByUuidAndCryptographicKey(UUID uuid, CryptographicKey cryptographicKey);
 
     List<CryptographicKeyItem> findByKeyReferenceUuid(UUID keyReferenceUuid);
+
+    @Query("SELECT ki FROM CryptographicKeyItem ki JOIN FETCH ki.cryptographicKey k WHERE k.tokenInstanceReferenceUuid = ?1")
+    List<CryptographicKeyItem> findByTokenInstanceReferenceUuidWithKey(UUID tokenInstanceReferenceUuid);
 }
@@ -1,9 +1,12 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.EntityInstanceReference;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -20,4 +23,8 @@ public interface EntityInstanceReferenceRepository extends SecurityFilterReposit
 
     @Query("SELECT DISTINCT kind FROM EntityInstanceReference")
     List<String> findDistinctKind();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE EntityInstanceReference e SET e.status = ?2, e.statusUpdatedAt = ?3 WHERE e.uuid IN (?1)")
+    int updateStatus(Collection<UUID> uuids, String status, OffsetDateTime statusUpdatedAt);
 }
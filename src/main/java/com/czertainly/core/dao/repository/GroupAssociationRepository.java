@@ -3,11 +3,15 @@ package com.czertainly.core.dao.repository;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.GroupAssociation;
 import com.czertainly.core.dao.entity.ResourceObjectAssociation;
+import com.czertainly.core.model.ObjectGroupProjection;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,12 +19,50 @@ import java.util.UUID;
 public interface GroupAssociationRepository extends JpaRepository<GroupAssociation, UUID> {
     List<GroupAssociation> findByResourceAndObjectUuid(Resource resource, UUID objectUuid);
 
-    boolean existsByResourceAndObjectUuidAndGroupUuid(Resource resource, UUID objectUuid, UUID groupUuid);
-
     long deleteByGroupUuid(UUID groupUuid);
 
     long deleteByResourceAndObjectUuid(Resource resource, UUID objectUuid);
 
     long deleteByResourceAndObjectUuidAndGroupUuid(Resource resource, UUID objectUuid, UUID groupUuid);
 
+    @Query("""
+            SELECT new com.czertainly.core.model.ObjectGroupProjection(ga.objectUuid, g.uuid, g.name)
+                FROM GroupAssociation ga
+                JOIN ga.group g
+                WHERE ga.resource = ?1 AND ga.objectUuid IN (?2)
+            """)
+    List<ObjectGroupProjection> findGroupsOfObjects(Resource resource, Collection<UUID> objectUuids);
+
+    /**
+     * Removes pairs of objects and groups in single statement
+     *
+     * @param resource    name of the resource of objects
+     * @param objectUuids UUIDs of objects
+     * @param groupUuids  UUIDs of groups, group on each position is removed from object on the same position
+     * @return number of removed associations
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            DELETE FROM group_association ga
+                USING unnest(ARRAY[?2], ARRAY[?3]) AS p(object_uuid, group_uuid)
+                WHERE ga.resource = ?1 AND ga.object_uuid = p.object_uuid AND ga.group_uuid = p.group_uuid
+            """)
+    int deleteGroupAssociations(String resource, List<UUID> objectUuids, List<UUID> groupUuids);
+
+    /**
+     * Associates pairs of objects and groups in single statement
+     *
+     * @param resource    name of the resource of objects
+     * @param objectUuids UUIDs of objects
+     * @param groupUuids  UUIDs of groups, group on each position is associated with object on the same position
+     * @return number of created associations
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO group_association (uuid, resource, object_uuid, group_uuid)
+                SELECT gen_random_uuid(), ?1, p.object_uuid, p.group_uuid
+                FROM unnest(ARRAY[?2], ARRAY[?3]) AS p(object_uuid, group_uuid)
+            """)
+    int insertGroupAssociations(String resource, List<UUID> objectUuids, List<UUID> groupUuids);
+
 }
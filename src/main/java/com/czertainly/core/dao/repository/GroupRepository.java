@@ -3,6 +3,8 @@ package com.czertainly.core.dao.repository;
 import com.czertainly.core.dao.entity.Group;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,4 +14,6 @@ public interface GroupRepository extends SecurityFilterRepository<Group, Long> {
     Optional<Group> findByName(String name);
 
     Optional<Group> findByUuid(UUID uuid);
+
+    List<Group> findByUuidIn(Collection<UUID> uuids);
 }
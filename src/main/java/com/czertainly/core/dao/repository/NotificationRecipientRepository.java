@@ -0,0 +1,79 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.NotificationRecipient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface NotificationRecipientRepository extends SecurityFilterRepository<NotificationRecipient, UUID> {
+
+    boolean existsByUserUuidAndNotificationUuid(UUID userUuid, UUID notificationUuid);
+
+    long countByUserUuid(UUID userUuid);
+
+    /**
+     * Get page of inbox of user ordered from the newest notification, continuing after notification given by cursor
+     *
+     * @param userUuid         UUID of user
+     * @param sentAt           time of sending of last notification of previous page
+     * @param notificationUuid UUID of last notification of previous page
+     * @param pageable         size of the page
+     * @return recipients with their notifications
+     */
+    @Query("SELECT r FROM NotificationRecipient r JOIN FETCH r.notification " +
+            "WHERE r.userUuid = ?1 AND (r.sentAt < ?2 OR (r.sentAt = ?2 AND r.notificationUuid < ?3)) " +
+            "ORDER BY r.sentAt DESC, r.notificationUuid DESC")
+    List<NotificationRecipient> findInboxPageAfter(UUID userUuid, Date sentAt, UUID notificationUuid, Pageable pageable);
+
+    @Query("SELECT r FROM NotificationRecipient r JOIN FETCH r.notification " +
+            "WHERE r.userUuid = ?1 AND r.readAt IS NULL AND (r.sentAt < ?2 OR (r.sentAt = ?2 AND r.notificationUuid < ?3)) " +
+            "ORDER BY r.sentAt DESC, r.notificationUuid DESC")
+    List<NotificationRecipient> findUnreadInboxPageAfter(UUID userUuid, Date sentAt, UUID notificationUuid, Pageable pageable);
+
+    @Query("SELECT r FROM NotificationRecipient r JOIN FETCH r.notification " +
+            "WHERE r.userUuid = ?1 ORDER BY r.sentAt DESC, r.notificationUuid DESC")
+    List<NotificationRecipient> findInboxPage(UUID userUuid, Pageable pageable);
+
+    @Query("SELECT r FROM NotificationRecipient r JOIN FETCH r.notification " +
+            "WHERE r.userUuid = ?1 AND r.readAt IS NULL ORDER BY r.sentAt DESC, r.notificationUuid DESC")
+    List<NotificationRecipient> findUnreadInboxPage(UUID userUuid, Pageable pageable);
+
+    /**
+     * Marks unread notifications of user as read
+     *
+     * @param userUuid          UUID of user
+     * @param notificationUuids UUIDs of notifications
+     * @param readAt            time of reading
+     * @return number of notifications that were not read before
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE NotificationRecipient r SET r.readAt = ?3 WHERE r.userUuid = ?1 AND r.notificationUuid IN (?2) AND r.readAt IS NULL")
+    int markAsRead(UUID userUuid, Collection<UUID> notificationUuids, Date readAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM NotificationRecipient r WHERE r.userUuid = ?1 AND r.notificationUuid IN (?2) AND r.readAt IS NULL")
+    int deleteUnreadByUserUuidAndNotificationUuids(UUID userUuid, Collection<UUID> notificationUuids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM NotificationRecipient r WHERE r.userUuid = ?1 AND r.notificationUuid IN (?2)")
+    int deleteByUserUuidAndNotificationUuids(UUID userUuid, Collection<UUID> notificationUuids);
+
+    /**
+     * Deletes chunk of recipients that read their notification before given time
+     *
+     * @param readAt    time before which read notifications are deleted
+     * @param chunkSize maximum number of deleted recipients
+     * @return number of deleted recipients
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification_recipient WHERE uuid IN (SELECT uuid FROM notification_recipient WHERE read_at < ?1 LIMIT ?2)", nativeQuery = true)
+    int deleteChunkByReadAtBefore(OffsetDateTime readAt, int chunkSize);
+}
@@ -1,23 +1,28 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.Notification;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends SecurityFilterRepository<Notification, UUID> {
 
-    @EntityGraph(attributePaths = {"notificationRecipients"})
-    List<Notification> findByNotificationRecipients_UserUuidOrderBySentAtDesc(UUID userUuid, Pageable pageable);
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.uuid IN (?1) AND NOT EXISTS (SELECT r FROM NotificationRecipient r WHERE r.notificationUuid = n.uuid)")
+    int deleteWithoutRecipients(Collection<UUID> notificationUuids);
 
-    @EntityGraph(attributePaths = {"notificationRecipients"})
-    List<Notification> findByNotificationRecipients_UserUuid_AndNotificationRecipients_ReadAtIsNullOrderBySentAtDesc(UUID userUuid, Pageable pageable);
-
-    long countByNotificationRecipients_UserUuid_AndNotificationRecipients_ReadAtIsNull(UUID userUuid);
-
-    long countByNotificationRecipients_UserUuid(UUID userUuid);
+    /**
+     * Deletes notifications sent before given time that have no recipients left
+     *
+     * @param sentAt time before which notifications are deleted
+     * @return number of deleted notifications
+     */
+    @Modifying
+    @Query(value = "DELETE FROM notification n WHERE n.sent_at < ?1 AND NOT EXISTS (SELECT 1 FROM notification_recipient r WHERE r.notification_uuid = n.uuid)", nativeQuery = true)
+    int deleteWithoutRecipientsBySentAtBefore(OffsetDateTime sentAt);
 }
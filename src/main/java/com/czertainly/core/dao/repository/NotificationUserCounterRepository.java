@@ -0,0 +1,52 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.NotificationUserCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface NotificationUserCounterRepository extends JpaRepository<NotificationUserCounter, UUID> {
+
+    /**
+     * Increments number of unread notifications of users, counters of users without one are created.
+     * Counters are locked in order of given UUIDs, callers pass them sorted, so concurrent increments do not deadlock.
+     *
+     * @param userUuids sorted UUIDs of users, each of them at most once
+     * @return number of updated counters
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(nativeQuery = true, value = """
+            INSERT INTO notification_user_counter (user_uuid, unread_count)
+                SELECT u.user_uuid, 1
+                FROM unnest(ARRAY[?1]) AS u(user_uuid)
+            ON CONFLICT (user_uuid) DO UPDATE SET unread_count = notification_user_counter.unread_count + 1
+            """)
+    int incrementUnreadCounts(Collection<UUID> userUuids);
+
+    /**
+     * Decrements number of unread notifications of user, counter does not drop below zero
+     *
+     * @param userUuid UUID of user
+     * @param count    number of notifications that were read or deleted
+     * @return number of updated counters
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE NotificationUserCounter c SET c.unreadCount = CASE WHEN c.unreadCount > ?2 THEN c.unreadCount - ?2 ELSE 0 END WHERE c.userUuid = ?1")
+    int decrementUnreadCount(UUID userUuid, int count);
+
+    /**
+     * Reads number of unread notifications of user from database. Counters are changed by bulk statements that bypass
+     * persistence context, so counter entity loaded in the same transaction can be stale.
+     *
+     * @param userUuid UUID of user
+     * @return number of unread notifications, empty when user has no counter
+     */
+    @Query("SELECT c.unreadCount FROM NotificationUserCounter c WHERE c.userUuid = ?1")
+    Optional<Integer> findUnreadCountByUserUuid(UUID userUuid);
+}
@@ -2,9 +2,13 @@ package com.czertainly.core.dao.repository;
 
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.OwnerAssociation;
+import com.czertainly.core.model.ObjectOwnerProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,4 +22,32 @@ public interface OwnerAssociationRepository extends JpaRepository<OwnerAssociati
     long deleteByResourceAndObjectUuidAndOwnerUuidNotNull(Resource resource, UUID objectUuid);
 
     long countByOwnerUuidAndResourceAndObjectUuidIn(UUID ownerUuid, Resource resource, List<UUID> objectUuids);
+
+    @Query("SELECT new com.czertainly.core.model.ObjectOwnerProjection(oa.objectUuid, oa.ownerUuid, oa.ownerUsername) FROM OwnerAssociation oa WHERE oa.resource = ?1 AND oa.objectUuid IN (?2)")
+    List<ObjectOwnerProjection> findOwnersOfObjects(Resource resource, Collection<UUID> objectUuids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM OwnerAssociation oa WHERE oa.resource = ?1 AND oa.objectUuid IN (?2)")
+    int deleteByResourceAndObjectUuids(Resource resource, Collection<UUID> objectUuids);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE OwnerAssociation oa SET oa.ownerUuid = ?3, oa.ownerUsername = ?4 WHERE oa.resource = ?1 AND oa.objectUuid IN (?2)")
+    int updateOwnerOfObjects(Resource resource, Collection<UUID> objectUuids, UUID ownerUuid, String ownerUsername);
+
+    /**
+     * Associates owner with objects that have no owner in single statement
+     *
+     * @param resource      name of the resource of objects
+     * @param objectUuids   UUIDs of objects without owner
+     * @param ownerUuid     UUID of owner
+     * @param ownerUsername username of owner
+     * @return number of created associations
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO owner_association (uuid, resource, object_uuid, owner_uuid, owner_username)
+                SELECT gen_random_uuid(), ?1, o.object_uuid, ?3, ?4
+                FROM unnest(ARRAY[?2]) AS o(object_uuid)
+            """)
+    int insertOwnerAssociations(String resource, Collection<UUID> objectUuids, UUID ownerUuid, String ownerUsername);
 }
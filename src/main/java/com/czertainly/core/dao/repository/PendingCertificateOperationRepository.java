@@ -0,0 +1,15 @@
+package com.czertainly.core.dao.repository;
+
+import com.czertainly.core.dao.entity.PendingCertificateOperation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingCertificateOperationRepository extends JpaRepository<PendingCertificateOperation, UUID> {
+
+    List<PendingCertificateOperation> findByStartedAtBefore(OffsetDateTime startedBefore);
+}
@@ -1,11 +1,43 @@
 package com.czertainly.core.dao.repository;
 
 import com.czertainly.core.dao.entity.ScheduledJob;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Repository
 public interface ScheduledJobsRepository extends SecurityFilterRepository<ScheduledJob, UUID> {
     ScheduledJob findByJobName(String jobName);
+
+    /**
+     * Acquires or renews lease of the job. Lease is acquired only when it is not held by other owner or when it has expired.
+     *
+     * @param jobName        name of the job
+     * @param leaseOwner     identification of instance acquiring the lease
+     * @param leaseExpiresAt expiration of acquired lease
+     * @param now            current time
+     * @return 1 if lease was acquired, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJob sj SET sj.leaseOwner = ?2, sj.leaseExpiresAt = ?3 WHERE sj.jobName = ?1 AND (sj.leaseOwner IS NULL OR sj.leaseOwner = ?2 OR sj.leaseExpiresAt < ?4)")
+    int acquireLease(String jobName, String leaseOwner, OffsetDateTime leaseExpiresAt, OffsetDateTime now);
+
+    /**
+     * Prolongs lease of the job held by given owner
+     *
+     * @param jobName        name of the job
+     * @param leaseOwner     identification of instance holding the lease
+     * @param leaseExpiresAt new expiration of the lease
+     * @return 1 if lease was prolonged, 0 if it is not held by the owner
+     */
+    @Modifying
+    @Query("UPDATE ScheduledJob sj SET sj.leaseExpiresAt = ?3 WHERE sj.jobName = ?1 AND sj.leaseOwner = ?2")
+    int prolongLease(String jobName, String leaseOwner, OffsetDateTime leaseExpiresAt);
+
+    @Modifying
+    @Query("UPDATE ScheduledJob sj SET sj.leaseOwner = NULL, sj.leaseExpiresAt = NULL WHERE sj.jobName = ?1 AND sj.leaseOwner = ?2")
+    int releaseLease(String jobName, String leaseOwner);
 }
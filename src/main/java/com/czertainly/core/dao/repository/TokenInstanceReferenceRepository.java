@@ -1,8 +1,13 @@
 package com.czertainly.core.dao.repository;
 
+import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
+import com.czertainly.api.model.connector.cryptography.token.TokenInstanceStatusDto;
 import com.czertainly.core.dao.entity.TokenInstanceReference;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -13,4 +18,8 @@ public interface TokenInstanceReferenceRepository extends SecurityFilterReposito
 
     Optional<TokenInstanceReference> findByName(String name);
 
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TokenInstanceReference t SET t.status = ?2, t.statusDetail = ?3, t.statusUpdatedAt = ?4 WHERE t.uuid = ?1")
+    int updateStatus(UUID uuid, TokenInstanceStatus status, TokenInstanceStatusDto statusDetail, OffsetDateTime statusUpdatedAt);
+
 }
@@ -1,10 +1,13 @@
 package com.czertainly.core.dao.repository.acme;
 
+import com.czertainly.api.model.core.acme.ChallengeStatus;
 import com.czertainly.core.dao.entity.acme.AcmeChallenge;
 import com.czertainly.core.dao.repository.SecurityFilterRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +18,7 @@ public interface AcmeChallengeRepository extends SecurityFilterRepository<AcmeCh
 
     @EntityGraph(attributePaths = {"authorization"})
     Optional<AcmeChallenge> findByChallengeId(String challengeId);
+
+    @Query("SELECT c.uuid FROM AcmeChallenge c WHERE c.status = ?1")
+    List<UUID> findUuidsByStatus(ChallengeStatus status);
 }
@@ -0,0 +1,11 @@
+package com.czertainly.core.dao.repository.auth;
+
+import com.czertainly.core.dao.entity.auth.RoleIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface RoleIdentityRepository extends JpaRepository<RoleIdentity, UUID> {
+}
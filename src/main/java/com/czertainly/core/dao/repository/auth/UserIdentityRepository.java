@@ -0,0 +1,17 @@
+package com.czertainly.core.dao.repository.auth;
+
+import com.czertainly.core.dao.entity.auth.UserIdentity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserIdentityRepository extends JpaRepository<UserIdentity, UUID> {
+
+    @Query("SELECT DISTINCT u FROM UserIdentity u LEFT JOIN FETCH u.roleUuids LEFT JOIN FETCH u.groupUuids")
+    List<UserIdentity> findAllWithMemberships();
+
+}
@@ -4,8 +4,11 @@ package com.czertainly.core.dao.repository.workflows;
 import com.czertainly.core.dao.entity.workflows.TriggerHistory;
 import com.czertainly.core.dao.repository.SecurityFilterRepository;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,4 +22,15 @@ public interface TriggerHistoryRepository extends SecurityFilterRepository<Trigg
     List<TriggerHistory> findByTriggerAssociationObjectUuidOrderByTriggerUuidAscTriggeredAtAsc(UUID triggerAssociationObjectUuid);
 
     long deleteByTriggerAssociationObjectUuid(UUID triggerAssociationObjectUuid);
+
+    /**
+     * Deletes chunk of trigger histories triggered before given time, records are deleted by cascade in database
+     *
+     * @param triggeredAt time before which histories are deleted
+     * @param chunkSize   maximum number of deleted histories
+     * @return number of deleted histories
+     */
+    @Modifying
+    @Query(value = "DELETE FROM trigger_history WHERE uuid IN (SELECT uuid FROM trigger_history WHERE triggered_at < ?1 LIMIT ?2)", nativeQuery = true)
+    int deleteChunkByTriggeredAtBefore(OffsetDateTime triggeredAt, int chunkSize);
 }
@@ -0,0 +1,31 @@
+package com.czertainly.core.dao.repository.workflows;
+
+import com.czertainly.core.dao.entity.workflows.TriggerHistorySummary;
+import com.czertainly.core.dao.repository.SecurityFilterRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TriggerHistorySummaryRepository extends SecurityFilterRepository<TriggerHistorySummary, UUID> {
+
+    Optional<TriggerHistorySummary> findByTriggerAssociationObjectUuid(UUID triggerAssociationObjectUuid);
+
+    @Modifying
+    @Query("""
+            UPDATE TriggerHistorySummary s SET s.objectsEvaluated = s.objectsEvaluated + ?2, s.objectsMatched = s.objectsMatched + ?3,
+            s.objectsIgnored = s.objectsIgnored + ?4, s.objectsFailed = s.objectsFailed + ?5, s.updatedAt = ?6
+            WHERE s.triggerAssociationObjectUuid = ?1
+            """)
+    int incrementCounts(UUID triggerAssociationObjectUuid, int objectsEvaluated, int objectsMatched, int objectsIgnored, int objectsFailed, OffsetDateTime updatedAt);
+
+    long deleteByTriggerAssociationObjectUuid(UUID triggerAssociationObjectUuid);
+
+    @Modifying
+    @Query("DELETE FROM TriggerHistorySummary s WHERE s.updatedAt < ?1")
+    int deleteByUpdatedAtBefore(OffsetDateTime updatedAt);
+}
@@ -7,10 +7,12 @@ import com.czertainly.api.exception.RuleException;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.search.FilterFieldSource;
 import com.czertainly.core.dao.entity.Certificate;
-import com.czertainly.core.dao.entity.workflows.ExecutionItem;
+import com.czertainly.core.dao.entity.workflows.*;
 import com.czertainly.core.enums.FilterField;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +23,8 @@ import java.util.*;
 @Transactional
 public class CertificateRuleEvaluator extends RuleEvaluator<Certificate> {
 
+    private static final Logger logger = LoggerFactory.getLogger(CertificateRuleEvaluator.class);
+
     private CertificateService certificateService;
 
     @Autowired
@@ -28,6 +32,98 @@ public class CertificateRuleEvaluator extends RuleEvaluator<Certificate> {
         this.certificateService = certificateService;
     }
 
+    /**
+     * Performs actions of trigger on certificate, property actions supported in batch are not performed immediately but collected to batch
+     *
+     * @param trigger        Trigger
+     * @param triggerOrder   Order of trigger in evaluated triggers
+     * @param object         Certificate to perform actions on
+     * @param triggerHistory Trigger history to fill action results records for
+     * @param batch          Batch to collect property actions to, actions are performed sequentially when null
+     */
+    public void performActions(Trigger trigger, int triggerOrder, Certificate object, TriggerHistory triggerHistory, CertificateTriggerActionBatch batch) throws RuleException {
+        if (batch == null || trigger.getResource() != Resource.CERTIFICATE || trigger.getActions() == null) {
+            performActions(trigger, object, triggerHistory);
+            return;
+        }
+
+        int itemOrder = 0;
+        for (Action action : trigger.getActions()) {
+            for (Execution execution : action.getExecutions()) {
+                for (ExecutionItem executionItem : execution.getItems()) {
+                    try {
+                        FilterField searchableField = executionItem.getFieldSource() == FilterFieldSource.PROPERTY ? getSearchableField(executionItem) : null;
+                        if (searchableField != null && CertificateTriggerActionBatch.isBatched(searchableField)) {
+                            List<UUID> propertyUuids = getPropertyUuids(executionItem, object);
+                            batch.add(new CertificateTriggerActionBatch.BatchedAction(triggerOrder, itemOrder, trigger.getUuid(), execution.getUuid(), searchableField, propertyUuids), object.getUuid(), triggerHistory.getUuid());
+                        } else {
+                            performAction(executionItem, object, trigger.getResource());
+                        }
+                    } catch (Exception e) {
+                        logger.debug("Action with UUID {} has not been performed. Reason: {}", action.getUuid(), e.getMessage());
+                        addTriggerHistoryRecord(triggerHistory, execution.getUuid(), e.getMessage());
+                    }
+                    ++itemOrder;
+                }
+            }
+        }
+    }
+
+    /**
+     * Performs batched property action on certificates using bulk updates
+     *
+     * @param action           Batched action
+     * @param certificateUuids UUIDs of certificates to perform action on
+     * @return messages of action failures per certificate UUID
+     */
+    public Map<UUID, String> performBatchedAction(CertificateTriggerActionBatch.BatchedAction action, List<UUID> certificateUuids) throws NotFoundException, RuleException {
+        Map<UUID, String> failures = new HashMap<>();
+        List<SecuredUUID> securedUuids = SecuredUUID.fromUuidList(certificateUuids);
+        UUID newPropertyUuid = action.propertyUuids().isEmpty() ? null : action.propertyUuids().get(0);
+        switch (action.field()) {
+            case RA_PROFILE_NAME -> {
+                if (newPropertyUuid == null) {
+                    certificateService.removeCertificatesRaProfile(securedUuids);
+                } else {
+                    // certificates need to be identified one by one by authority of new RA profile
+                    for (SecuredUUID certificateUuid : securedUuids) {
+                        try {
+                            certificateService.switchRaProfile(certificateUuid, SecuredUUID.fromUUID(newPropertyUuid));
+                        } catch (NotFoundException | CertificateOperationException | AttributeException e) {
+                            failures.put(certificateUuid.getValue(), e.getMessage());
+                        }
+                    }
+                }
+            }
+            case GROUP_NAME -> certificateService.updateCertificatesGroups(securedUuids, new HashSet<>(action.propertyUuids()));
+            case OWNER -> certificateService.updateCertificatesOwner(securedUuids, newPropertyUuid);
+            default -> throw new RuleException("Setting property '" + action.field() + "' is not supported in batch.");
+        }
+        return failures;
+    }
+
+    /**
+     * Performs merged property actions on certificates using bulk updates, each certificate is set to its own target value
+     *
+     * @param field                    Property to be set
+     * @param certificatePropertyUuids UUIDs of objects to set as property mapped by UUIDs of certificates, empty list to remove property
+     */
+    public void performMergedActions(FilterField field, Map<UUID, List<UUID>> certificatePropertyUuids) throws NotFoundException, RuleException {
+        switch (field) {
+            case GROUP_NAME -> {
+                Map<SecuredUUID, Set<UUID>> certificateGroupUuids = new LinkedHashMap<>();
+                certificatePropertyUuids.forEach((certificateUuid, propertyUuids) -> certificateGroupUuids.put(SecuredUUID.fromUUID(certificateUuid), new HashSet<>(propertyUuids)));
+                certificateService.updateCertificatesGroups(certificateGroupUuids);
+            }
+            case OWNER -> {
+                Map<SecuredUUID, UUID> certificateOwnerUuids = new LinkedHashMap<>();
+                certificatePropertyUuids.forEach((certificateUuid, propertyUuids) -> certificateOwnerUuids.put(SecuredUUID.fromUUID(certificateUuid), propertyUuids.isEmpty() ? null : propertyUuids.get(0)));
+                certificateService.updateCertificatesOwners(certificateOwnerUuids);
+            }
+            default -> throw new RuleException("Setting property '" + field + "' cannot be merged in batch.");
+        }
+    }
+
     @Override
     public void performAction(ExecutionItem executionItem, Certificate object, Resource resource) throws NotFoundException, AttributeException, CertificateOperationException, RuleException {
         if (executionItem.getFieldSource() != FilterFieldSource.PROPERTY) {
@@ -36,50 +132,48 @@ public class CertificateRuleEvaluator extends RuleEvaluator<Certificate> {
         }
 
         SecuredUUID certificateUuid = object.getSecuredUuid();
+        FilterField searchableField = getSearchableField(executionItem);
+        List<UUID> propertyUuids = getPropertyUuids(executionItem, object);
 
-        FilterField searchableField;
+        SecuredUUID newPropertyUuid = propertyUuids.isEmpty() ? null : SecuredUUID.fromUUID(propertyUuids.get(0));
+        switch (searchableField) {
+            case RA_PROFILE_NAME -> certificateService.switchRaProfile(certificateUuid, newPropertyUuid);
+            case GROUP_NAME -> certificateService.updateCertificateGroups(certificateUuid, new HashSet<>(propertyUuids));
+            case OWNER ->
+                    certificateService.updateOwner(certificateUuid, newPropertyUuid == null ? null : newPropertyUuid.toString());
+        }
+    }
+
+    private FilterField getSearchableField(ExecutionItem executionItem) throws RuleException {
         try {
-            searchableField = Enum.valueOf(FilterField.class, executionItem.getFieldIdentifier());
+            return Enum.valueOf(FilterField.class, executionItem.getFieldIdentifier());
         } catch (IllegalArgumentException e) {
             throw new RuleException("Field identifier '" + executionItem.getFieldIdentifier() + "' is not supported.");
         }
+    }
+
+    /**
+     * Parses UUIDs of objects to set as property from action data
+     *
+     * @return UUIDs of objects, empty list when property should be removed
+     */
+    private List<UUID> getPropertyUuids(ExecutionItem executionItem, Certificate object) throws RuleException {
+        List<UUID> propertyUuids = new ArrayList<>();
+        if (executionItem.getData() == null) {
+            return propertyUuids;
+        }
 
-        UUID propertyUuid = null;
-        List<UUID> propertyUuids = null;
-        boolean removeValue = executionItem.getData() == null;
-        if (!removeValue) {
+        try {
             if (executionItem.getData() instanceof Iterable<?> actionDataItems) {
-                try {
-                    propertyUuids = new ArrayList<>();
-                    for (Object actionDataItem : actionDataItems) {
-                        propertyUuids.add(UUID.fromString(actionDataItem.toString()));
-                    }
-                } catch (IllegalArgumentException ex) {
-                    // TODO: handle illegal argument
-                    propertyUuids = null;
+                for (Object actionDataItem : actionDataItems) {
+                    propertyUuids.add(UUID.fromString(actionDataItem.toString()));
                 }
             } else {
-                String propertyUuidStr = executionItem.getData().toString();
-                try {
-                    propertyUuid = UUID.fromString(propertyUuidStr);
-                } catch (IllegalArgumentException e) {
-                    // TODO: handle illegal argument
-                }
+                propertyUuids.add(UUID.fromString(executionItem.getData().toString()));
             }
+        } catch (IllegalArgumentException e) {
+            throw new RuleException(String.format("Wrong action data for set field %s %s of %s %s: %s", executionItem.getFieldSource().getLabel(), executionItem.getFieldIdentifier(), Resource.CERTIFICATE.getLabel(), object.getUuid().toString(), executionItem.getData().toString()));
         }
-        removeValue = removeValue || (propertyUuids != null && propertyUuids.isEmpty());
-
-        if (!removeValue && propertyUuid == null && propertyUuids == null) {
-            throw new RuleException(String.format("Wrong action data for set field %s %s of %s %s: %s", executionItem.getFieldSource().getLabel(), executionItem.getFieldIdentifier(), resource.getLabel(), object.getUuid().toString(), executionItem.getData().toString()));
-        }
-
-        SecuredUUID newPropertyUuid = removeValue ? null : SecuredUUID.fromUUID(propertyUuid != null ? propertyUuid : propertyUuids.get(0));
-        switch (searchableField) {
-            case RA_PROFILE_NAME -> certificateService.switchRaProfile(certificateUuid, newPropertyUuid);
-            case GROUP_NAME ->
-                    certificateService.updateCertificateGroups(object.getSecuredUuid(), removeValue ? Set.of() : (propertyUuids == null ? Set.of(newPropertyUuid.getValue()) : new HashSet<>(propertyUuids)));
-            case OWNER ->
-                    certificateService.updateOwner(certificateUuid, newPropertyUuid == null ? null : newPropertyUuid.toString());
-        }
+        return propertyUuids;
     }
-}
\ No newline at end of file
+}
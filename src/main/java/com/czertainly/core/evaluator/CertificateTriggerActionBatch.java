@@ -0,0 +1,102 @@
+package com.czertainly.core.evaluator;
+
+import com.czertainly.core.enums.FilterField;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects property actions of triggers performed on certificates, so they can be applied in bulk for all matching certificates
+ * instead of one certificate at a time. Certificates are grouped per trigger, execution item and target value of the action.
+ * Batch can be filled concurrently by evaluation of certificates processed in parallel.
+ */
+public class CertificateTriggerActionBatch {
+
+    private static final Set<FilterField> BATCHED_FIELDS = EnumSet.of(FilterField.RA_PROFILE_NAME, FilterField.GROUP_NAME, FilterField.OWNER);
+    private static final Set<FilterField> MERGED_FIELDS = EnumSet.of(FilterField.GROUP_NAME, FilterField.OWNER);
+
+    private final Map<BatchedAction, Queue<BatchedObject>> actions = new ConcurrentHashMap<>();
+
+    public static boolean isBatched(FilterField field) {
+        return BATCHED_FIELDS.contains(field);
+    }
+
+    /**
+     * Checks whether actions setting the property can be merged per certificate. Property is set directly to target value,
+     * so its resulting value is determined only by the last action performed on certificate.
+     *
+     * @param field property set by actions
+     * @return true when actions of property can be merged
+     */
+    public static boolean isMerged(FilterField field) {
+        return MERGED_FIELDS.contains(field);
+    }
+
+    /**
+     * Adds certificate to batch of action
+     *
+     * @param action             action to be performed
+     * @param certificateUuid    UUID of certificate to perform action on
+     * @param triggerHistoryUuid UUID of trigger history of certificate to record action failures to
+     */
+    public void add(BatchedAction action, UUID certificateUuid, UUID triggerHistoryUuid) {
+        actions.computeIfAbsent(action, k -> new ConcurrentLinkedQueue<>()).add(new BatchedObject(certificateUuid, triggerHistoryUuid));
+    }
+
+    /**
+     * Returns collected actions in order they would be performed sequentially, i.e. by order of trigger and by order of execution item in trigger
+     *
+     * @return ordered actions
+     */
+    public List<BatchedAction> getActions() {
+        return actions.keySet().stream().sorted(Comparator.comparingInt(BatchedAction::triggerOrder).thenComparingInt(BatchedAction::itemOrder)).toList();
+    }
+
+    public List<BatchedObject> getObjects(BatchedAction action) {
+        Queue<BatchedObject> objects = actions.get(action);
+        return objects == null ? List.of() : List.copyOf(objects);
+    }
+
+    /**
+     * Returns last action setting the property for each certificate, i.e. action that determines resulting value of property
+     * when actions are performed sequentially
+     *
+     * @param field property set by actions
+     * @return last action with its certificate mapped by UUID of certificate
+     */
+    public Map<UUID, ObjectAction> getLastActions(FilterField field) {
+        Map<UUID, ObjectAction> lastActions = new LinkedHashMap<>();
+        for (BatchedAction action : getActions()) {
+            if (action.field() == field) {
+                for (BatchedObject object : getObjects(action)) {
+                    lastActions.put(object.certificateUuid(), new ObjectAction(action, object));
+                }
+            }
+        }
+        return lastActions;
+    }
+
+    public boolean isEmpty() {
+        return actions.isEmpty();
+    }
+
+    /**
+     * Property action of trigger
+     *
+     * @param triggerOrder   order of trigger in evaluated triggers
+     * @param itemOrder      order of execution item in actions of trigger
+     * @param triggerUuid    UUID of trigger
+     * @param executionUuid  UUID of execution the item belongs to
+     * @param field          property to be set
+     * @param propertyUuids  UUIDs of objects to set as property, empty to remove property
+     */
+    public record BatchedAction(int triggerOrder, int itemOrder, UUID triggerUuid, UUID executionUuid, FilterField field, List<UUID> propertyUuids) {
+    }
+
+    public record BatchedObject(UUID certificateUuid, UUID triggerHistoryUuid) {
+    }
+
+    public record ObjectAction(BatchedAction action, BatchedObject object) {
+    }
+}
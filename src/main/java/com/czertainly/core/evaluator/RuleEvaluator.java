@@ -212,8 +212,7 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
                             logger.debug("Action with UUID {} has been performed.", action.getUuid());
                         } catch (Exception e) {
                             logger.debug("Action with UUID {} has not been performed. Reason: {}", action.getUuid(), e.getMessage());
-                            TriggerHistoryRecord triggerHistoryRecord = triggerService.createTriggerHistoryRecord(triggerHistory, null, execution.getUuid(), e.getMessage());
-                            triggerHistory.getRecords().add(triggerHistoryRecord);
+                            addTriggerHistoryRecord(triggerHistory, execution.getUuid(), e.getMessage());
                         }
                     }
                 }
@@ -221,6 +220,11 @@ public class RuleEvaluator<T> implements IRuleEvaluator<T> {
         }
     }
 
+    protected void addTriggerHistoryRecord(TriggerHistory triggerHistory, UUID executionUuid, String message) {
+        TriggerHistoryRecord triggerHistoryRecord = triggerService.createTriggerHistoryRecord(triggerHistory, null, executionUuid, message);
+        triggerHistory.getRecords().add(triggerHistoryRecord);
+    }
+
 
     public void performAction(ExecutionItem executionItem, T object, Resource resource) throws RuleException, NotFoundException, AttributeException, CertificateOperationException {
         String fieldIdentifier = executionItem.getFieldIdentifier();
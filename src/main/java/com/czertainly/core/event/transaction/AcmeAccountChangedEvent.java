@@ -0,0 +1,4 @@
+package com.czertainly.core.event.transaction;
+
+public record AcmeAccountChangedEvent(String accountId) {
+}
@@ -0,0 +1,8 @@
+package com.czertainly.core.event.transaction;
+
+import com.czertainly.api.model.core.auth.Resource;
+
+import java.util.UUID;
+
+public record AuthIdentityChangedEvent(Resource resource, UUID uuid, boolean removed) {
+}
@@ -0,0 +1,8 @@
+package com.czertainly.core.event.transaction;
+
+import com.czertainly.api.model.core.certificate.CertificateState;
+
+import java.util.UUID;
+
+public record CertificateStateChangedEvent(UUID certificateUuid, CertificateState state) {
+}
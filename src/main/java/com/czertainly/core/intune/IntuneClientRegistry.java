@@ -0,0 +1,129 @@
+package com.czertainly.core.intune;
+
+import com.czertainly.core.dao.entity.scep.ScepProfile;
+import com.czertainly.core.intune.scepvalidation.IntuneRevocationClient;
+import com.czertainly.core.intune.scepvalidation.IntuneScepServiceClient;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of Intune clients of SCEP profiles. Clients are reused across requests, so they keep acquired tokens,
+ * resolved Intune service endpoints and pooled connections. Clients of SCEP profile are rebuilt when its Intune
+ * settings change.
+ */
+@Component
+public class IntuneClientRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntuneClientRegistry.class);
+
+    @Value("${app.version}")
+    private String appVersion;
+
+    private final Map<UUID, IntuneClients> clients = new ConcurrentHashMap<>();
+
+    public IntuneScepServiceClient getScepServiceClient(ScepProfile scepProfile) {
+        return getClients(scepProfile).getScepServiceClient();
+    }
+
+    public IntuneRevocationClient getRevocationClient(ScepProfile scepProfile) {
+        return getClients(scepProfile).getRevocationClient();
+    }
+
+    /**
+     * Closes and removes clients of SCEP profile
+     *
+     * @param scepProfileUuid UUID of SCEP profile
+     */
+    public void evict(UUID scepProfileUuid) {
+        IntuneClients removed = clients.remove(scepProfileUuid);
+        if (removed != null) {
+            removed.close();
+        }
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        clients.values().forEach(IntuneClients::close);
+        clients.clear();
+    }
+
+    private IntuneClients getClients(ScepProfile scepProfile) {
+        IntuneSettings settings = new IntuneSettings(scepProfile.getIntuneTenant(), scepProfile.getIntuneApplicationId(), scepProfile.getIntuneApplicationKey());
+        return clients.compute(scepProfile.getUuid(), (uuid, existing) -> {
+            if (existing != null) {
+                if (existing.settings.equals(settings)) {
+                    return existing;
+                }
+                logger.debug("Intune settings of SCEP profile {} changed, Intune clients will be rebuilt", scepProfile.getName());
+                existing.close();
+            }
+            return new IntuneClients(settings, getConfigProperties(settings));
+        });
+    }
+
+    private Properties getConfigProperties(IntuneSettings settings) {
+        Properties configProperties = new Properties();
+        configProperties.put("AAD_APP_ID", settings.applicationId());
+        configProperties.put("AAD_APP_KEY", settings.applicationKey());
+        configProperties.put("TENANT", settings.tenant());
+        configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
+        return configProperties;
+    }
+
+    private record IntuneSettings(String tenant, String applicationId, String applicationKey) {
+    }
+
+    private static class IntuneClients {
+        private final IntuneSettings settings;
+        private final Properties configProperties;
+        private IntuneScepServiceClient scepServiceClient;
+        private IntuneRevocationClient revocationClient;
+
+        private IntuneClients(IntuneSettings settings, Properties configProperties) {
+            this.settings = settings;
+            this.configProperties = configProperties;
+        }
+
+        private synchronized IntuneScepServiceClient getScepServiceClient() {
+            if (scepServiceClient == null) {
+                scepServiceClient = new IntuneScepServiceClient(configProperties);
+            }
+            return scepServiceClient;
+        }
+
+        private synchronized IntuneRevocationClient getRevocationClient() {
+            if (revocationClient == null) {
+                revocationClient = new IntuneRevocationClient(configProperties);
+            }
+            return revocationClient;
+        }
+
+        private synchronized void close() {
+            closeClient(scepServiceClient);
+            closeClient(revocationClient);
+            scepServiceClient = null;
+            revocationClient = null;
+        }
+
+        private static void closeClient(Closeable client) {
+            if (client == null) {
+                return;
+            }
+            try {
+                client.close();
+            } catch (IOException e) {
+                logger.warn("Unable to close Intune client: {}", e.getMessage());
+            }
+        }
+    }
+}
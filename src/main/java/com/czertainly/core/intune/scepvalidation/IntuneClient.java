@@ -31,19 +31,20 @@ The important modification are marked with the comment "MODIFICATION"
 
 package com.czertainly.core.intune.scepvalidation;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.Authenticator;
 import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
 import java.net.UnknownHostException;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.naming.ServiceUnavailableException;
@@ -65,7 +66,6 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.config.Registry;
 import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.HttpClientConnectionManager;
 import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.conn.ssl.DefaultHostnameVerifier;
@@ -75,7 +75,7 @@ import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.BasicHttpClientConnectionManager;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -87,9 +87,14 @@ import com.microsoft.aad.adal4j.ClientCredential;
 /**
  * IntuneClient - A client which can be used to make requests to Intune services.
  * This object uses ADAL libraries and tokens for authentication with Intune.  
+ * MODIFICATION - The client is meant to be reused for multiple requests, it keeps single HTTP client with pooled connections,
+ * cached tokens and resolved service endpoints. It has to be closed when it is no longer used.
  */
-class IntuneClient 
+class IntuneClient implements Closeable
 {
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 20;
+    private static final int MAX_CONNECTIONS_TOTAL = 50;
+
     protected String intuneAppId = "0000000a-0000-0000-c000-000000000000";
     protected String intuneResourceUrl = "https://api.manage.microsoft.com/";
 
@@ -112,7 +117,11 @@ class IntuneClient
     protected String proxyUser = null;
     protected String proxyPass = null;
     
-    private HashMap<String,String> serviceMap = new HashMap<String,String>();
+    //MODIFICATION - Service map is shared by concurrent requests using the same client
+    private Map<String,String> serviceMap = new ConcurrentHashMap<String,String>();
+
+    //MODIFICATION - HTTP client is built once and reused, so connections to Intune services are kept alive
+    private CloseableHttpClient httpClient = null;
     
     private static final Logger log = LoggerFactory.getLogger(IntuneClient.class);
     
@@ -237,9 +246,13 @@ class IntuneClient
                 .register("http", PlainConnectionSocketFactory.getSocketFactory())
                 .build();
         
-        HttpClientConnectionManager ccm = new BasicHttpClientConnectionManager(registry);
+        //MODIFICATION - Pooled connection manager instead of single connection one, so the client can serve concurrent requests
+        PoolingHttpClientConnectionManager ccm = new PoolingHttpClientConnectionManager(registry);
+        ccm.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        ccm.setMaxTotal(MAX_CONNECTIONS_TOTAL);
         
         this.httpClientBuilder.setConnectionManager(ccm);
+        closeHttpClient();
     }
     
     /**
@@ -354,8 +367,7 @@ class IntuneClient
         }
         finally 
         {    
-            if(httpclient != null)
-                httpclient.close();
+            //MODIFICATION - Only response is closed to release the connection back to the pool, HTTP client is reused
             if(intuneResponse != null)
                 intuneResponse.close();
         }
@@ -443,8 +455,7 @@ class IntuneClient
         } 
         finally 
         {
-            if(httpclient != null)
-                httpclient.close();
+            //MODIFICATION - Only response is closed to release the connection back to the pool, HTTP client is reused
             if(graphResponse != null)
                 graphResponse.close();
         }
@@ -503,14 +514,48 @@ class IntuneClient
         return jsonResult;
     }
     
-    private CloseableHttpClient getCloseableHttpClient() 
+    private synchronized CloseableHttpClient getCloseableHttpClient() 
     {
-        if(this.httpClientBuilder == null)
+        //MODIFICATION - HTTP client is built only once, connection limits apply when no connection manager was set explicitly
+        if(this.httpClient == null)
         {
-            return HttpClients.createDefault();
+            if(this.httpClientBuilder == null)
+            {
+                this.httpClientBuilder = HttpClients.custom();
+            }
+            this.httpClient = this.httpClientBuilder
+                    .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                    .setMaxConnTotal(MAX_CONNECTIONS_TOTAL)
+                    .build();
         }
 
-        return this.httpClientBuilder.build();
+        return this.httpClient;
+    }
+
+    /**
+     * Closes HTTP client and its pooled connections. 
+     * MODIFICATION - Added to release resources of reused client.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        closeHttpClient();
+    }
+
+    private synchronized void closeHttpClient()
+    {
+        if(this.httpClient != null)
+        {
+            try
+            {
+                this.httpClient.close();
+            }
+            catch(IOException e)
+            {
+                this.log.warn("Failed to close HTTP client: " + e.getMessage());
+            }
+            this.httpClient = null;
+        }
     }
     
     private void setProxy()
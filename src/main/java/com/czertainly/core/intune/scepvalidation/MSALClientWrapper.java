@@ -55,6 +55,8 @@ public class MSALClientWrapper
     private String azureAppId = null;
     private ExecutorService service = null;
     private Builder builder = null;
+    //MODIFICATION - Application is built once and reused, so its token cache is used for subsequent requests
+    private ConfidentialClientApplication app = null;
     
     /**
      * MSAL Authentication Client
@@ -113,6 +115,7 @@ public class MSALClientWrapper
         }
         
         this.builder.sslSocketFactory(factory);
+        this.app = null;
     }
     
     /**
@@ -122,6 +125,7 @@ public class MSALClientWrapper
     public void SetProxy(Proxy proxy)
     {
         this.builder.proxy(proxy);
+        this.app = null;
     }
     
     /**
@@ -137,8 +141,7 @@ public class MSALClientWrapper
 
         ClientCredentialParameters params = ClientCredentialParameters.builder(scopes).build();
 
-        ConfidentialClientApplication app = builder.build();
-        result = app.acquireToken(params).join();
+        result = getApplication().acquireToken(params).join();
 
         if (result == null) 
         {
@@ -148,6 +151,15 @@ public class MSALClientWrapper
         return result.accessToken();
     }
     
+    private synchronized ConfidentialClientApplication getApplication()
+    {
+        if(this.app == null)
+        {
+            this.app = builder.build();
+        }
+        return this.app;
+    }
+    
     @Override
     public void finalize()
     {
@@ -4,6 +4,7 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.context.annotation.Bean;
@@ -42,6 +43,18 @@ public class RabbitMQConfiguration {
         return new Queue(RabbitMQConstants.QUEUE_ACTIONS_NAME, true);
     }
 
+    /**
+     * Queue of actions postponed for later processing. Queue has no consumers, postponed messages expire after their delay
+     * and are dead-lettered back to the queue of actions.
+     */
+    @Bean
+    public Queue queueActionsDelayed() {
+        return QueueBuilder.durable(RabbitMQConstants.QUEUE_ACTIONS_DELAYED_NAME)
+                .deadLetterExchange(RabbitMQConstants.EXCHANGE_NAME)
+                .deadLetterRoutingKey(RabbitMQConstants.ACTION_ROUTING_KEY)
+                .build();
+    }
+
     @Bean
     public Queue queueValidation() {
         return new Queue(RabbitMQConstants.QUEUE_VALIDATION_NAME, true);
@@ -67,6 +80,11 @@ public class RabbitMQConfiguration {
         return BindingBuilder.bind(queueActions()).to(czertainlyExchange()).with(RabbitMQConstants.ACTION_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding actionDelayedQueueBinding() {
+        return BindingBuilder.bind(queueActionsDelayed()).to(czertainlyExchange()).with(RabbitMQConstants.ACTION_DELAYED_ROUTING_KEY);
+    }
+
     @Bean
     public Binding validationQueueBinding() {
         return BindingBuilder.bind(queueValidation()).to(czertainlyExchange()).with(RabbitMQConstants.VALIDATION_ROUTING_KEY);
@@ -10,6 +10,8 @@ public class RabbitMQConstants {
 
     public static final String QUEUE_ACTIONS_NAME = "core.actions";
 
+    public static final String QUEUE_ACTIONS_DELAYED_NAME = "core.actions.delayed";
+
     public static final String QUEUE_VALIDATION_NAME = "core.validation";
 
     public static final String EXCHANGE_NAME = "czertainly";
@@ -22,6 +24,8 @@ public class RabbitMQConstants {
 
     public static final String ACTION_ROUTING_KEY = "action";
 
+    public static final String ACTION_DELAYED_ROUTING_KEY = "action.delayed";
+
     public static final String VALIDATION_ROUTING_KEY = "validation";
 
 }
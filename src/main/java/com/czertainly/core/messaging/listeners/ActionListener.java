@@ -2,6 +2,7 @@ package com.czertainly.core.messaging.listeners;
 
 import com.czertainly.api.exception.*;
 import com.czertainly.api.model.client.approval.ApprovalStatusEnum;
+import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.v2.ClientCertificateRekeyRequestDto;
 import com.czertainly.api.model.core.v2.ClientCertificateRenewRequestDto;
 import com.czertainly.api.model.core.v2.ClientCertificateRevocationDto;
@@ -12,25 +13,36 @@ import com.czertainly.core.dao.repository.ApprovalProfileRelationRepository;
 import com.czertainly.core.messaging.configuration.RabbitMQConstants;
 import com.czertainly.core.messaging.model.ActionMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
+import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.messaging.producers.ActionProducer;
 import com.czertainly.core.messaging.producers.NotificationProducer;
 import com.czertainly.core.service.ApprovalService;
+import com.czertainly.core.service.handler.AuthorityBusyException;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.AuthHelper;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Listener of actions with resources. Listener is not transactional, actions with certificates are processed in phases
+ * with short transactions, so connections to database are not held while waiting for authority.
+ */
 @Component
-@Transactional
 public class ActionListener {
     private static final Logger logger = LoggerFactory.getLogger(ActionListener.class);
 
@@ -46,13 +58,33 @@ public class ActionListener {
 
     private AuthHelper authHelper;
 
-    @RabbitListener(queues = RabbitMQConstants.QUEUE_ACTIONS_NAME, messageConverter = "jsonMessageConverter")
+    private ActionProducer actionProducer;
+
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${authority.operations.busy-retry-delay:PT30S}")
+    private Duration authorityBusyRetryDelay;
+
+    @RabbitListener(queues = RabbitMQConstants.QUEUE_ACTIONS_NAME, messageConverter = "jsonMessageConverter", concurrency = "10")
     public void processMessage(final ActionMessage actionMessage) throws MessageHandlingException {
+        if (actionMessage.getResourceUuids() != null) {
+            processGroupedMessage(actionMessage);
+            return;
+        }
+
         boolean hasApproval = actionMessage.getApprovalUuid() != null;
         boolean isApproved = hasApproval && actionMessage.getApprovalStatus().equals(ApprovalStatusEnum.APPROVED);
 
         if (!hasApproval) {
-            final Optional<List<ApprovalProfileRelation>> approvalProfileRelationOptional = approvalProfileRelationRepository.findByResourceUuidAndResource(actionMessage.getApprovalProfileResourceUuid(), actionMessage.getApprovalProfileResource());
+            // approval is created in its own transaction, action itself manages transactions of its phases
+            final TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            final Optional<List<ApprovalProfileRelation>> approvalProfileRelationOptional;
+            try {
+                approvalProfileRelationOptional = approvalProfileRelationRepository.findByResourceUuidAndResource(actionMessage.getApprovalProfileResourceUuid(), actionMessage.getApprovalProfileResource());
+            } catch (RuntimeException e) {
+                transactionManager.rollback(status);
+                throw e;
+            }
             if (approvalProfileRelationOptional.isPresent() && !approvalProfileRelationOptional.get().isEmpty()) {
                 try {
                     final ApprovalProfileRelation approvalProfileRelation = approvalProfileRelationOptional.get().get(0);
@@ -60,7 +92,11 @@ public class ActionListener {
                     final Approval approval = approvalService.createApproval(approvalProfileVersion, actionMessage.getResource(), actionMessage.getResourceAction(), actionMessage.getResourceUuid(), actionMessage.getUserUuid(), actionMessage.getData());
                     logger.info("Created new Approval {} for object {}", approval.getUuid(), actionMessage.getResourceUuid());
                     processApprovalCreated(actionMessage);
+                    transactionManager.commit(status);
                 } catch (Exception e) {
+                    if (!status.isCompleted()) {
+                        transactionManager.rollback(status);
+                    }
                     String errorMessage = String.format("Cannot create new approval to approve %s %s action!", actionMessage.getResource().getLabel(), actionMessage.getResourceAction().getCode());
                     logger.error("{}: {}", errorMessage, e.getMessage());
                     notificationProducer.produceNotificationText(actionMessage.getResource(), actionMessage.getResourceUuid(),
@@ -69,11 +105,16 @@ public class ActionListener {
                 }
                 return;
             }
+            transactionManager.commit(status);
         }
 
         try {
             authHelper.authenticateAsUser(actionMessage.getUserUuid());
             processAction(actionMessage, hasApproval, isApproved);
+        } catch (AuthorityBusyException e) {
+            // consumer does not wait for busy authority, action is postponed and processed again after the delay
+            logger.info("Postponing {} {} action with object {} by {}: {}", actionMessage.getResource().getLabel(), actionMessage.getResourceAction().getCode(), actionMessage.getResourceUuid(), authorityBusyRetryDelay, e.getMessage());
+            actionProducer.produceDelayedMessage(actionMessage, authorityBusyRetryDelay);
         } catch (Exception e) {
             String errorMessage = String.format("Failed to perform %s %s%s action!", actionMessage.getResource().getLabel(), actionMessage.getResourceAction().getCode(), !hasApproval || isApproved ? "" : " rejected");
             logger.error("{}: {}", errorMessage, e.getMessage());
@@ -83,6 +124,46 @@ public class ActionListener {
         }
     }
 
+    private void processGroupedMessage(final ActionMessage actionMessage) throws MessageHandlingException {
+        // grouped action that requires approval is split to actions with single resources, so each of them is approved separately
+        final Optional<List<ApprovalProfileRelation>> approvalProfileRelationOptional = approvalProfileRelationRepository.findByResourceUuidAndResource(actionMessage.getApprovalProfileResourceUuid(), actionMessage.getApprovalProfileResource());
+        if (approvalProfileRelationOptional.isPresent() && !approvalProfileRelationOptional.get().isEmpty()) {
+            for (UUID resourceUuid : actionMessage.getResourceUuids()) {
+                final ActionMessage resourceActionMessage = new ActionMessage();
+                resourceActionMessage.setApprovalProfileResource(actionMessage.getApprovalProfileResource());
+                resourceActionMessage.setApprovalProfileResourceUuid(actionMessage.getApprovalProfileResourceUuid());
+                resourceActionMessage.setData(actionMessage.getData());
+                resourceActionMessage.setUserUuid(actionMessage.getUserUuid());
+                resourceActionMessage.setResource(actionMessage.getResource());
+                resourceActionMessage.setResourceAction(actionMessage.getResourceAction());
+                resourceActionMessage.setResourceUuid(resourceUuid);
+                actionProducer.produceMessage(resourceActionMessage);
+            }
+            return;
+        }
+
+        try {
+            authHelper.authenticateAsUser(actionMessage.getUserUuid());
+            if (actionMessage.getResource() == Resource.CERTIFICATE && actionMessage.getResourceAction() == ResourceAction.ISSUE) {
+                final List<UUID> postponedUuids = clientOperationService.issueCertificateBatchAction(actionMessage.getApprovalProfileResourceUuid(), actionMessage.getResourceUuids(), false);
+                if (!postponedUuids.isEmpty()) {
+                    // certificates not submitted to busy authority are issued again after the delay
+                    logger.info("Postponing issue of {} certificates of grouped action by {}", postponedUuids.size(), authorityBusyRetryDelay);
+                    actionMessage.setResourceUuids(postponedUuids);
+                    actionProducer.produceDelayedMessage(actionMessage, authorityBusyRetryDelay);
+                }
+            } else {
+                logger.error("Action listener does not support grouped action {} for resource {}", actionMessage.getResourceAction().getCode(), actionMessage.getResource().getLabel());
+            }
+        } catch (Exception e) {
+            String errorMessage = String.format("Failed to perform %s %s action with %d objects!", actionMessage.getResource().getLabel(), actionMessage.getResourceAction().getCode(), actionMessage.getResourceUuids().size());
+            logger.error("{}: {}", errorMessage, e.getMessage());
+            notificationProducer.produceNotificationText(actionMessage.getResource(), null,
+                    NotificationRecipient.buildUserNotificationRecipient(actionMessage.getUserUuid()), errorMessage, e.getMessage());
+            throw new MessageHandlingException(RabbitMQConstants.QUEUE_ACTIONS_NAME, actionMessage, "Unable to process grouped action: " + e.getMessage());
+        }
+    }
+
     private void processApprovalCreated(final ActionMessage actionMessage) throws NotFoundException {
         switch (actionMessage.getResource()) {
             case CERTIFICATE -> clientOperationService.approvalCreatedAction(actionMessage.getResourceUuid());
@@ -157,4 +238,14 @@ public class ActionListener {
     public void setAuthHelper(AuthHelper authHelper) {
         this.authHelper = authHelper;
     }
+
+    @Autowired
+    public void setActionProducer(ActionProducer actionProducer) {
+        this.actionProducer = actionProducer;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
 }
@@ -12,11 +12,10 @@ import com.czertainly.api.model.connector.notification.NotificationRecipientDto;
 import com.czertainly.api.model.connector.notification.NotificationType;
 import com.czertainly.api.model.connector.notification.data.*;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.RoleDetailDto;
-import com.czertainly.api.model.core.auth.UserDetailDto;
 import com.czertainly.api.model.core.connector.ConnectorDto;
 import com.czertainly.api.model.core.settings.NotificationSettingsDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.dao.entity.Group;
 import com.czertainly.core.dao.entity.NotificationInstanceMappedAttributes;
 import com.czertainly.core.dao.entity.NotificationInstanceReference;
@@ -26,8 +25,6 @@ import com.czertainly.core.enums.RecipientTypeEnum;
 import com.czertainly.core.messaging.configuration.RabbitMQConstants;
 import com.czertainly.core.messaging.model.NotificationMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.service.NotificationService;
 import com.czertainly.core.service.SettingService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -58,9 +55,7 @@ public class NotificationListener {
 
     private NotificationInstanceReferenceRepository notificationInstanceReferenceRepository;
 
-    private UserManagementApiClient userManagementApiClient;
-
-    private RoleManagementApiClient roleManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
 
     private GroupRepository groupRepository;
 
@@ -90,13 +85,8 @@ public class NotificationListener {
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
-    }
-
-    @Autowired
-    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
-        this.roleManagementApiClient = roleManagementApiClient;
+    public void setAuthIdentityReplica(AuthIdentityReplica authIdentityReplica) {
+        this.authIdentityReplica = authIdentityReplica;
     }
 
     @Autowired
@@ -165,32 +155,32 @@ public class NotificationListener {
 
             if (recipient.getRecipientType().equals(RecipientTypeEnum.USER)) {
                 UUID recipientUuid = recipient.getRecipientUuid();
-                try {
-                    UserDetailDto userDetailDto = userManagementApiClient.getUserDetail(recipientUuid.toString());
+                Optional<AuthIdentityReplica.UserInfo> user = authIdentityReplica.findUser(recipientUuid);
+                if (user.isPresent()) {
                     recipientDto = new NotificationRecipientDto();
-                    recipientDto.setEmail(userDetailDto.getEmail());
-                    recipientDto.setName(userDetailDto.getUsername());
+                    recipientDto.setEmail(user.get().email());
+                    recipientDto.setName(user.get().username());
 
                     recipientCustomAttributes = attributeEngine.getObjectCustomAttributesContent(Resource.USER, recipientUuid);
-                } catch (Exception e) {
+                } else {
                     logger.warn("User with UUID {} was not found, notification was not sent for this user.", recipientUuid);
                 }
             }
             if (recipient.getRecipientType().equals(RecipientTypeEnum.ROLE)) {
                 UUID roleUuid = recipient.getRecipientUuid();
-                try {
-                    RoleDetailDto roleDetailDto = roleManagementApiClient.getRoleDetail(roleUuid.toString());
-                    String email = roleDetailDto.getEmail();
+                Optional<AuthIdentityReplica.RoleInfo> role = authIdentityReplica.findRole(roleUuid);
+                if (role.isPresent()) {
+                    String email = role.get().email();
                     if (email == null || email.isBlank()) {
                         logger.warn("Role with UUID {} does not have specified email, notification was not sent for this role.", roleUuid);
                     } else {
                         recipientDto = new NotificationRecipientDto();
                         recipientDto.setEmail(email);
-                        recipientDto.setName(roleDetailDto.getName());
+                        recipientDto.setName(role.get().name());
                     }
 
                     recipientCustomAttributes = attributeEngine.getObjectCustomAttributesContent(Resource.ROLE, roleUuid);
-                } catch (Exception e) {
+                } else {
                     logger.warn("Role with UUID {} was not found, notification was not sent for this role.", roleUuid);
                 }
             }
@@ -10,7 +10,6 @@ import com.czertainly.core.dao.repository.ScheduledJobHistoryRepository;
 import com.czertainly.core.dao.repository.ScheduledJobsRepository;
 import com.czertainly.core.messaging.configuration.RabbitMQConstants;
 import com.czertainly.core.tasks.SchedulerJobProcessor;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -20,8 +19,8 @@ import org.springframework.stereotype.Component;
 
 import java.util.Date;
 
+// listener is not transactional, jobs manage their transactions, so connection is not held while job is executed
 @Component
-@Transactional
 public class SchedulerListener {
 
     private ApplicationContext applicationContext;
@@ -5,6 +5,7 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.model.auth.ResourceAction;
 import lombok.Data;
 
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -15,6 +16,9 @@ public class ActionMessage {
 
     private UUID resourceUuid;
 
+    // UUIDs of resources of grouped action, action is performed on all of them
+    private List<UUID> resourceUuids;
+
     private UUID userUuid;
 
     private Object data;
@@ -6,6 +6,8 @@ import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 public class ActionProducer {
 
@@ -20,4 +22,17 @@ public class ActionProducer {
         rabbitTemplate.convertAndSend(RabbitMQConstants.EXCHANGE_NAME, RabbitMQConstants.ACTION_ROUTING_KEY, actionMessage);
     }
 
+    /**
+     * Produce action message that is delivered to the queue of actions after the delay
+     *
+     * @param actionMessage action message
+     * @param delay         delay of delivery of the message
+     */
+    public void produceDelayedMessage(final ActionMessage actionMessage, final Duration delay) {
+        rabbitTemplate.convertAndSend(RabbitMQConstants.EXCHANGE_NAME, RabbitMQConstants.ACTION_DELAYED_ROUTING_KEY, actionMessage, message -> {
+            message.getMessageProperties().setExpiration(String.valueOf(delay.toMillis()));
+            return message;
+        });
+    }
+
 }
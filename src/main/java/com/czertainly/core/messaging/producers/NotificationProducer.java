@@ -5,15 +5,14 @@ import com.czertainly.api.model.client.approval.ApprovalDto;
 import com.czertainly.api.model.connector.notification.NotificationType;
 import com.czertainly.api.model.connector.notification.data.*;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDetailDto;
 import com.czertainly.api.model.core.auth.UserProfileDto;
 import com.czertainly.api.model.core.certificate.CertificateDto;
 import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.messaging.configuration.RabbitMQConstants;
 import com.czertainly.core.messaging.model.NotificationMessage;
 import com.czertainly.core.messaging.model.NotificationRecipient;
 import com.czertainly.core.model.auth.ResourceAction;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.util.AuthHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,7 +31,7 @@ public class NotificationProducer {
 
     private RabbitTemplate rabbitTemplate;
 
-    private UserManagementApiClient userManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
 
     @Autowired
     public void setRabbitTemplate(final RabbitTemplate rabbitTemplate) {
@@ -40,8 +39,8 @@ public class NotificationProducer {
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
+    public void setAuthIdentityReplica(AuthIdentityReplica authIdentityReplica) {
+        this.authIdentityReplica = authIdentityReplica;
     }
 
     protected void produceMessage(final NotificationMessage notificationMessage) {
@@ -128,14 +127,8 @@ public class NotificationProducer {
             // anonymous user, retrieve user details
         }
 
-        try {
-            UserDetailDto userDetailDto = userManagementApiClient.getUserDetail(creatorUuid);
-            return userDetailDto.getUsername();
-        } catch (Exception e) {
-            // in case Auth service call fails, return just creator UUID
-            // TODO: mostly problem in tests, need mock of Auth service in tests scope
-            return creatorUuid;
-        }
+        // in case user is not known, return just creator UUID
+        return authIdentityReplica.findUser(UUID.fromString(creatorUuid)).map(AuthIdentityReplica.UserInfo::username).orElse(creatorUuid);
     }
 
 }
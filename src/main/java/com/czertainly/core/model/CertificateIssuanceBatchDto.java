@@ -0,0 +1,45 @@
+package com.czertainly.core.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CertificateIssuanceBatchDto {
+
+    @Schema(description = "UUID of the batch", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String uuid;
+
+    @Schema(description = "UUID of RA Profile the certificates are issued by", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String raProfileUuid;
+
+    @Schema(description = "Time when the batch was submitted", requiredMode = Schema.RequiredMode.REQUIRED)
+    private OffsetDateTime createdAt;
+
+    @Schema(description = "Number of certificate requests in the batch", requiredMode = Schema.RequiredMode.REQUIRED)
+    private int totalCount;
+
+    @Schema(description = "Number of certificate requests rejected during validation", requiredMode = Schema.RequiredMode.REQUIRED)
+    private int rejectedCount;
+
+    @Schema(description = "Number of certificates waiting to be issued by authority", requiredMode = Schema.RequiredMode.REQUIRED)
+    private long requestedCount;
+
+    @Schema(description = "Number of certificates waiting for approval", requiredMode = Schema.RequiredMode.REQUIRED)
+    private long pendingApprovalCount;
+
+    @Schema(description = "Number of issued certificates", requiredMode = Schema.RequiredMode.REQUIRED)
+    private long issuedCount;
+
+    @Schema(description = "Number of certificates that failed to be issued or were rejected by approval", requiredMode = Schema.RequiredMode.REQUIRED)
+    private long failedCount;
+
+    @Schema(description = "True when all certificates of the batch are processed", requiredMode = Schema.RequiredMode.REQUIRED)
+    private boolean finished;
+
+    @Schema(description = "Certificate requests rejected during validation. Returned only in response to submission of the batch")
+    private List<CertificateIssuanceBatchErrorDto> rejectedRequests = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.czertainly.core.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CertificateIssuanceBatchErrorDto {
+
+    @Schema(description = "Index of the certificate request in the batch", requiredMode = Schema.RequiredMode.REQUIRED)
+    private int index;
+
+    @Schema(description = "Reason why the certificate request was rejected", requiredMode = Schema.RequiredMode.REQUIRED)
+    private String message;
+}
@@ -0,0 +1,11 @@
+package com.czertainly.core.model;
+
+import java.util.UUID;
+
+public record CertificateRaProfileProjection(
+        UUID certificateUuid,
+        UUID raProfileUuid,
+        String raProfileName,
+        UUID connectorUuid
+) {
+}
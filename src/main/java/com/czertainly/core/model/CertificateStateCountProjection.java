@@ -0,0 +1,9 @@
+package com.czertainly.core.model;
+
+import com.czertainly.api.model.core.certificate.CertificateState;
+
+public record CertificateStateCountProjection(
+        CertificateState state,
+        Long count
+) {
+}
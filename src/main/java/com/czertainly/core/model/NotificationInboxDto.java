@@ -0,0 +1,21 @@
+package com.czertainly.core.model;
+
+import com.czertainly.api.model.client.notification.NotificationDto;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class NotificationInboxDto {
+
+    @Schema(description = "Notifications of the page ordered from the newest", requiredMode = Schema.RequiredMode.REQUIRED)
+    private List<NotificationDto> items = new ArrayList<>();
+
+    @Schema(description = "Cursor to retrieve next page with, not present when there are no more notifications")
+    private String nextCursor;
+
+    @Schema(description = "Number of unread notifications of the user", requiredMode = Schema.RequiredMode.REQUIRED)
+    private long unreadCount;
+}
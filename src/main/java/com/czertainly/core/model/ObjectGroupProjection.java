@@ -0,0 +1,10 @@
+package com.czertainly.core.model;
+
+import java.util.UUID;
+
+public record ObjectGroupProjection(
+        UUID objectUuid,
+        UUID groupUuid,
+        String groupName
+) {
+}
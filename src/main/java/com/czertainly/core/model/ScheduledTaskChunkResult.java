@@ -0,0 +1,11 @@
+package com.czertainly.core.model;
+
+/**
+ * Result of processing single chunk of scheduled job
+ *
+ * @param checkpoint     checkpoint to continue the job from, passed to processing of next chunk
+ * @param processedItems number of items processed in the chunk
+ * @param finished       true if there is nothing more to process
+ */
+public record ScheduledTaskChunkResult(String checkpoint, int processedItems, boolean finished) {
+}
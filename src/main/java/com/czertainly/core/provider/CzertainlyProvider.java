@@ -15,14 +15,28 @@ public class CzertainlyProvider extends Provider {
     public static final String PROVIDER_NAME = "CzertainlyProvider";
     private static final Logger logger = LoggerFactory.getLogger(CzertainlyProvider.class);
 
-    private CzertainlyProvider(String name, CryptographicOperationsApiClient apiClient) {
+    private final CzertainlySignatureBatcher signatureBatcher;
+
+    private CzertainlyProvider(String name, CryptographicOperationsApiClient apiClient, CzertainlySignatureBatcher signatureBatcher) {
         super(name, "1.0", "CZERTAINLY Provider");
+        this.signatureBatcher = signatureBatcher;
         this.init(apiClient);
     }
 
     public static CzertainlyProvider getInstance(String name, boolean registerProvider, CryptographicOperationsApiClient apiClient) {
+        return getInstance(name, registerProvider, apiClient, null);
+    }
+
+    /**
+     * @param name             name of the provider instance
+     * @param registerProvider true if the provider should be registered in JCA
+     * @param apiClient        client of cryptographic connector
+     * @param signatureBatcher dispatcher batching sign requests, when null every signature is requested by separate call
+     * @return provider instance
+     */
+    public static CzertainlyProvider getInstance(String name, boolean registerProvider, CryptographicOperationsApiClient apiClient, CzertainlySignatureBatcher signatureBatcher) {
         String instanceName = "%s-%s".formatted(PROVIDER_NAME, name);
-        CzertainlyProvider provider = new CzertainlyProvider(instanceName, apiClient);
+        CzertainlyProvider provider = new CzertainlyProvider(instanceName, apiClient, signatureBatcher);
 
         if (registerProvider) {
             if (Security.getProvider(provider.getName()) != null) {
@@ -47,26 +61,26 @@ public class CzertainlyProvider extends Provider {
         putService(new CzertainlyCipherProviderService(this, "Cipher", new CzertainlyCipherService(apiClient, "RSA/NONE/PKCS1Padding")));
 
         // Register Signature algorithms for signing and verification
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "MD5withRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withRSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withRSA")));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "MD5withRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withRSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withRSA", signatureBatcher)));
 
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithRSA/PSS")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withRSA/PSS")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withRSA/PSS")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withRSA/PSS")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withRSA/PSS")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withRSA/PSS")));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithRSA/PSS", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withRSA/PSS", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withRSA/PSS", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withRSA/PSS", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withRSA/PSS", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withRSA/PSS", signatureBatcher)));
 
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithECDSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withECDSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withECDSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withECDSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withECDSA")));
-        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withECDSA")));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "NONEwithECDSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA1withECDSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA224withECDSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA256withECDSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA384withECDSA", signatureBatcher)));
+        putService(new CzertainlySignatureProviderService(this, "Signature", new CzertainlySignatureService(apiClient, "SHA512withECDSA", signatureBatcher)));
     }
 }
\ No newline at end of file
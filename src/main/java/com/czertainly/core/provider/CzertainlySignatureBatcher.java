@@ -0,0 +1,197 @@
+package com.czertainly.core.provider;
+
+import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
+import com.czertainly.api.model.client.attribute.RequestAttributeDto;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataRequestDto;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataResponseDto;
+import com.czertainly.api.model.connector.cryptography.operations.data.SignatureRequestData;
+import com.czertainly.api.model.connector.cryptography.operations.data.SignatureResponseData;
+import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Dispatcher of sign requests to cryptographic connector. Requests signing with the same key and algorithm are sent
+ * in pipeline of limited number of concurrent connector calls and requests arriving while all calls are in flight
+ * are sent together in one call, so concurrent signing of protocol responses does not wait for each other one by one.
+ * Latency of signing, latency of connector calls and size of batches are recorded per key.
+ */
+public class CzertainlySignatureBatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CzertainlySignatureBatcher.class);
+
+    public static final String SIGN_LATENCY_METRIC = "czertainly.cryptography.sign";
+    public static final String CONNECTOR_LATENCY_METRIC = "czertainly.cryptography.sign.connector";
+    public static final String BATCH_SIZE_METRIC = "czertainly.cryptography.sign.batch";
+
+    private final CryptographicOperationsApiClient apiClient;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("czertainly-sign-", 0).factory());
+
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+
+    public CzertainlySignatureBatcher(CryptographicOperationsApiClient apiClient, MeterRegistry meterRegistry, int maxBatchSize, int maxInFlight) {
+        this.apiClient = apiClient;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxInFlight = Math.max(1, maxInFlight);
+    }
+
+    /**
+     * Signs data on connector, waiting for the signature
+     *
+     * @param privateKey          key to sign with
+     * @param algorithm           name of signature algorithm
+     * @param signatureAttributes signature attributes of the algorithm
+     * @param data                data to sign
+     * @return signature of the data
+     * @throws SignatureException when data could not be signed
+     */
+    public byte[] sign(CzertainlyPrivateKey privateKey, String algorithm, List<RequestAttributeDto> signatureAttributes, byte[] data) throws SignatureException {
+        Lane lane = lanes.computeIfAbsent(new LaneKey(privateKey.getTokenInstanceUuid(), privateKey.getKeyUuid(), algorithm), Lane::new);
+        PendingSignature pendingSignature = new PendingSignature(privateKey, signatureAttributes, data, new CompletableFuture<>());
+
+        long start = System.nanoTime();
+        try {
+            lane.pending.add(pendingSignature);
+            dispatch(lane);
+            return pendingSignature.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SignatureException("Signing on connector was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SignatureException signatureException) {
+                throw signatureException;
+            }
+            throw new SignatureException("Failed to sign on connector", e.getCause());
+        } finally {
+            lane.signLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Lane lane) {
+        // every call releasing its permit dispatches again, so requests queued while all calls were in flight are not left behind
+        while (!lane.pending.isEmpty() && lane.inFlight.tryAcquire()) {
+            List<PendingSignature> batch = new ArrayList<>();
+            PendingSignature pendingSignature;
+            while (batch.size() < maxBatchSize && (pendingSignature = lane.pending.poll()) != null) {
+                batch.add(pendingSignature);
+            }
+            if (batch.isEmpty()) {
+                lane.inFlight.release();
+                continue;
+            }
+
+            try {
+                executor.execute(() -> {
+                    try {
+                        signBatch(lane, batch);
+                    } finally {
+                        lane.inFlight.release();
+                        dispatch(lane);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                lane.inFlight.release();
+                SignatureException exception = new SignatureException("Signing on connector is shut down");
+                batch.forEach(pending -> pending.result().completeExceptionally(exception));
+            }
+        }
+    }
+
+    private void signBatch(Lane lane, List<PendingSignature> batch) {
+        // all requests in lane use the same key and algorithm, the latest resolved key and attributes are used for the call
+        PendingSignature first = batch.getFirst();
+        SignDataRequestDto requestDto = new SignDataRequestDto();
+        requestDto.setSignatureAttributes(first.signatureAttributes());
+        List<SignatureRequestData> data = new ArrayList<>(batch.size());
+        for (PendingSignature pendingSignature : batch) {
+            SignatureRequestData signatureRequestData = new SignatureRequestData();
+            signatureRequestData.setData(pendingSignature.data());
+            data.add(signatureRequestData);
+        }
+        requestDto.setData(data);
+
+        logger.debug("Signing {} data on connector: {} with token instance: {} and key: {}",
+                batch.size(),
+                first.privateKey().getConnectorDto().getName(),
+                first.privateKey().getTokenInstanceUuid(),
+                first.privateKey().getKeyUuid());
+
+        lane.batchSize.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            SignDataResponseDto response = apiClient.signData(
+                    first.privateKey().getConnectorDto(),
+                    first.privateKey().getTokenInstanceUuid(),
+                    first.privateKey().getKeyUuid(),
+                    requestDto
+            );
+            List<SignatureResponseData> signatures = response.getSignatures();
+            if (signatures == null || signatures.size() != batch.size()) {
+                throw new SignatureException("Connector returned %d signatures for %d signed data".formatted(signatures == null ? 0 : signatures.size(), batch.size()));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(signatures.get(i).getData());
+            }
+        } catch (Exception e) {
+            SignatureException exception = e instanceof SignatureException signatureException ? signatureException : new SignatureException("Failed to sign on connector", e);
+            batch.forEach(pending -> pending.result().completeExceptionally(exception));
+        } finally {
+            lane.connectorLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record LaneKey(String tokenInstanceUuid, String keyUuid, String algorithm) {
+    }
+
+    private record PendingSignature(CzertainlyPrivateKey privateKey, List<RequestAttributeDto> signatureAttributes, byte[] data,
+                                    CompletableFuture<byte[]> result) {
+    }
+
+    private class Lane {
+
+        private final Queue<PendingSignature> pending = new ConcurrentLinkedQueue<>();
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final Timer signLatency;
+        private final Timer connectorLatency;
+        private final DistributionSummary batchSize;
+
+        private Lane(LaneKey key) {
+            Tags tags = Tags.of(
+                    "tokenInstance", String.valueOf(key.tokenInstanceUuid()),
+                    "key", String.valueOf(key.keyUuid()),
+                    "algorithm", key.algorithm());
+            signLatency = Timer.builder(SIGN_LATENCY_METRIC)
+                    .description("Latency of signing data with key on connector, including waiting for batch")
+                    .tags(tags)
+                    .register(meterRegistry);
+            connectorLatency = Timer.builder(CONNECTOR_LATENCY_METRIC)
+                    .description("Latency of sign calls to connector")
+                    .tags(tags)
+                    .register(meterRegistry);
+            batchSize = DistributionSummary.builder(BATCH_SIZE_METRIC)
+                    .description("Number of data signed in one call to connector")
+                    .tags(tags)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -27,11 +27,17 @@ public class CzertainlySignatureService {
     private final CryptographicOperationsApiClient apiClient;
     private final List<RequestAttributeDto> signatureAttributes;
     private final String algorithm;
+    private final CzertainlySignatureBatcher signatureBatcher;
 
     public CzertainlySignatureService(CryptographicOperationsApiClient apiClient, String algorithm) {
+        this(apiClient, algorithm, null);
+    }
+
+    public CzertainlySignatureService(CryptographicOperationsApiClient apiClient, String algorithm, CzertainlySignatureBatcher signatureBatcher) {
         this.apiClient = apiClient;
         this.signatureAttributes = mapSignatureAttributesFromSignatureAlgorithm(algorithm);
         this.algorithm = algorithm;
+        this.signatureBatcher = signatureBatcher;
     }
 
     public List<RequestAttributeDto> mapSignatureAttributesFromSignatureAlgorithm(String algorithm) {
@@ -149,6 +155,10 @@ public class CzertainlySignatureService {
     }
 
     public byte[] sign(CzertainlyPrivateKey privateKey, byte[] dataToSign) throws SignatureException {
+        if (signatureBatcher != null) {
+            return signatureBatcher.sign(privateKey, algorithm, signatureAttributes, dataToSign);
+        }
+
         SignDataRequestDto requestDto = new SignDataRequestDto();
         requestDto.setSignatureAttributes(signatureAttributes);
         SignatureRequestData signatureRequestData = new SignatureRequestData();
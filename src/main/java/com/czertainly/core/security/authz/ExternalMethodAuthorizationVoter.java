@@ -276,6 +276,10 @@ public class ExternalMethodAuthorizationVoter extends AbstractExternalAuthorizat
                 .filter(arg -> arg instanceof List<?> l && !l.isEmpty() && l.get(0) instanceof SecuredUUID && !(l.get(0) instanceof SecuredParentUUID))
                 .forEach(arg -> uuids.addAll(((List<SecuredUUID>) arg)));
 
+        Arrays.stream(methodInvocation.getArguments())
+                .filter(arg -> arg instanceof Map<?, ?> m && !m.isEmpty() && m.keySet().iterator().next() instanceof SecuredUUID && !(m.keySet().iterator().next() instanceof SecuredParentUUID))
+                .forEach(arg -> uuids.addAll(((Map<SecuredUUID, ?>) arg).keySet()));
+
         return uuids;
     }
 
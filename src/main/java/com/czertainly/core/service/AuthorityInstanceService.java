@@ -18,6 +18,16 @@ public interface AuthorityInstanceService extends ResourceExtensionService {
 
     AuthorityInstanceDto getAuthorityInstance(SecuredUUID uuid) throws ConnectorException;
 
+    /**
+     * Reload the status of the authority instance from the connector on demand.
+     * Status is otherwise refreshed periodically by instance status poller.
+     *
+     * @param uuid UUID of the authority instance
+     * @return Details of the authority instance
+     * @throws ConnectorException when authority instance could not be retrieved from the connector
+     */
+    AuthorityInstanceDto reloadStatus(SecuredUUID uuid) throws ConnectorException;
+
     AuthorityInstanceDto createAuthorityInstance(AuthorityInstanceRequestDto request) throws AlreadyExistException, ConnectorException, AttributeException;
 
     AuthorityInstanceDto editAuthorityInstance(SecuredUUID uuid, AuthorityInstanceUpdateRequestDto request) throws ConnectorException, AttributeException;
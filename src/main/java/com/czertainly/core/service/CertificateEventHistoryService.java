@@ -7,13 +7,29 @@ import com.czertainly.api.model.core.certificate.CertificateEventStatus;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.entity.CertificateEventHistory;
 
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 // TODO AUTH - should be secured?
 public interface CertificateEventHistoryService {
     List<CertificateEventHistoryDto> getCertificateEventHistory(UUID uuid) throws NotFoundException;
+
+    /**
+     * Method to get page of certificate history ordered from the newest events. Next page is read by passing creation time
+     * and UUID of the last event of previous page, so reading of pages does not slow down with size of history.
+     * @param uuid UUID of certificate
+     * @param createdBefore Creation time of the last event of previous page, null for the first page
+     * @param uuidBefore UUID of the last event of previous page, null for the first page
+     * @param pageSize Maximum number of events returned
+     * @return Page of certificate events
+     * @throws NotFoundException when certificate does not exist
+     */
+    List<CertificateEventHistoryDto> getCertificateEventHistory(UUID uuid, OffsetDateTime createdBefore, UUID uuidBefore, int pageSize) throws NotFoundException;
+
     CertificateEventHistory getEventHistory(CertificateEvent event, CertificateEventStatus status, String message, String additionalInformation, Certificate certificate);
     void asyncSaveAllInBatch(List<CertificateEventHistory> certificateEventHistories);
 
@@ -29,4 +45,35 @@ public interface CertificateEventHistoryService {
 
     void addEventHistory(UUID certificateUuid, CertificateEvent event, CertificateEventStatus status, String message, String additionalInformation);
 
+    /**
+     * Method to add the same event into the history of multiple certificates at once.
+     * @param messages Short messages for the event mapped by UUIDs of certificates that should record the event
+     * @param event Certificate event
+     * @param status Event result
+     * @param additionalInformation Additional information
+     */
+    void addEventHistories(Map<UUID, String> messages, CertificateEvent event, CertificateEventStatus status, String additionalInformation);
+
+    /**
+     * Method to insert batch of certificate event histories in transaction of caller. Used by batched appender of events, which inserts whole batch in one transaction.
+     * @param histories Certificate event histories to insert
+     */
+    void saveEventHistories(List<CertificateEventHistory> histories);
+
+    /**
+     * Method to create missing monthly partitions of certificate event history from the current month up to given month.
+     * Does nothing when event history table is not partitioned.
+     * @param until Last month to create partition for
+     * @return Number of created partitions
+     */
+    int createEventHistoryPartitions(YearMonth until);
+
+    /**
+     * Method to drop monthly partitions of certificate event history containing only events created before given time.
+     * Does nothing when event history table is not partitioned.
+     * @param createdBefore Time before which events are dropped
+     * @return Number of dropped partitions
+     */
+    int dropEventHistoryPartitionsBefore(OffsetDateTime createdBefore);
+
 }
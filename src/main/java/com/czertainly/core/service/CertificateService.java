@@ -22,6 +22,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -157,6 +158,38 @@ public interface CertificateService extends ResourceExtensionService  {
      */
     void updateOwner(SecuredUUID uuid, String ownerUuid) throws NotFoundException;
 
+    /**
+     * Method to remove RA profile of multiple certificates
+     * @param uuids UUIDs of the certificates
+     */
+    void removeCertificatesRaProfile(List<SecuredUUID> uuids) throws NotFoundException;
+
+    /**
+     * Method to change Certificate Groups of multiple certificates
+     * @param uuids      UUIDs of the certificates
+     * @param groupUuids set of UUIDs of the certificate groups
+     */
+    void updateCertificatesGroups(List<SecuredUUID> uuids, Set<UUID> groupUuids) throws NotFoundException;
+
+    /**
+     * Method to change Owner of multiple certificates
+     * @param uuids     UUIDs of the certificates
+     * @param ownerUuid UUID of the certificate owner, null to remove owner
+     */
+    void updateCertificatesOwner(List<SecuredUUID> uuids, UUID ownerUuid) throws NotFoundException;
+
+    /**
+     * Method to change Certificate Groups of multiple certificates, each certificate to its own groups
+     * @param certificateGroupUuids sets of UUIDs of the certificate groups mapped by UUIDs of the certificates, empty set to remove groups
+     */
+    void updateCertificatesGroups(Map<SecuredUUID, Set<UUID>> certificateGroupUuids) throws NotFoundException;
+
+    /**
+     * Method to change Owner of multiple certificates, each certificate to its own owner
+     * @param certificateOwnerUuids UUIDs of the certificate owners mapped by UUIDs of the certificates, null value to remove owner
+     */
+    void updateCertificatesOwners(Map<SecuredUUID, UUID> certificateOwnerUuids) throws NotFoundException;
+
 
 
         /**
@@ -167,10 +200,20 @@ public interface CertificateService extends ResourceExtensionService  {
     void bulkUpdateCertificateObjects(SecurityFilter filter, MultipleCertificateObjectUpdateDto request) throws NotFoundException, NotSupportedException;
 
     /**
-     * Function to update status of certificates by scheduled event
+     * Function to get number of certificates to update status of by single run of scheduled event
      *
+     * @return number of certificates
      */
-    int updateCertificatesStatusScheduled();
+    int getCertificatesStatusUpdateCount();
+
+    /**
+     * Function to update status of certificates by scheduled event. Each certificate is updated in its own transaction,
+     * status validation timestamp of certificate that failed to be checked is updated too, so it is not selected again in the same run.
+     *
+     * @param maxCertificates maximum number of certificates to update
+     * @return number of certificates checked
+     */
+    int updateCertificatesStatusScheduled(int maxCertificates);
 
     /**
      * Update the user uuid of the certificate in the core database
@@ -243,6 +286,12 @@ public interface CertificateService extends ResourceExtensionService  {
      */
     void updateCertificateKeys(UUID keyUuid, String publicKeyFingerprint);
 
+    /**
+     * Function to update the certificates with the keys of multiple public keys at once
+     * @param keyUuidsByPublicKeyFingerprint UUIDs of keys mapped by fingerprint of their public key
+     */
+    void updateCertificatesKeys(Map<String, UUID> keyUuidsByPublicKeyFingerprint);
+
     /**
      * Get the list of the certificate contents for the provided certificate UUIDs
      * @param uuids UUIDs of the certificate
@@ -265,6 +314,22 @@ public interface CertificateService extends ResourceExtensionService  {
      */
     CertificateDetailDto submitCertificateRequest(String csr, CertificateRequestFormat csrFormat, List<RequestAttributeDto> signatureAttributes, List<RequestAttributeDto> csrAttributes, List<RequestAttributeDto> issueAttributes, UUID keyUuid, UUID raProfileUuid, UUID sourceCertificateUuid, CertificateProtocolInfo protocolInfo) throws NoSuchAlgorithmException, ConnectorException, AttributeException, CertificateRequestException;
 
+    /**
+     * Create certificate request entity and certificate in status New with issue attributes already validated by connector of the authority,
+     * so the request is stored without calling the connector
+     * @param csr - PKCS10 certificate request to be added
+     * @param csrFormat - format of the certificate request
+     * @param signatureAttributes signatureAttributes used to sign the CSR
+     * @param csrAttributes Attributes used to create CSR
+     * @param issueAttributes Attributes used to issue certificate, already validated by connector of the authority
+     * @param issueAttributeDefinitions definitions of issue attributes listed from connector of the authority
+     * @param keyUuid UUID of the key used to sign the CSR
+     * @param raProfileUuid UUID of the RA profile to be used to issue certificate
+     * @param sourceCertificateUuid UUID of the source certificate specified in case of renew/rekey operation
+     * return Certificate detail DTO
+     */
+    CertificateDetailDto submitCertificateRequest(String csr, CertificateRequestFormat csrFormat, List<RequestAttributeDto> signatureAttributes, List<RequestAttributeDto> csrAttributes, List<RequestAttributeDto> issueAttributes, List<BaseAttribute> issueAttributeDefinitions, UUID keyUuid, UUID raProfileUuid, UUID sourceCertificateUuid, CertificateProtocolInfo protocolInfo) throws NoSuchAlgorithmException, ConnectorException, AttributeException, CertificateRequestException;
+
     /**
      * Function to change the Certificate Entity from CSR to Certificate
      * @param uuid UUID of the entity to be transformed
@@ -61,4 +61,15 @@ public interface CryptographicKeyEventHistoryService {
      * @param keyUuid               key entity that should record the event
      */
     void addEventHistory(KeyEvent event, KeyEventStatus status, String message, Map<String, Object> additionalInformation, UUID keyUuid);
+
+    /**
+     * Method to add the same event into the history of multiple keys at once.
+     *
+     * @param event                 Key event
+     * @param status                Event result
+     * @param message               Short message for the event
+     * @param additionalInformation Additional information as key-value pairs
+     * @param keys                  key entities that should record the event
+     */
+    void addEventHistory(KeyEvent event, KeyEventStatus status, String message, Map<String, Object> additionalInformation, List<CryptographicKeyItem> keys);
 }
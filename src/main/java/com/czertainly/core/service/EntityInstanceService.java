@@ -33,6 +33,16 @@ public interface EntityInstanceService extends ResourceExtensionService {
      */
     EntityInstanceDto getEntityInstance(SecuredUUID entityUuid) throws NotFoundException, ConnectorException;
 
+    /**
+     * Reload status of Entity instance from the connector on demand.
+     * Status is otherwise refreshed periodically by instance status poller.
+     * @param entityUuid UUID of Entity instance
+     * @return Entity instance
+     * @throws NotFoundException when Entity instance with given UUID is not found
+     * @throws ConnectorException when Entity instance could not be retrieved from the connector
+     */
+    EntityInstanceDto reloadStatus(SecuredUUID entityUuid) throws NotFoundException, ConnectorException;
+
     /**
      * Create Entity instance
      * @param entityInstanceRequestDto Request to create Entity instance, see {@link EntityInstanceUpdateRequestDto}
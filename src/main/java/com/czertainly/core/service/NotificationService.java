@@ -6,7 +6,9 @@ import com.czertainly.api.model.client.notification.NotificationDto;
 import com.czertainly.api.model.client.notification.NotificationRequestDto;
 import com.czertainly.api.model.client.notification.NotificationResponseDto;
 import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.model.NotificationInboxDto;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 public interface NotificationService {
@@ -20,6 +22,24 @@ public interface NotificationService {
 
     NotificationResponseDto listNotifications(NotificationRequestDto request);
 
+    /**
+     * List page of notifications of logged user using keyset pagination
+     *
+     * @param unread       true to list only unread notifications
+     * @param cursor       cursor returned with previous page, null for the first page
+     * @param itemsPerPage maximum number of notifications in the page
+     * @return page of notifications with cursor of the next page
+     * @throws ValidationException when cursor is not valid
+     */
+    NotificationInboxDto listInboxNotifications(boolean unread, String cursor, int itemsPerPage) throws ValidationException;
+
+    /**
+     * Get number of unread notifications of logged user
+     *
+     * @return number of unread notifications
+     */
+    long getUnreadNotificationsCount();
+
     void deleteNotification(String uuid) throws NotFoundException;
 
     void markNotificationAsRead(String uuid) throws NotFoundException;
@@ -27,4 +47,21 @@ public interface NotificationService {
     void bulkDeleteNotifications(List<String> uuids);
 
     void bulkMarkNotificationAsRead(List<String> uuids);
+
+    /**
+     * Deletes chunk of notifications read before given time, each chunk in its own transaction
+     *
+     * @param readBefore time before which read notifications are deleted
+     * @param chunkSize  maximum number of deleted recipients of notifications
+     * @return number of deleted recipients
+     */
+    int deleteReadNotificationsBefore(OffsetDateTime readBefore, int chunkSize);
+
+    /**
+     * Deletes notifications sent before given time which have no recipients left
+     *
+     * @param sentBefore time before which notifications are deleted
+     * @return number of deleted notifications
+     */
+    int deleteNotificationsWithoutRecipientsBefore(OffsetDateTime sentBefore);
 }
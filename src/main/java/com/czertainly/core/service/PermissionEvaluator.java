@@ -40,4 +40,10 @@ public interface PermissionEvaluator {
      */
     void tokenProfiles(List<SecuredUUID> uuids);
 
+    /**
+     * Function to evaluate the permission for list of certificates
+     * @param uuids UUIDs of the certificates
+     */
+    void certificates(List<SecuredUUID> uuids);
+
 }
@@ -6,6 +6,7 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.core.dao.entity.Group;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -13,11 +14,55 @@ public interface ResourceObjectAssociationService {
     List<UUID> getGroupUuids(Resource resource, UUID objectUuid);
     void addGroup(Resource resource, UUID objectUuid, UUID groupUuid) throws NotFoundException;
     Set<Group> setGroups(Resource resource, UUID objectUuid, Set<UUID> groupUuid) throws NotFoundException;
+
+    /**
+     * Sets groups of multiple objects using set-based statements. Objects that already have exactly the requested groups are left untouched.
+     *
+     * @param resource    resource of objects
+     * @param objectUuids UUIDs of objects
+     * @param groupUuids  UUIDs of new groups, empty or null to remove all groups
+     * @return names of previous groups mapped by UUIDs of objects whose groups were changed
+     * @throws NotFoundException when some of the groups does not exist
+     */
+    Map<UUID, List<String>> setGroups(Resource resource, List<UUID> objectUuids, Set<UUID> groupUuids) throws NotFoundException;
+
+    /**
+     * Sets groups of multiple objects, each object to its own groups. Requested groups are compared with current groups of all objects loaded together
+     * and only the differences are removed and created in batches.
+     *
+     * @param resource         resource of objects
+     * @param objectGroupUuids UUIDs of new groups mapped by UUIDs of objects, empty or null set to remove all groups of object
+     * @return names of previous groups mapped by UUIDs of objects whose groups were changed
+     * @throws NotFoundException when some of the groups does not exist
+     */
+    Map<UUID, List<String>> setGroups(Resource resource, Map<UUID, Set<UUID>> objectGroupUuids) throws NotFoundException;
     void removeGroup(Resource resource, UUID objectUuid, UUID groupUuid);
     void removeGroupAssociations(UUID groupUuid);
 
     NameAndUuidDto getOwner(Resource resource, UUID objectUuid);
     NameAndUuidDto setOwner(Resource resource, UUID objectUuid, UUID ownerUuid) throws NotFoundException;
+
+    /**
+     * Sets owner of multiple objects using set-based statements. Objects that already have the requested owner are left untouched.
+     *
+     * @param resource    resource of objects
+     * @param objectUuids UUIDs of objects
+     * @param ownerUuid   UUID of new owner, null to remove owner
+     * @return usernames of previous owners (null when object had no owner) mapped by UUIDs of objects whose owner was changed
+     * @throws NotFoundException when the owner does not exist
+     */
+    Map<UUID, String> setOwner(Resource resource, List<UUID> objectUuids, UUID ownerUuid) throws NotFoundException;
+
+    /**
+     * Sets owners of multiple objects, each object to its own owner. Current owners of all objects are loaded together, changes are applied
+     * in batches per owner and usernames of owners are resolved from local replica of identities.
+     *
+     * @param resource         resource of objects
+     * @param objectOwnerUuids UUIDs of new owners mapped by UUIDs of objects, null value to remove owner of object
+     * @return usernames of previous owners (null when object had no owner) mapped by UUIDs of objects whose owner was changed
+     * @throws NotFoundException when some of the owners does not exist
+     */
+    Map<UUID, String> setOwners(Resource resource, Map<UUID, UUID> objectOwnerUuids) throws NotFoundException;
     void setOwnerFromProfile(Resource resource, UUID objectUuid);
     void removeOwnerAssociations(UUID ownerUuid);
 
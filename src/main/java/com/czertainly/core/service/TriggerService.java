@@ -11,6 +11,7 @@ import com.czertainly.core.dao.entity.workflows.TriggerHistoryRecord;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface TriggerService {
@@ -27,6 +28,48 @@ public interface TriggerService {
     List<TriggerHistoryDto> getTriggerHistory(String triggerUuid, String associationObjectUuid);
     TriggerHistorySummaryDto getTriggerHistorySummary(String associationObjectUuid) throws NotFoundException;
 
+    /**
+     * Creates trigger history with assigned UUID, history together with its records is persisted later by {@link #saveTriggerHistories(List)}
+     */
     TriggerHistory createTriggerHistory(OffsetDateTime triggeredAt, UUID triggerUuid, UUID triggerAssociationObjectUuid, UUID objectUuid, UUID referenceObjectUuid);
     TriggerHistoryRecord createTriggerHistoryRecord(TriggerHistory triggerHistory, UUID conditionUuid, UUID executionUuid, String message);
+
+    /**
+     * Persists batch of trigger histories with their records in new transaction
+     *
+     * @param triggerHistories histories created by {@link #createTriggerHistory}
+     */
+    void saveTriggerHistories(List<TriggerHistory> triggerHistories);
+
+    /**
+     * Adds counts of evaluated objects to aggregated trigger results of trigger association object
+     *
+     * @param associationResource   resource of trigger association object
+     * @param associationObjectUuid UUID of trigger association object
+     * @param objectsResource       resource of evaluated objects
+     * @param objectsEvaluated      number of evaluated objects
+     * @param objectsMatched        number of objects matched by some trigger
+     * @param objectsIgnored        number of objects ignored by trigger
+     * @param objectsFailed         number of objects with some failed action
+     */
+    void updateTriggerHistorySummary(Resource associationResource, UUID associationObjectUuid, Resource objectsResource, int objectsEvaluated, int objectsMatched, int objectsIgnored, int objectsFailed);
+
+    /**
+     * Deletes chunk of trigger histories triggered before given time in new transaction
+     *
+     * @param triggeredBefore time before which histories are deleted
+     * @param chunkSize       maximum number of deleted histories
+     * @return number of deleted histories
+     */
+    int deleteTriggerHistoriesBefore(OffsetDateTime triggeredBefore, int chunkSize);
+
+    int deleteTriggerHistorySummariesBefore(OffsetDateTime updatedBefore);
+
+    /**
+     * Records failure of execution performed in batch to trigger histories of objects and marks their actions as not performed
+     *
+     * @param executionUuid UUID of failed execution
+     * @param messages      failure messages mapped by UUID of trigger history
+     */
+    void createTriggerHistoryRecords(UUID executionUuid, Map<UUID, String> messages);
 }
@@ -0,0 +1,15 @@
+package com.czertainly.core.service.acme;
+
+import java.util.UUID;
+
+public interface AcmeChallengeValidationService {
+
+    /**
+     * Submits asynchronous validation of ACME challenge in processing status. When called within transaction,
+     * validation is submitted only after the transaction is committed. Failed validation is retried with backoff
+     * while the challenge stays in processing status, challenge is set as invalid when no attempts are left.
+     *
+     * @param challengeUuid UUID of the challenge
+     */
+    void submitValidation(UUID challengeUuid);
+}
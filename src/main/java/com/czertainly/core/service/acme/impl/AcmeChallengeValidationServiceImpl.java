@@ -0,0 +1,276 @@
+package com.czertainly.core.service.acme.impl;
+
+import com.czertainly.api.model.core.acme.AuthorizationStatus;
+import com.czertainly.api.model.core.acme.ChallengeStatus;
+import com.czertainly.api.model.core.acme.ChallengeType;
+import com.czertainly.api.model.core.acme.OrderStatus;
+import com.czertainly.core.dao.entity.acme.AcmeAccount;
+import com.czertainly.core.dao.entity.acme.AcmeAuthorization;
+import com.czertainly.core.dao.entity.acme.AcmeChallenge;
+import com.czertainly.core.dao.entity.acme.AcmeOrder;
+import com.czertainly.core.dao.entity.acme.AcmeProfile;
+import com.czertainly.core.dao.repository.acme.AcmeAuthorizationRepository;
+import com.czertainly.core.dao.repository.acme.AcmeChallengeRepository;
+import com.czertainly.core.dao.repository.acme.AcmeOrderRepository;
+import com.czertainly.core.service.acme.AcmeChallengeValidationService;
+import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.service.handler.AcmeContextCache;
+import com.czertainly.core.service.handler.AcmeDnsResolver;
+import com.czertainly.core.service.handler.AcmeHttpChallengeClient;
+import com.czertainly.core.util.AcmeCommonHelper;
+import com.czertainly.core.util.SerializationUtil;
+import com.nimbusds.jose.util.Base64URL;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Asynchronous validation of ACME challenges. Validations run on bounded pool of threads outside of transaction,
+ * only reading of the challenge and storing of the result are done in short transactions. Failed validation is retried
+ * with exponential backoff while the challenge stays in processing status (RFC 8555, section 8.2).
+ * Challenges left in processing status by previous run of the application are validated again after start.
+ */
+@Service
+public class AcmeChallengeValidationServiceImpl implements AcmeChallengeValidationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeChallengeValidationServiceImpl.class);
+
+    @Value("${acme.challenge-validation.threads:8}")
+    private int threads;
+
+    @Value("${acme.challenge-validation.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${acme.challenge-validation.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${acme.challenge-validation.retry-backoff:PT5S}")
+    private Duration retryBackoff;
+
+    private ThreadPoolExecutor validationExecutor;
+    private ScheduledExecutorService retryScheduler;
+
+    private AcmeChallengeRepository acmeChallengeRepository;
+    private AcmeAuthorizationRepository acmeAuthorizationRepository;
+    private AcmeOrderRepository acmeOrderRepository;
+    private AcmeContextCache acmeContextCache;
+    private AcmeHttpChallengeClient acmeHttpChallengeClient;
+    private AcmeDnsResolver acmeDnsResolver;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public void setAcmeChallengeRepository(AcmeChallengeRepository acmeChallengeRepository) {
+        this.acmeChallengeRepository = acmeChallengeRepository;
+    }
+
+    @Autowired
+    public void setAcmeAuthorizationRepository(AcmeAuthorizationRepository acmeAuthorizationRepository) {
+        this.acmeAuthorizationRepository = acmeAuthorizationRepository;
+    }
+
+    @Autowired
+    public void setAcmeOrderRepository(AcmeOrderRepository acmeOrderRepository) {
+        this.acmeOrderRepository = acmeOrderRepository;
+    }
+
+    @Autowired
+    public void setAcmeContextCache(AcmeContextCache acmeContextCache) {
+        this.acmeContextCache = acmeContextCache;
+    }
+
+    @Autowired
+    public void setAcmeHttpChallengeClient(AcmeHttpChallengeClient acmeHttpChallengeClient) {
+        this.acmeHttpChallengeClient = acmeHttpChallengeClient;
+    }
+
+    @Autowired
+    public void setAcmeDnsResolver(AcmeDnsResolver acmeDnsResolver) {
+        this.acmeDnsResolver = acmeDnsResolver;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // validation is submitted also after commit of request transaction, so its transactions must not join it
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        validationExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofVirtual().name("acme-challenge-validation-", 0).factory());
+        retryScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("acme-challenge-validation-retry").factory());
+    }
+
+    @PreDestroy
+    public void close() {
+        retryScheduler.shutdownNow();
+        validationExecutor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeValidations() {
+        List<UUID> challengeUuids = transactionTemplate.execute(status -> acmeChallengeRepository.findUuidsByStatus(ChallengeStatus.PROCESSING));
+        if (challengeUuids != null && !challengeUuids.isEmpty()) {
+            logger.info("Resuming validation of {} ACME challenges in processing status", challengeUuids.size());
+            challengeUuids.forEach(challengeUuid -> submit(challengeUuid, 1));
+        }
+    }
+
+    @Override
+    public void submitValidation(UUID challengeUuid) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(challengeUuid, 1);
+                }
+            });
+        } else {
+            submit(challengeUuid, 1);
+        }
+    }
+
+    private void submit(UUID challengeUuid, int attempt) {
+        try {
+            validationExecutor.execute(() -> validate(challengeUuid, attempt));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Validation of ACME challenge {} rejected, all validation threads are busy", challengeUuid);
+            retryOrFail(challengeUuid, attempt);
+        }
+    }
+
+    private void validate(UUID challengeUuid, int attempt) {
+        ChallengeValidationData data = transactionTemplate.execute(status -> acmeChallengeRepository.findByUuid(challengeUuid)
+                .filter(challenge -> challenge.getStatus() == ChallengeStatus.PROCESSING)
+                .map(ChallengeValidationData::new)
+                .orElse(null));
+        if (data == null) {
+            logger.debug("ACME challenge {} is no longer in processing status", challengeUuid);
+            return;
+        }
+
+        boolean valid;
+        try {
+            logger.debug("Validating ACME challenge {}, attempt {}", data.challengeId(), attempt);
+            valid = data.type() == ChallengeType.HTTP01 ? validateHttpChallenge(data) : validateDnsChallenge(data);
+        } catch (Exception e) {
+            logger.info("Attempt {} to validate ACME challenge {} failed: {}", attempt, data.challengeId(), e.getMessage());
+            valid = false;
+        }
+
+        if (valid) {
+            completeValidation(challengeUuid, true);
+        } else {
+            retryOrFail(challengeUuid, attempt);
+        }
+    }
+
+    private void retryOrFail(UUID challengeUuid, int attempt) {
+        if (attempt >= maxAttempts) {
+            completeValidation(challengeUuid, false);
+            return;
+        }
+        long delay = retryBackoff.toMillis() << (attempt - 1);
+        try {
+            retryScheduler.schedule(() -> submit(challengeUuid, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Retry of ACME challenge {} validation not scheduled, validation is shut down", challengeUuid);
+        }
+    }
+
+    private void completeValidation(UUID challengeUuid, boolean valid) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AcmeChallenge challenge = acmeChallengeRepository.findByUuid(challengeUuid).orElse(null);
+                if (challenge == null || challenge.getStatus() != ChallengeStatus.PROCESSING) {
+                    return;
+                }
+                AcmeAuthorization authorization = challenge.getAuthorization();
+                AcmeOrder order = authorization.getOrder();
+                if (valid) {
+                    challenge.setValidated(new Date());
+                    challenge.setStatus(ChallengeStatus.VALID);
+                    authorization.setStatus(AuthorizationStatus.VALID);
+                    order.setStatus(OrderStatus.READY);
+                } else {
+                    challenge.setStatus(ChallengeStatus.INVALID);
+                }
+                acmeOrderRepository.save(order);
+                acmeChallengeRepository.save(challenge);
+                acmeAuthorizationRepository.save(authorization);
+                logger.debug("Validation of the Challenge is completed: {}", challenge);
+            });
+        } catch (Exception e) {
+            logger.error("Unable to store result of ACME challenge {} validation: {}", challengeUuid, e.getMessage());
+        }
+    }
+
+    private boolean validateHttpChallenge(ChallengeValidationData data) throws Exception {
+        String response = acmeHttpChallengeClient.getChallengeResponse(data.domain(), data.token());
+        String expectedResponse = AcmeCommonHelper.createKeyAuthorization(data.token(), getAccountKey(data));
+        logger.debug("HTTP01 validation response from the server: {}, expected response: {}", response, expectedResponse);
+        // trailing whitespace of the response is ignored (RFC 8555, section 8.3)
+        return response.stripTrailing().equals(expectedResponse);
+    }
+
+    private boolean validateDnsChallenge(ChallengeValidationData data) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance(AcmeConstants.MESSAGE_DIGEST_ALGORITHM);
+        String keyAuthorization = AcmeCommonHelper.createKeyAuthorization(data.token(), getAccountKey(data));
+        String expectedRecord = Base64URL.encode(digest.digest(keyAuthorization.getBytes(StandardCharsets.UTF_8))).toString();
+
+        List<String> txtRecords = acmeDnsResolver.resolveTxtRecords(AcmeConstants.DNS_ACME_PREFIX + data.domain(), expectedRecord, data.dnsResolverIp(), data.dnsResolverPort());
+        if (!txtRecords.contains(expectedRecord)) {
+            logger.debug("TXT record not found for Challenge {}, records found: {}", data.challengeId(), txtRecords);
+            return false;
+        }
+        return true;
+    }
+
+    private PublicKey getAccountKey(ChallengeValidationData data) throws Exception {
+        return acmeContextCache.loadAccountKey(data.accountId(), data.accountPublicKey());
+    }
+
+    private record ChallengeValidationData(String challengeId, ChallengeType type, String token, String domain, String accountId,
+                                           String accountPublicKey, String dnsResolverIp, String dnsResolverPort) {
+
+        private ChallengeValidationData(AcmeChallenge challenge) {
+            this(challenge, challenge.getAuthorization().getOrder().getAcmeAccount());
+        }
+
+        private ChallengeValidationData(AcmeChallenge challenge, AcmeAccount account) {
+            this(challenge.getChallengeId(), challenge.getType(), challenge.getToken(),
+                    // wildcard domain is validated on its base domain (RFC 8555, section 7.1.4)
+                    SerializationUtil.deserializeIdentifier(challenge.getAuthorization().getIdentifier()).getValue().replace("*.", ""),
+                    account.getAccountId(), account.getPublicKey(), getDnsResolverIp(account.getAcmeProfile()), getDnsResolverPort(account.getAcmeProfile()));
+        }
+
+        private static String getDnsResolverIp(AcmeProfile acmeProfile) {
+            return acmeProfile == null ? null : acmeProfile.getDnsResolverIp();
+        }
+
+        private static String getDnsResolverPort(AcmeProfile acmeProfile) {
+            return acmeProfile == null ? null : acmeProfile.getDnsResolverPort();
+        }
+    }
+}
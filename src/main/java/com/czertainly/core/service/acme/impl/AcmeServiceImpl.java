@@ -23,18 +23,20 @@ import com.czertainly.core.dao.entity.acme.*;
 import com.czertainly.core.dao.repository.AcmeProfileRepository;
 import com.czertainly.core.dao.repository.RaProfileRepository;
 import com.czertainly.core.dao.repository.acme.*;
+import com.czertainly.core.event.transaction.AcmeAccountChangedEvent;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
+import com.czertainly.core.service.acme.AcmeChallengeValidationService;
 import com.czertainly.core.service.acme.AcmeConstants;
 import com.czertainly.core.service.acme.AcmeService;
 import com.czertainly.core.service.acme.message.AcmeJwsRequest;
+import com.czertainly.core.service.handler.AcmeContextCache;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.*;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSObject;
-import com.nimbusds.jose.util.Base64URL;
 import jakarta.transaction.Transactional;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.bouncycastle.asn1.x500.style.BCStyle;
@@ -49,6 +51,7 @@ import org.bouncycastle.util.io.pem.PemObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.CacheControl;
@@ -59,22 +62,10 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import javax.naming.Context;
-import javax.naming.NamingEnumeration;
-import javax.naming.NamingException;
-import javax.naming.directory.Attribute;
-import javax.naming.directory.Attributes;
-import javax.naming.directory.DirContext;
-import javax.naming.directory.InitialDirContext;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.StringWriter;
-import java.net.HttpURLConnection;
 import java.net.URI;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.PublicKey;
 import java.security.cert.CertificateException;
@@ -100,6 +91,24 @@ public class AcmeServiceImpl implements AcmeService {
     private ClientOperationService clientOperationService;
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
+    private AcmeContextCache acmeContextCache;
+    private AcmeChallengeValidationService acmeChallengeValidationService;
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Autowired
+    public void setAcmeContextCache(AcmeContextCache acmeContextCache) {
+        this.acmeContextCache = acmeContextCache;
+    }
+
+    @Autowired
+    public void setAcmeChallengeValidationService(AcmeChallengeValidationService acmeChallengeValidationService) {
+        this.acmeChallengeValidationService = acmeChallengeValidationService;
+    }
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -278,6 +287,7 @@ public class AcmeServiceImpl implements AcmeService {
             logger.info("Deactivating Account with ID: {}", accountId);
             deactivateOrders(account.getOrders());
             account.setStatus(AccountStatus.DEACTIVATED);
+            applicationEventPublisher.publishEvent(new AcmeAccountChangedEvent(accountId));
         }
         acmeAccountRepository.save(account);
         if (logger.isDebugEnabled()) {
@@ -354,6 +364,7 @@ public class AcmeServiceImpl implements AcmeService {
 
         acmeAccount.setPublicKey(AcmePublicKeyProcessor.publicKeyPemStringFromObject(newKey));
         acmeAccountRepository.save(acmeAccount);
+        applicationEventPublisher.publishEvent(new AcmeAccountChangedEvent(accountId));
 
         return ResponseEntity.ok()
                 .header(AcmeConstants.LINK_HEADER_NAME, generateLinkHeader(acmeProfileName, isRaProfileBased))
@@ -460,34 +471,22 @@ public class AcmeServiceImpl implements AcmeService {
         AcmeChallenge challenge = validateChallenge(challengeId);
         validateAccount(challenge.getAuthorization().getOrder().getAcmeAccount());
 
-        AcmeAuthorization authorization = challenge.getAuthorization();
-        logger.debug("Authorization corresponding to the Order: {}", authorization.toString());
-        AcmeOrder order = authorization.getOrder();
-        logger.debug("Order corresponding to the Challenge: {}", order.toString());
-
-        boolean isValid;
-        if (challenge.getType().equals(ChallengeType.HTTP01)) {
-            isValid = validateHttpChallenge(challenge);
+        // validation is performed asynchronously, client polls the challenge or its authorization for the result (RFC 8555, section 7.5.1)
+        if (challenge.getStatus() == ChallengeStatus.PENDING) {
+            challenge.setStatus(ChallengeStatus.PROCESSING);
+            acmeChallengeRepository.save(challenge);
+            acmeChallengeValidationService.submitValidation(challenge.getUuid());
+            logger.debug("Validation of the Challenge is submitted: {}", challenge);
         } else {
-            isValid = validateDnsChallenge(challenge);
+            logger.debug("Challenge {} is not pending, its validation is not started again", challengeId);
         }
 
-        if (isValid) {
-            challenge.setValidated(new Date());
-            challenge.setStatus(ChallengeStatus.VALID);
-            authorization.setStatus(AuthorizationStatus.VALID);
-            order.setStatus(OrderStatus.READY);
-        } else {
-            challenge.setStatus(ChallengeStatus.INVALID);
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok();
+        Integer retryInterval = challenge.getAuthorization().getOrder().getAcmeAccount().getAcmeProfile().getRetryInterval();
+        if (challenge.getStatus() == ChallengeStatus.PROCESSING && retryInterval != null) {
+            responseBuilder.header(AcmeConstants.RETRY_HEADER_NAME, retryInterval.toString());
         }
-
-        acmeOrderRepository.save(order);
-        acmeChallengeRepository.save(challenge);
-        acmeAuthorizationRepository.save(authorization);
-
-        logger.debug("Validation of the Challenge is completed: {}", challenge);
-
-        return ResponseEntity.ok()
+        return responseBuilder
                 .header(AcmeConstants.NONCE_HEADER_NAME, generateNonce())
                 .header(AcmeConstants.LINK_HEADER_NAME, generateLinkHeader(acmeProfileName, isRaProfileBased))
                 .header(AcmeConstants.LINK_HEADER_NAME, "<" + challenge.getAuthorization().getUrl() + ">;rel=\"up\"")
@@ -658,24 +657,38 @@ public class AcmeServiceImpl implements AcmeService {
     }
 
     private DirectoryMeta frameDirectoryMeta(String profileName, boolean isRaProfileBased) throws NotFoundException {
-        AcmeProfile acmeProfile;
-        if (isRaProfileBased) {
-            acmeProfile = getRaProfileEntity(profileName).getAcmeProfile();
-        } else {
-            acmeProfile = acmeProfileRepository.findByName(profileName).orElse(null);
+        AcmeContextCache.ProfileContext profileContext = getProfileContext(profileName, isRaProfileBased);
+        if (profileContext == null && isRaProfileBased) {
+            throw new NotFoundException(RaProfile.class, profileName);
         }
-        if (acmeProfile == null) {
+        if (profileContext == null || !profileContext.acmeProfilePresent()) {
             throw new NotFoundException(AcmeProfile.class, profileName);
         }
-        DirectoryMeta meta = new DirectoryMeta();
-        meta.setCaaIdentities(new String[0]);
-        meta.setTermsOfService(acmeProfile.getTermsOfServiceUrl());
-        meta.setExternalAccountRequired(false);
-        meta.setWebsite(acmeProfile.getWebsite());
+        DirectoryMeta meta = profileContext.directoryMeta();
         logger.debug("Directory meta: {}", meta);
         return meta;
     }
 
+    /**
+     * Resolves context of profile from request URL, cached context is used when present
+     *
+     * @param profileName      name of ACME profile or RA profile
+     * @param isRaProfileBased true if profile name is name of RA profile
+     * @return context of profile, null when profile does not exist
+     */
+    private AcmeContextCache.ProfileContext getProfileContext(String profileName, boolean isRaProfileBased) {
+        AcmeContextCache.ProfileContext profileContext = acmeContextCache.getProfile(profileName, isRaProfileBased);
+        if (profileContext != null) {
+            return profileContext;
+        }
+        if (isRaProfileBased) {
+            RaProfile raProfile = raProfileRepository.findByName(profileName).orElse(null);
+            return raProfile == null ? null : acmeContextCache.putProfile(profileName, true, raProfile.getAcmeProfile(), raProfile);
+        }
+        AcmeProfile acmeProfile = acmeProfileRepository.findByName(profileName).orElse(null);
+        return acmeProfile == null ? null : acmeContextCache.putProfile(profileName, false, acmeProfile, acmeProfile.getRaProfile());
+    }
+
     private String generateNonce() {
         String nonceString = AcmeRandomGeneratorAndValidator.generateNonce();
         Date expires = AcmeCommonHelper.addSeconds(new Date(), AcmeConstants.NONCE_VALIDITY);
@@ -906,129 +919,6 @@ public class AcmeServiceImpl implements AcmeService {
         }
     }
 
-    private boolean validateHttpChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.debug("Initiating HTTP-01 Challenge validation: {}", challenge.toString());
-        String response = getHttpChallengeResponse(
-                SerializationUtil.deserializeIdentifier(
-                                challenge
-                                        .getAuthorization()
-                                        .getIdentifier()
-                        )
-                        .getValue().replace("*.", ""),
-                challenge.getToken());
-        PublicKey pubKey;
-        try {
-            pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey());
-        } catch (Exception e) {
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
-        }
-        String expectedResponse = AcmeCommonHelper.createKeyAuthorization(challenge.getToken(), pubKey);
-        logger.debug("HTTP01 validation response from the server: {}, expected response: {}", response, expectedResponse);
-        return response.equals(expectedResponse);
-    }
-
-    private boolean validateDnsChallenge(AcmeChallenge challenge) throws AcmeProblemDocumentException {
-        logger.info("Initiating DNS-01 validation for challenge: {}", challenge.toString());
-        Properties env = getEnv(challenge);
-        List<String> txtRecords = new ArrayList<>();
-        String expectedKeyAuthorization = generateDnsValidationToken(challenge.getAuthorization().getOrder().getAcmeAccount().getPublicKey(), challenge.getToken());
-        DirContext context;
-        try {
-            context = new InitialDirContext(env);
-            Attributes list = context.getAttributes(AcmeConstants.DNS_ACME_PREFIX
-                            + SerializationUtil.deserializeIdentifier(
-                            challenge.getAuthorization().getIdentifier()).getValue(),
-                    new String[]{AcmeConstants.DNS_RECORD_TYPE});
-            NamingEnumeration<? extends Attribute> records = list.getAll();
-
-            while (records.hasMore()) {
-                javax.naming.directory.Attribute record = records.next();
-                txtRecords.add(record.get().toString());
-            }
-        } catch (NamingException e) {
-            logger.error(e.getMessage());
-        }
-        if (txtRecords.isEmpty()) {
-            logger.error("TXT record is empty for Challenge: {}", challenge);
-            return false;
-        }
-        if (!txtRecords.contains(expectedKeyAuthorization)) {
-            logger.error("TXT record not found for Challenge: {}", challenge);
-            return false;
-        }
-        return true;
-    }
-
-    private static Properties getEnv(AcmeChallenge challenge) {
-        Properties env = new Properties();
-        env.setProperty(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
-        AcmeProfile acmeProfile = challenge.getAuthorization().getOrder().getAcmeAccount().getAcmeProfile();
-        if (acmeProfile.getDnsResolverIp() == null || acmeProfile.getDnsResolverIp().isEmpty()) {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX);
-        } else {
-            env.setProperty(Context.PROVIDER_URL, AcmeConstants.DNS_ENV_PREFIX + acmeProfile.getDnsResolverIp() + ":" + Optional.ofNullable(acmeProfile.getDnsResolverPort())
-                    .orElse(AcmeConstants.DEFAULT_DNS_PORT));
-        }
-        return env;
-    }
-
-    private String getHttpChallengeResponse(String domain, String token) throws AcmeProblemDocumentException {
-        return getResponseFollowRedirects(AcmeConstants.HTTP_CHALLENGE_BASE_URL.formatted(domain, token));
-    }
-
-    private String getResponseFollowRedirects(String url) throws AcmeProblemDocumentException {
-        String finalUrl = url;
-        String acmeChallengeOutput = "";
-        int redirectFollowCount = 0;
-        try {
-            HttpURLConnection connection;
-            do {
-                redirectFollowCount += 1;
-                URL urlObject = new URL(finalUrl);
-                if (!(urlObject.getPort() == 80 || urlObject.getPort() == 443 || urlObject.getPort() == -1)) {
-                    throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.TLS, "Only 80 and 443 ports can be followed");
-                }
-                connection = (HttpURLConnection) new URL(finalUrl).openConnection();
-                connection.setInstanceFollowRedirects(false);
-                connection.setUseCaches(false);
-                connection.setRequestMethod(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD);
-                connection.connect();
-                int responseCode = connection.getResponseCode();
-                if (100 <= connection.getResponseCode() && connection.getResponseCode() <= 399) {
-                    BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                    acmeChallengeOutput = bufferedReader.lines().collect(Collectors.joining());
-                }
-                if (responseCode >= 300 && responseCode < 400) {
-                    String redirectedUrl = connection.getHeaderField(AcmeConstants.LOCATION_HEADER_NAME);
-                    if (null == redirectedUrl) {
-                        break;
-                    }
-                    finalUrl = redirectedUrl;
-                } else
-                    break;
-            } while (connection.getResponseCode() != HttpURLConnection.HTTP_OK && redirectFollowCount < AcmeConstants.MAX_REDIRECT_COUNT);
-            connection.disconnect();
-        } catch (AcmeProblemDocumentException e) {
-            throw e;
-        } catch (Exception e) {
-            logger.error(e.getMessage());
-        }
-        return acmeChallengeOutput;
-    }
-
-    private String generateDnsValidationToken(String publicKey, String token) throws AcmeProblemDocumentException {
-        MessageDigest digest;
-        try {
-            PublicKey pubKey = AcmePublicKeyProcessor.publicKeyObjectFromString(publicKey);
-            digest = MessageDigest.getInstance(AcmeConstants.MESSAGE_DIGEST_ALGORITHM);
-            final byte[] encodedHashOfExpectedKeyAuthorization = digest.digest(AcmeCommonHelper.createKeyAuthorization(token, pubKey).getBytes(StandardCharsets.UTF_8));
-            return Base64URL.encode(encodedHashOfExpectedKeyAuthorization).toString();
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            logger.error(e.getMessage());
-            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.SERVER_INTERNAL);
-        }
-    }
-
     private void validateCSR(JcaPKCS10CertificationRequest csr, AcmeOrder order) throws AcmeProblemDocumentException {
         List<String> sans = new ArrayList<>();
         List<String> dnsIdentifiers = new ArrayList<>();
@@ -1216,13 +1106,15 @@ public class AcmeServiceImpl implements AcmeService {
             acmeJwsRequest.checkSignature(acmeJwsRequest.getPublicKey());
         } else {
             String kid = acmeJwsRequest.getKid();
-            AcmeAccount account = acmeAccountRepository.findByAccountId(
-                            kid.split("/")[kid.split("/").length - 1])
-                    .orElseThrow(
-                            () -> new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.ACCOUNT_DOES_NOT_EXIST));
-            PublicKey publicKey;
+            String accountId = kid.split("/")[kid.split("/").length - 1];
+            PublicKey publicKey = acmeContextCache.getAccountKey(accountId);
             try {
-                publicKey = AcmePublicKeyProcessor.publicKeyObjectFromString(account.getPublicKey());
+                if (publicKey == null) {
+                    AcmeAccount account = acmeAccountRepository.findByAccountId(accountId)
+                            .orElseThrow(
+                                    () -> new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.ACCOUNT_DOES_NOT_EXIST));
+                    publicKey = acmeContextCache.loadAccountKey(accountId, account.getPublicKey());
+                }
                 if (!acmeJwsRequest.checkSignature(publicKey)) {
                     throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.UNAUTHORIZED);
                 }
@@ -1234,49 +1126,51 @@ public class AcmeServiceImpl implements AcmeService {
     }
 
     public void validateRaBasedAcme(String raProfileName) throws AcmeProblemDocumentException {
-        RaProfile raProfile = raProfileRepository.findByName(raProfileName).orElseThrow(() ->
-                new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
-                        "Given RA Profile in the request URL is not found"));
-        if (raProfile.getAcmeProfile() == null) {
+        AcmeContextCache.ProfileContext profileContext = getProfileContext(raProfileName, true);
+        if (profileContext == null) {
+            throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
+                    "Given RA Profile in the request URL is not found");
+        }
+        if (!profileContext.acmeProfilePresent()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not associated with the RA Profile");
         }
-        if (!raProfile.getEnabled()) {
+        if (!profileContext.raProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not enabled");
         }
 
-        if (!raProfile.getAcmeProfile().isEnabled()) {
+        if (!profileContext.acmeProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not enabled");
         }
     }
 
     private void validateAcme(String acmeProfileName) throws AcmeProblemDocumentException {
-        AcmeProfile acmeProfile = acmeProfileRepository.findByName(acmeProfileName).orElse(null);
-        if (acmeProfile == null) {
+        AcmeContextCache.ProfileContext profileContext = getProfileContext(acmeProfileName, false);
+        if (profileContext == null) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "Given ACME Profile in the request URL is not found");
         }
 
-        if (!acmeProfile.isEnabled()) {
+        if (!profileContext.acmeProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "ACME Profile is not enabled");
         }
-        if (acmeProfile.getRaProfile() == null) {
+        if (!profileContext.raProfilePresent()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not found");
         }
-        if (!acmeProfile.getRaProfile().getEnabled()) {
+        if (!profileContext.raProfileEnabled()) {
             throw new AcmeProblemDocumentException(HttpStatus.BAD_REQUEST, Problem.MALFORMED,
                     "RA Profile is not enabled");
         }
-        if (acmeProfile.isDisableNewOrders()) {
+        if (profileContext.disableNewOrders()) {
             ProblemDocument problemDocument = new ProblemDocument(Problem.USER_ACTION_REQUIRED);
-            problemDocument.setInstance(acmeProfile.getTermsOfServiceUrl());
+            problemDocument.setInstance(profileContext.termsOfServiceUrl());
             problemDocument.setDetail("Terms of service have changed");
             Map<String, String> additionalHeaders = new HashMap<>();
-            additionalHeaders.put("Link", "<" + acmeProfile.getTermsOfServiceChangeUrl() + ">;rel=\"terms-of-service\"");
+            additionalHeaders.put("Link", "<" + profileContext.termsOfServiceChangeUrl() + ">;rel=\"terms-of-service\"");
             throw new AcmeProblemDocumentException(HttpStatus.FORBIDDEN, problemDocument, additionalHeaders);
         }
     }
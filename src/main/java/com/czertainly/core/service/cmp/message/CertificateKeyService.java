@@ -7,10 +7,10 @@ import com.czertainly.core.provider.key.CzertainlyPrivateKey;
 public interface CertificateKeyService {
 
     /**
-     * @param cmpProfileName name of CMP profile
-     * @return provider for given CMP profile
+     * @param certificate certificate
+     * @return provider for private key of given certificate
      */
-    CzertainlyProvider getProvider(String cmpProfileName);
+    CzertainlyProvider getProvider(Certificate certificate);
 
     /**
      * @param certificate certificate
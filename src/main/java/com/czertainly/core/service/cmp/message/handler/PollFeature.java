@@ -6,6 +6,7 @@ import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
+import com.czertainly.core.service.handler.CertificateStateCompletionRegistry;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import org.bouncycastle.asn1.ASN1OctetString;
@@ -17,7 +18,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class PollFeature {
@@ -30,16 +34,27 @@ public class PollFeature {
     @Value("${cmp.protocol.poll.feature.timeout}")
     private Integer pollFeatureTimeout;
 
+    @Value("${cmp.protocol.poll.feature.fallback-interval:5}")
+    private Integer pollFeatureFallbackInterval;
+
     private CertificateService certificateService;
+    private CertificateStateCompletionRegistry certificateStateCompletionRegistry;
 
     @Autowired
     public void setCertificateService(CertificateService certificateService) {
         this.certificateService = certificateService;
     }
 
+    @Autowired
+    public void setCertificateStateCompletionRegistry(CertificateStateCompletionRegistry certificateStateCompletionRegistry) {
+        this.certificateStateCompletionRegistry = certificateStateCompletionRegistry;
+    }
+
     /**
      * Convert asynchronous behaviour (manipulation with certificate, e.g. issuing/re-keying/revoking) to synchronous
-     * (cmp client ask for certificate) using polling certificate until certificate.
+     * (cmp client ask for certificate) by waiting for completion of operation with certificate. Completion is signalled
+     * by operations finished on this node, certificate state is additionally checked in database in fallback interval
+     * to handle operations finished before waiting started or on another node.
      *
      * @param tid          processing transaction id, see {@link PKIHeader#getTransactionID()}
      * @param serialNumber of given certificate subject of polling
@@ -52,35 +67,48 @@ public class PollFeature {
         SecuredUUID certUUID = SecuredUUID.fromString(uuid);
 
         Certificate polledCert;
+        // -- register before first check, so completion of operation cannot be missed between check and waiting
+        CompletableFuture<CertificateState> completion = certificateStateCompletionRegistry.register(certUUID.getValue());
         try {
             LOG.trace("TID={}, SN={} | Polling of certificate with uuid={}", tid, serialNumber, certUUID);
-            long startRequest = System.currentTimeMillis();
-            long endRequest;
             int cfgValue = pollFeatureTimeout == null ? 10 : pollFeatureTimeout;//in seconds
-            int timeout = 1000 * cfgValue;
+            long deadline = System.currentTimeMillis() + 1000L * cfgValue;
+            long fallbackInterval = 1000L * (pollFeatureFallbackInterval == null ? 5 : pollFeatureFallbackInterval);
             int counter = 0;//counter for logging purpose only
-            do {
+            while (true) {
                 LOG.trace(">>>>> TID={}, POLL=[{}] SN={} | polling request: certificate with uuid={}",
                         tid, counter, serialNumber, certUUID);
                 // -- (2)certification polling (ask for created certificate entity)
                 polledCert = certificateService.getCertificateEntity(certUUID);
                 LOG.trace("<<<<< TID={}, POLL=[{}] SN={} | polling result: certificate entity in state {}, uuid={}",
                         tid, counter, polledCert.getSerialNumber(), polledCert.getState(), certUUID);
-                endRequest = System.currentTimeMillis();
                 counter++;
                 entityManager.refresh(polledCert);//get entity from db (instead from hibernate 1lvl cache)
-                if (counter > 1) TimeUnit.MILLISECONDS.sleep(1000);
                 if (serialNumber == null) serialNumber = polledCert.getSerialNumber();
-            } while ((endRequest - startRequest < timeout)
-                    && !expectedState.equals(polledCert.getState()));
+
+                long remaining = deadline - System.currentTimeMillis();
+                if (expectedState.equals(polledCert.getState()) || completion.isDone() || remaining <= 0) {
+                    break;
+                }
+                try {
+                    completion.get(Math.min(remaining, fallbackInterval), TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // -- no completion signalled on this node, check state of certificate in database
+                }
+            }
             LOG.trace("TID={}, SN={} | Polling of certificate with uuid={} is done", tid, serialNumber, certUUID);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
                     "SN=" + serialNumber + " | cannot poll certificate - processing thread has been interrupted", e);
+        } catch (ExecutionException e) {
+            throw new CmpProcessingException(tid, PKIFailureInfo.systemFailure,
+                    "SN=" + serialNumber + " | cannot poll certificate - waiting for completion failed", e);
         } catch (NotFoundException e) {
             throw new CmpProcessingException(tid, PKIFailureInfo.badDataFormat,
                     "SN=" + serialNumber + " | issued certificate from CA cannot be found, uuid=" + certUUID);
         } finally {
+            certificateStateCompletionRegistry.unregister(certUUID.getValue(), completion);
             LOG.trace("<<<<< CERT polling (  end) <<<<< ");
         }
 
@@ -0,0 +1,159 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.core.acme.DirectoryMeta;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.entity.acme.AcmeProfile;
+import com.czertainly.core.event.transaction.AcmeAccountChangedEvent;
+import com.czertainly.core.event.transaction.AcmeProfileChangedEvent;
+import com.czertainly.core.util.AcmePublicKeyProcessor;
+import com.czertainly.core.util.CertificateUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of context of ACME requests. Resolved ACME and RA profiles with directory metadata are cached per profile name used in
+ * request URL and parsed public keys of accounts are cached per account ID together with thumbprint of stored key,
+ * so validation of requests of known accounts does not load profiles and accounts from database.
+ * Profiles are dropped when any ACME or RA profile is changed and keys when account is deactivated or its key is changed,
+ * both after the change is committed. Changes made on another instance are applied after cached entries expire.
+ */
+@Component
+public class AcmeContextCache {
+
+    @Value("${acme.context-cache.ttl:PT1M}")
+    private Duration cacheTtl;
+
+    @Value("${acme.context-cache.max-accounts:10000}")
+    private int maxAccounts;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<ProfileKey, ProfileContext> profiles = new ConcurrentHashMap<>();
+    private final Map<String, AccountKey> accountKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Returns cached context of profile
+     *
+     * @param profileName    name of ACME profile or RA profile from request URL
+     * @param raProfileBased true if profile name is name of RA profile
+     * @return cached context, null when profile is not cached or already expired
+     */
+    public ProfileContext getProfile(String profileName, boolean raProfileBased) {
+        ProfileKey key = new ProfileKey(profileName, raProfileBased);
+        ProfileContext context = profiles.get(key);
+        if (context != null && isExpired(context.loadedAt())) {
+            profiles.remove(key, context);
+            return null;
+        }
+        return context;
+    }
+
+    /**
+     * Caches context of profile resolved from database
+     *
+     * @param profileName    name of ACME profile or RA profile from request URL
+     * @param raProfileBased true if profile name is name of RA profile
+     * @param acmeProfile    resolved ACME profile, null if RA profile has no ACME profile associated
+     * @param raProfile      resolved RA profile, null if ACME profile has no RA profile associated
+     * @return cached context
+     */
+    public ProfileContext putProfile(String profileName, boolean raProfileBased, AcmeProfile acmeProfile, RaProfile raProfile) {
+        DirectoryMeta meta = null;
+        if (acmeProfile != null) {
+            meta = new DirectoryMeta();
+            meta.setCaaIdentities(new String[0]);
+            meta.setTermsOfService(acmeProfile.getTermsOfServiceUrl());
+            meta.setExternalAccountRequired(false);
+            meta.setWebsite(acmeProfile.getWebsite());
+        }
+        ProfileContext context = new ProfileContext(
+                acmeProfile != null,
+                acmeProfile != null && Boolean.TRUE.equals(acmeProfile.isEnabled()),
+                acmeProfile != null && Boolean.TRUE.equals(acmeProfile.isDisableNewOrders()),
+                acmeProfile == null ? null : acmeProfile.getTermsOfServiceUrl(),
+                acmeProfile == null ? null : acmeProfile.getTermsOfServiceChangeUrl(),
+                meta,
+                raProfile != null,
+                raProfile != null && Boolean.TRUE.equals(raProfile.getEnabled()),
+                clock.instant());
+        profiles.put(new ProfileKey(profileName, raProfileBased), context);
+        return context;
+    }
+
+    /**
+     * Returns cached public key of account
+     *
+     * @param accountId ID of ACME account
+     * @return cached public key, null when key is not cached or already expired
+     */
+    public PublicKey getAccountKey(String accountId) {
+        AccountKey accountKey = accountKeys.get(accountId);
+        if (accountKey != null && isExpired(accountKey.loadedAt())) {
+            accountKeys.remove(accountId, accountKey);
+            return null;
+        }
+        return accountKey == null ? null : accountKey.publicKey();
+    }
+
+    /**
+     * Returns public key of account parsed from stored key. Key is parsed only when it is not cached yet or cached key has different thumbprint.
+     *
+     * @param accountId ID of ACME account
+     * @param publicKey public key of account in format stored in database
+     * @return parsed public key
+     */
+    public PublicKey loadAccountKey(String accountId, String publicKey) throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String thumbprint = CertificateUtil.getThumbprint(publicKey.getBytes(StandardCharsets.UTF_8));
+        AccountKey accountKey = accountKeys.get(accountId);
+        if (accountKey != null && accountKey.thumbprint().equals(thumbprint) && !isExpired(accountKey.loadedAt())) {
+            return accountKey.publicKey();
+        }
+
+        PublicKey parsedKey = AcmePublicKeyProcessor.publicKeyObjectFromString(publicKey);
+        if (accountKeys.size() >= maxAccounts) {
+            accountKeys.values().removeIf(key -> isExpired(key.loadedAt()));
+        }
+        if (accountKey != null || accountKeys.size() < maxAccounts) {
+            accountKeys.put(accountId, new AccountKey(thumbprint, parsedKey, clock.instant()));
+        }
+        return parsedKey;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAcmeProfileChangedEvent(AcmeProfileChangedEvent event) {
+        // names of profiles can be shared by ACME and RA profiles and RA profile can be associated with many ACME profiles
+        profiles.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAcmeAccountChangedEvent(AcmeAccountChangedEvent event) {
+        accountKeys.remove(event.accountId());
+    }
+
+    private boolean isExpired(Instant loadedAt) {
+        return !clock.instant().isBefore(loadedAt.plus(cacheTtl));
+    }
+
+    public record ProfileContext(boolean acmeProfilePresent, boolean acmeProfileEnabled, boolean disableNewOrders, String termsOfServiceUrl,
+                                 String termsOfServiceChangeUrl, DirectoryMeta directoryMeta, boolean raProfilePresent, boolean raProfileEnabled,
+                                 Instant loadedAt) {
+    }
+
+    private record ProfileKey(String profileName, boolean raProfileBased) {
+    }
+
+    private record AccountKey(String thumbprint, PublicKey publicKey, Instant loadedAt) {
+    }
+}
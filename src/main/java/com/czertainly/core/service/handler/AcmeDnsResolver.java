@@ -0,0 +1,168 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.core.service.acme.AcmeConstants;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolver of TXT records for DNS-01 ACME challenges. DNS contexts are reused per resolver, so they are not created for every lookup,
+ * and results are cached. Result containing the expected record is cached for longer time, so repeated validations of the same
+ * domain, e.g. for wildcard and base domain, do not query the resolver again. Result without the expected record is used only shortly,
+ * so record not published yet is picked up on retry. Lookups failed for other reasons than missing record are not cached.
+ */
+@Component
+public class AcmeDnsResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeDnsResolver.class);
+
+    private static final int MAX_IDLE_CONTEXTS = 4;
+
+    @Value("${acme.challenge-validation.dns-timeout:PT5S}")
+    private Duration timeout;
+
+    @Value("${acme.challenge-validation.dns-positive-ttl:PT1M}")
+    private Duration positiveTtl;
+
+    @Value("${acme.challenge-validation.dns-negative-ttl:PT2S}")
+    private Duration negativeTtl;
+
+    @Value("${acme.challenge-validation.dns-cache-size:10000}")
+    private int cacheSize;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<String, BlockingQueue<DirContext>> idleContexts = new ConcurrentHashMap<>();
+    private final Map<LookupKey, CachedRecords> records = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves TXT records of domain
+     *
+     * @param name          domain name to resolve
+     * @param expectedValue value of TXT record expected by the lookup, any found record is expected when null
+     * @param resolverIp    IP address of DNS resolver, system resolver is used when empty
+     * @param resolverPort  port of DNS resolver, default port is used when empty
+     * @return values of TXT records, empty if domain has no TXT records
+     * @throws NamingException when the resolver could not be queried
+     */
+    public List<String> resolveTxtRecords(String name, String expectedValue, String resolverIp, String resolverPort) throws NamingException {
+        String providerUrl = getProviderUrl(resolverIp, resolverPort);
+        LookupKey key = new LookupKey(providerUrl, name.toLowerCase());
+        CachedRecords cachedRecords = records.get(key);
+        if (cachedRecords != null) {
+            // cached result without the expected record is used only as long as missing record would be cached
+            Duration ttl = containsExpected(cachedRecords.values(), expectedValue) ? positiveTtl : negativeTtl;
+            if (clock.instant().isBefore(cachedRecords.resolvedAt().plus(ttl))) {
+                return cachedRecords.values();
+            }
+            if (!clock.instant().isBefore(cachedRecords.resolvedAt().plus(positiveTtl))) {
+                records.remove(key, cachedRecords);
+            }
+        }
+
+        List<String> values = List.copyOf(lookup(providerUrl, name));
+        if (records.size() >= cacheSize) {
+            Instant expiredAt = clock.instant().minus(positiveTtl);
+            records.values().removeIf(cached -> !expiredAt.isBefore(cached.resolvedAt()));
+        }
+        if (records.size() < cacheSize || records.containsKey(key)) {
+            records.put(key, new CachedRecords(values, clock.instant()));
+        }
+        return values;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (BlockingQueue<DirContext> contexts : idleContexts.values()) {
+            DirContext context;
+            while ((context = contexts.poll()) != null) {
+                closeContext(context);
+            }
+        }
+    }
+
+    private List<String> lookup(String providerUrl, String name) throws NamingException {
+        BlockingQueue<DirContext> contexts = idleContexts.computeIfAbsent(providerUrl, url -> new ArrayBlockingQueue<>(MAX_IDLE_CONTEXTS));
+        DirContext context = contexts.poll();
+        if (context == null) {
+            context = createContext(providerUrl);
+        }
+
+        List<String> values = new ArrayList<>();
+        try {
+            Attributes attributes = context.getAttributes(name, new String[]{AcmeConstants.DNS_RECORD_TYPE});
+            Attribute attribute = attributes.get(AcmeConstants.DNS_RECORD_TYPE);
+            if (attribute != null) {
+                NamingEnumeration<?> attributeValues = attribute.getAll();
+                while (attributeValues.hasMore()) {
+                    values.add(attributeValues.next().toString());
+                }
+            }
+        } catch (NameNotFoundException e) {
+            logger.debug("Domain {} not found by DNS resolver {}", name, providerUrl);
+        } catch (NamingException e) {
+            closeContext(context);
+            throw e;
+        }
+
+        if (!contexts.offer(context)) {
+            closeContext(context);
+        }
+        return values;
+    }
+
+    private DirContext createContext(String providerUrl) throws NamingException {
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put(Context.INITIAL_CONTEXT_FACTORY, AcmeConstants.DNS_CONTENT_FACTORY);
+        env.put(Context.PROVIDER_URL, providerUrl);
+        env.put("com.sun.jndi.dns.timeout.initial", String.valueOf(timeout.toMillis()));
+        env.put("com.sun.jndi.dns.timeout.retries", "1");
+        return new InitialDirContext(env);
+    }
+
+    private static void closeContext(DirContext context) {
+        try {
+            context.close();
+        } catch (NamingException e) {
+            logger.debug("Unable to close DNS context: {}", e.getMessage());
+        }
+    }
+
+    private static boolean containsExpected(List<String> values, String expectedValue) {
+        return expectedValue == null ? !values.isEmpty() : values.contains(expectedValue);
+    }
+
+    private static String getProviderUrl(String resolverIp, String resolverPort) {
+        if (resolverIp == null || resolverIp.isEmpty()) {
+            return AcmeConstants.DNS_ENV_PREFIX;
+        }
+        return AcmeConstants.DNS_ENV_PREFIX + resolverIp + ":" + (resolverPort == null || resolverPort.isEmpty() ? AcmeConstants.DEFAULT_DNS_PORT : resolverPort);
+    }
+
+    private record LookupKey(String providerUrl, String name) {
+    }
+
+    private record CachedRecords(List<String> values, Instant resolvedAt) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.core.service.acme.AcmeConstants;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+/**
+ * Client retrieving responses of HTTP-01 ACME challenges. Single HTTP client is shared by all validations, so connections are pooled,
+ * and every request is bounded by timeout and size of response. Redirects are followed only to HTTP and HTTPS default ports (RFC 8555, section 8.3).
+ */
+@Component
+public class AcmeHttpChallengeClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AcmeHttpChallengeClient.class);
+
+    private static final Set<Integer> ALLOWED_REDIRECT_PORTS = Set.of(-1, 80, 443);
+    private static final Set<String> ALLOWED_REDIRECT_SCHEMES = Set.of("http", "https");
+
+    @Value("${acme.challenge-validation.http-timeout:PT10S}")
+    private Duration timeout;
+
+    @Value("${acme.challenge-validation.http-max-response-size:8192}")
+    private int maxResponseSize;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("acme-http-challenge-", 0).factory()))
+                .build();
+    }
+
+    /**
+     * Retrieves response of HTTP-01 challenge
+     *
+     * @param domain domain of the challenge identifier
+     * @param token  token of the challenge
+     * @return body of the response, empty if the response was not successful
+     * @throws IOException when response could not be retrieved
+     */
+    public String getChallengeResponse(String domain, String token) throws IOException {
+        return getResponse(URI.create(AcmeConstants.HTTP_CHALLENGE_BASE_URL.formatted(domain, token)));
+    }
+
+    /**
+     * Retrieves response from URL, following redirects
+     *
+     * @param uri URL to retrieve
+     * @return body of the response, empty if the response was not successful
+     * @throws IOException when response could not be retrieved or redirect is not allowed
+     */
+    public String getResponse(URI uri) throws IOException {
+        URI currentUri = uri;
+        for (int redirectCount = 0; redirectCount <= AcmeConstants.MAX_REDIRECT_COUNT; redirectCount++) {
+            HttpRequest request = HttpRequest.newBuilder(currentUri)
+                    .timeout(timeout)
+                    .method(AcmeConstants.HTTP_CHALLENGE_REQUEST_METHOD, HttpRequest.BodyPublishers.noBody())
+                    .build();
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Retrieving of challenge response was interrupted", e);
+            }
+
+            try (InputStream body = response.body()) {
+                int statusCode = response.statusCode();
+                if (statusCode >= 300 && statusCode < 400) {
+                    String location = response.headers().firstValue(AcmeConstants.LOCATION_HEADER_NAME).orElse(null);
+                    if (location == null) {
+                        return "";
+                    }
+                    URI redirectUri = currentUri.resolve(location);
+                    if (!isRedirectAllowed(currentUri, redirectUri)) {
+                        throw new IOException("Only 80 and 443 ports can be followed");
+                    }
+                    logger.debug("Following redirect of challenge response to {}", redirectUri);
+                    currentUri = redirectUri;
+                    continue;
+                }
+                if (statusCode < 200 || statusCode >= 300) {
+                    logger.debug("Challenge response from {} was not successful: {}", currentUri, statusCode);
+                    return "";
+                }
+                return new String(body.readNBytes(maxResponseSize), StandardCharsets.UTF_8);
+            }
+        }
+        throw new IOException("Maximum number of redirects reached");
+    }
+
+    private static boolean isRedirectAllowed(URI currentUri, URI redirectUri) {
+        if (!ALLOWED_REDIRECT_SCHEMES.contains(redirectUri.getScheme())) {
+            return false;
+        }
+        // redirect within the same origin does not reach any port that was not requested already
+        boolean sameOrigin = redirectUri.getScheme().equals(currentUri.getScheme())
+                && redirectUri.getHost() != null && redirectUri.getHost().equalsIgnoreCase(currentUri.getHost())
+                && redirectUri.getPort() == currentUri.getPort();
+        return sameOrigin || ALLOWED_REDIRECT_PORTS.contains(redirectUri.getPort());
+    }
+}
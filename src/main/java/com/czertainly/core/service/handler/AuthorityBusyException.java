@@ -0,0 +1,21 @@
+package com.czertainly.core.service.handler;
+
+import java.util.UUID;
+
+/**
+ * Thrown when operation with authority instance cannot be started, because the limit of its concurrent operations is reached.
+ * Operation was not submitted to the authority and can be retried later.
+ */
+public class AuthorityBusyException extends RuntimeException {
+
+    private final UUID authorityInstanceReferenceUuid;
+
+    public AuthorityBusyException(UUID authorityInstanceReferenceUuid) {
+        super("Authority instance %s is busy, operation could not be started".formatted(authorityInstanceReferenceUuid));
+        this.authorityInstanceReferenceUuid = authorityInstanceReferenceUuid;
+    }
+
+    public UUID getAuthorityInstanceReferenceUuid() {
+        return authorityInstanceReferenceUuid;
+    }
+}
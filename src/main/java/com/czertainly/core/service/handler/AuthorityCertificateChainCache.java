@@ -0,0 +1,76 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.client.attribute.RequestAttributeDto;
+import com.czertainly.core.util.AttributeContentHashUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of CA certificate chains retrieved from authorities. Chains are cached per authority instance and hash of RA profile
+ * attributes sent to the authority, together with UUIDs of certificates the chain was resolved to, so RA profiles with the same
+ * attributes share the chain. Cached chains expire after configured time and are dropped when authority instance is changed.
+ */
+@Component
+public class AuthorityCertificateChainCache {
+
+    @Value("${authority.certificate-chain-cache.ttl:PT1H}")
+    private Duration cacheTtl;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<ChainKey, CertificateChain> chains = new ConcurrentHashMap<>();
+
+    /**
+     * Returns cached CA certificate chain
+     *
+     * @param authorityInstanceUuid UUID of authority instance
+     * @param raProfileAttributes   RA profile attributes sent to authority
+     * @return cached chain, null when chain is not cached or already expired
+     */
+    public CertificateChain get(UUID authorityInstanceUuid, List<RequestAttributeDto> raProfileAttributes) {
+        ChainKey key = new ChainKey(authorityInstanceUuid, AttributeContentHashUtil.hash(raProfileAttributes));
+        CertificateChain chain = chains.get(key);
+        if (chain != null && !clock.instant().isBefore(chain.loadedAt().plus(cacheTtl))) {
+            chains.remove(key, chain);
+            return null;
+        }
+        return chain;
+    }
+
+    /**
+     * Caches CA certificate chain
+     *
+     * @param authorityInstanceUuid UUID of authority instance
+     * @param raProfileAttributes   RA profile attributes sent to authority
+     * @param certificates          parsed certificates of the chain
+     * @param certificateUuids      UUIDs of certificates the chain was resolved to, in order of the chain
+     */
+    public void put(UUID authorityInstanceUuid, List<RequestAttributeDto> raProfileAttributes, List<X509Certificate> certificates, List<UUID> certificateUuids) {
+        chains.put(new ChainKey(authorityInstanceUuid, AttributeContentHashUtil.hash(raProfileAttributes)),
+                new CertificateChain(List.copyOf(certificates), List.copyOf(certificateUuids), clock.instant()));
+    }
+
+    /**
+     * Drops all cached chains of authority instance
+     *
+     * @param authorityInstanceUuid UUID of authority instance
+     */
+    public void evict(UUID authorityInstanceUuid) {
+        chains.keySet().removeIf(key -> key.authorityInstanceUuid().equals(authorityInstanceUuid));
+    }
+
+    public record CertificateChain(List<X509Certificate> certificates, List<UUID> certificateUuids, Instant loadedAt) {
+    }
+
+    private record ChainKey(UUID authorityInstanceUuid, String attributesHash) {
+    }
+}
@@ -0,0 +1,60 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.exception.ConnectorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits number of concurrent certificate operations submitted to single authority instance,
+ * so slow authority does not occupy all threads processing certificate actions and does not starve other authorities.
+ * Operation over the limit is not waiting for a permit, it fails immediately and its caller is responsible for retrying it later.
+ */
+@Component
+public class AuthorityOperationLimiter {
+
+    @Value("${authority.operations.max-concurrent:4}")
+    private int maxConcurrentOperations;
+
+    private final Map<UUID, Semaphore> authorityPermits = new ConcurrentHashMap<>();
+
+    /**
+     * @return maximum number of concurrent operations with single authority instance
+     */
+    public int getMaxConcurrentOperations() {
+        return maxConcurrentOperations;
+    }
+
+    /**
+     * Executes operation with authority instance when number of operations already running with the authority is below the limit,
+     * otherwise fails without calling the authority
+     *
+     * @param authorityInstanceReferenceUuid UUID of authority instance reference
+     * @param operation                      operation calling the authority connector
+     * @param <T>                            type of operation result
+     * @return result of the operation
+     * @throws ConnectorException     when operation failed
+     * @throws AuthorityBusyException when limit of concurrent operations with the authority is reached and operation was not started
+     */
+    public <T> T execute(UUID authorityInstanceReferenceUuid, AuthorityOperation<T> operation) throws ConnectorException {
+        Semaphore permits = authorityPermits.computeIfAbsent(authorityInstanceReferenceUuid, uuid -> new Semaphore(maxConcurrentOperations));
+        if (!permits.tryAcquire()) {
+            throw new AuthorityBusyException(authorityInstanceReferenceUuid);
+        }
+
+        try {
+            return operation.execute();
+        } finally {
+            permits.release();
+        }
+    }
+
+    @FunctionalInterface
+    public interface AuthorityOperation<T> {
+        T execute() throws ConnectorException;
+    }
+}
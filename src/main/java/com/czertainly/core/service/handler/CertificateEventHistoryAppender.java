@@ -0,0 +1,129 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.core.dao.entity.CertificateEventHistory;
+import com.czertainly.core.service.CertificateEventHistoryService;
+import com.czertainly.core.util.BufferedBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Batched appender of certificate event histories. Events are queued after the transaction recording them commits
+ * and are inserted in batches by background thread, either when batch is full or periodically.
+ * Author of event is taken from authentication of thread recording the event, not the one writing it.
+ * Histories of one batch are inserted in single transaction, so failed batch can be retried by the writer without duplicates.
+ */
+@Component
+public class CertificateEventHistoryAppender {
+
+    @Value("${certificate.event-history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${certificate.event-history.flush-interval:PT1S}")
+    private Duration flushInterval;
+
+    private BufferedBatchWriter<PendingEvent> eventWriter;
+
+    private CertificateEventHistoryService certificateEventHistoryService;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+
+    @Lazy
+    @Autowired
+    public void setCertificateEventHistoryService(CertificateEventHistoryService certificateEventHistoryService) {
+        this.certificateEventHistoryService = certificateEventHistoryService;
+    }
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        // batch is written by background thread or by thread flushing the buffer, its insert must not join transaction of that thread
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        eventWriter = new BufferedBatchWriter<>("certificate-event-history-appender", batchSize, flushInterval, this::saveBatch);
+        eventWriter.bindTo(meterRegistry);
+    }
+
+    /**
+     * Appends certificate event histories to be written. When called within transaction, histories are written
+     * only after the transaction is committed, so they are never written for rolled back changes.
+     *
+     * @param histories certificate event histories
+     */
+    public void append(List<CertificateEventHistory> histories) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(histories, authentication);
+                }
+            });
+        } else {
+            enqueue(histories, authentication);
+        }
+    }
+
+    /**
+     * Writes all buffered certificate event histories
+     */
+    public void flush() {
+        eventWriter.flush();
+    }
+
+    @PreDestroy
+    public void close() {
+        eventWriter.close();
+    }
+
+    private void enqueue(List<CertificateEventHistory> histories, Authentication authentication) {
+        eventWriter.add(histories.stream().map(history -> new PendingEvent(history, authentication)).toList());
+    }
+
+    private void saveBatch(List<PendingEvent> batch) {
+        // histories are saved under authentication they were recorded with, so auditing sets correct author
+        Map<Authentication, List<CertificateEventHistory>> historiesByAuthentication = new LinkedHashMap<>();
+        for (PendingEvent pendingEvent : batch) {
+            historiesByAuthentication.computeIfAbsent(pendingEvent.authentication(), a -> new ArrayList<>()).add(pendingEvent.history());
+        }
+
+        SecurityContext originalContext = SecurityContextHolder.getContext();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Map.Entry<Authentication, List<CertificateEventHistory>> histories : historiesByAuthentication.entrySet()) {
+                    SecurityContextHolder.setContext(new SecurityContextImpl(histories.getKey()));
+                    certificateEventHistoryService.saveEventHistories(histories.getValue());
+                }
+            });
+        } finally {
+            SecurityContextHolder.setContext(originalContext);
+        }
+    }
+
+    private record PendingEvent(CertificateEventHistory history, Authentication authentication) {
+    }
+}
@@ -20,7 +20,9 @@ import com.czertainly.core.dao.entity.workflows.TriggerHistory;
 import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.dao.repository.DiscoveryCertificateRepository;
 import com.czertainly.core.dao.repository.workflows.TriggerAssociationRepository;
+import com.czertainly.core.enums.FilterField;
 import com.czertainly.core.evaluator.CertificateRuleEvaluator;
+import com.czertainly.core.evaluator.CertificateTriggerActionBatch;
 import com.czertainly.core.event.transaction.CertificateValidationEvent;
 import com.czertainly.core.event.transaction.DiscoveryProgressEvent;
 import com.czertainly.core.messaging.model.ValidationMessage;
@@ -53,12 +55,15 @@ public class CertificateHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(CertificateHandler.class);
 
+    private static final int TRIGGER_ACTION_BATCH_SIZE = 1000;
+
     private AttributeEngine attributeEngine;
     private CertificateRuleEvaluator certificateRuleEvaluator;
     private ApplicationEventPublisher applicationEventPublisher;
     private ValidationProducer validationProducer;
 
     private TriggerService triggerService;
+    private TriggerHistoryWriter triggerHistoryWriter;
     private ComplianceService complianceService;
     private CertificateService certificateService;
     private CertificateEventHistoryService certificateEventHistoryService;
@@ -92,6 +97,11 @@ public class CertificateHandler {
         this.triggerService = triggerService;
     }
 
+    @Autowired
+    public void setTriggerHistoryWriter(TriggerHistoryWriter triggerHistoryWriter) {
+        this.triggerHistoryWriter = triggerHistoryWriter;
+    }
+
     @Autowired
     public void setComplianceService(ComplianceService complianceService) {
         this.complianceService = complianceService;
@@ -148,6 +158,7 @@ public class CertificateHandler {
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.DEFAULT)
     public void createDiscoveredCertificate(String batch, DiscoveryHistory discovery, List<DiscoveryProviderCertificateDataDto> discoveredCertificates) {
+        Map<ObjectAttributeContentInfo, List<MetadataAttribute>> existingCertificatesMetadata = new HashMap<>();
         for (DiscoveryProviderCertificateDataDto certificate : discoveredCertificates) {
             DiscoveryCertificate discoveryCertificate = null;
             try {
@@ -163,7 +174,10 @@ public class CertificateHandler {
                 if (existingCertificate == null) {
                     discoveryCertificate.setCertificateContent(certificateService.checkAddCertificateContent(fingerprint, X509ObjectToString.toPem(x509Cert)));
                 } else {
-                    updateDiscoveredCertificate(discovery, existingCertificate, certificate.getMeta());
+                    if (certificate.getMeta() != null) {
+                        existingCertificatesMetadata.computeIfAbsent(getDiscoveryMetadataContentInfo(discovery, existingCertificate), k -> new ArrayList<>()).addAll(certificate.getMeta());
+                    }
+                    addDiscoveryEventHistory(discovery, existingCertificate);
                     discoveryCertificate.setProcessed(true);
                 }
 
@@ -173,11 +187,25 @@ public class CertificateHandler {
             }
         }
 
+        // metadata of already existing certificates in batch are updated at once, when some metadata are not valid, certificates are updated one by one
+        try {
+            attributeEngine.updateObjectsMetadataAttributes(existingCertificatesMetadata);
+        } catch (AttributeException e) {
+            logger.warn("Could not update metadata for existing certificates in batch {} for discovery {} at once, updating them one by one: {}", batch, discovery.getName(), e.getMessage());
+            for (Map.Entry<ObjectAttributeContentInfo, List<MetadataAttribute>> certificateMetadata : existingCertificatesMetadata.entrySet()) {
+                try {
+                    attributeEngine.updateMetadataAttributes(certificateMetadata.getValue(), certificateMetadata.getKey());
+                } catch (AttributeException ex) {
+                    logger.error("Could not update metadata for certificate {} in batch {} for discovery {}: {}", certificateMetadata.getKey().objectUuid(), batch, discovery.getName(), ex.getMessage());
+                }
+            }
+        }
+
         applicationEventPublisher.publishEvent(new DiscoveryProgressEvent(discovery.getUuid(), discovery.getTotalCertificatesDiscovered(), true));
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW, isolation = Isolation.DEFAULT)
-    public void processDiscoveredCertificate(int certIndex, int totalCount, DiscoveryHistory discovery, DiscoveryCertificate discoveryCertificate) {
+    public void processDiscoveredCertificate(int certIndex, int totalCount, DiscoveryHistory discovery, DiscoveryCertificate discoveryCertificate, CertificateTriggerActionBatch actionBatch) {
         // Get X509 from discovered certificate and create certificate entity, do not save in database yet
         Certificate entry;
         X509Certificate x509Cert;
@@ -209,12 +237,15 @@ public class CertificateHandler {
             }
         }
 
+        // Histories of all evaluated triggers are handed over to trigger history writer once certificate is processed
+        List<TriggerHistory> triggerHistories = new ArrayList<>();
         try {
             // First, check the triggers that have action with action type set to ignore
             boolean ignored = false;
             List<TriggerHistory> ignoreTriggerHistories = new ArrayList<>();
             for (Trigger trigger : ignoreTriggers) {
                 TriggerHistory triggerHistory = triggerService.createTriggerHistory(OffsetDateTime.now(), trigger.getUuid(), discovery.getUuid(), null, discoveryCertificate.getUuid());
+                triggerHistories.add(triggerHistory);
                 if (certificateRuleEvaluator.evaluateRules(trigger.getRules(), entry, triggerHistory)) {
                     ignored = true;
                     triggerHistory.setConditionsMatched(true);
@@ -229,6 +260,7 @@ public class CertificateHandler {
 
             // If some trigger ignored this certificate, certificate is not saved and continue with next one
             if (ignored) {
+                triggerHistoryWriter.add(discovery.getUuid(), triggerHistories, true);
                 return;
             }
 
@@ -240,14 +272,16 @@ public class CertificateHandler {
                 ignoreTriggerHistory.setObjectUuid(entry.getUuid());
             }
 
-            // Evaluate rest of the triggers in given order
-            for (Trigger trigger : orderedTriggers) {
+            // Evaluate rest of the triggers in given order, property actions are collected to batch when batch is provided
+            for (int triggerOrder = 0; triggerOrder < orderedTriggers.size(); triggerOrder++) {
+                Trigger trigger = orderedTriggers.get(triggerOrder);
                 // Create trigger history entry
                 TriggerHistory triggerHistory = triggerService.createTriggerHistory(OffsetDateTime.now(), trigger.getUuid(), discovery.getUuid(), entry.getUuid(), discoveryCertificate.getUuid());
+                triggerHistories.add(triggerHistory);
                 // If rules are satisfied, perform defined actions
                 if (certificateRuleEvaluator.evaluateRules(trigger.getRules(), entry, triggerHistory)) {
                     triggerHistory.setConditionsMatched(true);
-                    certificateRuleEvaluator.performActions(trigger, entry, triggerHistory);
+                    certificateRuleEvaluator.performActions(trigger, triggerOrder, entry, triggerHistory, actionBatch);
                     triggerHistory.setActionsPerformed(triggerHistory.getRecords().isEmpty());
                 } else {
                     triggerHistory.setConditionsMatched(false);
@@ -257,6 +291,7 @@ public class CertificateHandler {
         } catch (RuleException e) {
             logger.error("Unable to process trigger on certificate {} from discovery certificate with UUID {}. Message: {}", entry.getUuid(), discoveryCertificate.getUuid(), e.getMessage());
         }
+        triggerHistoryWriter.add(discovery.getUuid(), triggerHistories, false);
 
         updateDiscoveredCertificate(discovery, entry, discoveryCertificate.getMeta());
         discoveryCertificate.setProcessed(true);
@@ -267,13 +302,104 @@ public class CertificateHandler {
         }
     }
 
+    /**
+     * Performs property actions of triggers collected in batch during processing of discovered certificates.
+     * Actions are performed in order of triggers, each chunk of certificates in its own transaction.
+     * Actions setting groups or owner are merged, so each certificate is updated once to the value of its last action.
+     *
+     * @param discovery   Discovery history
+     * @param actionBatch Batch of collected actions
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void performBatchedTriggerActions(DiscoveryHistory discovery, CertificateTriggerActionBatch actionBatch) {
+        Set<FilterField> mergedFields = EnumSet.noneOf(FilterField.class);
+        for (CertificateTriggerActionBatch.BatchedAction action : actionBatch.getActions()) {
+            if (CertificateTriggerActionBatch.isMerged(action.field())) {
+                mergedFields.add(action.field());
+                continue;
+            }
+
+            List<CertificateTriggerActionBatch.BatchedObject> objects = actionBatch.getObjects(action);
+            for (int i = 0; i < objects.size(); i += TRIGGER_ACTION_BATCH_SIZE) {
+                List<CertificateTriggerActionBatch.BatchedObject> batchObjects = objects.subList(i, Math.min(i + TRIGGER_ACTION_BATCH_SIZE, objects.size()));
+                Map<UUID, String> failures;
+                try {
+                    failures = certificateRuleEvaluator.performBatchedAction(action, batchObjects.stream().map(CertificateTriggerActionBatch.BatchedObject::certificateUuid).toList());
+                } catch (Exception e) {
+                    logger.debug("Batched action of trigger {} has not been performed for {} certificates. Reason: {}", action.triggerUuid(), batchObjects.size(), e.getMessage());
+                    failures = new HashMap<>();
+                    for (CertificateTriggerActionBatch.BatchedObject batchObject : batchObjects) {
+                        failures.put(batchObject.certificateUuid(), e.getMessage());
+                    }
+                }
+                addBatchedActionFailures(discovery, action, batchObjects, failures);
+            }
+            logger.debug("Batched action of trigger {} performed on {} certificates of discovery {}", action.triggerUuid(), objects.size(), discovery.getName());
+        }
+
+        for (FilterField field : mergedFields) {
+            performMergedTriggerActions(discovery, field, new ArrayList<>(actionBatch.getLastActions(field).values()));
+        }
+    }
+
+    private void performMergedTriggerActions(DiscoveryHistory discovery, FilterField field, List<CertificateTriggerActionBatch.ObjectAction> objectActions) {
+        for (int i = 0; i < objectActions.size(); i += TRIGGER_ACTION_BATCH_SIZE) {
+            List<CertificateTriggerActionBatch.ObjectAction> batchObjectActions = objectActions.subList(i, Math.min(i + TRIGGER_ACTION_BATCH_SIZE, objectActions.size()));
+            Map<UUID, List<UUID>> certificatePropertyUuids = new LinkedHashMap<>();
+            for (CertificateTriggerActionBatch.ObjectAction objectAction : batchObjectActions) {
+                certificatePropertyUuids.put(objectAction.object().certificateUuid(), objectAction.action().propertyUuids());
+            }
+            try {
+                certificateRuleEvaluator.performMergedActions(field, certificatePropertyUuids);
+            } catch (Exception e) {
+                logger.debug("Merged actions setting {} have not been performed for {} certificates. Reason: {}", field, batchObjectActions.size(), e.getMessage());
+                // failure is recorded to execution of the action that determined value of certificate
+                Map<CertificateTriggerActionBatch.BatchedAction, List<CertificateTriggerActionBatch.BatchedObject>> failedObjects = new LinkedHashMap<>();
+                for (CertificateTriggerActionBatch.ObjectAction objectAction : batchObjectActions) {
+                    failedObjects.computeIfAbsent(objectAction.action(), k -> new ArrayList<>()).add(objectAction.object());
+                }
+                for (Map.Entry<CertificateTriggerActionBatch.BatchedAction, List<CertificateTriggerActionBatch.BatchedObject>> actionObjects : failedObjects.entrySet()) {
+                    Map<UUID, String> failures = new HashMap<>();
+                    for (CertificateTriggerActionBatch.BatchedObject batchObject : actionObjects.getValue()) {
+                        failures.put(batchObject.certificateUuid(), e.getMessage());
+                    }
+                    addBatchedActionFailures(discovery, actionObjects.getKey(), actionObjects.getValue(), failures);
+                }
+            }
+        }
+        logger.debug("Merged actions setting {} performed on {} certificates of discovery {}", field, objectActions.size(), discovery.getName());
+    }
+
+    private void addBatchedActionFailures(DiscoveryHistory discovery, CertificateTriggerActionBatch.BatchedAction action, List<CertificateTriggerActionBatch.BatchedObject> batchObjects, Map<UUID, String> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, String> historyMessages = new HashMap<>();
+        for (CertificateTriggerActionBatch.BatchedObject batchObject : batchObjects) {
+            String message = failures.get(batchObject.certificateUuid());
+            if (message != null && batchObject.triggerHistoryUuid() != null) {
+                historyMessages.put(batchObject.triggerHistoryUuid(), message);
+            }
+        }
+        triggerHistoryWriter.addActionFailures(discovery.getUuid(), action.executionUuid(), historyMessages, failures.keySet());
+    }
+
     private void updateDiscoveredCertificate(DiscoveryHistory discovery, Certificate certificate, List<MetadataAttribute> metadata) {
         // Set metadata attributes, create certificate event history entry and validate certificate
         try {
-            attributeEngine.updateMetadataAttributes(metadata, new ObjectAttributeContentInfo(discovery.getConnectorUuid(), Resource.CERTIFICATE, certificate.getUuid(), Resource.DISCOVERY, discovery.getUuid(), discovery.getName()));
+            attributeEngine.updateMetadataAttributes(metadata, getDiscoveryMetadataContentInfo(discovery, certificate));
         } catch (AttributeException e) {
             logger.error("Could not update metadata for discovery certificate {}.", certificate.getUuid());
         }
+        addDiscoveryEventHistory(discovery, certificate);
+    }
+
+    private ObjectAttributeContentInfo getDiscoveryMetadataContentInfo(DiscoveryHistory discovery, Certificate certificate) {
+        return new ObjectAttributeContentInfo(discovery.getConnectorUuid(), Resource.CERTIFICATE, certificate.getUuid(), Resource.DISCOVERY, discovery.getUuid(), discovery.getName());
+    }
+
+    private void addDiscoveryEventHistory(DiscoveryHistory discovery, Certificate certificate) {
         Map<String, Object> additionalInfo = new HashMap<>();
         additionalInfo.put("Discovery Name", discovery.getName());
         additionalInfo.put("Discovery UUID", discovery.getUuid());
@@ -0,0 +1,95 @@
+package com.czertainly.core.service.handler;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Submits requested certificates of bulk issuance to authority with bounded pipelining per RA profile,
+ * so certificates of the batch are issued concurrently without flooding the authority with all requests at once.
+ * Depth of the pipeline does not exceed limit of concurrent operations with authority, so the pipeline itself does not make the authority busy.
+ */
+@Component
+public class CertificateIssuancePipeline {
+
+    @Value("${certificate.bulk-issuance.pipeline-depth:8}")
+    private int pipelineDepth;
+
+    private AuthorityOperationLimiter authorityOperationLimiter;
+
+    private final Map<UUID, Semaphore> raProfilePermits = new ConcurrentHashMap<>();
+
+    @Autowired
+    public void setAuthorityOperationLimiter(AuthorityOperationLimiter authorityOperationLimiter) {
+        this.authorityOperationLimiter = authorityOperationLimiter;
+    }
+
+    /**
+     * Issue certificates with at most pipeline depth of issue operations running for the RA profile at once,
+     * including operations of other batches of the same RA profile
+     *
+     * @param raProfileUuid    UUID of RA profile of the certificates
+     * @param certificateUuids UUIDs of requested certificates
+     * @param operation        operation issuing single certificate
+     * @return result with messages of failed issue operations and certificates postponed because authority was busy
+     */
+    public IssuanceResult submit(UUID raProfileUuid, List<UUID> certificateUuids, IssueOperation operation) {
+        Semaphore permits = raProfilePermits.computeIfAbsent(raProfileUuid, uuid -> new Semaphore(getEffectivePipelineDepth(), true));
+        Map<UUID, Future<Void>> results = new LinkedHashMap<>();
+        // connector calls are blocking, each certificate is issued in virtual thread with security context of the caller
+        try (ExecutorService executor = new DelegatingSecurityContextExecutorService(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("certificate-issuance-", 0).factory()))) {
+            for (UUID certificateUuid : certificateUuids) {
+                results.put(certificateUuid, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        operation.issue(certificateUuid);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+        }
+
+        Map<UUID, String> failures = new LinkedHashMap<>();
+        List<UUID> postponed = new ArrayList<>();
+        for (Map.Entry<UUID, Future<Void>> result : results.entrySet()) {
+            try {
+                result.getValue().get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof AuthorityBusyException) {
+                    // authority was not called and certificate stays requested, so it can be submitted again later
+                    postponed.add(result.getKey());
+                } else {
+                    failures.put(result.getKey(), e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failures.put(result.getKey(), "Issue of certificate was interrupted");
+            }
+        }
+        return new IssuanceResult(failures, postponed);
+    }
+
+    int getEffectivePipelineDepth() {
+        return Math.max(1, Math.min(pipelineDepth, authorityOperationLimiter.getMaxConcurrentOperations()));
+    }
+
+    /**
+     * Result of certificates submitted to the pipeline
+     *
+     * @param failures  messages of failed issue operations mapped by UUID of certificate
+     * @param postponed UUIDs of certificates not submitted to authority, because it was busy
+     */
+    public record IssuanceResult(Map<UUID, String> failures, List<UUID> postponed) {
+    }
+
+    @FunctionalInterface
+    public interface IssueOperation {
+        void issue(UUID certificateUuid) throws Exception;
+    }
+}
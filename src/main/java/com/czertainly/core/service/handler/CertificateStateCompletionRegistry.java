@@ -0,0 +1,45 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.core.event.transaction.CertificateStateChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of in-process waiters for completion of asynchronous certificate operations (issue, renew, rekey, revoke).
+ * Waiters are completed with resulting state of certificate once the transaction finishing the operation is committed.
+ * Operations finished on another node are not signalled, so waiters must not rely on the signal only.
+ */
+@Component
+public class CertificateStateCompletionRegistry {
+
+    private final Map<UUID, CompletableFuture<CertificateState>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Registers waiter for completion of operation with certificate
+     *
+     * @param certificateUuid UUID of certificate
+     * @return future completed with resulting state of certificate
+     */
+    public CompletableFuture<CertificateState> register(UUID certificateUuid) {
+        return waiters.computeIfAbsent(certificateUuid, uuid -> new CompletableFuture<>());
+    }
+
+    public void unregister(UUID certificateUuid, CompletableFuture<CertificateState> waiter) {
+        waiters.remove(certificateUuid, waiter);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleCertificateStateChangedEvent(CertificateStateChangedEvent event) {
+        CompletableFuture<CertificateState> waiter = waiters.remove(event.certificateUuid());
+        if (waiter != null) {
+            waiter.complete(event.state());
+        }
+    }
+}
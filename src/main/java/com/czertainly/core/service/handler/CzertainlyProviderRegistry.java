@@ -0,0 +1,141 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
+import com.czertainly.api.exception.ValidationError;
+import com.czertainly.api.exception.ValidationException;
+import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
+import com.czertainly.api.model.common.enums.cryptography.KeyType;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.CryptographicKey;
+import com.czertainly.core.dao.entity.CryptographicKeyItem;
+import com.czertainly.core.dao.entity.TokenInstanceReference;
+import com.czertainly.core.provider.CzertainlyProvider;
+import com.czertainly.core.provider.CzertainlySignatureBatcher;
+import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+import com.czertainly.core.service.CryptographicKeyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of JCA providers used for signing and decryption of protocol messages with keys of certificates.
+ * One provider is kept per token instance and key item, sharing dispatcher of sign requests that batches concurrent
+ * requests with the same key. Resolved private key metadata are cached per key of certificate, so loading of key items,
+ * token instance and connector is not repeated for every message. Changes of keys are applied after cached entries expire.
+ */
+@Component
+public class CzertainlyProviderRegistry {
+
+    @Value("${cryptographic-provider.key-cache-ttl:PT1M}")
+    private Duration keyCacheTtl;
+
+    @Value("${cryptographic-provider.sign-batch-size:16}")
+    private int signBatchSize;
+
+    @Value("${cryptographic-provider.sign-max-in-flight:4}")
+    private int signMaxInFlight;
+
+    private final Clock clock = Clock.systemUTC();
+
+    private final Map<ProviderId, CzertainlyProvider> providers = new ConcurrentHashMap<>();
+    private final Map<UUID, CachedKey> keys = new ConcurrentHashMap<>();
+
+    private CryptographicOperationsApiClient cryptographicOperationsApiClient;
+    private CryptographicKeyService cryptographicKeyService;
+    private MeterRegistry meterRegistry;
+    private CzertainlySignatureBatcher signatureBatcher;
+
+    @Autowired
+    public void setCryptographicOperationsApiClient(CryptographicOperationsApiClient cryptographicOperationsApiClient) {
+        this.cryptographicOperationsApiClient = cryptographicOperationsApiClient;
+    }
+
+    @Autowired
+    public void setCryptographicKeyService(CryptographicKeyService cryptographicKeyService) {
+        this.cryptographicKeyService = cryptographicKeyService;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        signatureBatcher = new CzertainlySignatureBatcher(cryptographicOperationsApiClient, meterRegistry, signBatchSize, signMaxInFlight);
+    }
+
+    @PreDestroy
+    public void close() {
+        signatureBatcher.close();
+    }
+
+    /**
+     * Returns provider and private key of certificate
+     *
+     * @param certificate certificate with key managed by token instance
+     * @return provider and private key of the certificate
+     */
+    public ProviderKey getProviderKey(Certificate certificate) {
+        // identifier of lazy loaded key is available without loading the key
+        CryptographicKey key = certificate.getKey();
+        if (key == null) {
+            throw new ValidationException(ValidationError.create("Certificate does not have private key"));
+        }
+        CachedKey cachedKey = keys.get(key.getUuid());
+        if (cachedKey != null) {
+            if (clock.instant().isBefore(cachedKey.loadedAt().plus(keyCacheTtl))) {
+                return cachedKey.providerKey();
+            }
+            keys.remove(key.getUuid(), cachedKey);
+        }
+
+        ProviderKey providerKey = loadProviderKey(key);
+        keys.put(key.getUuid(), new CachedKey(providerKey, clock.instant()));
+        return providerKey;
+    }
+
+    private ProviderKey loadProviderKey(CryptographicKey key) {
+        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
+        if (item == null) {
+            throw new ValidationException(ValidationError.create("Certificate does not have private key"));
+        }
+        TokenInstanceReference tokenInstanceReference = key.getTokenInstanceReference();
+        CzertainlyPrivateKey privateKey = new CzertainlyPrivateKey(
+                tokenInstanceReference.getTokenInstanceUuid(),
+                item.getKeyReferenceUuid().toString(),
+                tokenInstanceReference.getConnector().mapToDto(),
+                item.getKeyAlgorithm().getLabel()
+        );
+        // providers are passed explicitly to JCA operations, so they are not registered globally
+        CzertainlyProvider provider = providers.computeIfAbsent(new ProviderId(tokenInstanceReference.getTokenInstanceUuid(), item.getUuid()),
+                id -> CzertainlyProvider.getInstance("%s-%s".formatted(id.tokenInstanceUuid(), id.keyItemUuid()), false, cryptographicOperationsApiClient, signatureBatcher));
+        return new ProviderKey(provider, privateKey, item.getKeyAlgorithm());
+    }
+
+    /**
+     * Provider with private key to be used with it
+     *
+     * @param provider     provider of the key
+     * @param privateKey   private key managed by token instance
+     * @param keyAlgorithm algorithm of the key
+     */
+    public record ProviderKey(CzertainlyProvider provider, CzertainlyPrivateKey privateKey, KeyAlgorithm keyAlgorithm) {
+    }
+
+    private record ProviderId(String tokenInstanceUuid, UUID keyItemUuid) {
+    }
+
+    private record CachedKey(ProviderKey providerKey, Instant loadedAt) {
+    }
+}
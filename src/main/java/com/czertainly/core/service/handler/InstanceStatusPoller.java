@@ -0,0 +1,228 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.clients.AuthorityInstanceApiClient;
+import com.czertainly.api.clients.EntityInstanceApiClient;
+import com.czertainly.api.clients.cryptography.TokenInstanceApiClient;
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
+import com.czertainly.api.model.connector.cryptography.token.TokenInstanceStatusDto;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.core.dao.entity.AuthorityInstanceReference;
+import com.czertainly.core.dao.entity.EntityInstanceReference;
+import com.czertainly.core.dao.entity.TokenInstanceReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Poller of status of token, authority and entity instances. Statuses are retrieved from connectors with bounded parallelism
+ * and stored together with time of the check, so detail and list requests do not need to wait for connectors.
+ * Polling does not access database, instances are loaded and their statuses stored by caller in short transactions,
+ * so no database connection is held while waiting for connectors.
+ */
+@Component
+public class InstanceStatusPoller {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstanceStatusPoller.class);
+
+    public static final String INSTANCE_STATUS_CONNECTED = "connected";
+    public static final String INSTANCE_STATUS_UNAVAILABLE = "unavailable";
+
+    @Value("${instance-status.poll.parallelism:8}")
+    private int parallelism;
+
+    private TokenInstanceApiClient tokenInstanceApiClient;
+    private AuthorityInstanceApiClient authorityInstanceApiClient;
+    private EntityInstanceApiClient entityInstanceApiClient;
+
+    @Autowired
+    public void setTokenInstanceApiClient(TokenInstanceApiClient tokenInstanceApiClient) {
+        this.tokenInstanceApiClient = tokenInstanceApiClient;
+    }
+
+    @Autowired
+    public void setAuthorityInstanceApiClient(AuthorityInstanceApiClient authorityInstanceApiClient) {
+        this.authorityInstanceApiClient = authorityInstanceApiClient;
+    }
+
+    @Autowired
+    public void setEntityInstanceApiClient(EntityInstanceApiClient entityInstanceApiClient) {
+        this.entityInstanceApiClient = entityInstanceApiClient;
+    }
+
+    /**
+     * Refresh status of token instance from connector on demand
+     *
+     * @param tokenInstanceReference token instance
+     * @return retrieved status
+     * @throws ConnectorException when status could not be retrieved from connector
+     */
+    public TokenInstanceStatusDto refreshTokenInstanceStatus(TokenInstanceReference tokenInstanceReference) throws ConnectorException {
+        TokenInstanceStatusDto status = tokenInstanceApiClient.getTokenInstanceStatus(tokenInstanceReference.getConnector().mapToDto(), tokenInstanceReference.getTokenInstanceUuid());
+        setTokenInstanceStatus(tokenInstanceReference, status);
+        return status;
+    }
+
+    /**
+     * Store status of token instance known from other operation, e.g. activation
+     *
+     * @param tokenInstanceReference token instance
+     * @param status                 new status
+     */
+    public void setTokenInstanceStatus(TokenInstanceReference tokenInstanceReference, TokenInstanceStatus status) {
+        TokenInstanceStatusDto statusDto = new TokenInstanceStatusDto();
+        statusDto.setStatus(status);
+        setTokenInstanceStatus(tokenInstanceReference, statusDto);
+    }
+
+    /**
+     * Refresh status of authority instance from connector on demand
+     *
+     * @param authorityInstanceReference authority instance
+     * @throws ConnectorException when authority instance could not be retrieved from connector
+     */
+    public void refreshAuthorityInstanceStatus(AuthorityInstanceReference authorityInstanceReference) throws ConnectorException {
+        try {
+            authorityInstanceApiClient.getAuthorityInstance(authorityInstanceReference.getConnector().mapToDto(), authorityInstanceReference.getAuthorityInstanceUuid());
+            authorityInstanceReference.setStatus(INSTANCE_STATUS_CONNECTED);
+        } catch (ConnectorException e) {
+            authorityInstanceReference.setStatus(INSTANCE_STATUS_UNAVAILABLE);
+            throw e;
+        } finally {
+            authorityInstanceReference.setStatusUpdatedAt(OffsetDateTime.now());
+        }
+    }
+
+    /**
+     * Refresh status of entity instance from connector on demand
+     *
+     * @param entityInstanceReference entity instance
+     * @throws ConnectorException when entity instance could not be retrieved from connector
+     */
+    public void refreshEntityInstanceStatus(EntityInstanceReference entityInstanceReference) throws ConnectorException {
+        try {
+            entityInstanceApiClient.getEntityInstance(entityInstanceReference.getConnector().mapToDto(), entityInstanceReference.getEntityInstanceUuid());
+            entityInstanceReference.setStatus(INSTANCE_STATUS_CONNECTED);
+        } catch (ConnectorException e) {
+            entityInstanceReference.setStatus(INSTANCE_STATUS_UNAVAILABLE);
+            throw e;
+        } finally {
+            entityInstanceReference.setStatusUpdatedAt(OffsetDateTime.now());
+        }
+    }
+
+    /**
+     * Poll status of token instances. Status of instances that could not be retrieved is unknown.
+     *
+     * @param instances token instances with their connectors
+     * @return retrieved statuses mapped by UUID of token instance
+     */
+    public Map<UUID, TokenInstanceStatusDto> pollTokenInstances(List<PolledInstance> instances) {
+        Map<UUID, TokenInstanceStatusDto> statuses = poll(instances, "token",
+                instance -> tokenInstanceApiClient.getTokenInstanceStatus(instance.connector(), instance.instanceUuid()));
+        for (PolledInstance instance : instances) {
+            statuses.computeIfAbsent(instance.uuid(), uuid -> {
+                TokenInstanceStatusDto status = new TokenInstanceStatusDto();
+                status.setStatus(TokenInstanceStatus.UNKNOWN);
+                return status;
+            });
+        }
+        return statuses;
+    }
+
+    /**
+     * Poll status of authority instances
+     *
+     * @param instances authority instances with their connectors
+     * @return status of instances mapped by UUID of authority instance
+     */
+    public Map<UUID, String> pollAuthorityInstances(List<PolledInstance> instances) {
+        return toInstanceStatuses(instances, poll(instances, "authority", instance -> {
+            authorityInstanceApiClient.getAuthorityInstance(instance.connector(), instance.instanceUuid());
+            return true;
+        }));
+    }
+
+    /**
+     * Poll status of entity instances
+     *
+     * @param instances entity instances with their connectors
+     * @return status of instances mapped by UUID of entity instance
+     */
+    public Map<UUID, String> pollEntityInstances(List<PolledInstance> instances) {
+        return toInstanceStatuses(instances, poll(instances, "entity", instance -> {
+            entityInstanceApiClient.getEntityInstance(instance.connector(), instance.instanceUuid());
+            return true;
+        }));
+    }
+
+    private void setTokenInstanceStatus(TokenInstanceReference tokenInstanceReference, TokenInstanceStatusDto status) {
+        tokenInstanceReference.setStatus(status.getStatus());
+        tokenInstanceReference.setStatusDetail(status);
+        tokenInstanceReference.setStatusUpdatedAt(OffsetDateTime.now());
+    }
+
+    private <T> Map<UUID, T> poll(List<PolledInstance> instances, String instanceType, StatusCall<T> statusCall) {
+        List<PendingStatus<T>> results = new ArrayList<>();
+        // connector calls are blocking, virtual threads are used with number of concurrent calls bounded by parallelism
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism, Thread.ofVirtual().name("instance-status-poller-", 0).factory())) {
+            for (PolledInstance instance : instances) {
+                results.add(new PendingStatus<>(instance, executor.submit(() -> statusCall.call(instance))));
+            }
+        }
+
+        Map<UUID, T> statuses = new HashMap<>();
+        for (PendingStatus<T> result : results) {
+            T status = getResult(result.status(), instanceType, result.instance().name());
+            if (status != null) {
+                statuses.put(result.instance().uuid(), status);
+            }
+        }
+        return statuses;
+    }
+
+    private static Map<UUID, String> toInstanceStatuses(List<PolledInstance> instances, Map<UUID, Boolean> reachable) {
+        Map<UUID, String> statuses = new HashMap<>();
+        for (PolledInstance instance : instances) {
+            statuses.put(instance.uuid(), Boolean.TRUE.equals(reachable.get(instance.uuid())) ? INSTANCE_STATUS_CONNECTED : INSTANCE_STATUS_UNAVAILABLE);
+        }
+        return statuses;
+    }
+
+    private <T> T getResult(Future<T> future, String instanceType, String instanceName) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            logger.warn("Unable to retrieve status of {} instance {}: {}", instanceType, instanceName, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Retrieval of status of {} instance {} interrupted", instanceType, instanceName);
+        }
+        return null;
+    }
+
+    /**
+     * Instance which status is polled, detached from persistence context
+     *
+     * @param uuid         UUID of instance reference
+     * @param name         name of instance
+     * @param connector    connector of instance
+     * @param instanceUuid UUID of instance in connector
+     */
+    public record PolledInstance(UUID uuid, String name, ConnectorDto connector, String instanceUuid) {
+    }
+
+    @FunctionalInterface
+    private interface StatusCall<T> {
+        T call(PolledInstance instance) throws ConnectorException;
+    }
+
+    private record PendingStatus<T>(PolledInstance instance, Future<T> status) {
+    }
+}
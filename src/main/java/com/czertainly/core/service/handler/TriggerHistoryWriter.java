@@ -0,0 +1,206 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.workflows.TriggerHistory;
+import com.czertainly.core.service.TriggerService;
+import com.czertainly.core.util.BufferedBatchWriter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Buffered writer of trigger histories. Histories of evaluated objects are persisted in batches by background thread,
+ * so evaluation of triggers does not wait for inserts of individual histories and records.
+ * When summary mode is enabled, histories of individual objects are not stored at all and only aggregated counts
+ * of evaluated, matched, ignored and failed objects are stored per trigger association object (e.g. discovery run).
+ */
+@Component
+public class TriggerHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TriggerHistoryWriter.class);
+
+    @Value("${trigger.history.batch-size:500}")
+    private int batchSize;
+
+    @Value("${trigger.history.summary-only:false}")
+    private boolean summaryOnly;
+
+    private BufferedBatchWriter<TriggerHistory> historyWriter;
+
+    private final Map<UUID, RunSummary> runSummaries = new ConcurrentHashMap<>();
+
+    private TriggerService triggerService;
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    public void setTriggerService(TriggerService triggerService) {
+        this.triggerService = triggerService;
+    }
+
+    @Autowired
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        historyWriter = new BufferedBatchWriter<>("trigger-history-writer", batchSize, null, batch -> triggerService.saveTriggerHistories(batch));
+        historyWriter.bindTo(meterRegistry);
+    }
+
+    /**
+     * Starts collecting trigger results of trigger association object, e.g. when discovery starts evaluating triggers
+     *
+     * @param associationResource   resource of trigger association object
+     * @param associationObjectUuid UUID of trigger association object
+     * @param objectsResource       resource of evaluated objects
+     */
+    public void start(Resource associationResource, UUID associationObjectUuid, Resource objectsResource) {
+        if (summaryOnly) {
+            runSummaries.put(associationObjectUuid, new RunSummary(associationResource, objectsResource));
+        }
+    }
+
+    /**
+     * Writes all buffered trigger results of trigger association object and stops collecting them
+     *
+     * @param associationObjectUuid UUID of trigger association object
+     */
+    public void complete(UUID associationObjectUuid) {
+        flush();
+        runSummaries.remove(associationObjectUuid);
+    }
+
+    /**
+     * Adds trigger histories of evaluated object to be written
+     *
+     * @param associationObjectUuid UUID of trigger association object
+     * @param triggerHistories      histories of all triggers evaluated on object
+     * @param ignored               whether object was ignored by some trigger
+     */
+    public void add(UUID associationObjectUuid, List<TriggerHistory> triggerHistories, boolean ignored) {
+        RunSummary runSummary = runSummaries.get(associationObjectUuid);
+        if (runSummary != null) {
+            runSummary.add(triggerHistories, ignored);
+            return;
+        }
+
+        historyWriter.add(triggerHistories);
+    }
+
+    /**
+     * Adds failures of actions performed after histories were added, e.g. actions performed in batch
+     *
+     * @param associationObjectUuid UUID of trigger association object
+     * @param executionUuid         UUID of failed execution
+     * @param historyMessages       failure messages mapped by UUID of trigger history
+     * @param objectUuids           UUIDs of objects the execution failed for
+     */
+    public void addActionFailures(UUID associationObjectUuid, UUID executionUuid, Map<UUID, String> historyMessages, Collection<UUID> objectUuids) {
+        RunSummary runSummary = runSummaries.get(associationObjectUuid);
+        if (runSummary != null) {
+            runSummary.addFailedObjects(objectUuids);
+            return;
+        }
+
+        // histories need to be persisted before failures are recorded to them
+        flush();
+        triggerService.createTriggerHistoryRecords(executionUuid, historyMessages);
+    }
+
+    /**
+     * Writes all buffered histories and aggregated counts
+     */
+    public synchronized void flush() {
+        historyWriter.flush();
+
+        for (Map.Entry<UUID, RunSummary> runSummary : runSummaries.entrySet()) {
+            SummaryCounts counts = runSummary.getValue().drainCounts();
+            if (!counts.isEmpty()) {
+                try {
+                    triggerService.updateTriggerHistorySummary(runSummary.getValue().associationResource, runSummary.getKey(), runSummary.getValue().objectsResource,
+                            counts.objectsEvaluated(), counts.objectsMatched(), counts.objectsIgnored(), counts.objectsFailed());
+                } catch (Exception e) {
+                    logger.error("Unable to update trigger history summary of {}: {}", runSummary.getKey(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        historyWriter.close();
+        flush();
+    }
+
+    /**
+     * Aggregated counts of trigger association object not written yet
+     */
+    private static class RunSummary {
+        private final Resource associationResource;
+        private final Resource objectsResource;
+        private final Set<UUID> failedObjectUuids = new HashSet<>();
+        private int objectsEvaluated;
+        private int objectsMatched;
+        private int objectsIgnored;
+        private int objectsFailed;
+
+        private RunSummary(Resource associationResource, Resource objectsResource) {
+            this.associationResource = associationResource;
+            this.objectsResource = objectsResource;
+        }
+
+        private synchronized void add(List<TriggerHistory> triggerHistories, boolean ignored) {
+            ++objectsEvaluated;
+            if (ignored) {
+                ++objectsIgnored;
+            }
+            boolean matched = false;
+            for (TriggerHistory triggerHistory : triggerHistories) {
+                if (triggerHistory.isConditionsMatched()) {
+                    matched = true;
+                    if (!triggerHistory.isActionsPerformed()) {
+                        addFailedObject(triggerHistory.getObjectUuid() != null ? triggerHistory.getObjectUuid() : triggerHistory.getReferenceObjectUuid());
+                    }
+                }
+            }
+            if (matched) {
+                ++objectsMatched;
+            }
+        }
+
+        private synchronized void addFailedObjects(Collection<UUID> objectUuids) {
+            objectUuids.forEach(this::addFailedObject);
+        }
+
+        private void addFailedObject(UUID objectUuid) {
+            // object is counted as failed only once even if more of its actions failed
+            if (failedObjectUuids.add(objectUuid)) {
+                ++objectsFailed;
+            }
+        }
+
+        private synchronized SummaryCounts drainCounts() {
+            SummaryCounts counts = new SummaryCounts(objectsEvaluated, objectsMatched, objectsIgnored, objectsFailed);
+            objectsEvaluated = 0;
+            objectsMatched = 0;
+            objectsIgnored = 0;
+            objectsFailed = 0;
+            return counts;
+        }
+    }
+
+    private record SummaryCounts(int objectsEvaluated, int objectsMatched, int objectsIgnored, int objectsFailed) {
+        private boolean isEmpty() {
+            return objectsEvaluated == 0 && objectsMatched == 0 && objectsIgnored == 0 && objectsFailed == 0;
+        }
+    }
+}
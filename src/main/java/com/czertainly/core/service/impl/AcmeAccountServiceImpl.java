@@ -15,6 +15,7 @@ import com.czertainly.core.dao.entity.acme.AcmeAccount;
 import com.czertainly.core.dao.entity.acme.AcmeOrder;
 import com.czertainly.core.dao.repository.acme.AcmeAccountRepository;
 import com.czertainly.core.dao.repository.acme.AcmeOrderRepository;
+import com.czertainly.core.event.transaction.AcmeAccountChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -24,6 +25,7 @@ import com.czertainly.core.service.AcmeAccountService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import jakarta.transaction.Transactional;
@@ -42,6 +44,8 @@ public class AcmeAccountServiceImpl implements AcmeAccountService {
     private AcmeAccountRepository acmeAccountRepository;
     @Autowired
     private AcmeOrderRepository acmeOrderRepository;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.ACME_ACCOUNT, operation = OperationType.REVOKE)
@@ -167,5 +171,6 @@ public class AcmeAccountServiceImpl implements AcmeAccountService {
         account.setStatus(AccountStatus.REVOKED);
         account.setEnabled(false);
         acmeAccountRepository.save(account);
+        applicationEventPublisher.publishEvent(new AcmeAccountChangedEvent(account.getAccountId()));
     }
 }
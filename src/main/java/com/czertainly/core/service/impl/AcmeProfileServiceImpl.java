@@ -19,6 +19,7 @@ import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.entity.UniquelyIdentifiedAndAudited;
 import com.czertainly.core.dao.entity.acme.AcmeProfile;
 import com.czertainly.core.dao.repository.AcmeProfileRepository;
+import com.czertainly.core.event.transaction.AcmeProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -32,6 +33,7 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -49,12 +51,18 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
     private RaProfileService raProfileService;
     private ExtendedAttributeService extendedAttributeService;
     private AttributeEngine attributeEngine;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
     public AcmeProfileServiceImpl(AcmeProfileRepository acmeProfileRepository) {
         this.acmeProfileRepository = acmeProfileRepository;
     }
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
@@ -221,6 +229,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         acmeProfile.setDisableNewOrders(request.isTermsOfServiceChangeDisable());
         acmeProfile.setTermsOfServiceChangeUrl(request.getTermsOfServiceChangeUrl());
         acmeProfile = acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
 
         AcmeProfileDto dto = acmeProfile.mapToDto();
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ACME_PROFILE, acmeProfile.getUuid(), request.getCustomAttributes()));
@@ -250,6 +259,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         }
         acmeProfile.setEnabled(true);
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -262,6 +272,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         }
         acmeProfile.setEnabled(false);
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -276,6 +287,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
                 }
                 acmeProfile.setEnabled(true);
                 acmeProfileRepository.save(acmeProfile);
+                applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
             } catch (NotFoundException e) {
                 logger.warn(e.getMessage());
             }
@@ -294,6 +306,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
                 }
                 acmeProfile.setEnabled(false);
                 acmeProfileRepository.save(acmeProfile);
+                applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
             } catch (NotFoundException e) {
                 logger.warn(e.getMessage());
             }
@@ -325,6 +338,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         AcmeProfile acmeProfile = getAcmeProfileEntity(uuid);
         acmeProfile.setRaProfile(getRaProfile(raProfileUuid));
         acmeProfileRepository.save(acmeProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -388,6 +402,7 @@ public class AcmeProfileServiceImpl implements AcmeProfileService {
         } else {
             attributeEngine.deleteAllObjectAttributeContent(Resource.ACME_PROFILE, acmeProfile.getUuid());
             acmeProfileRepository.delete(acmeProfile);
+            applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
         }
     }
 }
@@ -32,4 +32,8 @@ public class AuthPermissionEvaluationServiceImpl implements PermissionEvaluator
     @Override
     @ExternalAuthorization(resource = Resource.TOKEN_PROFILE, action = ResourceAction.LIST)
     public void tokenProfiles(List<SecuredUUID> uuids) { }
+
+    @Override
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.DETAIL)
+    public void certificates(List<SecuredUUID> uuids) { }
 }
@@ -33,6 +33,8 @@ import com.czertainly.core.service.AuthorityInstanceService;
 import com.czertainly.core.service.ConnectorService;
 import com.czertainly.core.service.CredentialService;
 import com.czertainly.core.service.RaProfileService;
+import com.czertainly.core.service.handler.AuthorityCertificateChainCache;
+import com.czertainly.core.service.handler.InstanceStatusPoller;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +42,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -62,12 +65,24 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
     @Autowired
     private RaProfileService raProfileService;
     private AttributeEngine attributeEngine;
+    private AuthorityCertificateChainCache authorityCertificateChainCache;
+    private InstanceStatusPoller instanceStatusPoller;
+
+    @Autowired
+    public void setInstanceStatusPoller(InstanceStatusPoller instanceStatusPoller) {
+        this.instanceStatusPoller = instanceStatusPoller;
+    }
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setAuthorityCertificateChainCache(AuthorityCertificateChainCache authorityCertificateChainCache) {
+        this.authorityCertificateChainCache = authorityCertificateChainCache;
+    }
+
 
     @Override
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.CA_INSTANCE, operation = OperationType.REQUEST)
@@ -98,10 +113,33 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
             return authorityInstanceDto;
         }
 
+        // connector is called only to load missing data attributes, status is refreshed by instance status poller
+        if (attributes.isEmpty()) {
+            attributes = loadDataAttributesFromConnector(authorityInstanceReference, attributes);
+        }
+
+        authorityInstanceDto.setAttributes(attributes);
+        return authorityInstanceDto;
+    }
+
+    @Override
+    @AuditLogged(originator = ObjectType.FE, affected = ObjectType.CA_INSTANCE, operation = OperationType.REQUEST)
+    @ExternalAuthorization(resource = Resource.AUTHORITY, action = ResourceAction.DETAIL)
+    public AuthorityInstanceDto reloadStatus(SecuredUUID uuid) throws ConnectorException {
+        AuthorityInstanceReference authorityInstanceReference = getAuthorityInstanceReferenceEntity(uuid);
+        if (authorityInstanceReference.getConnector() == null) {
+            throw new ValidationException(ValidationError.create("Connector of authority instance %s is deleted".formatted(authorityInstanceReference.getName())));
+        }
+        instanceStatusPoller.refreshAuthorityInstanceStatus(authorityInstanceReference);
+        authorityInstanceReferenceRepository.save(authorityInstanceReference);
+        return getAuthorityInstance(uuid);
+    }
+
+    private List<ResponseAttributeDto> loadDataAttributesFromConnector(AuthorityInstanceReference authorityInstanceReference, List<ResponseAttributeDto> attributes) throws ConnectorException {
         AuthorityProviderInstanceDto authorityProviderInstanceDto = authorityInstanceApiClient.getAuthorityInstance(authorityInstanceReference.getConnector().mapToDto(),
                 authorityInstanceReference.getAuthorityInstanceUuid());
 
-        if (attributes.isEmpty() && authorityProviderInstanceDto.getAttributes() != null && !authorityProviderInstanceDto.getAttributes().isEmpty()) {
+        if (authorityProviderInstanceDto.getAttributes() != null && !authorityProviderInstanceDto.getAttributes().isEmpty()) {
             try {
                 List<RequestAttributeDto> requestAttributes = AttributeDefinitionUtils.getClientAttributes(authorityProviderInstanceDto.getAttributes());
                 attributeEngine.updateDataAttributeDefinitions(authorityInstanceReference.getConnectorUuid(), null, authorityProviderInstanceDto.getAttributes());
@@ -110,9 +148,7 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
                 logger.warn("Could not update data attributes for authority {} retrieved from connector", authorityInstanceReference.getName());
             }
         }
-
-        authorityInstanceDto.setAttributes(attributes);
-        return authorityInstanceDto;
+        return attributes;
     }
 
     @Override
@@ -150,7 +186,8 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
         AuthorityInstanceReference authorityInstanceRef = new AuthorityInstanceReference();
         authorityInstanceRef.setAuthorityInstanceUuid(response.getUuid());
         authorityInstanceRef.setName(request.getName());
-        authorityInstanceRef.setStatus("connected");
+        authorityInstanceRef.setStatus(InstanceStatusPoller.INSTANCE_STATUS_CONNECTED);
+        authorityInstanceRef.setStatusUpdatedAt(OffsetDateTime.now());
         authorityInstanceRef.setConnector(connector);
         authorityInstanceRef.setKind(request.getKind());
         authorityInstanceRef.setConnectorName(connector.getName());
@@ -192,6 +229,7 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
         authorityInstanceApiClient.updateAuthorityInstance(connector.mapToDto(),
                 authorityInstanceRef.getAuthorityInstanceUuid(), authorityInstanceDto);
         authorityInstanceReferenceRepository.save(authorityInstanceRef);
+        authorityCertificateChainCache.evict(authorityInstanceRef.getUuid());
 
         AuthorityInstanceDto dto = authorityInstanceRef.mapToDto();
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.AUTHORITY, authorityInstanceRef.getUuid(), request.getCustomAttributes()));
@@ -351,5 +389,6 @@ public class AuthorityInstanceServiceImpl implements AuthorityInstanceService {
         }
         attributeEngine.deleteAllObjectAttributeContent(Resource.AUTHORITY, authorityInstanceRef.getUuid());
         authorityInstanceReferenceRepository.delete(authorityInstanceRef);
+        authorityCertificateChainCache.evict(authorityInstanceRef.getUuid());
     }
 }
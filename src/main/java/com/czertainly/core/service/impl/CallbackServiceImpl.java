@@ -20,6 +20,7 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.connector.FunctionGroupCode;
 import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.connector.ConnectorMetadataCache;
 import com.czertainly.core.dao.entity.AuthorityInstanceReference;
 import com.czertainly.core.dao.entity.Connector;
 import com.czertainly.core.dao.entity.EntityInstanceReference;
@@ -66,6 +67,8 @@ public class CallbackServiceImpl implements CallbackService {
     private CryptographicKeyService cryptographicKeyService;
     @Autowired
     private TokenProfileService tokenProfileService;
+    @Autowired
+    private ConnectorMetadataCache connectorMetadataCache;
     private AttributeEngine attributeEngine;
 
     @Autowired
@@ -77,7 +80,7 @@ public class CallbackServiceImpl implements CallbackService {
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.ATTRIBUTES, operation = OperationType.CALLBACK)
     public Object callback(String uuid, FunctionGroupCode functionGroup, String kind, RequestAttributeCallback callback) throws ConnectorException, ValidationException {
         Connector connector = connectorService.getConnectorEntity(SecuredUUID.fromString(uuid));
-        List<BaseAttribute> definitions = attributeApiClient.listAttributeDefinitions(connector.mapToDto(), functionGroup, kind);
+        List<BaseAttribute> definitions = connectorMetadataCache.getAttributeDefinitions(connector.mapToDto(), functionGroup, kind);
         AttributeCallback attributeCallback = getAttributeByName(callback.getName(), definitions, connector.getUuid());
         AttributeDefinitionUtils.validateCallback(attributeCallback, callback);
 
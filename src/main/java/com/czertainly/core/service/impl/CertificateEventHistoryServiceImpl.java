@@ -9,16 +9,28 @@ import com.czertainly.core.dao.entity.CertificateEventHistory;
 import com.czertainly.core.dao.repository.CertificateEventHistoryRepository;
 import com.czertainly.core.dao.repository.CertificateRepository;
 import com.czertainly.core.service.CertificateEventHistoryService;
+import com.czertainly.core.service.handler.CertificateEventHistoryAppender;
 import com.czertainly.core.util.MetaDefinitions;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,10 +40,20 @@ import java.util.stream.Collectors;
 public class CertificateEventHistoryServiceImpl implements CertificateEventHistoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(CertificateEventHistoryServiceImpl.class);
+
+    private static final String PARTITIONED_TABLE = "certificate_event_history";
+    private static final String DEFAULT_PARTITION = "certificate_event_history_default";
+    private static final String MONTHLY_PARTITION_PREFIX = "certificate_event_history_p";
+    private static final DateTimeFormatter MONTHLY_PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @PersistenceContext
+    private EntityManager entityManager;
     @Autowired
     private CertificateRepository certificateRepository;
     @Autowired
     private CertificateEventHistoryRepository certificateEventHistoryRepository;
+    @Autowired
+    private CertificateEventHistoryAppender certificateEventHistoryAppender;
 
     @Override
     public void addEventHistory(UUID certificateUuid, CertificateEvent event, CertificateEventStatus status, String message, HashMap<String, Object> additionalInformation) {
@@ -46,7 +68,29 @@ public class CertificateEventHistoryServiceImpl implements CertificateEventHisto
         history.setStatus(status);
         history.setAdditionalInformation(additionalInformation);
         history.setMessage(message);
-        certificateEventHistoryRepository.save(history);
+        certificateEventHistoryAppender.append(List.of(history));
+    }
+
+    @Override
+    public void addEventHistories(Map<UUID, String> messages, CertificateEvent event, CertificateEventStatus status, String additionalInformation) {
+        List<CertificateEventHistory> histories = new ArrayList<>(messages.size());
+        for (Map.Entry<UUID, String> message : messages.entrySet()) {
+            CertificateEventHistory history = new CertificateEventHistory();
+            history.setEvent(event);
+            history.setCertificateUuid(message.getKey());
+            history.setStatus(status);
+            history.setAdditionalInformation(additionalInformation);
+            history.setMessage(message.getValue());
+            histories.add(history);
+        }
+        certificateEventHistoryAppender.append(histories);
+    }
+
+    @Override
+    public void saveEventHistories(List<CertificateEventHistory> histories) {
+        for (CertificateEventHistory history : histories) {
+            entityManager.persist(history);
+        }
     }
 
     @Override
@@ -66,6 +110,68 @@ public class CertificateEventHistoryServiceImpl implements CertificateEventHisto
         return certificateEventHistoryRepository.findByCertificateOrderByCreatedDesc(certificate).stream().map(CertificateEventHistory::mapToDto).collect(Collectors.toList());
     }
 
+    @Override
+    public List<CertificateEventHistoryDto> getCertificateEventHistory(UUID uuid, OffsetDateTime createdBefore, UUID uuidBefore, int pageSize) throws NotFoundException {
+        certificateRepository.findByUuid(uuid).orElseThrow(() -> new NotFoundException(Certificate.class, uuid));
+        PageRequest pageRequest = PageRequest.of(0, pageSize);
+        List<CertificateEventHistory> histories = createdBefore == null || uuidBefore == null
+                ? certificateEventHistoryRepository.findByCertificateUuidOrderByCreatedDescUuidDesc(uuid, pageRequest)
+                : certificateEventHistoryRepository.findByCertificateUuidBefore(uuid, createdBefore, uuidBefore, pageRequest);
+        return histories.stream().map(CertificateEventHistory::mapToDto).toList();
+    }
+
+    @Override
+    public int createEventHistoryPartitions(YearMonth until) {
+        if (!isEventHistoryPartitioned()) {
+            return 0;
+        }
+
+        List<String> partitions = getEventHistoryPartitions();
+        int created = 0;
+        for (YearMonth month = YearMonth.now(ZoneOffset.UTC); !month.isAfter(until); month = month.plusMonths(1)) {
+            String partition = MONTHLY_PARTITION_PREFIX + month.format(MONTHLY_PARTITION_FORMAT);
+            if (partitions.contains(partition)) {
+                continue;
+            }
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            // events of the month may have been already stored in default partition, these are moved before partition is attached
+            entityManager.createNativeQuery("CREATE TABLE %s (LIKE %s INCLUDING DEFAULTS INCLUDING CONSTRAINTS)".formatted(partition, PARTITIONED_TABLE)).executeUpdate();
+            entityManager.createNativeQuery("WITH moved AS (DELETE FROM %s WHERE i_cre >= '%s' AND i_cre < '%s' RETURNING *) INSERT INTO %s SELECT * FROM moved".formatted(DEFAULT_PARTITION, from, to, partition)).executeUpdate();
+            entityManager.createNativeQuery("ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')".formatted(PARTITIONED_TABLE, partition, from, to)).executeUpdate();
+            ++created;
+        }
+        return created;
+    }
+
+    @Override
+    public int dropEventHistoryPartitionsBefore(OffsetDateTime createdBefore) {
+        if (!isEventHistoryPartitioned()) {
+            return 0;
+        }
+
+        int dropped = 0;
+        for (String partition : getEventHistoryPartitions()) {
+            if (!partition.startsWith(MONTHLY_PARTITION_PREFIX)) {
+                continue;
+            }
+            YearMonth month;
+            try {
+                month = YearMonth.parse(partition.substring(MONTHLY_PARTITION_PREFIX.length()), MONTHLY_PARTITION_FORMAT);
+            } catch (DateTimeParseException e) {
+                logger.warn("Unexpected partition {} of certificate event history is not dropped", partition);
+                continue;
+            }
+            // partition is dropped only when all its events are older than given time
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().atOffset(ZoneOffset.UTC).isAfter(createdBefore)) {
+                entityManager.createNativeQuery("DROP TABLE %s".formatted(partition)).executeUpdate();
+                ++dropped;
+            }
+        }
+        entityManager.createNativeQuery("DELETE FROM %s WHERE i_cre < ?1".formatted(DEFAULT_PARTITION)).setParameter(1, createdBefore).executeUpdate();
+        return dropped;
+    }
+
     @Override
     @Async
     public void asyncSaveAllInBatch(List<CertificateEventHistory> certificateEventHistories) {
@@ -73,5 +179,17 @@ public class CertificateEventHistoryServiceImpl implements CertificateEventHisto
         logger.info("Inserted {} record into the database", certificateEventHistories.size());
     }
 
+    private boolean isEventHistoryPartitioned() {
+        // table is not partitioned when schema is not created by migrations, e.g. in tests
+        Number count = (Number) entityManager.createNativeQuery("SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('%s')".formatted(PARTITIONED_TABLE)).getSingleResult();
+        return count.intValue() > 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getEventHistoryPartitions() {
+        return ((List<Object>) entityManager.createNativeQuery("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('%s')".formatted(PARTITIONED_TABLE)).getResultList())
+                .stream().map(Object::toString).toList();
+    }
+
 
 }
@@ -16,7 +16,6 @@ import com.czertainly.api.model.connector.v2.CertificateIdentificationResponseDt
 import com.czertainly.api.model.core.audit.ObjectType;
 import com.czertainly.api.model.core.audit.OperationType;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDto;
 import com.czertainly.api.model.core.certificate.*;
 import com.czertainly.api.model.core.compliance.ComplianceRuleStatus;
 import com.czertainly.api.model.core.compliance.ComplianceStatus;
@@ -30,6 +29,8 @@ import com.czertainly.core.attribute.CsrAttributes;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.AttributeOperation;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.comparator.SearchFieldDataComparator;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.repository.*;
@@ -38,10 +39,10 @@ import com.czertainly.core.event.transaction.CertificateValidationEvent;
 import com.czertainly.core.messaging.model.NotificationRecipient;
 import com.czertainly.core.messaging.producers.EventProducer;
 import com.czertainly.core.messaging.producers.NotificationProducer;
+import com.czertainly.core.model.CertificateRaProfileProjection;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.model.request.CertificateRequest;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -69,6 +70,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -106,6 +108,12 @@ public class CertificateServiceImpl implements CertificateService {
     public static final Integer MAX_PAGE_SIZE = 1000;
     // Default batch size to perform bulk delete operation on Certificates
     public static final Integer DELETE_BATCH_SIZE = 1000;
+    // Batch size of public key fingerprints when updating keys of certificates
+    private static final int UPDATE_CERTIFICATES_KEYS_BATCH_SIZE = 1000;
+    // Batch size of certificates updated by single set-based statement in bulk update of RA profile, groups and owner
+    private static final int BULK_UPDATE_BATCH_SIZE = 1000;
+    // Validation statuses of certificates that are not checked by scheduled status update
+    private static final List<CertificateValidationStatus> STATUS_UPDATE_SKIP_STATUSES = List.of(CertificateValidationStatus.REVOKED, CertificateValidationStatus.EXPIRED);
 
     private static final String UNDEFINED_CERTIFICATE_OBJECT_NAME = "undefined";
     private static final Logger logger = LoggerFactory.getLogger(CertificateServiceImpl.class);
@@ -164,7 +172,7 @@ public class CertificateServiceImpl implements CertificateService {
     private CertificateApiClient certificateApiClient;
 
     @Autowired
-    private UserManagementApiClient userManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
 
 
     private AttributeEngine attributeEngine;
@@ -257,8 +265,9 @@ public class CertificateServiceImpl implements CertificateService {
             dto.setRevokeAttributes(attributeEngine.getObjectDataAttributesContent(certificate.getRaProfile().getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_REVOKE, Resource.CERTIFICATE, certificate.getUuid()));
         }
         // TODO: originally showing only metadata from discovery resource, should it be like that?
-        dto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, certificate.getUuid())));
-        dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.CERTIFICATE, certificate.getUuid()));
+        ObjectAttributesContent attributesContent = attributeEngine.getObjectMetadataAndCustomAttributesContent(Resource.CERTIFICATE, certificate.getUuid());
+        dto.setMetadata(attributesContent.metadata());
+        dto.setCustomAttributes(attributesContent.customAttributes());
         dto.setRelatedCertificates(certificateRepository.findBySourceCertificateUuid(certificate.getUuid()).stream().map(Certificate::mapToListDto).toList());
         return dto;
     }
@@ -428,7 +437,7 @@ public class CertificateServiceImpl implements CertificateService {
                 SearchHelper.prepareSearch(FilterField.RA_PROFILE_NAME, raProfileRepository.findAll().stream().map(RaProfile::getName).toList()),
                 SearchHelper.prepareSearch(FilterField.GROUP_NAME, groupRepository.findAll().stream().map(Group::getName).toList()),
                 SearchHelper.prepareSearch(FilterField.CERT_LOCATION_NAME, locationRepository.findAll().stream().map(Location::getName).toList()),
-                SearchHelper.prepareSearch(FilterField.OWNER, userManagementApiClient.getUsers().getData().stream().map(UserDto::getUsername).toList()),
+                SearchHelper.prepareSearch(FilterField.OWNER, authIdentityReplica.getUsernames()),
                 SearchHelper.prepareSearch(FilterField.CERTIFICATE_STATE, Arrays.stream(CertificateState.values()).map(CertificateState::getCode).toList()),
                 SearchHelper.prepareSearch(FilterField.CERTIFICATE_VALIDATION_STATUS, Arrays.stream(CertificateValidationStatus.values()).map(CertificateValidationStatus::getCode).toList()),
                 SearchHelper.prepareSearch(FilterField.COMPLIANCE_STATUS, Arrays.stream(ComplianceStatus.values()).map(ComplianceStatus::getCode).toList()),
@@ -968,22 +977,23 @@ public class CertificateServiceImpl implements CertificateService {
     }
 
     @Override
-    @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public int updateCertificatesStatusScheduled() {
-        List<CertificateValidationStatus> skipStatuses = List.of(CertificateValidationStatus.REVOKED, CertificateValidationStatus.EXPIRED);
-        long totalCertificates = certificateRepository.countCertificatesToCheckStatus(skipStatuses);
-        int maxCertsToValidate = Math.max(100, Math.round(totalCertificates / (float) 24));
+    public int getCertificatesStatusUpdateCount() {
+        long totalCertificates = certificateRepository.countCertificatesToCheckStatus(STATUS_UPDATE_SKIP_STATUSES);
+        // process 1/24 of eligible certificates for status update
+        return Math.max(100, Math.round(totalCertificates / (float) 24));
+    }
 
+    @Override
+    public int updateCertificatesStatusScheduled(int maxCertificates) {
         LocalDateTime before = LocalDateTime.now().minusDays(1);
-
-        // process 1/24 of eligible certificates for status update
-        final List<UUID> certificateUuids = certificateRepository.findCertificatesToCheckStatus(before, skipStatuses, PageRequest.of(0, maxCertsToValidate));
+        final List<UUID> certificateUuids = certificateRepository.findCertificatesToCheckStatus(before, STATUS_UPDATE_SKIP_STATUSES, PageRequest.of(0, maxCertificates));
 
         int certificatesUpdated = 0;
-        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Scheduled certificate status update. Batch size {}/{} certificates", certificateUuids.size(), totalCertificates);
+        logger.info(MarkerFactory.getMarker("scheduleInfo"), "Scheduled certificate status update. Batch size {}/{} certificates", certificateUuids.size(), maxCertificates);
         for (final UUID certificateUuid : certificateUuids) {
             Certificate certificate = null;
-            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            // each certificate is checked in its own transaction, so failure of one certificate does not roll back the others
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
             try {
                 certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
                 validate(certificate);
@@ -995,15 +1005,36 @@ public class CertificateServiceImpl implements CertificateService {
                 ++certificatesUpdated;
             } catch (NotFoundException e) {
                 logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of the certificate. Error: {}", e.getMessage(), e);
-                transactionManager.rollback(status);
+                rollbackIfNotCompleted(status);
             } catch (Exception e) {
                 logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status of the certificate. Certificate {}. Error: {}", certificate, e.getMessage(), e);
-                transactionManager.rollback(status);
+                rollbackIfNotCompleted(status);
+                markStatusValidationAttempted(certificateUuid);
             }
-
         }
         logger.info(MarkerFactory.getMarker("scheduleInfo"), "Certificates status updated for {}/{} certificates", certificatesUpdated, certificateUuids.size());
-        return certificatesUpdated;
+        return certificateUuids.size();
+    }
+
+    private void rollbackIfNotCompleted(TransactionStatus status) {
+        if (!status.isCompleted()) {
+            transactionManager.rollback(status);
+        }
+    }
+
+    /**
+     * Sets status validation timestamp of certificate whose status could not be checked, so it is not selected again
+     * before other certificates waiting for the check and it is checked again only in some of next runs
+     */
+    private void markStatusValidationAttempted(UUID certificateUuid) {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        try {
+            certificateRepository.updateStatusValidationTimestamp(certificateUuid, LocalDateTime.now());
+            transactionManager.commit(status);
+        } catch (Exception e) {
+            logger.warn(MarkerFactory.getMarker("scheduleInfo"), "Scheduled task was unable to update status validation timestamp of the certificate {}. Error: {}", certificateUuid, e.getMessage());
+            rollbackIfNotCompleted(status);
+        }
     }
 
     @Override
@@ -1158,6 +1189,18 @@ public class CertificateServiceImpl implements CertificateService {
         }
     }
 
+    @Override
+    public void updateCertificatesKeys(Map<String, UUID> keyUuidsByPublicKeyFingerprint) {
+        List<String> fingerprints = new ArrayList<>(keyUuidsByPublicKeyFingerprint.keySet());
+        for (int i = 0; i < fingerprints.size(); i += UPDATE_CERTIFICATES_KEYS_BATCH_SIZE) {
+            List<Certificate> certificates = certificateRepository.findByPublicKeyFingerprintIn(fingerprints.subList(i, Math.min(i + UPDATE_CERTIFICATES_KEYS_BATCH_SIZE, fingerprints.size())));
+            for (Certificate certificate : certificates) {
+                certificate.setKeyUuid(keyUuidsByPublicKeyFingerprint.get(certificate.getPublicKeyFingerprint()));
+            }
+            certificateRepository.saveAll(certificates);
+        }
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.LIST)
     public List<CertificateContentDto> getCertificateContent(List<String> uuids) {
@@ -1196,6 +1239,31 @@ public class CertificateServiceImpl implements CertificateService {
         RaProfile raProfile = raProfileService.getRaProfileEntity(SecuredUUID.fromUUID(raProfileUuid));
         extendedAttributeService.mergeAndValidateIssueAttributes(raProfile, issueAttributes);
 
+        return createRequestedCertificate(certificateRequest, certificateRequestFormat, signatureAttributes, csrAttributes, keyUuid, raProfileUuid, sourceCertificateUuid, protocolInfo);
+    }
+
+    @Override
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.CREATE)
+    public CertificateDetailDto submitCertificateRequest(
+            String certificateRequest,
+            CertificateRequestFormat certificateRequestFormat,
+            List<RequestAttributeDto> signatureAttributes,
+            List<RequestAttributeDto> csrAttributes,
+            List<RequestAttributeDto> issueAttributes,
+            List<BaseAttribute> issueAttributeDefinitions,
+            UUID keyUuid,
+            UUID raProfileUuid,
+            UUID sourceCertificateUuid,
+            CertificateProtocolInfo protocolInfo
+    ) throws NoSuchAlgorithmException, ConnectorException, AttributeException, CertificateRequestException {
+        RaProfile raProfile = raProfileService.getRaProfileEntity(SecuredUUID.fromUUID(raProfileUuid));
+        // issue attributes were already validated by connector, they are validated only against definitions listed from the connector
+        attributeEngine.validateUpdateDataAttributes(raProfile.getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_ISSUE, issueAttributeDefinitions, issueAttributes != null ? issueAttributes : new ArrayList<>());
+
+        return createRequestedCertificate(certificateRequest, certificateRequestFormat, signatureAttributes, csrAttributes, keyUuid, raProfileUuid, sourceCertificateUuid, protocolInfo);
+    }
+
+    private CertificateDetailDto createRequestedCertificate(String certificateRequest, CertificateRequestFormat certificateRequestFormat, List<RequestAttributeDto> signatureAttributes, List<RequestAttributeDto> csrAttributes, UUID keyUuid, UUID raProfileUuid, UUID sourceCertificateUuid, CertificateProtocolInfo protocolInfo) throws NoSuchAlgorithmException, ConnectorException, AttributeException, CertificateRequestException {
         // create certificate request from CSR and parse the data
         byte[] decodedCsr = Base64.getDecoder().decode(certificateRequest);
         CertificateRequest request = CertificateRequestUtils.createCertificateRequest(decodedCsr, certificateRequestFormat);
@@ -1325,8 +1393,9 @@ public class CertificateServiceImpl implements CertificateService {
             dto.getCertificateRequest().setAttributes(attributeEngine.getObjectDataAttributesContent(null, null, Resource.CERTIFICATE_REQUEST, certificate.getCertificateRequest().getUuid()));
             dto.getCertificateRequest().setSignatureAttributes(attributeEngine.getObjectDataAttributesContent(null, AttributeOperation.CERTIFICATE_REQUEST_SIGN, Resource.CERTIFICATE_REQUEST, certificate.getCertificateRequest().getUuid()));
         }
-        dto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, certificate.getUuid())));
-        dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.CERTIFICATE, certificate.getUuid()));
+        ObjectAttributesContent attributesContent = attributeEngine.getObjectMetadataAndCustomAttributesContent(Resource.CERTIFICATE, certificate.getUuid());
+        dto.setMetadata(attributesContent.metadata());
+        dto.setCustomAttributes(attributesContent.customAttributes());
         dto.setRelatedCertificates(certificateRepository.findBySourceCertificateUuid(certificate.getUuid()).stream().map(Certificate::mapToListDto).toList());
 
         // check validity of certificate async from queue
@@ -1586,32 +1655,142 @@ public class CertificateServiceImpl implements CertificateService {
         certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.UPDATE_OWNER, CertificateEventStatus.SUCCESS, "%s -> %s".formatted(currentOwnerName, newOwnerName == null ? UNDEFINED_CERTIFICATE_OBJECT_NAME : newOwnerName), "");
     }
 
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.UPDATE)
+    public void removeCertificatesRaProfile(List<SecuredUUID> uuids) throws NotFoundException {
+        List<UUID> certificateUuids = uuids.stream().map(SecuredUUID::getValue).distinct().toList();
+        for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+            List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+            removeRaProfileOfCertificates(filterExistingCertificates(batchUuids));
+        }
+    }
+
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.UPDATE)
+    public void updateCertificatesGroups(List<SecuredUUID> uuids, Set<UUID> groupUuids) throws NotFoundException {
+        Set<UUID> newGroupUuids = groupUuids == null ? Set.of() : groupUuids;
+        String newGroupNames = getGroupNames(newGroupUuids);
+        List<UUID> certificateUuids = uuids.stream().map(SecuredUUID::getValue).distinct().toList();
+        for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+            List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+            setGroupsOfCertificates(filterExistingCertificates(batchUuids), newGroupUuids, newGroupNames);
+        }
+    }
+
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.UPDATE)
+    public void updateCertificatesOwner(List<SecuredUUID> uuids, UUID ownerUuid) throws NotFoundException {
+        String newOwnerName = getOwnerName(ownerUuid);
+        List<UUID> certificateUuids = uuids.stream().map(SecuredUUID::getValue).distinct().toList();
+        for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+            List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+            setOwnerOfCertificates(filterExistingCertificates(batchUuids), ownerUuid, newOwnerName);
+        }
+    }
+
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.UPDATE)
+    public void updateCertificatesGroups(Map<SecuredUUID, Set<UUID>> certificateGroupUuids) throws NotFoundException {
+        Map<UUID, Set<UUID>> groupUuidsOfCertificates = new LinkedHashMap<>();
+        certificateGroupUuids.forEach((uuid, groupUuids) -> groupUuidsOfCertificates.put(uuid.getValue(), groupUuids == null ? Set.of() : groupUuids));
+
+        // names of groups are loaded once for each distinct set of groups, certificates typically share few of them
+        Map<Set<UUID>, String> newGroupNames = new HashMap<>();
+        List<UUID> certificateUuids = new ArrayList<>(groupUuidsOfCertificates.keySet());
+        for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+            Map<UUID, Set<UUID>> batchGroupUuids = new LinkedHashMap<>();
+            for (UUID certificateUuid : filterExistingCertificates(certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size())))) {
+                batchGroupUuids.put(certificateUuid, groupUuidsOfCertificates.get(certificateUuid));
+            }
+            Map<UUID, List<String>> previousGroupNames = objectAssociationService.setGroups(Resource.CERTIFICATE, batchGroupUuids);
+            Map<UUID, String> eventMessages = new HashMap<>();
+            previousGroupNames.forEach((certificateUuid, groupNames) -> eventMessages.put(certificateUuid, (groupNames.isEmpty() ? UNDEFINED_CERTIFICATE_OBJECT_NAME : String.join(", ", groupNames)) + " -> "
+                    + newGroupNames.computeIfAbsent(batchGroupUuids.get(certificateUuid), this::getGroupNames)));
+            certificateEventHistoryService.addEventHistories(eventMessages, CertificateEvent.UPDATE_GROUP, CertificateEventStatus.SUCCESS, "");
+        }
+    }
+
+    @ExternalAuthorization(resource = Resource.CERTIFICATE, action = ResourceAction.UPDATE)
+    public void updateCertificatesOwners(Map<SecuredUUID, UUID> certificateOwnerUuids) throws NotFoundException {
+        Map<UUID, UUID> ownerUuidsOfCertificates = new LinkedHashMap<>();
+        Map<UUID, String> newOwnerNames = new HashMap<>();
+        for (Map.Entry<SecuredUUID, UUID> certificateOwner : certificateOwnerUuids.entrySet()) {
+            ownerUuidsOfCertificates.put(certificateOwner.getKey().getValue(), certificateOwner.getValue());
+            if (!newOwnerNames.containsKey(certificateOwner.getValue())) {
+                newOwnerNames.put(certificateOwner.getValue(), getOwnerName(certificateOwner.getValue()));
+            }
+        }
+
+        List<UUID> certificateUuids = new ArrayList<>(ownerUuidsOfCertificates.keySet());
+        for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+            Map<UUID, UUID> batchOwnerUuids = new LinkedHashMap<>();
+            for (UUID certificateUuid : filterExistingCertificates(certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size())))) {
+                batchOwnerUuids.put(certificateUuid, ownerUuidsOfCertificates.get(certificateUuid));
+            }
+            Map<UUID, String> previousOwnerNames = objectAssociationService.setOwners(Resource.CERTIFICATE, batchOwnerUuids);
+            Map<UUID, String> eventMessages = new HashMap<>();
+            previousOwnerNames.forEach((certificateUuid, ownerName) -> eventMessages.put(certificateUuid, "%s -> %s".formatted(ownerName == null ? UNDEFINED_CERTIFICATE_OBJECT_NAME : ownerName, newOwnerNames.get(batchOwnerUuids.get(certificateUuid)))));
+            certificateEventHistoryService.addEventHistories(eventMessages, CertificateEvent.UPDATE_OWNER, CertificateEventStatus.SUCCESS, "");
+        }
+    }
+
     private void bulkUpdateRaProfile(SecurityFilter filter, MultipleCertificateObjectUpdateDto request) throws NotFoundException, NotSupportedException {
         boolean removeRaProfile = request.getRaProfileUuid().isEmpty();
         if (request.getFilters() == null || request.getFilters().isEmpty() || (request.getCertificateUuids() != null && !request.getCertificateUuids().isEmpty())) {
-            for (String certificateUuidString : request.getCertificateUuids()) {
-                try {
-                    SecuredUUID certificateUuid = SecuredUUID.fromString(certificateUuidString);
-                    permissionEvaluator.certificate(certificateUuid);
-                    switchRaProfile(certificateUuid, removeRaProfile ? null : SecuredUUID.fromString(request.getRaProfileUuid()));
-                } catch (CertificateOperationException e) {
-                    logger.warn(e.getMessage());
-                } catch (AttributeException e) {
-                    logger.warn("Certificate {} switched but there was issue with updating attributes: {}", certificateUuidString, e.getMessage());
+            List<UUID> certificateUuids = request.getCertificateUuids().stream().map(UUID::fromString).distinct().toList();
+            for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+                List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+                checkBulkUpdateBatch(batchUuids);
+                if (removeRaProfile) {
+                    removeRaProfileOfCertificates(batchUuids);
+                } else {
+                    // certificates need to be identified one by one by authority of new RA profile
+                    for (UUID certificateUuid : batchUuids) {
+                        try {
+                            switchRaProfile(SecuredUUID.fromUUID(certificateUuid), SecuredUUID.fromString(request.getRaProfileUuid()));
+                        } catch (CertificateOperationException e) {
+                            logger.warn(e.getMessage());
+                        } catch (AttributeException e) {
+                            logger.warn("Certificate {} switched but there was issue with updating attributes: {}", certificateUuid, e.getMessage());
+                        }
+                    }
                 }
+                logger.info("Bulk update of RA profile of certificates: processed {} of {} certificates", i + batchUuids.size(), certificateUuids.size());
             }
         } else {
             throw new NotSupportedException("Bulk updating of certificates by filters is not supported.");
         }
     }
 
+    private void removeRaProfileOfCertificates(List<UUID> certificateUuids) {
+        List<CertificateRaProfileProjection> currentRaProfiles = certificateRepository.findRaProfilesOfCertificates(certificateUuids);
+        if (currentRaProfiles.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, List<UUID>> certificateUuidsByConnector = new HashMap<>();
+        Map<UUID, String> eventMessages = new HashMap<>();
+        for (CertificateRaProfileProjection currentRaProfile : currentRaProfiles) {
+            certificateUuidsByConnector.computeIfAbsent(currentRaProfile.connectorUuid(), k -> new ArrayList<>()).add(currentRaProfile.certificateUuid());
+            eventMessages.put(currentRaProfile.certificateUuid(), currentRaProfile.raProfileName() + " -> " + UNDEFINED_CERTIFICATE_OBJECT_NAME);
+        }
+        certificateRepository.removeRaProfileOfCertificates(eventMessages.keySet());
+
+        // delete old metadata
+        for (Map.Entry<UUID, List<UUID>> connectorCertificates : certificateUuidsByConnector.entrySet()) {
+            attributeEngine.deleteObjectsAttributesContent(AttributeType.META, connectorCertificates.getKey(), Resource.CERTIFICATE, connectorCertificates.getValue());
+        }
+
+        certificateEventHistoryService.addEventHistories(eventMessages, CertificateEvent.UPDATE_RA_PROFILE, CertificateEventStatus.SUCCESS, "");
+    }
+
     private void bulkUpdateCertificateGroup(SecurityFilter filter, MultipleCertificateObjectUpdateDto request) throws NotFoundException {
         if (request.getFilters() == null || request.getFilters().isEmpty() || (request.getCertificateUuids() != null && !request.getCertificateUuids().isEmpty())) {
             Set<UUID> groupUuids = request.getGroupUuids().stream().map(UUID::fromString).collect(Collectors.toSet());
-            for (String certificateUuidString : request.getCertificateUuids()) {
-                SecuredUUID certificateUuid = SecuredUUID.fromString(certificateUuidString);
-                permissionEvaluator.certificate(certificateUuid);
-                this.updateCertificateGroups(certificateUuid, groupUuids);
+            String newGroupNames = getGroupNames(groupUuids);
+
+            List<UUID> certificateUuids = request.getCertificateUuids().stream().map(UUID::fromString).distinct().toList();
+            for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+                List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+                checkBulkUpdateBatch(batchUuids);
+                setGroupsOfCertificates(batchUuids, groupUuids, newGroupNames);
+                logger.info("Bulk update of groups of certificates: processed {} of {} certificates", i + batchUuids.size(), certificateUuids.size());
             }
         }
         // updating group by filters not supported now
@@ -1621,23 +1800,80 @@ public class CertificateServiceImpl implements CertificateService {
 
     private void bulkUpdateOwner(SecurityFilter filter, MultipleCertificateObjectUpdateDto request) throws NotFoundException, NotSupportedException {
         boolean removeOwner = request.getOwnerUuid().isEmpty();
-        String ownerUuid = null;
-        String ownerName = null;
-        if (!removeOwner) {
-            ownerUuid = request.getOwnerUuid();
-        }
-        List<CertificateEventHistory> batchHistoryOperationList = new ArrayList<>();
         if (request.getFilters() == null || request.getFilters().isEmpty() || (request.getCertificateUuids() != null && !request.getCertificateUuids().isEmpty())) {
-            List<Certificate> batchOperationList = new ArrayList<>();
-            for (String certificateUuidString : request.getCertificateUuids()) {
-                SecuredUUID certificateUuid = SecuredUUID.fromString(certificateUuidString);
-                permissionEvaluator.certificate(certificateUuid);
-                updateOwner(certificateUuid, ownerUuid);
+            UUID ownerUuid = removeOwner ? null : UUID.fromString(request.getOwnerUuid());
+            String newOwnerName = getOwnerName(ownerUuid);
+
+            List<UUID> certificateUuids = request.getCertificateUuids().stream().map(UUID::fromString).distinct().toList();
+            for (int i = 0; i < certificateUuids.size(); i += BULK_UPDATE_BATCH_SIZE) {
+                List<UUID> batchUuids = certificateUuids.subList(i, Math.min(i + BULK_UPDATE_BATCH_SIZE, certificateUuids.size()));
+                checkBulkUpdateBatch(batchUuids);
+                setOwnerOfCertificates(batchUuids, ownerUuid, newOwnerName);
+                logger.info("Bulk update of owner of certificates: processed {} of {} certificates", i + batchUuids.size(), certificateUuids.size());
             }
-            certificateRepository.saveAll(batchOperationList);
-            certificateEventHistoryService.asyncSaveAllInBatch(batchHistoryOperationList);
         } else {
-            throw new NotSupportedException("Bulk updating of certificates by filters is not supported.");        }
+            throw new NotSupportedException("Bulk updating of certificates by filters is not supported.");
+        }
+    }
+
+    private void setGroupsOfCertificates(List<UUID> certificateUuids, Set<UUID> groupUuids, String newGroupNames) throws NotFoundException {
+        Map<UUID, List<String>> previousGroupNames = objectAssociationService.setGroups(Resource.CERTIFICATE, certificateUuids, groupUuids);
+        Map<UUID, String> eventMessages = new HashMap<>();
+        previousGroupNames.forEach((certificateUuid, groupNames) -> eventMessages.put(certificateUuid, (groupNames.isEmpty() ? UNDEFINED_CERTIFICATE_OBJECT_NAME : String.join(", ", groupNames)) + " -> " + newGroupNames));
+        certificateEventHistoryService.addEventHistories(eventMessages, CertificateEvent.UPDATE_GROUP, CertificateEventStatus.SUCCESS, "");
+    }
+
+    private void setOwnerOfCertificates(List<UUID> certificateUuids, UUID ownerUuid, String newOwnerName) throws NotFoundException {
+        Map<UUID, String> previousOwnerNames = objectAssociationService.setOwner(Resource.CERTIFICATE, certificateUuids, ownerUuid);
+        Map<UUID, String> eventMessages = new HashMap<>();
+        previousOwnerNames.forEach((certificateUuid, ownerName) -> eventMessages.put(certificateUuid, "%s -> %s".formatted(ownerName == null ? UNDEFINED_CERTIFICATE_OBJECT_NAME : ownerName, newOwnerName)));
+        certificateEventHistoryService.addEventHistories(eventMessages, CertificateEvent.UPDATE_OWNER, CertificateEventStatus.SUCCESS, "");
+    }
+
+    private String getGroupNames(Set<UUID> groupUuids) {
+        List<Group> groups = groupUuids.isEmpty() ? List.of() : groupRepository.findByUuidIn(groupUuids);
+        return groups.isEmpty() ? UNDEFINED_CERTIFICATE_OBJECT_NAME : String.join(", ", groups.stream().map(Group::getName).toList());
+    }
+
+    private String getOwnerName(UUID ownerUuid) throws NotFoundException {
+        return ownerUuid == null ? UNDEFINED_CERTIFICATE_OBJECT_NAME : authIdentityReplica.findUser(ownerUuid).orElseThrow(() -> new NotFoundException("User", ownerUuid)).username();
+    }
+
+    /**
+     * Checks that all certificates of bulk update batch exist and user is permitted to access them
+     *
+     * @param certificateUuids UUIDs of certificates in batch
+     * @throws NotFoundException when some of the certificates does not exist
+     */
+    private void checkBulkUpdateBatch(List<UUID> certificateUuids) throws NotFoundException {
+        checkCertificatesExist(certificateUuids);
+        permissionEvaluator.certificates(certificateUuids.stream().map(SecuredUUID::fromUUID).toList());
+    }
+
+    private void checkCertificatesExist(List<UUID> certificateUuids) throws NotFoundException {
+        Set<UUID> existingUuids = new HashSet<>(certificateRepository.findUuidsByUuidIn(certificateUuids));
+        for (UUID certificateUuid : certificateUuids) {
+            if (!existingUuids.contains(certificateUuid)) {
+                throw new NotFoundException(Certificate.class, certificateUuid);
+            }
+        }
+    }
+
+    /**
+     * Filters out certificates that do not exist anymore, e.g. deleted after they were collected for batched update
+     *
+     * @param certificateUuids UUIDs of certificates in batch
+     * @return UUIDs of existing certificates
+     */
+    private List<UUID> filterExistingCertificates(List<UUID> certificateUuids) {
+        Set<UUID> existingUuids = new HashSet<>(certificateRepository.findUuidsByUuidIn(certificateUuids));
+        if (existingUuids.size() == certificateUuids.size()) {
+            return certificateUuids;
+        }
+
+        List<UUID> missingUuids = certificateUuids.stream().filter(uuid -> !existingUuids.contains(uuid)).toList();
+        logger.warn("Skipping update of {} certificates that do not exist anymore: {}", missingUuids.size(), missingUuids);
+        return certificateUuids.stream().filter(existingUuids::contains).toList();
     }
 
     private List<List<Certificate>> partitionList(List<Certificate> fullList) {
@@ -2,7 +2,6 @@ package com.czertainly.core.service.impl;
 
 import com.czertainly.api.clients.AttributeApiClient;
 import com.czertainly.api.clients.ConnectorApiClient;
-import com.czertainly.api.clients.HealthApiClient;
 import com.czertainly.api.exception.*;
 import com.czertainly.api.model.client.attribute.RequestAttributeDto;
 import com.czertainly.api.model.client.connector.*;
@@ -17,6 +16,7 @@ import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.connector.*;
 import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.connector.ConnectorMetadataCache;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.model.auth.ResourceAction;
@@ -56,8 +56,6 @@ public class ConnectorServiceImpl implements ConnectorService {
     @Autowired
     private AttributeApiClient attributeApiClient;
     @Autowired
-    private HealthApiClient healthApiClient;
-    @Autowired
     private CredentialRepository credentialRepository;
     @Autowired
     private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
@@ -76,6 +74,8 @@ public class ConnectorServiceImpl implements ConnectorService {
     private AttributeDefinitionRepository attributeDefinitionRepository;
     @Autowired
     private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+    @Autowired
+    private ConnectorMetadataCache connectorMetadataCache;
     private AttributeEngine attributeEngine;
 
     @Autowired
@@ -108,7 +108,7 @@ public class ConnectorServiceImpl implements ConnectorService {
         ConnectorDto dto = connector.mapToDto();
 
         try {
-            List<InfoResponse> functions = connectorApiClient.listSupportedFunctions(dto);
+            List<InfoResponse> functions = connectorMetadataCache.getSupportedFunctions(dto);
             for (FunctionGroupDto i : dto.getFunctionGroups()) {
                 for (InfoResponse j : functions) {
                     if (i.getFunctionGroupCode() == j.getFunctionGroupCode()) {
@@ -247,6 +247,7 @@ public class ConnectorServiceImpl implements ConnectorService {
         }
 
         connectorRepository.save(connector);
+        connectorMetadataCache.evictMetadata(connector.getUuid());
 
         List<ConnectDto> connectResponse = validateConnector(connector.mapToDto());
         List<FunctionGroupDto> functionGroupDtos = new ArrayList<>();
@@ -509,7 +510,7 @@ public class ConnectorServiceImpl implements ConnectorService {
         Connector connector = connectorRepository.findByUuid(uuid)
                 .orElseThrow(() -> new NotFoundException(Connector.class, uuid));
 
-        return healthApiClient.checkHealth(connector.mapToDto());
+        return connectorMetadataCache.checkHealth(connector.mapToDto());
     }
 
     @Override
@@ -521,7 +522,7 @@ public class ConnectorServiceImpl implements ConnectorService {
 
         validateFunctionGroup(connector, functionGroup);
 
-        return attributeApiClient.listAttributeDefinitions(connector.mapToDto(), functionGroup, functionGroupType);
+        return connectorMetadataCache.getAttributeDefinitions(connector.mapToDto(), functionGroup, functionGroupType);
     }
 
     @Override
@@ -536,7 +537,11 @@ public class ConnectorServiceImpl implements ConnectorService {
 
     private void validateAttributes(Connector connector, FunctionGroupCode functionGroup, List<RequestAttributeDto> attributes, String functionGroupType) throws ValidationException, ConnectorException {
         validateFunctionGroup(connector, functionGroup);
-        attributeApiClient.validateAttributes(connector.mapToDto(), functionGroup, attributes, functionGroupType);
+        ConnectorDto connectorDto = connector.mapToDto();
+        connectorMetadataCache.execute(connectorDto, () -> {
+            attributeApiClient.validateAttributes(connectorDto, functionGroup, attributes, functionGroupType);
+            return null;
+        });
     }
 
     @Override
@@ -550,7 +555,7 @@ public class ConnectorServiceImpl implements ConnectorService {
         validateAttributes(connector, functionGroup, requestAttributes, functionGroupType);
 
         // get definitions from connector
-        List<BaseAttribute> definitions = attributeApiClient.listAttributeDefinitions(connector.mapToDto(), functionGroup, functionGroupType);
+        List<BaseAttribute> definitions = connectorMetadataCache.getAttributeDefinitions(connector.mapToDto(), functionGroup, functionGroupType);
 
         // validate and update definitions with attribute engine
         attributeEngine.validateUpdateDataAttributes(connector.getUuid(), null, definitions, requestAttributes);
@@ -563,11 +568,12 @@ public class ConnectorServiceImpl implements ConnectorService {
         Connector connector = connectorRepository.findByUuid(uuid)
                 .orElseThrow(() -> new NotFoundException(Connector.class, uuid));
 
+        ConnectorDto connectorDto = connector.mapToDto();
         Map<FunctionGroupCode, Map<String, List<BaseAttribute>>> attributes = new HashMap<>();
-        for (FunctionGroupDto fg : connector.mapToDto().getFunctionGroups()) {
+        for (FunctionGroupDto fg : connectorDto.getFunctionGroups()) {
             Map<String, List<BaseAttribute>> kindsAttribute = new HashMap<>();
             for (String kind : fg.getKinds()) {
-                kindsAttribute.put(kind, attributeApiClient.listAttributeDefinitions(connector.mapToDto(), fg.getFunctionGroupCode(), kind));
+                kindsAttribute.put(kind, connectorMetadataCache.getAttributeDefinitions(connectorDto, fg.getFunctionGroupCode(), kind));
             }
             attributes.put(fg.getFunctionGroupCode(), kindsAttribute);
         }
@@ -707,6 +713,7 @@ public class ConnectorServiceImpl implements ConnectorService {
         connector2FunctionGroupRepository.deleteAll(connector2FunctionGroups);
         attributeEngine.deleteAllObjectAttributeContent(Resource.CONNECTOR, connector.getUuid());
         connectorRepository.delete(connector);
+        connectorMetadataCache.remove(connector.getUuid());
     }
 
     private void complianceRuleGroupUpdate(Connector connector, boolean update) {
@@ -727,7 +734,7 @@ public class ConnectorServiceImpl implements ConnectorService {
     }
 
     private List<ConnectDto> reValidateConnector(ConnectorDto request) throws ConnectorException {
-        List<InfoResponse> functions = connectorApiClient.listSupportedFunctions(request);
+        List<InfoResponse> functions = connectorMetadataCache.refreshSupportedFunctions(request);
         return reValidateConnector(functions);
     }
 
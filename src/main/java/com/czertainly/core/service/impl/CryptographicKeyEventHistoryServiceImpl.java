@@ -17,6 +17,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -86,6 +87,16 @@ public class CryptographicKeyEventHistoryServiceImpl implements CryptographicKey
         keyEventHistoryRepository.save(history);
     }
 
+    @Override
+    public void addEventHistory(KeyEvent event, KeyEventStatus status, String message, Map<String, Object> additionalInformation, List<CryptographicKeyItem> keys) {
+        String serializedAdditionalInformation = MetaDefinitions.serialize(additionalInformation);
+        List<CryptographicKeyEventHistory> histories = new ArrayList<>(keys.size());
+        for (CryptographicKeyItem key : keys) {
+            histories.add(getEventHistory(event, status, message, serializedAdditionalInformation, key));
+        }
+        keyEventHistoryRepository.saveAll(histories);
+    }
+
     @Override
     @Async
     public void asyncSaveAllInBatch(List<CryptographicKeyEventHistory> certificateEventHistories) {
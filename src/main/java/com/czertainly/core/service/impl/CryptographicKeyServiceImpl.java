@@ -6,8 +6,10 @@ import com.czertainly.api.model.client.attribute.RequestAttributeDto;
 import com.czertainly.api.model.client.certificate.SearchRequestDto;
 import com.czertainly.api.model.client.cryptography.CryptographicKeyResponseDto;
 import com.czertainly.api.model.client.cryptography.key.*;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
+import com.czertainly.api.model.common.attribute.v2.MetadataAttribute;
 import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
 import com.czertainly.api.model.common.enums.cryptography.KeyFormat;
 import com.czertainly.api.model.common.enums.cryptography.KeyType;
@@ -18,7 +20,6 @@ import com.czertainly.api.model.connector.cryptography.key.KeyPairDataResponseDt
 import com.czertainly.api.model.core.audit.ObjectType;
 import com.czertainly.api.model.core.audit.OperationType;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDto;
 import com.czertainly.api.model.core.connector.ConnectorDto;
 import com.czertainly.api.model.core.cryptography.key.*;
 import com.czertainly.api.model.core.search.FilterFieldSource;
@@ -27,12 +28,12 @@ import com.czertainly.api.model.core.search.SearchFieldDataDto;
 import com.czertainly.core.aop.AuditLogged;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.comparator.SearchFieldDataComparator;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.enums.FilterField;
 import com.czertainly.core.model.auth.ResourceAction;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -95,7 +96,7 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
     private ResourceObjectAssociationService objectAssociationService;
 
     @Autowired
-    private UserManagementApiClient userManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
     // --------------------------------------------------------------------------------
     // Repositories
     // --------------------------------------------------------------------------------
@@ -246,7 +247,8 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
 
         dto.setAttributes(attributeEngine.getObjectDataAttributesContent(key.getTokenInstanceReference().getConnectorUuid(), null, Resource.CRYPTOGRAPHIC_KEY, key.getUuid()));
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.CRYPTOGRAPHIC_KEY, key.getUuid()));
-        dto.getItems().forEach(k -> k.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CRYPTOGRAPHIC_KEY, UUID.fromString(k.getUuid())))));
+        Map<UUID, List<MetadataResponseDto>> itemsMetadata = attributeEngine.getObjectsMappedMetadataContent(null, Resource.CRYPTOGRAPHIC_KEY, dto.getItems().stream().map(k -> UUID.fromString(k.getUuid())).toList(), null, null);
+        dto.getItems().forEach(k -> k.setMetadata(itemsMetadata.get(UUID.fromString(k.getUuid()))));
         logger.debug("Key details with attributes {}", dto);
         return dto;
     }
@@ -626,48 +628,106 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
     @AuditLogged(originator = ObjectType.FE, affected = ObjectType.CRYPTOGRAPHIC_KEY, operation = OperationType.REQUEST)
     @ExternalAuthorization(resource = Resource.CRYPTOGRAPHIC_KEY, action = ResourceAction.UPDATE, parentResource = Resource.TOKEN, parentAction = ResourceAction.DETAIL)
     public void syncKeys(SecuredParentUUID tokenInstanceUuid) throws ConnectorException, AttributeException {
+        long startTime = System.currentTimeMillis();
         TokenInstanceReference tokenInstanceReference = tokenInstanceService.getTokenInstanceEntity(
                 tokenInstanceUuid
         );
-        //Create a map to hold the key and its objects. The association key will be used as the name for the parent key object
-        Map<String, List<KeyDataResponseDto>> associations = new HashMap<>();
         // Get the list of keys from the connector
         List<KeyDataResponseDto> keys = keyManagementApiClient.listKeys(
                 tokenInstanceReference.getConnector().mapToDto(),
                 tokenInstanceReference.getTokenInstanceUuid()
         );
+        logger.debug("Total number of keys from the connector: {}", keys.size());
 
-        // Iterate and add the keys with the same associations to the map
-        for (KeyDataResponseDto key : keys) {
-            associations.computeIfAbsent(
-                    (key.getAssociation() == null || key.getAssociation().isEmpty()) ? "" : key.getAssociation(),
-                    k -> new ArrayList<>()
-            ).add(key);
+        // Load all key items of the token instance at once and map them by their reference in the token
+        List<CryptographicKeyItem> existingItems = cryptographicKeyItemRepository.findByTokenInstanceReferenceUuidWithKey(tokenInstanceReference.getUuid());
+        Map<UUID, CryptographicKeyItem> existingItemsByReference = new HashMap<>();
+        for (CryptographicKeyItem keyItem : existingItems) {
+            existingItemsByReference.putIfAbsent(keyItem.getKeyReferenceUuid(), keyItem);
         }
-        logger.debug("Total number of keys from the connector: {}", keys.size());
 
-        // Iterate through the created map and store the items in the database
-        for (Map.Entry<String, List<KeyDataResponseDto>> entry : associations.entrySet()) {
-            // If the key is empty then it is individual entity. Probably only private or public key or Secret Key
-            if (entry.getKey().isEmpty()) {
-                for (KeyDataResponseDto soleEntity : entry.getValue()) {
-                    createKeyAndItems(
-                            tokenInstanceReference.getConnectorUuid(),
-                            tokenInstanceReference,
-                            soleEntity.getName(),
-                            List.of(soleEntity)
-                    );
+        // Split keys from the connector to new and existing ones. New items with the same association belong to one key,
+        // the association will be used as the name for the parent key object. New items of the association which already has key
+        // in the database are added to that key
+        Set<UUID> tokenReferenceUuids = new HashSet<>();
+        Map<String, List<KeyDataResponseDto>> newItemsByAssociation = new LinkedHashMap<>();
+        Map<String, CryptographicKey> existingAssociationKeys = new HashMap<>();
+        List<KeyDataResponseDto> changedItemsData = new ArrayList<>();
+        List<CryptographicKeyItem> changedItems = new ArrayList<>();
+        List<DiscoveredKey> discoveredKeys = new ArrayList<>();
+        for (KeyDataResponseDto key : keys) {
+            UUID referenceUuid = UUID.fromString(key.getUuid());
+            tokenReferenceUuids.add(referenceUuid);
+            String association = (key.getAssociation() == null || key.getAssociation().isEmpty()) ? "" : key.getAssociation();
+            CryptographicKeyItem existingItem = existingItemsByReference.get(referenceUuid);
+            if (existingItem != null) {
+                if (!association.isEmpty()) {
+                    existingAssociationKeys.putIfAbsent(association, existingItem.getCryptographicKey());
+                }
+                if (updateDiscoveredKeyItem(existingItem, key)) {
+                    changedItems.add(existingItem);
+                    changedItemsData.add(key);
                 }
+            } else if (association.isEmpty()) {
+                // If the association is empty then it is individual entity. Probably only private or public key or Secret Key
+                discoveredKeys.add(new DiscoveredKey(createDiscoveredKeyEntity(key.getName(), tokenInstanceReference), List.of(key)));
             } else {
-                createKeyAndItems(
-                        tokenInstanceReference.getConnectorUuid(),
-                        tokenInstanceReference,
-                        entry.getKey(),
-                        entry.getValue()
-                );
+                newItemsByAssociation.computeIfAbsent(association, k -> new ArrayList<>()).add(key);
             }
         }
-        logger.info("Sync Key Completed");
+        for (Map.Entry<String, List<KeyDataResponseDto>> entry : newItemsByAssociation.entrySet()) {
+            CryptographicKey existingKey = existingAssociationKeys.get(entry.getKey());
+            discoveredKeys.add(new DiscoveredKey(existingKey != null ? existingKey : createDiscoveredKeyEntity(entry.getKey(), tokenInstanceReference), entry.getValue()));
+        }
+
+        // Keys are persisted first to have UUIDs assigned for their items
+        List<CryptographicKey> newKeys = discoveredKeys.stream().map(DiscoveredKey::key).filter(k -> k.getUuid() == null).toList();
+        cryptographicKeyRepository.saveAll(newKeys);
+
+        List<CryptographicKeyItem> newItems = new ArrayList<>();
+        List<KeyDataResponseDto> newItemsData = new ArrayList<>();
+        for (DiscoveredKey discoveredKey : discoveredKeys) {
+            for (KeyDataResponseDto item : discoveredKey.items()) {
+                CryptographicKeyItem keyItem = new CryptographicKeyItem();
+                keyItem.setName(item.getName());
+                keyItem.setCryptographicKey(discoveredKey.key());
+                setKeyItemData(keyItem, item.getKeyData());
+                keyItem.setKeyReferenceUuid(UUID.fromString(item.getUuid()));
+                keyItem.setState(KeyState.ACTIVE);
+                keyItem.setEnabled(false);
+                newItems.add(keyItem);
+                newItemsData.add(item);
+            }
+        }
+        cryptographicKeyItemRepository.saveAll(newItems);
+
+        // Key items which are no longer present in the token are deactivated, they may still be referenced by certificates
+        List<CryptographicKeyItem> removedItems = existingItems.stream()
+                .filter(i -> !tokenReferenceUuids.contains(i.getKeyReferenceUuid()))
+                .filter(i -> i.getState() == KeyState.ACTIVE || i.getState() == KeyState.PRE_ACTIVE)
+                .toList();
+        for (CryptographicKeyItem removedItem : removedItems) {
+            removedItem.setState(KeyState.DEACTIVATED);
+            removedItem.setEnabled(false);
+        }
+        cryptographicKeyItemRepository.saveAll(removedItems);
+
+        keyEventHistoryService.addEventHistory(KeyEvent.CREATE, KeyEventStatus.SUCCESS, "Key Discovered from Token Instance " + tokenInstanceReference.getName(), null, newItems);
+        keyEventHistoryService.addEventHistory(KeyEvent.DISABLE, KeyEventStatus.SUCCESS, "Key not found on Token Instance " + tokenInstanceReference.getName() + " during synchronization, key deactivated", null, removedItems);
+
+        // Metadata and associations of certificates with public keys are updated for new and changed items in bulk
+        Map<ObjectAttributeContentInfo, List<MetadataAttribute>> itemsMetadata = new HashMap<>();
+        Map<String, UUID> publicKeysFingerprints = new HashMap<>();
+        collectDiscoveredKeyItemsData(tokenInstanceReference.getConnectorUuid(), newItems, newItemsData, itemsMetadata, publicKeysFingerprints);
+        collectDiscoveredKeyItemsData(tokenInstanceReference.getConnectorUuid(), changedItems, changedItemsData, itemsMetadata, publicKeysFingerprints);
+        attributeEngine.updateObjectsMetadataAttributes(itemsMetadata);
+        if (!publicKeysFingerprints.isEmpty()) {
+            certificateService.updateCertificatesKeys(publicKeysFingerprints);
+        }
+
+        logger.info("Sync of keys from token instance {} completed in {} ms. Keys in token: {}, new keys: {}, new key items: {}, changed key items: {}, deactivated key items: {}, unchanged key items: {}",
+                tokenInstanceReference.getName(), System.currentTimeMillis() - startTime, keys.size(), newKeys.size(), newItems.size(), changedItems.size(), removedItems.size(),
+                keys.size() - newItems.size() - changedItems.size());
     }
 
     @Override
@@ -781,47 +841,54 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
         getCryptographicKeyEntity(uuid.getValue());
     }
 
-    private void createKeyAndItems(UUID connectorUuid, TokenInstanceReference tokenInstanceReference, String key, List<KeyDataResponseDto> items) throws AttributeException {
-        //Iterate through the items for a specific key
-        if (checkKeyAlreadyExists(tokenInstanceReference.getUuid(), items)) {
-            return;
-        }
-        // Create the cryptographic Key
-        KeyRequestDto dto = new KeyRequestDto();
-        dto.setName(key);
-        dto.setDescription("Discovered from " + tokenInstanceReference.getName());
-        CryptographicKey cryptographicKey = createKeyEntity(dto, null, tokenInstanceReference);
-        // Create the items for each key
-        Set<CryptographicKeyItem> children = new HashSet<>();
-        for (KeyDataResponseDto item : items) {
-            children.add(
-                    createKeyContent(
-                            item.getUuid(),
-                            item.getName(),
-                            item.getKeyData(),
-                            cryptographicKey,
-                            connectorUuid,
-                            true,
-                            false
-                    )
-            );
-        }
-        cryptographicKey.setItems(children);
-        cryptographicKeyRepository.save(cryptographicKey);
-    }
-
-    private boolean checkKeyAlreadyExists(UUID tokenInstanceUuid, List<KeyDataResponseDto> items) {
-        //Iterate through the items for a specific key
-        for (KeyDataResponseDto item : items) {
-            //check if the item with the reference uuid already exists in the database
-            // Assumption - Content of the key from earlier does not change
-            for (CryptographicKeyItem keyItem : cryptographicKeyItemRepository.findByKeyReferenceUuid(UUID.fromString(item.getUuid()))) {
-                if (keyItem.getCryptographicKey().getTokenInstanceReferenceUuid().equals(tokenInstanceUuid)) {
-                    return true;
-                }
+    private CryptographicKey createDiscoveredKeyEntity(String name, TokenInstanceReference tokenInstanceReference) {
+        CryptographicKey key = new CryptographicKey();
+        key.setName(name);
+        key.setDescription("Discovered from " + tokenInstanceReference.getName());
+        key.setTokenInstanceReference(tokenInstanceReference);
+        return key;
+    }
+
+    /**
+     * Updates existing key item with the data of the key from token
+     *
+     * @param keyItem key item to update
+     * @param item    key data from the token
+     * @return true if name or content of the key changed
+     */
+    private boolean updateDiscoveredKeyItem(CryptographicKeyItem keyItem, KeyDataResponseDto item) {
+        String previousName = keyItem.getName();
+        String previousFingerprint = keyItem.getFingerprint();
+        keyItem.setName(item.getName());
+        setKeyItemData(keyItem, item.getKeyData());
+        return !Objects.equals(previousName, keyItem.getName()) || !Objects.equals(previousFingerprint, keyItem.getFingerprint());
+    }
+
+    private void collectDiscoveredKeyItemsData(UUID connectorUuid, List<CryptographicKeyItem> keyItems, List<KeyDataResponseDto> keyItemsData, Map<ObjectAttributeContentInfo, List<MetadataAttribute>> itemsMetadata, Map<String, UUID> publicKeysFingerprints) {
+        for (int i = 0; i < keyItems.size(); i++) {
+            CryptographicKeyItem keyItem = keyItems.get(i);
+            KeyData keyData = keyItemsData.get(i).getKeyData();
+            CryptographicKey cryptographicKey = keyItem.getCryptographicKey();
+            if (keyData.getMetadata() != null) {
+                itemsMetadata.put(new ObjectAttributeContentInfo(connectorUuid, Resource.CRYPTOGRAPHIC_KEY, keyItem.getUuid(), Resource.CRYPTOGRAPHIC_KEY, cryptographicKey.getUuid(), cryptographicKey.getName()), keyData.getMetadata());
             }
+            if (keyData.getType().equals(KeyType.PUBLIC_KEY) && keyItem.getFingerprint() != null) {
+                publicKeysFingerprints.put(keyItem.getFingerprint(), cryptographicKey.getUuid());
+            }
+        }
+    }
+
+    private void setKeyItemData(CryptographicKeyItem keyItem, KeyData keyData) {
+        keyItem.setType(keyData.getType());
+        keyItem.setKeyAlgorithm(keyData.getAlgorithm());
+        keyItem.setKeyData(keyData.getFormat(), keyData.getValue());
+        keyItem.setFormat(keyData.getFormat());
+        keyItem.setLength(keyData.getLength());
+        try {
+            keyItem.setFingerprint(CertificateUtil.getThumbprint(keyItem.getKeyData().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | NullPointerException e) {
+            logger.error("Failed to calculate the fingerprint {}", e.getMessage());
         }
-        return false;
     }
 
     private CryptographicKey createKeyEntity(KeyRequestDto request, TokenProfile tokenProfile, TokenInstanceReference tokenInstanceReference) {
@@ -840,11 +907,7 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
         CryptographicKeyItem keyItem = new CryptographicKeyItem();
         keyItem.setName(referenceName);
         keyItem.setCryptographicKey(cryptographicKey);
-        keyItem.setType(keyData.getType());
-        keyItem.setKeyAlgorithm(keyData.getAlgorithm());
-        keyItem.setKeyData(keyData.getFormat(), keyData.getValue());
-        keyItem.setFormat(keyData.getFormat());
-        keyItem.setLength(keyData.getLength());
+        setKeyItemData(keyItem, keyData);
         keyItem.setKeyReferenceUuid(UUID.fromString(referenceUuid));
         keyItem.setState(KeyState.ACTIVE);
         keyItem.setEnabled(enabled);
@@ -862,11 +925,6 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
                             )
             );
         }
-        try {
-            keyItem.setFingerprint(CertificateUtil.getThumbprint(keyItem.getKeyData().getBytes(StandardCharsets.UTF_8)));
-        } catch (NoSuchAlgorithmException | NullPointerException e) {
-            logger.error("Failed to calculate the fingerprint {}", e.getMessage());
-        }
         cryptographicKeyItemRepository.save(keyItem);
         String message;
         if (isDiscovered) {
@@ -1201,7 +1259,7 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
         List<SearchFieldDataDto> fields = List.of(
                 SearchHelper.prepareSearch(FilterField.CKI_NAME),
                 SearchHelper.prepareSearch(FilterField.CK_GROUP, groupRepository.findAll().stream().map(Group::getName).toList()),
-                SearchHelper.prepareSearch(FilterField.CK_OWNER, userManagementApiClient.getUsers().getData().stream().map(UserDto::getUsername).toList()),
+                SearchHelper.prepareSearch(FilterField.CK_OWNER, authIdentityReplica.getUsernames()),
                 SearchHelper.prepareSearch(FilterField.CKI_USAGE, Arrays.stream(KeyUsage.values()).map(KeyUsage::getCode).toList()),
                 SearchHelper.prepareSearch(FilterField.CKI_LENGTH),
                 SearchHelper.prepareSearch(FilterField.CKI_STATE, Arrays.stream(KeyState.values()).map(KeyState::getCode).toList()),
@@ -1220,4 +1278,6 @@ public class CryptographicKeyServiceImpl implements CryptographicKeyService {
         return searchFieldDataByGroupDtos;
     }
 
+    private record DiscoveredKey(CryptographicKey key, List<KeyDataResponseDto> items) {
+    }
 }
@@ -34,6 +34,7 @@ import com.czertainly.core.dao.entity.workflows.TriggerAssociation;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.workflows.TriggerAssociationRepository;
 import com.czertainly.core.enums.FilterField;
+import com.czertainly.core.evaluator.CertificateTriggerActionBatch;
 import com.czertainly.core.event.transaction.CertificateValidationEvent;
 import com.czertainly.core.event.transaction.DiscoveryFinishedEvent;
 import com.czertainly.core.event.transaction.DiscoveryProgressEvent;
@@ -46,6 +47,7 @@ import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.*;
 import com.czertainly.core.service.handler.CertificateHandler;
+import com.czertainly.core.service.handler.TriggerHistoryWriter;
 import com.czertainly.core.util.*;
 import com.pivovarit.collectors.ParallelCollectors;
 import jakarta.persistence.criteria.CriteriaBuilder;
@@ -56,6 +58,7 @@ import org.apache.commons.lang3.function.TriFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -89,12 +92,16 @@ public class DiscoveryServiceImpl implements DiscoveryService {
     public static final Semaphore downloadCertSemaphore = new Semaphore(10);
     public static final Semaphore processCertSemaphore = new Semaphore(10);
 
+    @Value("${rules.batched-actions.enabled:false}")
+    private boolean batchedTriggerActions;
+
     private EventProducer eventProducer;
     private NotificationProducer notificationProducer;
     private ApplicationEventPublisher applicationEventPublisher;
 
     private AttributeEngine attributeEngine;
     private CertificateHandler certificateHandler;
+    private TriggerHistoryWriter triggerHistoryWriter;
 
     private TriggerService triggerService;
     private TriggerAssociationRepository triggerAssociationRepository;
@@ -131,6 +138,11 @@ public class DiscoveryServiceImpl implements DiscoveryService {
         this.certificateHandler = certificateHandler;
     }
 
+    @Autowired
+    public void setTriggerHistoryWriter(TriggerHistoryWriter triggerHistoryWriter) {
+        this.triggerHistoryWriter = triggerHistoryWriter;
+    }
+
     @Autowired
     public void setDiscoveryRepository(DiscoveryRepository discoveryRepository) {
         this.discoveryRepository = discoveryRepository;
@@ -645,6 +657,8 @@ public class DiscoveryServiceImpl implements DiscoveryService {
         if (!discoveredCertificates.isEmpty()) {
             // For each discovered certificate and for each found trigger, check if it satisfies rules defined by the trigger and perform actions accordingly
             AtomicInteger index = new AtomicInteger(0);
+            CertificateTriggerActionBatch actionBatch = batchedTriggerActions ? new CertificateTriggerActionBatch() : null;
+            triggerHistoryWriter.start(Resource.DISCOVERY, discovery.getUuid(), Resource.CERTIFICATE);
             try (ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
                 SecurityContext securityContext = SecurityContextHolder.getContext();
                 DelegatingSecurityContextExecutor executor = new DelegatingSecurityContextExecutor(virtualThreadExecutor, securityContext);
@@ -658,7 +672,7 @@ public class DiscoveryServiceImpl implements DiscoveryService {
                                         processCertSemaphore.acquire();
                                         logger.trace("Processing cert {} of discovered certificates for discovery {}.", certIndex, discovery.getName());
 
-                                        certificateHandler.processDiscoveredCertificate(certIndex, discoveredCertificates.size(), discovery, discoveryCertificate);
+                                        certificateHandler.processDiscoveredCertificate(certIndex, discoveredCertificates.size(), discovery, discoveryCertificate, actionBatch);
                                     } catch (InterruptedException e) {
                                         Thread.currentThread().interrupt();
                                         logger.error("Thread {} processing cert {} of discovered certificates interrupted.", Thread.currentThread().getName(), index.get());
@@ -678,6 +692,13 @@ public class DiscoveryServiceImpl implements DiscoveryService {
                 // Wait for all tasks to complete
                 future.join();
             }
+
+            // Perform property actions of triggers collected from all processed certificates in bulk
+            if (actionBatch != null && !actionBatch.isEmpty()) {
+                triggerHistoryWriter.flush();
+                certificateHandler.performBatchedTriggerActions(discovery, actionBatch);
+            }
+            triggerHistoryWriter.complete(discovery.getUuid());
         }
 
         discovery.setStatus(DiscoveryStatus.COMPLETED);
@@ -29,6 +29,7 @@ import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.ConnectorService;
 import com.czertainly.core.service.CredentialService;
 import com.czertainly.core.service.EntityInstanceService;
+import com.czertainly.core.service.handler.InstanceStatusPoller;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import com.czertainly.core.util.FilterPredicatesBuilder;
 import com.czertainly.core.util.RequestValidatorHelper;
@@ -46,6 +47,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -59,6 +61,12 @@ public class EntityInstanceServiceImpl implements EntityInstanceService {
     private CredentialService credentialService;
     private EntityInstanceApiClient entityInstanceApiClient;
     private AttributeEngine attributeEngine;
+    private InstanceStatusPoller instanceStatusPoller;
+
+    @Autowired
+    public void setInstanceStatusPoller(InstanceStatusPoller instanceStatusPoller) {
+        this.instanceStatusPoller = instanceStatusPoller;
+    }
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -125,10 +133,32 @@ public class EntityInstanceServiceImpl implements EntityInstanceService {
             return entityInstanceDto;
         }
 
+        // connector is called only to load missing data attributes, status is refreshed by instance status poller
+        if (attributes.isEmpty()) {
+            attributes = loadDataAttributesFromConnector(entityInstanceReference, attributes);
+        }
+
+        entityInstanceDto.setAttributes(attributes);
+        return entityInstanceDto;
+    }
+
+    @Override
+    @ExternalAuthorization(resource = Resource.ENTITY, action = ResourceAction.DETAIL)
+    public EntityInstanceDto reloadStatus(SecuredUUID entityUuid) throws ConnectorException {
+        EntityInstanceReference entityInstanceReference = getEntityInstanceReferenceEntity(entityUuid);
+        if (entityInstanceReference.getConnector() == null) {
+            throw new ValidationException(ValidationError.create("Connector of entity instance %s is deleted".formatted(entityInstanceReference.getName())));
+        }
+        instanceStatusPoller.refreshEntityInstanceStatus(entityInstanceReference);
+        entityInstanceReferenceRepository.save(entityInstanceReference);
+        return getEntityInstance(entityUuid);
+    }
+
+    private List<ResponseAttributeDto> loadDataAttributesFromConnector(EntityInstanceReference entityInstanceReference, List<ResponseAttributeDto> attributes) throws ConnectorException {
         com.czertainly.api.model.connector.entity.EntityInstanceDto entityProviderInstanceDto = entityInstanceApiClient.getEntityInstance(entityInstanceReference.getConnector().mapToDto(),
                 entityInstanceReference.getEntityInstanceUuid());
 
-        if (attributes.isEmpty() && entityProviderInstanceDto.getAttributes() != null && !entityProviderInstanceDto.getAttributes().isEmpty()) {
+        if (entityProviderInstanceDto.getAttributes() != null && !entityProviderInstanceDto.getAttributes().isEmpty()) {
             try {
                 List<RequestAttributeDto> requestAttributes = AttributeDefinitionUtils.getClientAttributes(entityProviderInstanceDto.getAttributes());
                 attributeEngine.updateDataAttributeDefinitions(entityInstanceReference.getConnectorUuid(), null, entityProviderInstanceDto.getAttributes());
@@ -137,9 +167,7 @@ public class EntityInstanceServiceImpl implements EntityInstanceService {
                 logger.warn("Could not update data attributes for entity {} retrieved from connector", entityInstanceReference.getName());
             }
         }
-
-        entityInstanceDto.setAttributes(attributes);
-        return entityInstanceDto;
+        return attributes;
     }
 
     @Override
@@ -174,7 +202,8 @@ public class EntityInstanceServiceImpl implements EntityInstanceService {
         EntityInstanceReference entityInstanceRef = new EntityInstanceReference();
         entityInstanceRef.setEntityInstanceUuid((response.getUuid()));
         entityInstanceRef.setName(request.getName());
-        //entityInstanceRef.setStatus("connected"); // TODO: status of the Entity
+        entityInstanceRef.setStatus(InstanceStatusPoller.INSTANCE_STATUS_CONNECTED);
+        entityInstanceRef.setStatusUpdatedAt(OffsetDateTime.now());
         entityInstanceRef.setConnector(connector);
         entityInstanceRef.setKind(request.getKind());
         entityInstanceRef.setConnectorName(connector.getName());
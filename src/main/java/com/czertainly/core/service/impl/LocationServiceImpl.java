@@ -10,6 +10,7 @@ import com.czertainly.api.model.client.location.AddLocationRequestDto;
 import com.czertainly.api.model.client.location.EditLocationRequestDto;
 import com.czertainly.api.model.client.location.IssueToLocationRequestDto;
 import com.czertainly.api.model.client.location.PushToLocationRequestDto;
+import com.czertainly.api.model.client.metadata.MetadataResponseDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.common.attribute.v2.AttributeType;
 import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
@@ -210,7 +211,7 @@ public class LocationServiceImpl implements LocationService {
         locationDto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.LOCATION, location.getUuid())));
         locationDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.LOCATION, location.getUuid(), dto.getCustomAttributes()));
         locationDto.setAttributes(attributeEngine.updateObjectDataAttributesContent(entityInstanceRef.getConnectorUuid(), null, Resource.LOCATION, location.getUuid(), dto.getAttributes()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(entityInstanceRef.getConnectorUuid(), Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), location);
 
         return locationDto;
     }
@@ -225,7 +226,7 @@ public class LocationServiceImpl implements LocationService {
         dto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.LOCATION, location.getUuid())));
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
         dto.setAttributes(attributeEngine.getObjectDataAttributesContent(location.getEntityInstanceReference().getConnectorUuid(), null, Resource.LOCATION, location.getUuid()));
-        dto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(dto, null, location);
         return dto;
     }
 
@@ -255,7 +256,7 @@ public class LocationServiceImpl implements LocationService {
         locationDto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.LOCATION, location.getUuid())));
         locationDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.LOCATION, location.getUuid(), dto.getCustomAttributes()));
         locationDto.setAttributes(attributeEngine.updateObjectDataAttributesContent(entityInstanceRef.getConnectorUuid(), null, Resource.LOCATION, location.getUuid(), dto.getAttributes()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(entityInstanceRef.getConnectorUuid(), Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), location);
         return locationDto;
     }
 
@@ -381,7 +382,7 @@ public class LocationServiceImpl implements LocationService {
         logger.info("Certificate {} removed from Location {}", certificateUuid, location.getName());
         LocationDto locationDto = location.mapToDto();
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, null, location);
         return locationDto;
     }
 
@@ -501,7 +502,7 @@ public class LocationServiceImpl implements LocationService {
 
         final LocationDto dto = location.mapToDto();
         dto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        dto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(dto, null, location);
         return dto;
     }
 
@@ -621,7 +622,7 @@ public class LocationServiceImpl implements LocationService {
 
         LocationDto locationDto = location.mapToDto();
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, null, location);
         return locationDto;
     }
 
@@ -659,7 +660,7 @@ public class LocationServiceImpl implements LocationService {
 
         LocationDto locationDto = location.mapToDto();
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(entityInstanceRef.getConnectorUuid(), Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, entityInstanceRef.getConnectorUuid(), location);
 
         return locationDto;
     }
@@ -729,7 +730,7 @@ public class LocationServiceImpl implements LocationService {
 
         LocationDto locationDto = location.mapToDto();
         locationDto.setCustomAttributes(attributeEngine.getObjectCustomAttributesContent(Resource.LOCATION, location.getUuid()));
-        locationDto.getCertificates().forEach(e -> e.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, UUID.fromString(e.getCertificateUuid()), Resource.LOCATION, location.getUuid()))));
+        setCertificatesMetadata(locationDto, null, location);
 
         return locationDto;
     }
@@ -1147,4 +1148,10 @@ public class LocationServiceImpl implements LocationService {
         logger.debug("Searchable Fields by Groups: {}", searchFieldDataByGroupDtos);
         return searchFieldDataByGroupDtos;
     }
+
+    private void setCertificatesMetadata(LocationDto locationDto, UUID connectorUuid, Location location) {
+        List<UUID> certificateUuids = locationDto.getCertificates().stream().map(e -> UUID.fromString(e.getCertificateUuid())).toList();
+        Map<UUID, List<MetadataResponseDto>> certificatesMetadata = attributeEngine.getObjectsMappedMetadataContent(connectorUuid, Resource.CERTIFICATE, certificateUuids, Resource.LOCATION, location.getUuid());
+        locationDto.getCertificates().forEach(e -> e.setMetadata(certificatesMetadata.get(UUID.fromString(e.getCertificateUuid()))));
+    }
 }
@@ -6,13 +6,13 @@ import com.czertainly.api.model.client.notification.NotificationDto;
 import com.czertainly.api.model.client.notification.NotificationRequestDto;
 import com.czertainly.api.model.client.notification.NotificationResponseDto;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDto;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.dao.entity.Notification;
 import com.czertainly.core.dao.entity.NotificationRecipient;
+import com.czertainly.core.dao.repository.NotificationRecipientRepository;
 import com.czertainly.core.dao.repository.NotificationRepository;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
-import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.dao.repository.NotificationUserCounterRepository;
+import com.czertainly.core.model.NotificationInboxDto;
 import com.czertainly.core.service.NotificationService;
 import com.czertainly.core.util.AuthHelper;
 import com.czertainly.core.util.RequestValidatorHelper;
@@ -22,22 +22,33 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.*;
 
 @Service
+@Transactional
 public class NotificationServiceImpl implements NotificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationServiceImpl.class);
 
+    private static final int DEFAULT_INBOX_ITEMS_PER_PAGE = 10;
+    private static final int MAX_INBOX_ITEMS_PER_PAGE = 1000;
+    private static final String CURSOR_SEPARATOR = "_";
+
     @Autowired
     NotificationRepository notificationRepository;
 
     @Autowired
-    private UserManagementApiClient userManagementApiClient;
+    private NotificationRecipientRepository notificationRecipientRepository;
+
+    @Autowired
+    private NotificationUserCounterRepository notificationUserCounterRepository;
 
     @Autowired
-    private RoleManagementApiClient roleManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
 
     @Override
     public NotificationDto createNotificationForUser(String message, String detail, String userUuid, Resource target, String targetUuids) throws ValidationException {
@@ -53,48 +64,56 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setTargetObjectType(target);
         notification.setTargetObjectIdentification(targetUuids);
 
-        Set<NotificationRecipient> notificationRecipients = new HashSet<>();
+        // user can be member of group or role more than once, each user is recipient of notification only once
+        Set<UUID> recipientUserUuids = new LinkedHashSet<>();
         for (String userUuid : userUuids) {
+            recipientUserUuids.add(UUID.fromString(userUuid));
+        }
+        if (recipientUserUuids.isEmpty()) {
+            throw new ValidationException("Unable to create notification for no recipients.");
+        }
+
+        Set<NotificationRecipient> notificationRecipients = new HashSet<>();
+        for (UUID userUuid : recipientUserUuids) {
             NotificationRecipient notificationRecipient = new NotificationRecipient();
-            notificationRecipient.setUserUuid(UUID.fromString(userUuid));
+            notificationRecipient.setUserUuid(userUuid);
             notificationRecipient.setNotificationUuid(notification.getUuid());
+            notificationRecipient.setSentAt(notification.getSentAt());
             notificationRecipients.add(notificationRecipient);
         }
         notification.setNotificationRecipients(notificationRecipients);
 
-        if (notificationRecipients.isEmpty()) {
-            throw new ValidationException("Unable to create notification for no recipients.");
-        }
-
         notificationRepository.save(notification);
+        // counters are locked in the same order by all fan-outs, so overlapping fan-outs do not deadlock
+        notificationUserCounterRepository.incrementUnreadCounts(recipientUserUuids.stream().sorted().toList());
         return notification.mapToDto();
     }
 
     @Override
     public NotificationDto createNotificationForGroup(String message, String detail, String groupUuid, Resource target, String targetUuids) throws ValidationException {
-        return createNotificationForUsers(message, detail, userManagementApiClient.getUsers().getData().stream().filter(u -> u.getGroups().stream().anyMatch(g -> g.getUuid().equals(groupUuid))).map(UserDto::getUuid).toList(), target, targetUuids);
+        return createNotificationForUsers(message, detail, authIdentityReplica.getGroupUserUuids(UUID.fromString(groupUuid)).stream().map(UUID::toString).toList(), target, targetUuids);
     }
 
     @Override
     public NotificationDto createNotificationForRole(String message, String detail, String roleUuid, Resource target, String targetUuids) throws ValidationException {
-        return createNotificationForUsers(message, detail, roleManagementApiClient.getRoleUsers(roleUuid).stream().map(UserDto::getUuid).toList(), target, targetUuids);
+        return createNotificationForUsers(message, detail, authIdentityReplica.getRoleUserUuids(UUID.fromString(roleUuid)).stream().map(UUID::toString).toList(), target, targetUuids);
     }
 
     @Override
     public NotificationResponseDto listNotifications(NotificationRequestDto request) {
         RequestValidatorHelper.revalidatePaginationRequestDto(request);
         final Pageable pageable = PageRequest.of(request.getPageNumber() - 1, request.getItemsPerPage());
-        final UUID loggedUserUuid = UUID.fromString(AuthHelper.getUserProfile().getUser().getUuid());
+        final UUID loggedUserUuid = getLoggedUserUuid();
 
-        final List<Notification> notifications = request.isUnread()
-                ? notificationRepository.findByNotificationRecipients_UserUuid_AndNotificationRecipients_ReadAtIsNullOrderBySentAtDesc(loggedUserUuid, pageable)
-                : notificationRepository.findByNotificationRecipients_UserUuidOrderBySentAtDesc(loggedUserUuid, pageable);
+        final List<NotificationRecipient> recipients = request.isUnread()
+                ? notificationRecipientRepository.findUnreadInboxPage(loggedUserUuid, pageable)
+                : notificationRecipientRepository.findInboxPage(loggedUserUuid, pageable);
         final long totalItems = request.isUnread()
-                ? notificationRepository.countByNotificationRecipients_UserUuid_AndNotificationRecipients_ReadAtIsNull(loggedUserUuid)
-                : notificationRepository.countByNotificationRecipients_UserUuid(loggedUserUuid);
+                ? getUnreadCount(loggedUserUuid)
+                : notificationRecipientRepository.countByUserUuid(loggedUserUuid);
 
         final NotificationResponseDto responseDto = new NotificationResponseDto();
-        responseDto.setItems(notifications.stream().map(Notification::mapToDto).toList());
+        responseDto.setItems(recipients.stream().map(r -> r.getNotification().mapToDto(r.getReadAt())).toList());
         responseDto.setItemsPerPage(request.getItemsPerPage());
         responseDto.setPageNumber(request.getPageNumber());
         responseDto.setTotalItems(totalItems);
@@ -104,51 +123,123 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    public void deleteNotification(String uuid) throws NotFoundException {
-        final UUID loggedUserUuid = UUID.fromString(AuthHelper.getUserProfile().getUser().getUuid());
-        Notification notification = notificationRepository.findByUuid(SecuredUUID.fromString(uuid)).orElseThrow(() -> new NotFoundException(Notification.class, uuid));
-        notification.getNotificationRecipients().removeIf(r -> r.getUserUuid().equals(loggedUserUuid));
-        if (notification.getNotificationRecipients().isEmpty()) {
-            notificationRepository.delete(notification);
+    public NotificationInboxDto listInboxNotifications(boolean unread, String cursor, int itemsPerPage) throws ValidationException {
+        final int pageSize = itemsPerPage <= 0 ? DEFAULT_INBOX_ITEMS_PER_PAGE : Math.min(itemsPerPage, MAX_INBOX_ITEMS_PER_PAGE);
+        // one more notification is loaded to find out whether there is next page
+        final Pageable pageable = PageRequest.of(0, pageSize + 1);
+        final UUID loggedUserUuid = getLoggedUserUuid();
+
+        final List<NotificationRecipient> recipients;
+        if (cursor == null || cursor.isBlank()) {
+            recipients = unread
+                    ? notificationRecipientRepository.findUnreadInboxPage(loggedUserUuid, pageable)
+                    : notificationRecipientRepository.findInboxPage(loggedUserUuid, pageable);
         } else {
-            notificationRepository.save(notification);
+            final String[] cursorParts = cursor.split(CURSOR_SEPARATOR, 2);
+            final Date sentAt;
+            final UUID notificationUuid;
+            try {
+                sentAt = new Date(Long.parseLong(cursorParts[0]));
+                notificationUuid = UUID.fromString(cursorParts[1]);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new ValidationException("Invalid cursor of notifications page: " + cursor);
+            }
+            recipients = unread
+                    ? notificationRecipientRepository.findUnreadInboxPageAfter(loggedUserUuid, sentAt, notificationUuid, pageable)
+                    : notificationRecipientRepository.findInboxPageAfter(loggedUserUuid, sentAt, notificationUuid, pageable);
+        }
+
+        final NotificationInboxDto inboxDto = new NotificationInboxDto();
+        final List<NotificationRecipient> pageRecipients = recipients.size() > pageSize ? recipients.subList(0, pageSize) : recipients;
+        inboxDto.setItems(pageRecipients.stream().map(r -> r.getNotification().mapToDto(r.getReadAt())).toList());
+        if (recipients.size() > pageSize) {
+            final NotificationRecipient last = pageRecipients.getLast();
+            inboxDto.setNextCursor(last.getSentAt().getTime() + CURSOR_SEPARATOR + last.getNotificationUuid());
+        }
+        inboxDto.setUnreadCount(getUnreadCount(loggedUserUuid));
+        return inboxDto;
+    }
+
+    @Override
+    public long getUnreadNotificationsCount() {
+        return getUnreadCount(getLoggedUserUuid());
+    }
+
+    @Override
+    public void deleteNotification(String uuid) throws NotFoundException {
+        final UUID loggedUserUuid = getLoggedUserUuid();
+        final UUID notificationUuid = UUID.fromString(uuid);
+        if (deleteNotifications(loggedUserUuid, List.of(notificationUuid)) == 0) {
+            throw new NotFoundException(Notification.class, uuid);
         }
     }
 
     @Override
     public void markNotificationAsRead(String uuid) throws NotFoundException {
-        final UUID loggedUserUuid = UUID.fromString(AuthHelper.getUserProfile().getUser().getUuid());
-        Notification notification = notificationRepository.findByUuid(SecuredUUID.fromString(uuid)).orElseThrow(() -> new NotFoundException(Notification.class, uuid));
-        for (NotificationRecipient recipient : notification.getNotificationRecipients()) {
-            if (recipient.getUserUuid().equals(loggedUserUuid)) {
-                if (recipient.getReadAt() == null) {
-                    recipient.setReadAt(new Date());
-                    notificationRepository.save(notification);
-                }
-                break;
-            }
+        final UUID loggedUserUuid = getLoggedUserUuid();
+        final UUID notificationUuid = UUID.fromString(uuid);
+        if (markNotificationsAsRead(loggedUserUuid, List.of(notificationUuid)) == 0
+                && !notificationRecipientRepository.existsByUserUuidAndNotificationUuid(loggedUserUuid, notificationUuid)) {
+            throw new NotFoundException(Notification.class, uuid);
         }
     }
 
     @Override
     public void bulkDeleteNotifications(List<String> uuids) {
-        for (String uuid : uuids) {
-            try {
-                deleteNotification(uuid);
-            } catch (NotFoundException e) {
-                logger.warn(e.getMessage());
-            }
+        final List<UUID> notificationUuids = uuids.stream().map(UUID::fromString).distinct().toList();
+        final int deleted = deleteNotifications(getLoggedUserUuid(), notificationUuids);
+        if (deleted < notificationUuids.size()) {
+            logger.warn("{} of {} notifications to delete were not found", notificationUuids.size() - deleted, notificationUuids.size());
         }
     }
 
     @Override
     public void bulkMarkNotificationAsRead(List<String> uuids) {
-        for (String uuid : uuids) {
-            try {
-                markNotificationAsRead(uuid);
-            } catch (NotFoundException e) {
-                logger.warn(e.getMessage());
-            }
+        markNotificationsAsRead(getLoggedUserUuid(), uuids.stream().map(UUID::fromString).distinct().toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteReadNotificationsBefore(OffsetDateTime readBefore, int chunkSize) {
+        return notificationRecipientRepository.deleteChunkByReadAtBefore(readBefore, chunkSize);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteNotificationsWithoutRecipientsBefore(OffsetDateTime sentBefore) {
+        return notificationRepository.deleteWithoutRecipientsBySentAtBefore(sentBefore);
+    }
+
+    private int markNotificationsAsRead(UUID userUuid, List<UUID> notificationUuids) {
+        if (notificationUuids.isEmpty()) {
+            return 0;
+        }
+        final int marked = notificationRecipientRepository.markAsRead(userUuid, notificationUuids, new Date());
+        if (marked > 0) {
+            notificationUserCounterRepository.decrementUnreadCount(userUuid, marked);
+        }
+        return marked;
+    }
+
+    private int deleteNotifications(UUID userUuid, List<UUID> notificationUuids) {
+        if (notificationUuids.isEmpty()) {
+            return 0;
         }
+        // unread notifications are deleted separately to know by how much to decrement unread counter
+        final int deletedUnread = notificationRecipientRepository.deleteUnreadByUserUuidAndNotificationUuids(userUuid, notificationUuids);
+        if (deletedUnread > 0) {
+            notificationUserCounterRepository.decrementUnreadCount(userUuid, deletedUnread);
+        }
+        final int deleted = deletedUnread + notificationRecipientRepository.deleteByUserUuidAndNotificationUuids(userUuid, notificationUuids);
+        notificationRepository.deleteWithoutRecipients(notificationUuids);
+        return deleted;
+    }
+
+    private long getUnreadCount(UUID userUuid) {
+        return notificationUserCounterRepository.findUnreadCountByUserUuid(userUuid).orElse(0);
+    }
+
+    private UUID getLoggedUserUuid() {
+        return UUID.fromString(AuthHelper.getUserProfile().getUser().getUuid());
     }
 }
@@ -27,6 +27,7 @@ import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.dao.repository.cmp.CmpProfileRepository;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.event.transaction.AcmeProfileChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -35,6 +36,7 @@ import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.ComplianceService;
 import com.czertainly.core.service.PermissionEvaluator;
 import com.czertainly.core.service.RaProfileService;
+import com.czertainly.core.service.handler.AuthorityCertificateChainCache;
 import com.czertainly.core.service.model.SecuredList;
 import com.czertainly.core.service.v2.ExtendedAttributeService;
 import com.czertainly.core.util.AttributeDefinitionUtils;
@@ -52,6 +54,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.framework.AopContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
@@ -59,9 +62,12 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -85,6 +91,8 @@ public class RaProfileServiceImpl implements RaProfileService {
     private ApprovalProfileRelationRepository approvalProfileRelationRepository;
     private ApprovalProfileRepository approvalProfileRepository;
     private CertificateContentRepository certificateContentRepository;
+    private AuthorityCertificateChainCache authorityCertificateChainCache;
+    private ApplicationEventPublisher applicationEventPublisher;
 
 
     @Override
@@ -172,6 +180,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         updateRaProfile(raProfile, authorityInstanceRef, request);
         raProfileRepository.save(raProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
 
         RaProfileDto raProfileDto = raProfile.mapToDto();
         raProfileDto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.RA_PROFILE, raProfile.getUuid(), request.getCustomAttributes()));
@@ -204,6 +213,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         entity.setEnabled(true);
         raProfileRepository.save(entity);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -215,6 +225,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
         entity.setEnabled(false);
         raProfileRepository.save(entity);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -241,6 +252,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
                 entity.setEnabled(false);
                 raProfileRepository.save(entity);
+                applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
             } catch (NotFoundException e) {
                 logger.warn("Unable to disable RA Profile with uuid {}. It may have been deleted", uuid);
             }
@@ -258,6 +270,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
                 entity.setEnabled(true);
                 raProfileRepository.save(entity);
+                applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
             } catch (NotFoundException e) {
                 logger.warn("Unable to enable RA Profile with uuid {}. It may have been deleted", uuids);
             }
@@ -272,6 +285,7 @@ public class RaProfileServiceImpl implements RaProfileService {
                 uuids.stream().map(SecuredUUID::getValue).toList());
         raProfiles.forEach(raProfile -> raProfile.setAcmeProfile(null));
         raProfileRepository.saveAll(raProfiles);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -310,6 +324,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfile.setAcmeProfile(acmeProfile);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
 
         return raProfile.mapToAcmeDto();
     }
@@ -324,6 +339,7 @@ public class RaProfileServiceImpl implements RaProfileService {
         raProfileProtocolAttribute.setAcmeIssueCertificateAttributes(null);
         raProfile.setProtocolAttribute(raProfileProtocolAttribute);
         raProfileRepository.save(raProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     @Override
@@ -473,6 +489,7 @@ public class RaProfileServiceImpl implements RaProfileService {
     // TODO - remove, service should not allow modifying RaProfile entity outside of it.
     public RaProfile updateRaProfileEntity(RaProfile raProfile) {
         raProfileRepository.save(raProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
         return raProfile;
     }
 
@@ -623,27 +640,56 @@ public class RaProfileServiceImpl implements RaProfileService {
         AuthorityInstanceReference authorityInstanceReference = authorityInstanceReferenceRepository.findByUuid(authorityUuid)
                 .orElseThrow(() -> new NotFoundException(AuthorityInstanceReference.class, authorityUuid));
 
+        return getAuthorityCertificateChain(authorityInstanceReference, raProfile, false);
+    }
+
+    private List<CertificateDetailDto> getAuthorityCertificateChain(AuthorityInstanceReference authorityInstanceReference, RaProfile raProfile, boolean refresh) throws ConnectorException {
         List<RequestAttributeDto> requestAttributes = attributeEngine.getRequestObjectDataAttributesContent(authorityInstanceReference.getConnectorUuid(), null, Resource.RA_PROFILE, raProfile.getUuid());
+        if (!refresh) {
+            AuthorityCertificateChainCache.CertificateChain cachedChain = authorityCertificateChainCache.get(authorityInstanceReference.getUuid(), requestAttributes);
+            if (cachedChain != null) {
+                Map<UUID, Certificate> certificates = certificateRepository.findAllByUuidIn(cachedChain.certificateUuids()).stream().collect(Collectors.toMap(Certificate::getUuid, Function.identity()));
+                if (certificates.keySet().containsAll(cachedChain.certificateUuids())) {
+                    return cachedChain.certificateUuids().stream().map(uuid -> certificates.get(uuid).mapToDto()).toList();
+                }
+                // some certificates of the chain were removed meanwhile, resolve the cached chain again without calling the authority
+                return resolveAuthorityCertificateChain(authorityInstanceReference, requestAttributes, cachedChain.certificates());
+            }
+        }
+
         CaCertificatesResponseDto caCertificatesResponseDto = authorityInstanceApiClient.getCaCertificates(authorityInstanceReference.getConnector().mapToDto(), authorityInstanceReference.getAuthorityInstanceUuid(), new CaCertificatesRequestDto(requestAttributes));
-        List<CertificateDataResponseDto> certificateDataResponseDtos = caCertificatesResponseDto.getCertificates();
+        List<X509Certificate> certificateChain = new ArrayList<>();
+        for (CertificateDataResponseDto certificateDataResponseDto : caCertificatesResponseDto.getCertificates()) {
+            try {
+                certificateChain.add(CertificateUtil.parseCertificate(certificateDataResponseDto.getCertificateData()));
+            } catch (java.security.cert.CertificateException e) {
+                logger.warn("Cannot process certificate from CA certificate chain returned from authority of RA profile {}", raProfile.getName());
+                break;
+            }
+        }
+        return resolveAuthorityCertificateChain(authorityInstanceReference, requestAttributes, certificateChain);
+    }
+
+    private List<CertificateDetailDto> resolveAuthorityCertificateChain(AuthorityInstanceReference authorityInstanceReference, List<RequestAttributeDto> requestAttributes, List<X509Certificate> certificateChain) {
+        List<X509Certificate> resolvedChain = new ArrayList<>();
+        List<UUID> certificateUuids = new ArrayList<>();
         List<CertificateDetailDto> certificateDetailDtos = new ArrayList<>();
-        for (CertificateDataResponseDto certificateDataResponseDto : certificateDataResponseDtos) {
-            X509Certificate certificate;
+        for (X509Certificate certificate : certificateChain) {
             String fingerprint;
             try {
-                certificate = CertificateUtil.parseCertificate(certificateDataResponseDto.getCertificateData());
                 fingerprint = CertificateUtil.getThumbprint(certificate);
             } catch (java.security.cert.CertificateException | NoSuchAlgorithmException e) {
-                logger.warn("Cannot process certificate from CA certificate chain returned from authority of RA profile {}", raProfile.getName());
+                logger.warn("Cannot process certificate from CA certificate chain returned from authority {}", authorityInstanceReference.getName());
                 break;
             }
 
+            Certificate chainCertificate;
             Optional<Certificate> existingCertificate = certificateRepository.findByFingerprint(fingerprint);
             if (existingCertificate.isPresent()) {
-                certificateDetailDtos.add(existingCertificate.get().mapToDto());
+                chainCertificate = existingCertificate.get();
             } else {
-                Certificate modal = new Certificate();
-                CertificateUtil.prepareIssuedCertificate(modal, certificate);
+                chainCertificate = new Certificate();
+                CertificateUtil.prepareIssuedCertificate(chainCertificate, certificate);
                 CertificateContent certificateContent = certificateContentRepository.findByFingerprint(fingerprint);
                 if (certificateContent == null) {
                     certificateContent = new CertificateContent();
@@ -651,13 +697,17 @@ public class RaProfileServiceImpl implements RaProfileService {
                     certificateContent.setFingerprint(fingerprint);
                     certificateContentRepository.save(certificateContent);
                 }
-                modal.setFingerprint(fingerprint);
-                modal.setCertificateContent(certificateContent);
-                modal.setCertificateContentId(certificateContent.getId());
-                certificateRepository.save(modal);
-                certificateDetailDtos.add(modal.mapToDto());
+                chainCertificate.setFingerprint(fingerprint);
+                chainCertificate.setCertificateContent(certificateContent);
+                chainCertificate.setCertificateContentId(certificateContent.getId());
+                certificateRepository.save(chainCertificate);
             }
+            resolvedChain.add(certificate);
+            certificateUuids.add(chainCertificate.getUuid());
+            certificateDetailDtos.add(chainCertificate.mapToDto());
         }
+
+        authorityCertificateChainCache.put(authorityInstanceReference.getUuid(), requestAttributes, resolvedChain, certificateUuids);
         return certificateDetailDtos;
     }
 
@@ -711,14 +761,12 @@ public class RaProfileServiceImpl implements RaProfileService {
             acmeProfile.setRaProfileUuid(null);
             acmeProfileRepository.save(acmeProfile);
         }
-        for (Certificate certificate : certificateRepository.findByRaProfile(raProfile)) {
-            certificate.setRaProfile(null);
-            certificate.setRaProfileUuid(null);
-            certificateRepository.save(certificate);
-        }
+        int certificatesUpdated = certificateRepository.removeRaProfile(raProfile.getUuid());
+        logger.debug("Removed RA profile {} from {} certificates", raProfile.getName(), certificatesUpdated);
 
         attributeEngine.deleteAllObjectAttributeContent(Resource.RA_PROFILE, raProfile.getUuid());
         raProfileRepository.delete(raProfile);
+        applicationEventPublisher.publishEvent(new AcmeProfileChangedEvent());
     }
 
     private List<SimplifiedComplianceProfileDto> getComplianceProfilesForRaProfile(String raProfileUuid, SecurityFilter filter) {
@@ -730,7 +778,7 @@ public class RaProfileServiceImpl implements RaProfileService {
 
     private void setAuthorityCertificates(AuthorityInstanceReference authorityInstanceRef, RaProfile raProfile) {
         try {
-            List<CertificateDetailDto> certificateChain = getAuthorityCertificateChain(SecuredParentUUID.fromUUID(authorityInstanceRef.getUuid()), SecuredUUID.fromUUID(raProfile.getUuid()));
+            List<CertificateDetailDto> certificateChain = getAuthorityCertificateChain(authorityInstanceRef, raProfile, true);
             raProfile.setAuthorityCertificateUuid(certificateChain.isEmpty() ? null : UUID.fromString(certificateChain.get(0).getUuid()));
         } catch (NotFoundException ignored) {
             // exception ignored since get CA certs from connector is optional
@@ -824,4 +872,14 @@ public class RaProfileServiceImpl implements RaProfileService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setAuthorityCertificateChainCache(AuthorityCertificateChainCache authorityCertificateChainCache) {
+        this.authorityCertificateChainCache = authorityCertificateChainCache;
+    }
+
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
 }
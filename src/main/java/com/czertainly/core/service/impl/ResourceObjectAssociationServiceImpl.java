@@ -3,15 +3,16 @@ package com.czertainly.core.service.impl;
 import com.czertainly.api.exception.NotFoundException;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.core.auth.Resource;
-import com.czertainly.api.model.core.auth.UserDetailDto;
 import com.czertainly.api.model.core.auth.UserProfileDto;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.dao.entity.Group;
 import com.czertainly.core.dao.entity.GroupAssociation;
 import com.czertainly.core.dao.entity.OwnerAssociation;
 import com.czertainly.core.dao.repository.GroupAssociationRepository;
 import com.czertainly.core.dao.repository.GroupRepository;
 import com.czertainly.core.dao.repository.OwnerAssociationRepository;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
+import com.czertainly.core.model.ObjectGroupProjection;
+import com.czertainly.core.model.ObjectOwnerProjection;
 import com.czertainly.core.service.ResourceObjectAssociationService;
 import com.czertainly.core.util.AuthHelper;
 import org.slf4j.Logger;
@@ -27,14 +28,15 @@ import java.util.*;
 public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssociationService {
     private static final Logger logger = LoggerFactory.getLogger(ResourceObjectAssociationServiceImpl.class);
 
-    private UserManagementApiClient userManagementApiClient;
+    // maximum number of objects or associations in single statement
+    private static final int ASSOCIATION_BATCH_SIZE = 1000;
+
+    private AuthIdentityReplica authIdentityReplica;
 
     private GroupRepository groupRepository;
     private GroupAssociationRepository groupAssociationRepository;
     private OwnerAssociationRepository ownerAssociationRepository;
 
-    private final Map<UUID, String> mappedUsers = new HashMap<>();
-
     @Autowired
     public void setGroupAssociationRepository(GroupAssociationRepository groupAssociationRepository) {
         this.groupAssociationRepository = groupAssociationRepository;
@@ -51,15 +53,18 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
+    public void setAuthIdentityReplica(AuthIdentityReplica authIdentityReplica) {
+        this.authIdentityReplica = authIdentityReplica;
     }
 
     @Override
     public void addGroup(Resource resource, UUID objectUuid, UUID groupUuid) throws NotFoundException {
-        if (groupUuid != null && !groupAssociationRepository.existsByResourceAndObjectUuidAndGroupUuid(resource, objectUuid, groupUuid)) {
-            createGroupAssociation(resource, objectUuid, groupUuid);
-            logger.debug("Added group {} association to {} with UUID {}", groupUuid, resource.getLabel(), objectUuid);
+        if (groupUuid != null) {
+            Set<UUID> groupUuids = new HashSet<>(getGroupUuids(resource, objectUuid));
+            if (groupUuids.add(groupUuid)) {
+                setGroups(resource, Map.of(objectUuid, groupUuids));
+                logger.debug("Added group {} association to {} with UUID {}", groupUuid, resource.getLabel(), objectUuid);
+            }
         }
     }
 
@@ -71,17 +76,28 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
 
     @Override
     public Set<Group> setGroups(Resource resource, UUID objectUuid, Set<UUID> groupUuids) throws NotFoundException {
-        Set<Group> groups = new HashSet<>();
+        Set<UUID> newGroupUuids = groupUuids == null ? Set.of() : groupUuids;
+        Map<UUID, Group> groups = findGroups(newGroupUuids);
+        applyGroups(resource, Map.of(objectUuid, newGroupUuids));
+        return new HashSet<>(groups.values());
+    }
 
-        removeGroups(resource, objectUuid);
-        if (groupUuids != null && !groupUuids.isEmpty()) {
-            for (UUID groupUuid : groupUuids) {
-                groups.add(createGroupAssociation(resource, objectUuid, groupUuid));
-            }
-            logger.debug("Added {} group associations to {} with UUID {}", groupUuids.size(), resource.getLabel(), objectUuid);
+    @Override
+    public Map<UUID, List<String>> setGroups(Resource resource, List<UUID> objectUuids, Set<UUID> groupUuids) throws NotFoundException {
+        Set<UUID> newGroupUuids = groupUuids == null ? Set.of() : groupUuids;
+        Map<UUID, Set<UUID>> objectGroupUuids = new LinkedHashMap<>();
+        for (UUID objectUuid : objectUuids) {
+            objectGroupUuids.put(objectUuid, newGroupUuids);
         }
+        return setGroups(resource, objectGroupUuids);
+    }
 
-        return groups;
+    @Override
+    public Map<UUID, List<String>> setGroups(Resource resource, Map<UUID, Set<UUID>> objectGroupUuids) throws NotFoundException {
+        Set<UUID> allGroupUuids = new HashSet<>();
+        objectGroupUuids.values().stream().filter(Objects::nonNull).forEach(allGroupUuids::addAll);
+        findGroups(allGroupUuids);
+        return applyGroups(resource, objectGroupUuids);
     }
 
     @Override
@@ -112,44 +128,36 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
 
     @Override
     public NameAndUuidDto setOwner(Resource resource, UUID objectUuid, UUID ownerUuid) throws NotFoundException {
-        String ownerUsername = null;
-        OwnerAssociation ownerAssociation = ownerAssociationRepository.findByResourceAndObjectUuid(resource, objectUuid);
-        if (ownerUuid == null) {
-            if (ownerAssociation != null) {
-                ownerAssociationRepository.delete(ownerAssociation);
-                logger.debug("Removed owner from {} with UUID {}", resource.getLabel(), objectUuid);
-            }
-        } else {
-            if (ownerAssociation == null || !ownerAssociation.getOwnerUuid().equals(ownerUuid)) {
-                if ((ownerUsername = mappedUsers.get(ownerUuid)) == null) {
-                    try {
-                        UserDetailDto userDetail = userManagementApiClient.getUserDetail(ownerUuid.toString());
-                        ownerUsername = userDetail.getUsername();
-                        mappedUsers.put(ownerUuid, ownerUsername);
-                    } catch (Exception ex) {
-                        throw new NotFoundException("User", ownerUuid);
-                    }
-                }
+        Map<UUID, String> ownerUsernames = findOwnerUsernames(ownerUuid == null ? Set.of() : Set.of(ownerUuid));
+        Map<UUID, UUID> objectOwnerUuids = new HashMap<>();
+        objectOwnerUuids.put(objectUuid, ownerUuid);
+        applyOwners(resource, objectOwnerUuids, ownerUsernames);
 
-                if (ownerAssociation == null) {
-                    createOwnerAssociation(resource, objectUuid, ownerUuid, ownerUsername);
-                } else {
-                    ownerAssociation.setOwnerUuid(ownerUuid);
-                    ownerAssociation.setOwnerUsername(ownerUsername);
-                    ownerAssociationRepository.save(ownerAssociation);
-                }
-                logger.debug("Added owner {} association to {} with UUID {}", ownerUsername, resource.getLabel(), objectUuid);
-            }
+        return ownerUuid == null ? null : new NameAndUuidDto(ownerUuid.toString(), ownerUsernames.get(ownerUuid));
+    }
+
+    @Override
+    public Map<UUID, String> setOwner(Resource resource, List<UUID> objectUuids, UUID ownerUuid) throws NotFoundException {
+        Map<UUID, UUID> objectOwnerUuids = new LinkedHashMap<>();
+        for (UUID objectUuid : objectUuids) {
+            objectOwnerUuids.put(objectUuid, ownerUuid);
         }
+        return setOwners(resource, objectOwnerUuids);
+    }
 
-        return ownerUuid == null ? null : new NameAndUuidDto(ownerUuid.toString(), ownerUsername);
+    @Override
+    public Map<UUID, String> setOwners(Resource resource, Map<UUID, UUID> objectOwnerUuids) throws NotFoundException {
+        Set<UUID> ownerUuids = new HashSet<>();
+        objectOwnerUuids.values().stream().filter(Objects::nonNull).forEach(ownerUuids::add);
+        return applyOwners(resource, objectOwnerUuids, findOwnerUsernames(ownerUuids));
     }
 
     @Override
     public void setOwnerFromProfile(Resource resource, UUID objectUuid) {
         try {
             UserProfileDto userProfileDto = AuthHelper.getUserProfile();
-            setOwner(resource, objectUuid, UUID.fromString(userProfileDto.getUser().getUuid()), userProfileDto.getUser().getUsername());
+            UUID ownerUuid = UUID.fromString(userProfileDto.getUser().getUuid());
+            applyOwners(resource, Map.of(objectUuid, ownerUuid), Map.of(ownerUuid, userProfileDto.getUser().getUsername()));
         } catch (Exception e) {
             logger.warn("Unable to set owner for {} {} to logged user: {}", resource.getLabel(), objectUuid, e.getMessage());
         }
@@ -174,27 +182,6 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
         logger.debug("Removed {} groups from {} with UUID {}", associationsDeleted, resource.getLabel(), objectUuid);
     }
 
-    private void setOwner(Resource resource, UUID objectUuid, UUID ownerUuid, String ownerUsername) {
-        OwnerAssociation ownerAssociation = ownerAssociationRepository.findByResourceAndObjectUuid(resource, objectUuid);
-        if (ownerUuid == null) {
-            if (ownerAssociation != null) {
-                ownerAssociationRepository.delete(ownerAssociation);
-                logger.debug("Removed owner from {} with UUID {}", resource.getLabel(), objectUuid);
-            }
-        } else {
-            mappedUsers.put(ownerUuid, ownerUsername);
-            if (ownerAssociation == null) {
-                createOwnerAssociation(resource, objectUuid, ownerUuid, ownerUsername);
-            } else {
-                ownerAssociation.setOwnerUuid(ownerUuid);
-                ownerAssociation.setOwnerUsername(ownerUsername);
-                ownerAssociationRepository.save(ownerAssociation);
-            }
-
-            logger.debug("Added owner {} association to {} with UUID {}", ownerUsername, resource.getLabel(), objectUuid);
-        }
-    }
-
     private void removeOwner(Resource resource, UUID objectUuid) {
         long associationsDeleted = ownerAssociationRepository.deleteByResourceAndObjectUuidAndOwnerUuidNotNull(resource, objectUuid);
         if (associationsDeleted == 0) {
@@ -204,24 +191,141 @@ public class ResourceObjectAssociationServiceImpl implements ResourceObjectAssoc
         }
     }
 
-    private Group createGroupAssociation(Resource resource, UUID objectUuid, UUID groupUuid) throws NotFoundException {
-        Group group = groupRepository.findByUuid(groupUuid).orElseThrow(() -> new NotFoundException(Group.class, groupUuid));
+    private Map<UUID, Group> findGroups(Set<UUID> groupUuids) throws NotFoundException {
+        Map<UUID, Group> groups = new HashMap<>();
+        if (!groupUuids.isEmpty()) {
+            groupRepository.findByUuidIn(groupUuids).forEach(group -> groups.put(group.getUuid(), group));
+            for (UUID groupUuid : groupUuids) {
+                if (!groups.containsKey(groupUuid)) {
+                    throw new NotFoundException(Group.class, groupUuid);
+                }
+            }
+        }
+        return groups;
+    }
+
+    private Map<UUID, String> findOwnerUsernames(Set<UUID> ownerUuids) throws NotFoundException {
+        // usernames are resolved from local replica of identities, Auth service is not called
+        Map<UUID, String> ownerUsernames = new HashMap<>();
+        for (UUID ownerUuid : ownerUuids) {
+            ownerUsernames.put(ownerUuid, authIdentityReplica.findUser(ownerUuid).orElseThrow(() -> new NotFoundException("User", ownerUuid)).username());
+        }
+        return ownerUsernames;
+    }
 
-        GroupAssociation association = new GroupAssociation();
-        association.setResource(resource);
-        association.setObjectUuid(objectUuid);
-        association.setGroupUuid(groupUuid);
-        groupAssociationRepository.save(association);
+    private Map<UUID, List<String>> applyGroups(Resource resource, Map<UUID, Set<UUID>> objectGroupUuids) {
+        Map<UUID, Set<UUID>> currentGroupUuids = new HashMap<>();
+        Map<UUID, List<String>> currentGroupNames = new HashMap<>();
+        for (List<UUID> batchObjectUuids : batches(new ArrayList<>(objectGroupUuids.keySet()))) {
+            for (ObjectGroupProjection objectGroup : groupAssociationRepository.findGroupsOfObjects(resource, batchObjectUuids)) {
+                currentGroupUuids.computeIfAbsent(objectGroup.objectUuid(), k -> new HashSet<>()).add(objectGroup.groupUuid());
+                currentGroupNames.computeIfAbsent(objectGroup.objectUuid(), k -> new ArrayList<>()).add(objectGroup.groupName());
+            }
+        }
 
-        return group;
+        // only differences between current and requested groups are removed and created, as pairs of object and group
+        Map<UUID, List<String>> changedObjects = new LinkedHashMap<>();
+        List<UUID> removedObjectUuids = new ArrayList<>();
+        List<UUID> removedGroupUuids = new ArrayList<>();
+        List<UUID> addedObjectUuids = new ArrayList<>();
+        List<UUID> addedGroupUuids = new ArrayList<>();
+        for (Map.Entry<UUID, Set<UUID>> objectGroups : objectGroupUuids.entrySet()) {
+            UUID objectUuid = objectGroups.getKey();
+            Set<UUID> newGroupUuids = objectGroups.getValue() == null ? Set.of() : objectGroups.getValue();
+            Set<UUID> oldGroupUuids = currentGroupUuids.getOrDefault(objectUuid, Set.of());
+            if (oldGroupUuids.equals(newGroupUuids)) {
+                continue;
+            }
+            changedObjects.put(objectUuid, currentGroupNames.getOrDefault(objectUuid, List.of()));
+            for (UUID groupUuid : oldGroupUuids) {
+                if (!newGroupUuids.contains(groupUuid)) {
+                    removedObjectUuids.add(objectUuid);
+                    removedGroupUuids.add(groupUuid);
+                }
+            }
+            for (UUID groupUuid : newGroupUuids) {
+                if (!oldGroupUuids.contains(groupUuid)) {
+                    addedObjectUuids.add(objectUuid);
+                    addedGroupUuids.add(groupUuid);
+                }
+            }
+        }
+        if (changedObjects.isEmpty()) {
+            return changedObjects;
+        }
+
+        long associationsDeleted = 0;
+        for (int i = 0; i < removedObjectUuids.size(); i += ASSOCIATION_BATCH_SIZE) {
+            int end = Math.min(i + ASSOCIATION_BATCH_SIZE, removedObjectUuids.size());
+            associationsDeleted += groupAssociationRepository.deleteGroupAssociations(resource.name(), removedObjectUuids.subList(i, end), removedGroupUuids.subList(i, end));
+        }
+        long associationsCreated = 0;
+        for (int i = 0; i < addedObjectUuids.size(); i += ASSOCIATION_BATCH_SIZE) {
+            int end = Math.min(i + ASSOCIATION_BATCH_SIZE, addedObjectUuids.size());
+            associationsCreated += groupAssociationRepository.insertGroupAssociations(resource.name(), addedObjectUuids.subList(i, end), addedGroupUuids.subList(i, end));
+        }
+        logger.debug("Changed groups of {} {} objects: removed {} and added {} group associations", changedObjects.size(), resource.getLabel(), associationsDeleted, associationsCreated);
+
+        return changedObjects;
     }
 
-    private void createOwnerAssociation(Resource resource, UUID objectUuid, UUID ownerUuid, String username) {
-        OwnerAssociation association = new OwnerAssociation();
-        association.setResource(resource);
-        association.setObjectUuid(objectUuid);
-        association.setOwnerUuid(ownerUuid);
-        association.setOwnerUsername(username);
-        ownerAssociationRepository.save(association);
+    private Map<UUID, String> applyOwners(Resource resource, Map<UUID, UUID> objectOwnerUuids, Map<UUID, String> ownerUsernames) {
+        Map<UUID, ObjectOwnerProjection> currentOwners = new HashMap<>();
+        for (List<UUID> batchObjectUuids : batches(new ArrayList<>(objectOwnerUuids.keySet()))) {
+            for (ObjectOwnerProjection objectOwner : ownerAssociationRepository.findOwnersOfObjects(resource, batchObjectUuids)) {
+                currentOwners.put(objectOwner.objectUuid(), objectOwner);
+            }
+        }
+
+        Map<UUID, String> changedObjects = new LinkedHashMap<>();
+        List<UUID> disownedObjectUuids = new ArrayList<>();
+        Map<UUID, List<UUID>> reassignedObjectUuids = new HashMap<>();
+        Map<UUID, List<UUID>> unownedObjectUuids = new HashMap<>();
+        for (Map.Entry<UUID, UUID> objectOwner : objectOwnerUuids.entrySet()) {
+            UUID objectUuid = objectOwner.getKey();
+            UUID ownerUuid = objectOwner.getValue();
+            ObjectOwnerProjection currentOwner = currentOwners.get(objectUuid);
+            if (currentOwner == null) {
+                if (ownerUuid != null) {
+                    changedObjects.put(objectUuid, null);
+                    unownedObjectUuids.computeIfAbsent(ownerUuid, k -> new ArrayList<>()).add(objectUuid);
+                }
+            } else if (!currentOwner.ownerUuid().equals(ownerUuid)) {
+                changedObjects.put(objectUuid, currentOwner.ownerUsername());
+                if (ownerUuid == null) {
+                    disownedObjectUuids.add(objectUuid);
+                } else {
+                    reassignedObjectUuids.computeIfAbsent(ownerUuid, k -> new ArrayList<>()).add(objectUuid);
+                }
+            }
+        }
+
+        for (List<UUID> batchObjectUuids : batches(disownedObjectUuids)) {
+            ownerAssociationRepository.deleteByResourceAndObjectUuids(resource, batchObjectUuids);
+        }
+        // objects are updated and inserted per owner, typically there is single owner for many objects
+        for (Map.Entry<UUID, List<UUID>> ownerObjects : reassignedObjectUuids.entrySet()) {
+            for (List<UUID> batchObjectUuids : batches(ownerObjects.getValue())) {
+                ownerAssociationRepository.updateOwnerOfObjects(resource, batchObjectUuids, ownerObjects.getKey(), ownerUsernames.get(ownerObjects.getKey()));
+            }
+        }
+        for (Map.Entry<UUID, List<UUID>> ownerObjects : unownedObjectUuids.entrySet()) {
+            for (List<UUID> batchObjectUuids : batches(ownerObjects.getValue())) {
+                ownerAssociationRepository.insertOwnerAssociations(resource.name(), batchObjectUuids, ownerObjects.getKey(), ownerUsernames.get(ownerObjects.getKey()));
+            }
+        }
+        if (!changedObjects.isEmpty()) {
+            logger.debug("Changed owner of {} {} objects: removed {} owners", changedObjects.size(), resource.getLabel(), disownedObjectUuids.size());
+        }
+
+        return changedObjects;
+    }
+
+    private static List<List<UUID>> batches(List<UUID> uuids) {
+        List<List<UUID>> batches = new ArrayList<>();
+        for (int i = 0; i < uuids.size(); i += ASSOCIATION_BATCH_SIZE) {
+            batches.add(uuids.subList(i, Math.min(i + ASSOCIATION_BATCH_SIZE, uuids.size())));
+        }
+        return batches;
     }
 }
@@ -7,6 +7,7 @@ import com.czertainly.api.model.client.auth.RoleRequestDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
 import com.czertainly.api.model.core.auth.*;
 import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.event.transaction.AuthIdentityChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authn.client.RoleManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
@@ -17,6 +18,7 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -32,11 +34,18 @@ public class RoleManagementServiceImpl implements RoleManagementService {
 
     private AttributeEngine attributeEngine;
 
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.LIST)
     public List<RoleDto> listRoles() {
@@ -61,6 +70,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         requestDto.setEmail(request.getEmail());
         requestDto.setSystemRole(false);
         RoleDetailDto dto = roleManagementApiClient.createRole(requestDto);
+        publishRoleChanged(dto.getUuid(), false);
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ROLE, UUID.fromString(dto.getUuid()), request.getCustomAttributes()));
         return dto;
     }
@@ -75,6 +85,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         requestDto.setEmail(request.getEmail());
         requestDto.setSystemRole(false);
         RoleDetailDto dto = roleManagementApiClient.updateRole(roleUuid, requestDto);
+        publishRoleChanged(roleUuid, false);
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.ROLE, UUID.fromString(dto.getUuid()), request.getCustomAttributes()));
 
         return dto;
@@ -84,6 +95,7 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.DELETE)
     public void deleteRole(String roleUuid) {
         roleManagementApiClient.deleteRole(roleUuid);
+        publishRoleChanged(roleUuid, true);
         attributeEngine.deleteAllObjectAttributeContent(Resource.ROLE, UUID.fromString(roleUuid));
     }
 
@@ -146,7 +158,9 @@ public class RoleManagementServiceImpl implements RoleManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.ROLE, action = ResourceAction.UPDATE)
     public RoleDetailDto updateUsers(String roleUuid, List<String> userUuids) {
-        return roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        RoleDetailDto dto = roleManagementApiClient.updateUsers(roleUuid, userUuids);
+        publishRoleChanged(roleUuid, false);
+        return dto;
     }
 
     @Override
@@ -160,6 +174,10 @@ public class RoleManagementServiceImpl implements RoleManagementService {
         getRole(uuid.toString());
     }
 
+    private void publishRoleChanged(String roleUuid, boolean removed) {
+        applicationEventPublisher.publishEvent(new AuthIdentityChangedEvent(Resource.ROLE, UUID.fromString(roleUuid), removed));
+    }
+
     private void checkSystemRole(String roleUuid) {
         RoleDetailDto roleDetailDto = roleManagementApiClient.getRoleDetail(roleUuid);
         if (roleDetailDto.getSystemRole()) {
@@ -21,6 +21,7 @@ import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.entity.UniquelyIdentifiedAndAudited;
 import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
+import com.czertainly.core.intune.IntuneClientRegistry;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -51,6 +52,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
     private ExtendedAttributeService extendedAttributeService;
     private CertificateService certificateService;
     private AttributeEngine attributeEngine;
+    private IntuneClientRegistry intuneClientRegistry;
 
     @Autowired
     public ScepProfileServiceImpl(ScepProfileRepository scepProfileRepository) {
@@ -62,6 +64,11 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setIntuneClientRegistry(IntuneClientRegistry intuneClientRegistry) {
+        this.intuneClientRegistry = intuneClientRegistry;
+    }
+
     @Autowired
     public void setRaProfileService(RaProfileService raProfileRepository) {
         this.raProfileService = raProfileRepository;
@@ -377,6 +384,7 @@ public class ScepProfileServiceImpl implements ScepProfileService {
         } else {
             attributeEngine.deleteAllObjectAttributeContent(Resource.SCEP_PROFILE, scepProfile.getUuid());
             scepProfileRepository.delete(scepProfile);
+            intuneClientRegistry.evict(scepProfile.getUuid());
         }
     }
 
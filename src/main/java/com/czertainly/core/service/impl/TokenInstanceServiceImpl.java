@@ -31,6 +31,7 @@ import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.service.CredentialService;
 import com.czertainly.core.service.TokenInstanceService;
+import com.czertainly.core.service.handler.InstanceStatusPoller;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +56,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
     private ConnectorServiceImpl connectorService;
     private CredentialService credentialService;
     private AttributeEngine attributeEngine;
+    private InstanceStatusPoller instanceStatusPoller;
 
     // --------------------------------------------------------------------------------
     // Repositories
@@ -66,6 +68,11 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setInstanceStatusPoller(InstanceStatusPoller instanceStatusPoller) {
+        this.instanceStatusPoller = instanceStatusPoller;
+    }
+
     @Autowired
     public void setTokenInstanceApiClient(TokenInstanceApiClient tokenInstanceApiClient) {
         this.tokenInstanceApiClient = tokenInstanceApiClient;
@@ -116,24 +123,8 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
             return tokenInstanceDetailDto;
         }
 
-        TokenInstanceStatusDto status;
-        TokenInstanceStatusDetailDto statusDetail = new TokenInstanceStatusDetailDto();
-        try {
-            status = tokenInstanceApiClient.getTokenInstanceStatus(
-                    tokenInstanceReference.getConnector().mapToDto(),
-                    tokenInstanceReference.getTokenInstanceUuid()
-            );
-            tokenInstanceReference.setStatus(status.getStatus());
-            tokenInstanceReferenceRepository.save(tokenInstanceReference);
-            statusDetail.setStatus(status.getStatus());
-            statusDetail.setComponents(status.getComponents());
-        } catch (ConnectorException e) {
-            logger.error("Unable to communicate with connector: {}", e.getMessage());
-            statusDetail.setStatus(TokenInstanceStatus.UNKNOWN);
-            tokenInstanceDetailDto.setStatus(statusDetail);
-        }
-
-        tokenInstanceDetailDto.setStatus(statusDetail);
+        // status is refreshed by instance status poller or on demand, connector is not called for detail
+        tokenInstanceDetailDto.setStatus(getStatusDetail(tokenInstanceReference));
         tokenInstanceDetailDto.setConnectorName(tokenInstanceReference.getConnector().getName());
         tokenInstanceDetailDto.setConnectorUuid(tokenInstanceReference.getConnector().getUuid().toString());
         tokenInstanceDetailDto.setAttributes(attributeEngine.getObjectDataAttributesContent(tokenInstanceReference.getConnectorUuid(), null, Resource.TOKEN, tokenInstanceReference.getUuid()));
@@ -186,6 +177,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
         tokenInstanceReference.setStatus(status.getStatus());
         logger.debug("Token Instance Reference: {}", tokenInstanceReference);
         tokenInstanceReferenceRepository.save(tokenInstanceReference);
+        instanceStatusPoller.setTokenInstanceStatus(tokenInstanceReference, status.getStatus());
 
         attributeEngine.updateMetadataAttributes(response.getMetadata(), new ObjectAttributeContentInfo(connector.getUuid(), Resource.TOKEN, tokenInstanceReference.getUuid()));
         logger.debug("Metadata and Custom attributes created");
@@ -211,19 +203,6 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
         attributeEngine.validateCustomAttributesContent(Resource.TOKEN, request.getCustomAttributes());
         connectorService.mergeAndValidateAttributes(connector.getSecuredUuid(), FunctionGroupCode.CRYPTOGRAPHY_PROVIDER, request.getAttributes(), request.getKind());
 
-        TokenInstanceStatusDto status;
-        TokenInstanceStatusDetailDto statusDetail = new TokenInstanceStatusDetailDto();
-        try {
-            status = tokenInstanceApiClient.getTokenInstanceStatus(connectorDto, tokenInstanceReference.getTokenInstanceUuid());
-            tokenInstanceReference.setStatus(status.getStatus());
-            tokenInstanceReferenceRepository.save(tokenInstanceReference);
-            statusDetail.setStatus(status.getStatus());
-            statusDetail.setComponents(status.getComponents());
-        } catch (ConnectorException e) {
-            logger.error("Unable to communicate with connector: {}", e.getMessage());
-            statusDetail.setStatus(TokenInstanceStatus.UNKNOWN);
-        }
-
         // Load complete credential data
         var dataAttributes = attributeEngine.getDataAttributesByContent(connector.getUuid(), request.getAttributes());
         credentialService.loadFullCredentialData(dataAttributes);
@@ -241,7 +220,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
 
         logger.debug("Metadata and Custom attributes updated");
         TokenInstanceDetailDto dto = tokenInstanceReference.mapToDetailDto();
-        dto.setStatus(statusDetail);
+        dto.setStatus(getStatusDetail(tokenInstanceReference));
         dto.setCustomAttributes(attributeEngine.updateObjectCustomAttributesContent(Resource.TOKEN, tokenInstanceReference.getUuid(), request.getCustomAttributes()));
         dto.setAttributes(attributeEngine.updateObjectDataAttributesContent(connector.getUuid(), null, Resource.TOKEN, tokenInstanceReference.getUuid(), request.getAttributes()));
         dto.setMetadata(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.TOKEN, tokenInstanceReference.getUuid())));
@@ -269,7 +248,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
                 tokenInstanceReference.getTokenInstanceUuid(),
                 attributes
         );
-        tokenInstanceReference.setStatus(TokenInstanceStatus.ACTIVATED);
+        instanceStatusPoller.setTokenInstanceStatus(tokenInstanceReference, TokenInstanceStatus.ACTIVATED);
         logger.info("Token instance activated");
     }
 
@@ -283,7 +262,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
                 tokenInstanceReference.getConnector().mapToDto(),
                 tokenInstanceReference.getTokenInstanceUuid()
         );
-        tokenInstanceReference.setStatus(TokenInstanceStatus.DEACTIVATED);
+        instanceStatusPoller.setTokenInstanceStatus(tokenInstanceReference, TokenInstanceStatus.DEACTIVATED);
         logger.info("Token instance deactivated");
     }
 
@@ -314,11 +293,7 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
     public TokenInstanceDetailDto reloadStatus(SecuredUUID uuid) throws ConnectorException {
         logger.info("Reloading status of token instance with uuid: {}", uuid);
         TokenInstanceReference tokenInstanceReference = getTokenInstanceReferenceEntity(uuid);
-        TokenInstanceStatusDto status = tokenInstanceApiClient.getTokenInstanceStatus(
-                tokenInstanceReference.getConnector().mapToDto(),
-                tokenInstanceReference.getTokenInstanceUuid()
-        );
-        tokenInstanceReference.setStatus(status.getStatus());
+        TokenInstanceStatusDto status = instanceStatusPoller.refreshTokenInstanceStatus(tokenInstanceReference);
         tokenInstanceReferenceRepository.save(tokenInstanceReference);
         logger.info("Token instance status reloaded. Status of the token instance: {}", status);
         return getTokenInstance(uuid);
@@ -421,4 +396,15 @@ public class TokenInstanceServiceImpl implements TokenInstanceService {
         tokenInstanceReferenceRepository.delete(tokenInstanceReference);
         logger.info("Token instance removed: {}", tokenInstanceReference);
     }
+
+    private TokenInstanceStatusDetailDto getStatusDetail(TokenInstanceReference tokenInstanceReference) {
+        TokenInstanceStatusDetailDto statusDetail = new TokenInstanceStatusDetailDto();
+        statusDetail.setStatus(tokenInstanceReference.getStatus() != null ? tokenInstanceReference.getStatus() : TokenInstanceStatus.UNKNOWN);
+        // components are known only when status was retrieved from connector
+        TokenInstanceStatusDto lastStatus = tokenInstanceReference.getStatusDetail();
+        if (lastStatus != null && lastStatus.getStatus() == tokenInstanceReference.getStatus()) {
+            statusDetail.setComponents(lastStatus.getComponents());
+        }
+        return statusDetail;
+    }
 }
@@ -11,10 +11,13 @@ import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.TriggerService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
@@ -38,6 +41,16 @@ public class TriggerServiceImpl implements TriggerService {
 
     private TriggerHistoryRecordRepository triggerHistoryRecordRepository;
 
+    private TriggerHistorySummaryRepository triggerHistorySummaryRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public void setTriggerHistorySummaryRepository(TriggerHistorySummaryRepository triggerHistorySummaryRepository) {
+        this.triggerHistorySummaryRepository = triggerHistorySummaryRepository;
+    }
+
     @Autowired
     public void setRuleRepository(RuleRepository ruleRepository) {
         this.ruleRepository = ruleRepository;
@@ -234,6 +247,7 @@ public class TriggerServiceImpl implements TriggerService {
         logger.debug("Deleted {} trigger associations for {} with UUID {}.", deletedAssociations, resource.getLabel(), associationObjectUuid);
         long deletedHistoryRecords = triggerHistoryRepository.deleteByTriggerAssociationObjectUuid(associationObjectUuid);
         logger.debug("Deleted {} trigger history items for {} with UUID {}.", deletedHistoryRecords, resource.getLabel(), associationObjectUuid);
+        triggerHistorySummaryRepository.deleteByTriggerAssociationObjectUuid(associationObjectUuid);
     }
 
     @Override
@@ -248,7 +262,18 @@ public class TriggerServiceImpl implements TriggerService {
         List<TriggerHistory> triggerHistories = triggerHistoryRepository.findByTriggerAssociationObjectUuidOrderByTriggerUuidAscTriggeredAtAsc(UUID.fromString(associationObjectUuid));
 
         if (triggerHistories.isEmpty()) {
-            throw new NotFoundException("Trigger association object", associationObjectUuid);
+            // only aggregated counts are available when histories of objects were not stored
+            TriggerHistorySummary summary = triggerHistorySummaryRepository.findByTriggerAssociationObjectUuid(UUID.fromString(associationObjectUuid))
+                    .orElseThrow(() -> new NotFoundException("Trigger association object", associationObjectUuid));
+            TriggerHistorySummaryDto resultDto = new TriggerHistorySummaryDto();
+            resultDto.setAssociationResource(summary.getTriggerAssociationResource());
+            resultDto.setAssociationObjectUuid(associationObjectUuid);
+            resultDto.setObjectsResource(summary.getObjectsResource());
+            resultDto.setObjectsEvaluated(summary.getObjectsEvaluated());
+            resultDto.setObjectsMatched(summary.getObjectsMatched());
+            resultDto.setObjectsIgnored(summary.getObjectsIgnored());
+            resultDto.setObjects(List.of());
+            return resultDto;
         }
 
         Map<UUID, TriggerHistoryObjectSummaryDto> objectsMapping = new HashMap<>();
@@ -319,7 +344,8 @@ public class TriggerServiceImpl implements TriggerService {
         triggerHistory.setReferenceObjectUuid(referenceObjectUuid);
         triggerHistory.setTriggeredAt(triggeredAt);
 
-        triggerHistoryRepository.save(triggerHistory);
+        // UUID is assigned upfront since history is persisted later by trigger history writer
+        triggerHistory.setUuid(UUID.randomUUID());
 
         return triggerHistory;
     }
@@ -332,9 +358,65 @@ public class TriggerServiceImpl implements TriggerService {
         triggerHistoryRecord.setConditionUuid(conditionUuid);
         triggerHistoryRecord.setExecutionUuid(executionUuid);
         triggerHistoryRecord.setMessage(message);
-        triggerHistoryRecordRepository.save(triggerHistoryRecord);
         return triggerHistoryRecord;
     }
 
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void saveTriggerHistories(List<TriggerHistory> triggerHistories) {
+        // histories have assigned UUIDs, so they are persisted directly to avoid merge selecting each of them first
+        for (TriggerHistory triggerHistory : triggerHistories) {
+            entityManager.persist(triggerHistory);
+        }
+        logger.debug("Saved {} trigger histories.", triggerHistories.size());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void updateTriggerHistorySummary(Resource associationResource, UUID associationObjectUuid, Resource objectsResource, int objectsEvaluated, int objectsMatched, int objectsIgnored, int objectsFailed) {
+        OffsetDateTime now = OffsetDateTime.now();
+        if (triggerHistorySummaryRepository.incrementCounts(associationObjectUuid, objectsEvaluated, objectsMatched, objectsIgnored, objectsFailed, now) == 0) {
+            TriggerHistorySummary summary = new TriggerHistorySummary();
+            summary.setTriggerAssociationResource(associationResource);
+            summary.setTriggerAssociationObjectUuid(associationObjectUuid);
+            summary.setObjectsResource(objectsResource);
+            summary.setObjectsEvaluated(objectsEvaluated);
+            summary.setObjectsMatched(objectsMatched);
+            summary.setObjectsIgnored(objectsIgnored);
+            summary.setObjectsFailed(objectsFailed);
+            summary.setUpdatedAt(now);
+            triggerHistorySummaryRepository.save(summary);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteTriggerHistoriesBefore(OffsetDateTime triggeredBefore, int chunkSize) {
+        return triggerHistoryRepository.deleteChunkByTriggeredAtBefore(triggeredBefore, chunkSize);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteTriggerHistorySummariesBefore(OffsetDateTime updatedBefore) {
+        return triggerHistorySummaryRepository.deleteByUpdatedAtBefore(updatedBefore);
+    }
+
+    @Override
+    public void createTriggerHistoryRecords(UUID executionUuid, Map<UUID, String> messages) {
+        List<TriggerHistory> triggerHistories = triggerHistoryRepository.findAllById(messages.keySet());
+        List<TriggerHistoryRecord> triggerHistoryRecords = new ArrayList<>();
+        for (TriggerHistory triggerHistory : triggerHistories) {
+            triggerHistory.setActionsPerformed(false);
+
+            TriggerHistoryRecord triggerHistoryRecord = new TriggerHistoryRecord();
+            triggerHistoryRecord.setTriggerHistory(triggerHistory);
+            triggerHistoryRecord.setExecutionUuid(executionUuid);
+            triggerHistoryRecord.setMessage(messages.get(triggerHistory.getUuid()));
+            triggerHistoryRecords.add(triggerHistoryRecord);
+        }
+        triggerHistoryRepository.saveAll(triggerHistories);
+        triggerHistoryRecordRepository.saveAll(triggerHistoryRecords);
+    }
+
     //endregion
 }
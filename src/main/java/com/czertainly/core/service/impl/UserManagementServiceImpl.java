@@ -13,6 +13,7 @@ import com.czertainly.api.model.core.certificate.CertificateState;
 import com.czertainly.api.model.core.certificate.group.GroupDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.event.transaction.AuthIdentityChangedEvent;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import com.czertainly.core.security.authz.ExternalAuthorization;
@@ -28,6 +29,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.security.NoSuchAlgorithmException;
@@ -52,6 +54,8 @@ public class UserManagementServiceImpl implements UserManagementService {
 
     private AttributeEngine attributeEngine;
 
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Autowired
     public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
         this.userManagementApiClient = userManagementApiClient;
@@ -77,6 +81,11 @@ public class UserManagementServiceImpl implements UserManagementService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.LIST)
     public List<UserDto> listUsers() {
@@ -120,6 +129,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         requestDto.setGroups(groups);
 
         UserDetailDto response = userManagementApiClient.createUser(requestDto);
+        publishUserChanged(response.getUuid(), false);
         if (certificate != null) {
             certificateService.updateCertificateUser(certificate.getUuid(), response.getUuid());
         }
@@ -147,6 +157,7 @@ public class UserManagementServiceImpl implements UserManagementService {
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.DELETE)
     public void deleteUser(String userUuid) {
         userManagementApiClient.removeUser(userUuid);
+        publishUserChanged(userUuid, true);
 
         UUID uuid = UUID.fromString(userUuid);
         certificateService.removeCertificateUser(uuid);
@@ -157,13 +168,17 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRoles(String userUuid, List<String> roleUuids) {
-        return userManagementApiClient.updateRoles(userUuid, roleUuids);
+        UserDetailDto dto = userManagementApiClient.updateRoles(userUuid, roleUuids);
+        publishUserChanged(userUuid, false);
+        return dto;
     }
 
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto updateRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.updateRole(userUuid, roleUuid);
+        UserDetailDto dto = userManagementApiClient.updateRole(userUuid, roleUuid);
+        publishUserChanged(userUuid, false);
+        return dto;
     }
 
     @Override
@@ -193,7 +208,9 @@ public class UserManagementServiceImpl implements UserManagementService {
     @Override
     @ExternalAuthorization(resource = Resource.USER, action = ResourceAction.UPDATE)
     public UserDetailDto removeRole(String userUuid, String roleUuid) {
-        return userManagementApiClient.removeRole(userUuid, roleUuid);
+        UserDetailDto dto = userManagementApiClient.removeRole(userUuid, roleUuid);
+        publishUserChanged(userUuid, false);
+        return dto;
     }
 
     @Override
@@ -241,6 +258,10 @@ public class UserManagementServiceImpl implements UserManagementService {
         return certificate;
     }
 
+    private void publishUserChanged(String userUuid, boolean removed) {
+        applicationEventPublisher.publishEvent(new AuthIdentityChangedEvent(Resource.USER, UUID.fromString(userUuid), removed));
+    }
+
     private UserDetailDto getUserUpdateRequestPayload(String userUuid, UpdateUserRequestDto request, String certificateUuid, String certificateFingerPrint) throws NotFoundException, CertificateException {
         Certificate certificate = null;
         UserUpdateRequestDto requestDto = new UserUpdateRequestDto();
@@ -269,6 +290,7 @@ public class UserManagementServiceImpl implements UserManagementService {
         }
 
         UserDetailDto response = userManagementApiClient.updateUser(userUuid, requestDto);
+        publishUserChanged(userUuid, false);
 
         try {
             certificateService.removeCertificateUser(UUID.fromString(response.getUuid()));
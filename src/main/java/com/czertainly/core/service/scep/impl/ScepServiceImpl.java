@@ -1,10 +1,8 @@
 package com.czertainly.core.service.scep.impl;
 
-import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
 import com.czertainly.api.exception.*;
 import com.czertainly.api.model.client.attribute.RequestAttributeDto;
 import com.czertainly.api.model.common.attribute.v2.DataAttribute;
-import com.czertainly.api.model.common.enums.cryptography.KeyType;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.certificate.CertificateDetailDto;
 import com.czertainly.api.model.core.certificate.CertificateState;
@@ -20,21 +18,18 @@ import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.AttributeOperation;
 import com.czertainly.core.dao.entity.Certificate;
-import com.czertainly.core.dao.entity.CryptographicKey;
-import com.czertainly.core.dao.entity.CryptographicKeyItem;
 import com.czertainly.core.dao.entity.RaProfile;
 import com.czertainly.core.dao.entity.scep.ScepProfile;
 import com.czertainly.core.dao.entity.scep.ScepTransaction;
 import com.czertainly.core.dao.repository.RaProfileRepository;
 import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
 import com.czertainly.core.dao.repository.scep.ScepTransactionRepository;
+import com.czertainly.core.intune.IntuneClientRegistry;
 import com.czertainly.core.intune.scepvalidation.IntuneScepServiceClient;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
-import com.czertainly.core.provider.CzertainlyProvider;
-import com.czertainly.core.provider.key.CzertainlyPrivateKey;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.CertificateService;
-import com.czertainly.core.service.CryptographicKeyService;
+import com.czertainly.core.service.handler.CzertainlyProviderRegistry;
 import com.czertainly.core.service.scep.ScepService;
 import com.czertainly.core.service.scep.message.ScepRequest;
 import com.czertainly.core.service.scep.message.ScepResponse;
@@ -54,7 +49,6 @@ import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -88,9 +82,6 @@ public class ScepServiceImpl implements ScepService {
             "SCEPStandard"
     );
 
-    @Value("${app.version}")
-    private String appVersion;
-
     private List<X509Certificate> caCertificateChain = new ArrayList<>();
     private X509Certificate recipient;
     private boolean raProfileBased;
@@ -102,9 +93,9 @@ public class ScepServiceImpl implements ScepService {
     private ScepTransactionRepository scepTransactionRepository;
     private ClientOperationService clientOperationService;
     private CertificateService certificateService;
-    private CryptographicKeyService cryptographicKeyService;
-    private CryptographicOperationsApiClient cryptographicOperationsApiClient;
+    private CzertainlyProviderRegistry czertainlyProviderRegistry;
     private AttributeEngine attributeEngine;
+    private IntuneClientRegistry intuneClientRegistry;
 
     @Autowired
     public void setAttributeEngine(AttributeEngine attributeEngine) {
@@ -137,13 +128,13 @@ public class ScepServiceImpl implements ScepService {
     }
 
     @Autowired
-    public void setCryptographicKeyService(CryptographicKeyService cryptographicKeyService) {
-        this.cryptographicKeyService = cryptographicKeyService;
+    public void setCzertainlyProviderRegistry(CzertainlyProviderRegistry czertainlyProviderRegistry) {
+        this.czertainlyProviderRegistry = czertainlyProviderRegistry;
     }
 
     @Autowired
-    public void setCryptographicOperationsApiClient(CryptographicOperationsApiClient cryptographicOperationsApiClient) {
-        this.cryptographicOperationsApiClient = cryptographicOperationsApiClient;
+    public void setIntuneClientRegistry(IntuneClientRegistry intuneClientRegistry) {
+        this.intuneClientRegistry = intuneClientRegistry;
     }
 
     public void setRecipient(String certificateContent) {
@@ -298,24 +289,15 @@ public class ScepServiceImpl implements ScepService {
 
         logger.debug("Processing SCEP request: transactionId={}", scepRequest.getTransactionId());
 
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
         // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                key.getTokenInstanceReference().getConnector().mapToDto(),
-                item.getKeyAlgorithm().getLabel()
-        );
-
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptographicOperationsApiClient);
+        CzertainlyProviderRegistry.ProviderKey providerKey = czertainlyProviderRegistry.getProviderKey(scepProfile.getCaCertificate());
 
         // decrypt the PKCS#10 request
         try {
             scepRequest.decryptData(
-                    czertainlyPrivateKey,
-                    czertainlyProvider,
-                    cryptographicKeyService.getKeyItemFromKey(scepProfile.getCaCertificate().getKey(), KeyType.PRIVATE_KEY).getKeyAlgorithm(),
+                    providerKey.privateKey(),
+                    providerKey.provider(),
+                    providerKey.keyAlgorithm(),
                     scepProfile.getChallengePassword()
             );
         } catch (CMSException e) {
@@ -323,8 +305,7 @@ public class ScepServiceImpl implements ScepService {
         }
 
         if (scepProfile.isIntuneEnabled()) {
-            Properties properties = getIntuneConfiguration();
-            intuneClient = buildIntuneClient(properties);
+            intuneClient = intuneClientRegistry.getScepServiceClient(scepProfile);
         }
 
         // validate challenge password, if configured
@@ -402,21 +383,13 @@ public class ScepServiceImpl implements ScepService {
 
     private ResponseEntity<Object> buildResponse(ScepRequest scepRequest, ScepResponse scepResponse) throws ScepException {
         prepareMessage(scepRequest, scepResponse);
-        CzertainlyProvider czertainlyProvider = CzertainlyProvider.getInstance(scepProfile.getName(), true, cryptographicOperationsApiClient);
-        CryptographicKey key = scepProfile.getCaCertificate().getKey();
-        CryptographicKeyItem item = cryptographicKeyService.getKeyItemFromKey(key, KeyType.PRIVATE_KEY);
         // Get the private key from the configuration of SCEP Profile
-        CzertainlyPrivateKey czertainlyPrivateKey = new CzertainlyPrivateKey(
-                key.getTokenInstanceReference().getTokenInstanceUuid(),
-                item.getKeyReferenceUuid().toString(),
-                key.getTokenInstanceReference().getConnector().mapToDto(),
-                item.getKeyAlgorithm().getLabel()
-        );
+        CzertainlyProviderRegistry.ProviderKey providerKey = czertainlyProviderRegistry.getProviderKey(scepProfile.getCaCertificate());
         try {
             scepResponse.setSigningAttributes(
                     CertificateUtil.getX509Certificate(scepProfile.getCaCertificate().getCertificateContent().getContent()),
-                    czertainlyPrivateKey,
-                    czertainlyProvider
+                    providerKey.privateKey(),
+                    providerKey.provider()
 
             );
         } catch (CertificateException e) {
@@ -723,20 +696,6 @@ public class ScepServiceImpl implements ScepService {
         }
     }
 
-    private Properties getIntuneConfiguration() {
-        // Create the properties based on the SCEP profile Intune properties
-        Properties configProperties = new Properties();
-        configProperties.put("AAD_APP_ID", scepProfile.getIntuneApplicationId());
-        configProperties.put("AAD_APP_KEY", scepProfile.getIntuneApplicationKey());
-        configProperties.put("TENANT", scepProfile.getIntuneTenant());
-        configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
-        return configProperties;
-    }
-
-    private IntuneScepServiceClient buildIntuneClient(Properties configProperties) {
-        return new IntuneScepServiceClient(configProperties);
-    }
-
     private void validateIntuneRequest(IntuneScepServiceClient client, ScepRequest scepRequest) throws ScepException {
         if (scepRequest.getTransactionId() == null || scepRequest.getTransactionId().isEmpty()) {
             throw new ScepException("Transaction ID cannot be empty for Intune requests");
@@ -5,6 +5,7 @@ import com.czertainly.api.model.client.attribute.RequestAttributeDto;
 import com.czertainly.api.model.common.attribute.v2.BaseAttribute;
 import com.czertainly.api.model.core.certificate.CertificateDetailDto;
 import com.czertainly.api.model.core.v2.*;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -13,6 +14,7 @@ import java.io.IOException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -46,6 +48,37 @@ public interface ClientOperationService {
             CertificateProtocolInfo protocolInfo
     ) throws NotFoundException, CertificateException, IOException, NoSuchAlgorithmException, InvalidKeyException, CertificateOperationException, CertificateRequestException;
 
+    /**
+     * Validate and persist certificate requests of bulk issuance in batches and enqueue them to be issued by authority
+     *
+     * @param authorityUuid UUID of authority
+     * @param raProfileUuid UUID of RA profile
+     * @param requests      certificate requests
+     * @return submitted batch including certificate requests rejected during validation
+     * @throws NotFoundException  when RA profile is not found
+     * @throws ConnectorException when issue attributes cannot be listed from connector of the authority
+     */
+    CertificateIssuanceBatchDto issueCertificates(
+            SecuredParentUUID authorityUuid,
+            SecuredUUID raProfileUuid,
+            List<ClientCertificateSignRequestDto> requests
+    ) throws ConnectorException;
+
+    /**
+     * Get progress of bulk issuance batch
+     *
+     * @param authorityUuid UUID of authority
+     * @param raProfileUuid UUID of RA profile
+     * @param batchUuid     UUID of the batch
+     * @return batch with number of certificates in each state of issuance
+     * @throws NotFoundException when batch is not found
+     */
+    CertificateIssuanceBatchDto getCertificateIssuanceBatch(
+            SecuredParentUUID authorityUuid,
+            SecuredUUID raProfileUuid,
+            UUID batchUuid
+    ) throws NotFoundException;
+
     void approvalCreatedAction(final UUID certificateUuid) throws NotFoundException;
 
     void issueCertificateAction(
@@ -53,6 +86,20 @@ public interface ClientOperationService {
             boolean isApproved
     ) throws ConnectorException, CertificateException, NoSuchAlgorithmException, AlreadyExistException, CertificateOperationException;
 
+    /**
+     * Issue requested certificates of bulk issuance by authority with bounded number of concurrent operations per RA profile
+     *
+     * @param raProfileUuid    UUID of RA profile of the certificates
+     * @param certificateUuids UUIDs of requested certificates
+     * @param isApproved       true when the action was approved
+     * @return UUIDs of certificates postponed because authority was busy, they stay requested and should be issued again later
+     */
+    List<UUID> issueCertificateBatchAction(
+            final UUID raProfileUuid,
+            final List<UUID> certificateUuids,
+            boolean isApproved
+    );
+
     void issueCertificateRejectedAction(final UUID certificateUuid) throws NotFoundException;
 
     ClientCertificateDataResponseDto renewCertificate(
@@ -94,6 +141,17 @@ public interface ClientOperationService {
             boolean isApproved
     ) throws NotFoundException, CertificateOperationException;
 
+    /**
+     * Resolve certificate operations submitted to authority that were not finished, e.g. because of crash of the instance.
+     * Operations completed by authority whose result failed to be stored are finished using the kept response of authority.
+     * Requested certificates of other interrupted issue, renew and rekey operations are marked as failed,
+     * other interrupted revocations are recorded in certificate event history.
+     *
+     * @param startedBefore only operations started before this time are resolved
+     * @return number of resolved operations
+     */
+    int recoverPendingCertificateOperations(OffsetDateTime startedBefore);
+
     List<BaseAttribute> listRevokeCertificateAttributes(
             SecuredParentUUID authorityUuid,
             SecuredUUID raProfileUuid) throws ConnectorException;
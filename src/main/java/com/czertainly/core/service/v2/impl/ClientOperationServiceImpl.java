@@ -14,9 +14,11 @@ import com.czertainly.api.model.core.audit.OperationType;
 import com.czertainly.api.model.core.auth.Resource;
 import com.czertainly.api.model.core.authority.CertificateRevocationReason;
 import com.czertainly.api.model.core.certificate.CertificateDetailDto;
+import com.czertainly.api.model.core.certificate.CertificateDto;
 import com.czertainly.api.model.core.certificate.CertificateEvent;
 import com.czertainly.api.model.core.certificate.CertificateEventStatus;
 import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.connector.ConnectorDto;
 import com.czertainly.api.model.core.enums.CertificateRequestFormat;
 import com.czertainly.api.model.core.v2.*;
 import com.czertainly.core.aop.AuditLogged;
@@ -25,12 +27,18 @@ import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.AttributeOperation;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
 import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.repository.CertificateIssuanceBatchRepository;
 import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.PendingCertificateOperationRepository;
 import com.czertainly.core.dao.repository.RaProfileRepository;
+import com.czertainly.core.event.transaction.CertificateStateChangedEvent;
 import com.czertainly.core.messaging.model.ActionMessage;
 import com.czertainly.core.messaging.producers.ActionProducer;
 import com.czertainly.core.messaging.producers.EventProducer;
 import com.czertainly.core.messaging.producers.NotificationProducer;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
+import com.czertainly.core.model.CertificateIssuanceBatchErrorDto;
+import com.czertainly.core.model.CertificateStateCountProjection;
 import com.czertainly.core.model.auth.CertificateProtocolInfo;
 import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.model.request.CertificateRequest;
@@ -40,6 +48,9 @@ import com.czertainly.core.security.authz.ExternalAuthorization;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.service.*;
+import com.czertainly.core.service.handler.AuthorityBusyException;
+import com.czertainly.core.service.handler.AuthorityOperationLimiter;
+import com.czertainly.core.service.handler.CertificateIssuancePipeline;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.service.v2.ExtendedAttributeService;
 import com.czertainly.core.util.*;
@@ -47,6 +58,8 @@ import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -59,6 +72,7 @@ import java.security.NoSuchAlgorithmException;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.security.spec.InvalidKeySpecException;
+import java.time.OffsetDateTime;
 import java.util.*;
 
 @Service("clientOperationServiceImplV2")
@@ -67,8 +81,16 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     private static final Logger logger = LoggerFactory.getLogger(ClientOperationServiceImpl.class);
     private PlatformTransactionManager transactionManager;
 
+    @Value("${certificate.bulk-issuance.max-requests:10000}")
+    private int bulkIssuanceMaxRequests;
+
+    @Value("${certificate.bulk-issuance.chunk-size:100}")
+    private int bulkIssuanceChunkSize;
+
     private RaProfileRepository raProfileRepository;
     private CertificateRepository certificateRepository;
+    private PendingCertificateOperationRepository pendingCertificateOperationRepository;
+    private CertificateIssuanceBatchRepository certificateIssuanceBatchRepository;
     private LocationService locationService;
     private CertificateService certificateService;
     private CertificateEventHistoryService certificateEventHistoryService;
@@ -77,16 +99,24 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     private CryptographicOperationService cryptographicOperationService;
     private CryptographicKeyService keyService;
     private AttributeEngine attributeEngine;
+    private AuthorityOperationLimiter authorityOperationLimiter;
+    private CertificateIssuancePipeline certificateIssuancePipeline;
 
     private ActionProducer actionProducer;
     private NotificationProducer notificationProducer;
     private EventProducer eventProducer;
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Autowired
     public void setTransactionManager(PlatformTransactionManager transactionManager) {
         this.transactionManager = transactionManager;
     }
 
+    @Autowired
+    public void setApplicationEventPublisher(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
     @Autowired
     public void setActionProducer(ActionProducer actionProducer) {
         this.actionProducer = actionProducer;
@@ -112,6 +142,16 @@ public class ClientOperationServiceImpl implements ClientOperationService {
         this.certificateRepository = certificateRepository;
     }
 
+    @Autowired
+    public void setPendingCertificateOperationRepository(PendingCertificateOperationRepository pendingCertificateOperationRepository) {
+        this.pendingCertificateOperationRepository = pendingCertificateOperationRepository;
+    }
+
+    @Autowired
+    public void setCertificateIssuanceBatchRepository(CertificateIssuanceBatchRepository certificateIssuanceBatchRepository) {
+        this.certificateIssuanceBatchRepository = certificateIssuanceBatchRepository;
+    }
+
     @Lazy
     @Autowired
     public void setLocationService(LocationService locationService) {
@@ -143,6 +183,16 @@ public class ClientOperationServiceImpl implements ClientOperationService {
         this.attributeEngine = attributeEngine;
     }
 
+    @Autowired
+    public void setAuthorityOperationLimiter(AuthorityOperationLimiter authorityOperationLimiter) {
+        this.authorityOperationLimiter = authorityOperationLimiter;
+    }
+
+    @Autowired
+    public void setCertificateIssuancePipeline(CertificateIssuancePipeline certificateIssuancePipeline) {
+        this.certificateIssuancePipeline = certificateIssuancePipeline;
+    }
+
     @Autowired
     public void setCryptographicOperationService(CryptographicOperationService cryptographicOperationService) {
         this.cryptographicOperationService = cryptographicOperationService;
@@ -200,16 +250,7 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.ISSUE)
     @ExternalAuthorization(resource = Resource.RA_PROFILE, action = ResourceAction.DETAIL, parentResource = Resource.AUTHORITY, parentAction = ResourceAction.DETAIL)
     public ClientCertificateDataResponseDto issueCertificate(final SecuredParentUUID authorityUuid, final SecuredUUID raProfileUuid, final ClientCertificateSignRequestDto request, final CertificateProtocolInfo protocolInfo) throws NotFoundException, CertificateException, NoSuchAlgorithmException, CertificateOperationException, CertificateRequestException {
-        ClientCertificateRequestDto certificateRequestDto = new ClientCertificateRequestDto();
-        certificateRequestDto.setRaProfileUuid(raProfileUuid.getValue());
-        certificateRequestDto.setCsrAttributes(request.getCsrAttributes());
-        certificateRequestDto.setSignatureAttributes(request.getSignatureAttributes());
-        certificateRequestDto.setRequest(request.getRequest());
-        certificateRequestDto.setFormat(request.getFormat());
-        certificateRequestDto.setTokenProfileUuid(request.getTokenProfileUuid());
-        certificateRequestDto.setKeyUuid(request.getKeyUuid());
-        certificateRequestDto.setIssueAttributes(request.getAttributes());
-        certificateRequestDto.setCustomAttributes(request.getCustomAttributes());
+        ClientCertificateRequestDto certificateRequestDto = createCertificateRequestDto(raProfileUuid.getValue(), request);
 
         CertificateDetailDto certificate;
         TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
@@ -236,6 +277,92 @@ public class ClientOperationServiceImpl implements ClientOperationService {
         return response;
     }
 
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.ISSUE)
+    @ExternalAuthorization(resource = Resource.RA_PROFILE, action = ResourceAction.DETAIL, parentResource = Resource.AUTHORITY, parentAction = ResourceAction.DETAIL)
+    public CertificateIssuanceBatchDto issueCertificates(final SecuredParentUUID authorityUuid, final SecuredUUID raProfileUuid, final List<ClientCertificateSignRequestDto> requests) throws ConnectorException {
+        if (requests == null || requests.isEmpty()) {
+            throw new ValidationException(ValidationError.create("Bulk certificate issuance does not contain any certificate request"));
+        }
+        if (requests.size() > bulkIssuanceMaxRequests) {
+            throw new ValidationException(ValidationError.create(String.format("Bulk certificate issuance can contain at most %d certificate requests, %d requests submitted", bulkIssuanceMaxRequests, requests.size())));
+        }
+
+        final AuthorityTarget authority;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            final RaProfile raProfile = raProfileRepository.findByUuidAndEnabledIsTrue(raProfileUuid.getValue()).orElseThrow(() -> new NotFoundException(RaProfile.class, raProfileUuid));
+            if (raProfile.getAuthorityInstanceReference() == null || raProfile.getAuthorityInstanceReference().getConnector() == null) {
+                throw new ValidationException(ValidationError.create("Connector of the Authority is not available / deleted"));
+            }
+            authority = getAuthorityTarget(raProfile);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+
+        // definitions of issue attributes are listed once for the whole batch, outside of transaction
+        final List<BaseAttribute> issueAttributeDefinitions = certificateApiClient.listIssueCertificateAttributes(authority.connector(), authority.authorityInstanceUuid());
+
+        final CertificateIssuanceBatch batch = new CertificateIssuanceBatch();
+        status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            batch.setRaProfileUuid(raProfileUuid.getValue());
+            batch.setUserUuid(UUID.fromString(AuthHelper.getUserIdentification().getUuid()));
+            batch.setCreatedAt(OffsetDateTime.now());
+            batch.setTotalCount(requests.size());
+            certificateIssuanceBatchRepository.save(batch);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+
+        // requests are persisted and enqueued in chunks, so certificates of first chunks are issued while rest of the batch is persisted
+        final List<CertificateIssuanceBatchErrorDto> rejectedRequests = new ArrayList<>();
+        for (int from = 0; from < requests.size(); from += bulkIssuanceChunkSize) {
+            final List<PreparedIssuanceRequest> preparedRequests = prepareIssuanceRequests(authority, raProfileUuid.getValue(), requests, from, Math.min(from + bulkIssuanceChunkSize, requests.size()), rejectedRequests);
+            final List<UUID> certificateUuids = submitIssuanceBatchChunk(batch.getUuid(), issueAttributeDefinitions, preparedRequests, rejectedRequests);
+            if (!certificateUuids.isEmpty()) {
+                final ActionMessage actionMessage = new ActionMessage();
+                actionMessage.setApprovalProfileResource(Resource.RA_PROFILE);
+                actionMessage.setApprovalProfileResourceUuid(raProfileUuid.getValue());
+                actionMessage.setUserUuid(batch.getUserUuid());
+                actionMessage.setResource(Resource.CERTIFICATE);
+                actionMessage.setResourceAction(ResourceAction.ISSUE);
+                actionMessage.setResourceUuids(certificateUuids);
+                actionProducer.produceMessage(actionMessage);
+            }
+        }
+
+        if (!rejectedRequests.isEmpty()) {
+            batch.setRejectedCount(rejectedRequests.size());
+            status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                certificateIssuanceBatchRepository.save(batch);
+            } catch (Exception e) {
+                transactionManager.rollback(status);
+                throw e;
+            }
+            transactionManager.commit(status);
+        }
+        logger.info("Submitted batch {} of {} certificate requests for RA profile {}, {} requests rejected", batch.getUuid(), requests.size(), raProfileUuid, rejectedRequests.size());
+
+        final CertificateIssuanceBatchDto batchDto = getCertificateIssuanceBatchDto(batch);
+        batchDto.setRejectedRequests(rejectedRequests);
+        return batchDto;
+    }
+
+    @Override
+    @ExternalAuthorization(resource = Resource.RA_PROFILE, action = ResourceAction.DETAIL, parentResource = Resource.AUTHORITY, parentAction = ResourceAction.DETAIL)
+    public CertificateIssuanceBatchDto getCertificateIssuanceBatch(final SecuredParentUUID authorityUuid, final SecuredUUID raProfileUuid, final UUID batchUuid) throws NotFoundException {
+        final CertificateIssuanceBatch batch = certificateIssuanceBatchRepository.findByUuidAndRaProfileUuid(batchUuid, raProfileUuid.getValue())
+                .orElseThrow(() -> new NotFoundException(CertificateIssuanceBatch.class, batchUuid));
+        return getCertificateIssuanceBatchDto(batch);
+    }
+
     @Override
     public void approvalCreatedAction(UUID certificateUuid) throws NotFoundException {
         final Certificate certificate = certificateRepository.findByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
@@ -244,68 +371,106 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.ISSUE)
     public void issueCertificateAction(final UUID certificateUuid, boolean isApproved) throws ConnectorException, CertificateException, NoSuchAlgorithmException, AlreadyExistException, CertificateOperationException {
         if (!isApproved) {
             certificateService.checkIssuePermissions();
         }
 
-        final Certificate certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
-        if (certificate.getState() != CertificateState.REQUESTED && certificate.getState() != CertificateState.PENDING_APPROVAL) {
-            throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with state %s. Certificate: %s", certificate.getState().getLabel(), certificate)));
-        }
-        if (certificate.getRaProfile() == null) {
-            throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with no RA Profile associated. Certificate: %s", certificate)));
-        }
-        if (certificate.getCertificateRequest() == null) {
-            throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with no certificate request. Certificate: %s", certificate)));
-        }
+        // prepare request for authority and record pending operation, no connection is held while waiting for authority
+        final CertificateSignRequestDto caRequest = new CertificateSignRequestDto();
+        final AuthorityTarget authority;
+        final UUID pendingOperationUuid;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            final Certificate certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
+            if (certificate.getState() != CertificateState.REQUESTED && certificate.getState() != CertificateState.PENDING_APPROVAL) {
+                throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with state %s. Certificate: %s", certificate.getState().getLabel(), certificate)));
+            }
+            if (certificate.getRaProfile() == null) {
+                throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with no RA Profile associated. Certificate: %s", certificate)));
+            }
+            if (certificate.getCertificateRequest() == null) {
+                throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate with no certificate request. Certificate: %s", certificate)));
+            }
 
-        CertificateSignRequestDto caRequest = new CertificateSignRequestDto();
-        caRequest.setRequest(certificate.getCertificateRequest().getContent());
-        caRequest.setFormat(certificate.getCertificateRequest().getCertificateRequestFormat());
-        caRequest.setAttributes(attributeEngine.getRequestObjectDataAttributesContent(certificate.getRaProfile().getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_ISSUE, Resource.CERTIFICATE, certificate.getUuid()));
-        caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(certificate.getRaProfile().getAuthorityInstanceReference().getConnectorUuid(), null, Resource.RA_PROFILE, certificate.getRaProfile().getUuid()));
+            authority = getAuthorityTarget(certificate.getRaProfile());
+            caRequest.setRequest(certificate.getCertificateRequest().getContent());
+            caRequest.setFormat(certificate.getCertificateRequest().getCertificateRequestFormat());
+            caRequest.setAttributes(attributeEngine.getRequestObjectDataAttributesContent(authority.connectorUuid(), AttributeOperation.CERTIFICATE_ISSUE, Resource.CERTIFICATE, certificate.getUuid()));
+            caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(authority.connectorUuid(), null, Resource.RA_PROFILE, certificate.getRaProfile().getUuid()));
+            pendingOperationUuid = registerPendingOperation(certificateUuid, ResourceAction.ISSUE, authority);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
 
+        final CertificateDataResponseDto issueCaResponse;
         try {
-            CertificateDataResponseDto issueCaResponse = certificateApiClient.issueCertificate(
-                    certificate.getRaProfile().getAuthorityInstanceReference().getConnector().mapToDto(),
-                    certificate.getRaProfile().getAuthorityInstanceReference().getAuthorityInstanceUuid(),
-                    caRequest);
+            issueCaResponse = authorityOperationLimiter.execute(authority.authorityInstanceReferenceUuid(),
+                    () -> certificateApiClient.issueCertificate(authority.connector(), authority.authorityInstanceUuid(), caRequest));
 
             if (issueCaResponse.getCertificateData() == null || issueCaResponse.getCertificateData().isEmpty()) {
                 throw new CertificateOperationException("Response from authority did not contain certificate data");
             }
-
-            logger.info("Certificate {} was issued by authority", certificateUuid);
-
-            certificateService.issueRequestedCertificate(certificateUuid, issueCaResponse.getCertificateData(), issueCaResponse.getMeta());
+        } catch (AuthorityBusyException e) {
+            discardPendingOperation(pendingOperationUuid);
+            throw e;
         } catch (Exception e) {
-            certificate.setState(CertificateState.FAILED);
-            certificateRepository.save(certificate);
+            completeFailedOperation(certificateUuid, pendingOperationUuid, CertificateState.FAILED);
 
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), "");
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), "");
             logger.error("Failed to issue certificate: {}", e.getMessage());
             throw new CertificateOperationException("Failed to issue certificate: " + e.getMessage());
         }
 
+        logger.info("Certificate {} was issued by authority", certificateUuid);
+
+        final IssuedCertificate issuedCertificate;
+        try {
+            issuedCertificate = completeIssuedCertificate(certificateUuid, pendingOperationUuid, issueCaResponse);
+        } catch (Exception e) {
+            keepAuthorityResponse(certificateUuid, pendingOperationUuid, issueCaResponse);
+            logger.error("Failed to store certificate {} issued by authority: {}", certificateUuid, e.getMessage());
+            throw new CertificateOperationException("Certificate was issued by authority, but failed to be stored: " + e.getMessage());
+        }
+
         // notify
         try {
-            notificationProducer.produceNotificationCertificateActionPerformed(certificate.mapToListDto(), ResourceAction.ISSUE, null);
+            notificationProducer.produceNotificationCertificateActionPerformed(issuedCertificate.certificateDto(), ResourceAction.ISSUE, null);
         } catch (Exception e) {
-            logger.error("Sending notification for certificate issue failed. Certificate: {}. Error: {}", certificate, e.getMessage());
+            logger.error("Sending notification for certificate issue failed. Certificate: {}. Error: {}", certificateUuid, e.getMessage());
         }
 
         // push certificate to locations
-        for (CertificateLocation cl : certificate.getLocations()) {
+        for (CertificateLocationId certificateLocationId : issuedCertificate.certificateLocationIds()) {
             try {
-                locationService.pushRequestedCertificateToLocationAction(cl.getId(), false);
+                locationService.pushRequestedCertificateToLocationAction(certificateLocationId, false);
             } catch (Exception e) {
                 logger.error("Failed to push issued certificate to location: {}", e.getMessage());
             }
         }
 
-        logger.debug("Certificate issued: {}", certificate);
+        logger.debug("Certificate issued: {}", certificateUuid);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.ISSUE)
+    public List<UUID> issueCertificateBatchAction(final UUID raProfileUuid, final List<UUID> certificateUuids, boolean isApproved) {
+        if (!isApproved) {
+            certificateService.checkIssuePermissions();
+        }
+
+        // permissions are checked once for the whole group, certificates are then issued one by one in the pipeline of RA profile
+        final CertificateIssuancePipeline.IssuanceResult result = certificateIssuancePipeline.submit(raProfileUuid, certificateUuids, certificateUuid -> issueCertificateAction(certificateUuid, true));
+        result.failures().forEach((certificateUuid, message) -> logger.warn("Failed to issue certificate {} of bulk issuance: {}", certificateUuid, message));
+
+        final int issued = certificateUuids.size() - result.failures().size() - result.postponed().size();
+        logger.info("Issued {} of {} certificates of bulk issuance for RA profile {}, {} certificates postponed", issued, certificateUuids.size(), raProfileUuid, result.postponed().size());
+        return result.postponed();
     }
 
     @Override
@@ -350,6 +515,7 @@ public class ClientOperationServiceImpl implements ClientOperationService {
         CertificateState oldState = certificate.getState();
         certificate.setState(CertificateState.REJECTED);
         certificateRepository.save(certificate);
+        applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificate.getUuid(), CertificateState.REJECTED));
 
         eventProducer.produceCertificateStatusChangeEventMessage(certificate.getUuid(), CertificateEvent.UPDATE_STATE, CertificateEventStatus.SUCCESS, oldState, CertificateState.REJECTED);
     }
@@ -408,97 +574,72 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.RENEW)
     public void renewCertificateAction(final UUID certificateUuid, ClientCertificateRenewRequestDto request, boolean isApproved) throws NotFoundException, CertificateOperationException {
         if (!isApproved) {
             certificateService.checkRenewPermissions();
         }
-        Certificate certificate = validateNewCertificateForOperation(certificateUuid);
-        Certificate oldCertificate = certificateRepository.findByUuid(certificate.getSourceCertificateUuid()).orElseThrow(() -> new NotFoundException(Certificate.class, certificate.getSourceCertificateUuid()));
-        RaProfile raProfile = certificate.getRaProfile();
-
-        logger.debug("Renewing Certificate: {}", oldCertificate);
+        final PreparedRenewal renewal = prepareRenewal(certificateUuid, ResourceAction.RENEW, request.isReplaceInLocations());
 
-        CertificateRenewRequestDto caRequest = new CertificateRenewRequestDto();
-        caRequest.setRequest(certificate.getCertificateRequest().getContent());
-        caRequest.setFormat(certificate.getCertificateRequest().getCertificateRequestFormat());
-        caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(raProfile.getAuthorityInstanceReference().getConnectorUuid(), null, Resource.RA_PROFILE, raProfile.getUuid()));
-        caRequest.setCertificate(oldCertificate.getCertificateContent().getContent());
-        // TODO: check if retrieved correctly, just metadata with null source object
-        caRequest.setMeta(attributeEngine.getMetadataAttributesDefinitionContent(new ObjectAttributeContentInfo(raProfile.getAuthorityInstanceReference().getConnectorUuid(), Resource.CERTIFICATE, oldCertificate.getUuid())));
-
-        CertificateDataResponseDto renewCaResponse;
+        final IssuedCertificate issuedCertificate;
         HashMap<String, Object> additionalInformation = new HashMap<>();
-        additionalInformation.put("New Certificate UUID", certificate.getUuid());
+        additionalInformation.put("New Certificate UUID", certificateUuid);
+        final CertificateDataResponseDto renewCaResponse;
         try {
-            renewCaResponse = certificateApiClient.renewCertificate(
-                    raProfile.getAuthorityInstanceReference().getConnector().mapToDto(),
-                    raProfile.getAuthorityInstanceReference().getAuthorityInstanceUuid(),
-                    caRequest);
+            renewCaResponse = authorityOperationLimiter.execute(renewal.authority().authorityInstanceReferenceUuid(),
+                    () -> certificateApiClient.renewCertificate(renewal.authority().connector(), renewal.authority().authorityInstanceUuid(), renewal.caRequest()));
 
             if (renewCaResponse.getCertificateData() == null || renewCaResponse.getCertificateData().isEmpty()) {
                 throw new CertificateOperationException("Response from authority did not contain certificate data");
             }
-
-            logger.info("Certificate {} was renewed by authority", certificateUuid);
-
-            CertificateDetailDto certificateDetailDto = certificateService.issueRequestedCertificate(certificateUuid, renewCaResponse.getCertificateData(), renewCaResponse.getMeta());
-
-            additionalInformation.put("New Certificate Serial Number", certificateDetailDto.getSerialNumber());
-            certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.RENEW, CertificateEventStatus.SUCCESS, "Renewed using RA Profile " + raProfile.getName(), MetaDefinitions.serialize(additionalInformation));
+        } catch (AuthorityBusyException e) {
+            discardPendingOperation(renewal.pendingOperationUuid());
+            throw e;
         } catch (Exception e) {
-            certificate.setState(CertificateState.FAILED);
-            certificateRepository.save(certificate);
+            completeFailedOperation(certificateUuid, renewal.pendingOperationUuid(), CertificateState.FAILED);
 
-            certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.RENEW, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
+            certificateEventHistoryService.addEventHistory(renewal.oldCertificateUuid(), CertificateEvent.RENEW, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
             logger.error("Failed to renew Certificate: {}", e.getMessage());
             throw new CertificateOperationException("Failed to renew certificate: " + e.getMessage());
         }
 
-        // notify
+        logger.info("Certificate {} was renewed by authority", certificateUuid);
+
         try {
-            notificationProducer.produceNotificationCertificateActionPerformed(certificate.mapToListDto(), ResourceAction.RENEW, null);
+            issuedCertificate = completeIssuedCertificate(certificateUuid, renewal.pendingOperationUuid(), renewCaResponse);
         } catch (Exception e) {
-            logger.error("Sending notification for certificate renewal failed. Certificate: {}. Error: {}", certificate, e.getMessage());
+            keepAuthorityResponse(certificateUuid, renewal.pendingOperationUuid(), renewCaResponse);
+            logger.error("Failed to store certificate {} renewed by authority: {}", certificateUuid, e.getMessage());
+            throw new CertificateOperationException("Certificate was renewed by authority, but failed to be stored: " + e.getMessage());
         }
 
-        Location location = null;
-        try {
-            // replace certificate in the locations if needed
-            if (request.isReplaceInLocations()) {
-                logger.info("Replacing certificates in locations for certificate: {}", certificate);
-                for (CertificateLocation cl : oldCertificate.getLocations()) {
-                    location = cl.getLocation();
-                    PushToLocationRequestDto pushRequest = new PushToLocationRequestDto();
-                    pushRequest.setAttributes(AttributeDefinitionUtils.getClientAttributes(cl.getPushAttributes()));
-
-                    locationService.removeCertificateFromLocation(SecuredParentUUID.fromUUID(cl.getLocation().getEntityInstanceReferenceUuid()), cl.getLocation().getSecuredUuid(), oldCertificate.getUuid().toString());
-                    certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Removed from Location " + cl.getLocation().getName(), "");
-
-                    locationService.pushCertificateToLocation(SecuredParentUUID.fromUUID(cl.getLocation().getEntityInstanceReferenceUuid()), cl.getLocation().getSecuredUuid(), certificate.getUuid().toString(), pushRequest);
-                    certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Pushed to Location " + cl.getLocation().getName(), "");
-                }
-            }
+        additionalInformation.put("New Certificate Serial Number", issuedCertificate.certificateDetailDto().getSerialNumber());
+        certificateEventHistoryService.addEventHistory(renewal.oldCertificateUuid(), CertificateEvent.RENEW, CertificateEventStatus.SUCCESS, "Renewed using RA Profile " + renewal.raProfileName(), MetaDefinitions.serialize(additionalInformation));
 
+        // notify
+        try {
+            notificationProducer.produceNotificationCertificateActionPerformed(issuedCertificate.certificateDto(), ResourceAction.RENEW, null);
         } catch (Exception e) {
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.FAILED, String.format("Failed to replace certificate in location %s: %s", location != null ? location.getName() : "", e.getMessage()), "");
-            logger.error("Failed to replace certificate in all locations during renew operation: {}", e.getMessage());
-            throw new CertificateOperationException("Failed to replace certificate in all locations during renew operation: " + e.getMessage());
+            logger.error("Sending notification for certificate renewal failed. Certificate: {}. Error: {}", certificateUuid, e.getMessage());
         }
 
-        if (!request.isReplaceInLocations()) {
+        // replace certificate in the locations if needed
+        if (request.isReplaceInLocations()) {
+            replaceCertificateInLocations(certificateUuid, renewal, "renew");
+        } else {
             // push certificate to locations
-            for (CertificateLocation cl : certificate.getLocations()) {
+            for (CertificateLocationId certificateLocationId : issuedCertificate.certificateLocationIds()) {
                 try {
-                    locationService.pushRequestedCertificateToLocationAction(cl.getId(), true);
+                    locationService.pushRequestedCertificateToLocationAction(certificateLocationId, true);
                 } catch (Exception e) {
                     logger.error("Failed to push renewed certificate to location: {}", e.getMessage());
                 }
             }
         }
 
-        logger.debug("Certificate Renewed: {}", certificate);
+        logger.debug("Certificate Renewed: {}", certificateUuid);
     }
 
     @Override
@@ -575,85 +716,63 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.RENEW)
     public void rekeyCertificateAction(final UUID certificateUuid, ClientCertificateRekeyRequestDto request, boolean isApproved) throws NotFoundException, CertificateOperationException {
         if (!isApproved) {
             certificateService.checkRenewPermissions();
         }
-        Certificate certificate = validateNewCertificateForOperation(certificateUuid);
-        Certificate oldCertificate = certificateRepository.findByUuid(certificate.getSourceCertificateUuid()).orElseThrow(() -> new NotFoundException(Certificate.class, certificate.getSourceCertificateUuid()));
-        RaProfile raProfile = certificate.getRaProfile();
-
-        logger.debug("Rekeying Certificate: {}", oldCertificate);
-        CertificateRenewRequestDto caRequest = new CertificateRenewRequestDto();
-        caRequest.setRequest(certificate.getCertificateRequest().getContent());
-        caRequest.setFormat(certificate.getCertificateRequest().getCertificateRequestFormat());
-        caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(raProfile.getAuthorityInstanceReference().getConnectorUuid(), null, Resource.RA_PROFILE, raProfile.getUuid()));
-        caRequest.setCertificate(oldCertificate.getCertificateContent().getContent());
-        // TODO: check if retrieved correctly, just metadata with null source object
-        caRequest.setMeta(attributeEngine.getMetadataAttributesDefinitionContent(new ObjectAttributeContentInfo(raProfile.getAuthorityInstanceReference().getConnectorUuid(), Resource.CERTIFICATE, oldCertificate.getUuid())));
+        final PreparedRenewal renewal = prepareRenewal(certificateUuid, ResourceAction.REKEY, request.isReplaceInLocations());
 
-        CertificateDataResponseDto renewCaResponse = null;
+        final IssuedCertificate issuedCertificate;
         HashMap<String, Object> additionalInformation = new HashMap<>();
-        additionalInformation.put("New Certificate UUID", certificate.getUuid());
+        additionalInformation.put("New Certificate UUID", certificateUuid);
+        final CertificateDataResponseDto renewCaResponse;
         try {
-            renewCaResponse = certificateApiClient.renewCertificate(
-                    raProfile.getAuthorityInstanceReference().getConnector().mapToDto(),
-                    raProfile.getAuthorityInstanceReference().getAuthorityInstanceUuid(),
-                    caRequest);
+            renewCaResponse = authorityOperationLimiter.execute(renewal.authority().authorityInstanceReferenceUuid(),
+                    () -> certificateApiClient.renewCertificate(renewal.authority().connector(), renewal.authority().authorityInstanceUuid(), renewal.caRequest()));
 
             if (renewCaResponse.getCertificateData() == null || renewCaResponse.getCertificateData().isEmpty()) {
                 throw new CertificateOperationException("Response from authority did not contain certificate data");
             }
-
-            logger.info("Certificate {} was rekeyed by authority", certificateUuid);
-
-            CertificateDetailDto certificateDetailDto = certificateService.issueRequestedCertificate(certificateUuid, renewCaResponse.getCertificateData(), renewCaResponse.getMeta());
-
-            additionalInformation.put("New Certificate Serial Number", certificateDetailDto.getSerialNumber());
-            certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.REKEY, CertificateEventStatus.SUCCESS, "Rekeyed using RA Profile " + raProfile.getName(), MetaDefinitions.serialize(additionalInformation));
+        } catch (AuthorityBusyException e) {
+            discardPendingOperation(renewal.pendingOperationUuid());
+            throw e;
         } catch (Exception e) {
-            certificate.setState(CertificateState.FAILED);
-            certificateRepository.save(certificate);
+            completeFailedOperation(certificateUuid, renewal.pendingOperationUuid(), CertificateState.FAILED);
 
-            certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.REKEY, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
+            certificateEventHistoryService.addEventHistory(renewal.oldCertificateUuid(), CertificateEvent.REKEY, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.ISSUE, CertificateEventStatus.FAILED, e.getMessage(), MetaDefinitions.serialize(additionalInformation));
             logger.error("Failed to rekey Certificate: {}", e.getMessage());
             throw new CertificateOperationException("Failed to rekey certificate: " + e.getMessage());
         }
 
-        Location location = null;
-        try {
-            /* replace certificate in the locations if needed */
-            if (request.isReplaceInLocations()) {
-                logger.info("Replacing certificates in locations for certificate: {}", certificate);
-                for (CertificateLocation cl : oldCertificate.getLocations()) {
-                    location = cl.getLocation();
-                    PushToLocationRequestDto pushRequest = new PushToLocationRequestDto();
-                    pushRequest.setAttributes(AttributeDefinitionUtils.getClientAttributes(cl.getPushAttributes()));
+        logger.info("Certificate {} was rekeyed by authority", certificateUuid);
 
-                    locationService.removeCertificateFromLocation(SecuredParentUUID.fromUUID(cl.getLocation().getEntityInstanceReferenceUuid()), cl.getLocation().getSecuredUuid(), oldCertificate.getUuid().toString());
-                    certificateEventHistoryService.addEventHistory(oldCertificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Removed from Location " + cl.getLocation().getName(), "");
+        try {
+            issuedCertificate = completeIssuedCertificate(certificateUuid, renewal.pendingOperationUuid(), renewCaResponse);
+        } catch (Exception e) {
+            keepAuthorityResponse(certificateUuid, renewal.pendingOperationUuid(), renewCaResponse);
+            logger.error("Failed to store certificate {} rekeyed by authority: {}", certificateUuid, e.getMessage());
+            throw new CertificateOperationException("Certificate was rekeyed by authority, but failed to be stored: " + e.getMessage());
+        }
 
-                    locationService.pushCertificateToLocation(SecuredParentUUID.fromUUID(cl.getLocation().getEntityInstanceReferenceUuid()), cl.getLocation().getSecuredUuid(), certificate.getUuid().toString(), pushRequest);
-                    certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Pushed to Location " + cl.getLocation().getName(), "");
-                }
-            }
+        additionalInformation.put("New Certificate Serial Number", issuedCertificate.certificateDetailDto().getSerialNumber());
+        certificateEventHistoryService.addEventHistory(renewal.oldCertificateUuid(), CertificateEvent.REKEY, CertificateEventStatus.SUCCESS, "Rekeyed using RA Profile " + renewal.raProfileName(), MetaDefinitions.serialize(additionalInformation));
 
-        } catch (Exception e) {
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.FAILED, String.format("Failed to replace certificate in location %s: %s", location != null ? location.getName() : "", e.getMessage()), "");
-            logger.error("Failed to replace certificate in all locations during rekey operation: {}", e.getMessage());
-            throw new CertificateOperationException("Failed to replace certificate in all locations during rekey operation: " + e.getMessage());
+        /* replace certificate in the locations if needed */
+        if (request.isReplaceInLocations()) {
+            replaceCertificateInLocations(certificateUuid, renewal, "rekey");
         }
 
         // notify
         try {
-            notificationProducer.produceNotificationCertificateActionPerformed(certificate.mapToListDto(), ResourceAction.REKEY, null);
+            notificationProducer.produceNotificationCertificateActionPerformed(issuedCertificate.certificateDto(), ResourceAction.REKEY, null);
         } catch (Exception e) {
-            logger.error("Sending notification for certificate rekey failed. Certificate: {}. Error: {}", certificate, e.getMessage());
+            logger.error("Sending notification for certificate rekey failed. Certificate: {}. Error: {}", certificateUuid, e.getMessage());
         }
 
-        logger.debug("Certificate rekeyed: {}", certificate);
+        logger.debug("Certificate rekeyed: {}", certificateUuid);
     }
 
     @Override
@@ -678,53 +797,73 @@ public class ClientOperationServiceImpl implements ClientOperationService {
     }
 
     @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
     @AuditLogged(originator = ObjectType.CLIENT, affected = ObjectType.END_ENTITY_CERTIFICATE, operation = OperationType.REVOKE)
     public void revokeCertificateAction(final UUID certificateUuid, ClientCertificateRevocationDto request, boolean isApproved) throws NotFoundException, CertificateOperationException {
         if (!isApproved) {
             certificateService.checkRevokePermissions();
         }
-        final Certificate certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
-        if (certificate.getState() != CertificateState.ISSUED && certificate.getState() != CertificateState.PENDING_APPROVAL) {
-            throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate in state %s. Certificate: %s", certificate.getState().getLabel(), certificate)));
-        }
 
-        RaProfile raProfile = certificate.getRaProfile();
+        // prepare request for authority and record pending operation, no connection is held while waiting for authority
+        final CertRevocationDto caRequest = new CertRevocationDto();
+        final AuthorityTarget authority;
+        final UUID pendingOperationUuid;
+        final UUID keyUuid;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            final Certificate certificate = certificateRepository.findWithAssociationsByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
+            if (certificate.getState() != CertificateState.ISSUED && certificate.getState() != CertificateState.PENDING_APPROVAL) {
+                throw new ValidationException(ValidationError.create(String.format("Cannot issue requested certificate in state %s. Certificate: %s", certificate.getState().getLabel(), certificate)));
+            }
 
-        logger.debug("Revoking Certificate: {}", certificate);
+            logger.debug("Revoking Certificate: {}", certificate);
 
-        try {
-            CertRevocationDto caRequest = new CertRevocationDto();
+            authority = getAuthorityTarget(certificate.getRaProfile());
             caRequest.setReason(request.getReason());
             if (request.getReason() == null) {
                 caRequest.setReason(CertificateRevocationReason.UNSPECIFIED);
             }
             caRequest.setAttributes(request.getAttributes());
-            caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(raProfile.getAuthorityInstanceReference().getConnectorUuid(), null, Resource.RA_PROFILE, raProfile.getUuid()));
+            caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(authority.connectorUuid(), null, Resource.RA_PROFILE, certificate.getRaProfile().getUuid()));
             caRequest.setCertificate(certificate.getCertificateContent().getContent());
+            keyUuid = certificate.getKey() != null ? certificate.getKeyUuid() : null;
+            pendingOperationUuid = registerPendingOperation(certificateUuid, ResourceAction.REVOKE, authority);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
 
-            certificateApiClient.revokeCertificate(
-                    raProfile.getAuthorityInstanceReference().getConnector().mapToDto(),
-                    raProfile.getAuthorityInstanceReference().getAuthorityInstanceUuid(),
-                    caRequest);
-
-            certificate.setState(CertificateState.REVOKED);
-            certificateRepository.save(certificate);
-
-            attributeEngine.updateObjectDataAttributesContent(raProfile.getAuthorityInstanceReference().getConnectorUuid(), AttributeOperation.CERTIFICATE_REVOKE, Resource.CERTIFICATE, certificate.getUuid(), request.getAttributes());
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.REVOKE, CertificateEventStatus.SUCCESS, "Certificate revoked. Reason: " + caRequest.getReason().getLabel(), "");
+        try {
+            authorityOperationLimiter.execute(authority.authorityInstanceReferenceUuid(), () -> {
+                certificateApiClient.revokeCertificate(authority.connector(), authority.authorityInstanceUuid(), caRequest);
+                return null;
+            });
+        } catch (AuthorityBusyException e) {
+            discardPendingOperation(pendingOperationUuid);
+            throw e;
         } catch (Exception e) {
-            certificate.setState(CertificateState.ISSUED);
-            certificateRepository.save(certificate);
+            completeFailedOperation(certificateUuid, pendingOperationUuid, CertificateState.ISSUED);
 
-            certificateEventHistoryService.addEventHistory(certificate.getUuid(), CertificateEvent.REVOKE, CertificateEventStatus.FAILED, e.getMessage(), "");
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.REVOKE, CertificateEventStatus.FAILED, e.getMessage(), "");
             logger.error("Failed to revoke Certificate: {}", e.getMessage());
             throw new CertificateOperationException("Failed to revoke certificate: " + e.getMessage());
         }
 
-        if (certificate.getKey() != null && request.isDestroyKey()) {
+        final CertificateDto certificateDto;
+        try {
+            certificateDto = completeRevokedCertificate(certificateUuid, pendingOperationUuid, authority.connectorUuid(), request.getAttributes());
+        } catch (Exception e) {
+            keepAuthorityResponse(certificateUuid, pendingOperationUuid, null);
+            logger.error("Failed to store revocation of certificate {} revoked by authority: {}", certificateUuid, e.getMessage());
+            throw new CertificateOperationException("Certificate was revoked by authority, but failed to be stored: " + e.getMessage());
+        }
+        certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.REVOKE, CertificateEventStatus.SUCCESS, "Certificate revoked. Reason: " + caRequest.getReason().getLabel(), "");
+
+        if (keyUuid != null && request.isDestroyKey()) {
             try {
                 logger.debug("Certificate revoked. Proceeding to check and destroy key");
-                keyService.destroyKey(List.of(certificate.getKeyUuid().toString()));
+                keyService.destroyKey(List.of(keyUuid.toString()));
             } catch (Exception e) {
                 logger.warn("Failed to destroy certificate key: {}", e.getMessage());
             }
@@ -732,12 +871,330 @@ public class ClientOperationServiceImpl implements ClientOperationService {
 
         // notify
         try {
-            notificationProducer.produceNotificationCertificateActionPerformed(certificate.mapToListDto(), ResourceAction.REVOKE, null);
+            notificationProducer.produceNotificationCertificateActionPerformed(certificateDto, ResourceAction.REVOKE, null);
+        } catch (Exception e) {
+            logger.error("Sending notification for certificate revoke failed. Certificate: {}. Error: {}", certificateUuid, e.getMessage());
+        }
+
+        logger.debug("Certificate revoked: {}", certificateUuid);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public int recoverPendingCertificateOperations(final OffsetDateTime startedBefore) {
+        int recovered = 0;
+        // each operation is resolved in its own transaction, so operation that fails to be resolved does not block the others
+        for (PendingCertificateOperation pendingOperation : pendingCertificateOperationRepository.findByStartedAtBefore(startedBefore)) {
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                recoverPendingOperation(pendingOperation);
+            } catch (Exception e) {
+                transactionManager.rollback(status);
+                // operation stays recorded as pending and its recovery is attempted again later
+                logger.error("Failed to recover {} operation with certificate {}: {}", pendingOperation.getOperation().getCode(), pendingOperation.getCertificateUuid(), e.getMessage());
+                continue;
+            }
+            transactionManager.commit(status);
+            recovered++;
+        }
+        return recovered;
+    }
+
+    private void recoverPendingOperation(final PendingCertificateOperation pendingOperation) throws CertificateException, NoSuchAlgorithmException, AlreadyExistException, NotFoundException, AttributeException {
+        final UUID certificateUuid = pendingOperation.getCertificateUuid();
+        final Certificate certificate = certificateRepository.findByUuid(certificateUuid).orElse(null);
+
+        if (pendingOperation.getAuthorityCompletedAt() != null) {
+            // authority finished the operation, only its result was not stored
+            logger.warn("Finishing {} operation with certificate {} completed by authority at {}", pendingOperation.getOperation().getCode(), certificateUuid, pendingOperation.getAuthorityCompletedAt());
+            if (pendingOperation.getOperation() == ResourceAction.REVOKE) {
+                if (certificate != null) {
+                    certificate.setState(CertificateState.REVOKED);
+                    certificateRepository.save(certificate);
+                    applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.REVOKED));
+                    certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.REVOKE, CertificateEventStatus.SUCCESS, "Certificate revoked by authority, revocation finished by recovery", "");
+                }
+            } else if (certificate != null) {
+                final CertificateDataResponseDto caResponse = pendingOperation.getAuthorityResponse();
+                certificateService.issueRequestedCertificate(certificateUuid, caResponse.getCertificateData(), caResponse.getMeta());
+                applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.ISSUED));
+            }
+            pendingCertificateOperationRepository.deleteById(pendingOperation.getUuid());
+            return;
+        }
+
+        logger.warn("Recovering {} operation with certificate {} started at {} that was not finished", pendingOperation.getOperation().getCode(), certificateUuid, pendingOperation.getStartedAt());
+        if (pendingOperation.getOperation() == ResourceAction.REVOKE) {
+            // authority might have revoked the certificate, revocation status is resolved by certificate status validation
+            if (certificate != null && certificate.getState() == CertificateState.PENDING_APPROVAL) {
+                certificate.setState(CertificateState.ISSUED);
+                certificateRepository.save(certificate);
+                applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.ISSUED));
+            }
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.REVOKE, CertificateEventStatus.FAILED, "Revocation was interrupted before its result was received from authority", "");
+        } else if (certificate != null && (certificate.getState() == CertificateState.REQUESTED || certificate.getState() == CertificateState.PENDING_APPROVAL)) {
+            certificate.setState(CertificateState.FAILED);
+            certificateRepository.save(certificate);
+            applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.FAILED));
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.ISSUE, CertificateEventStatus.FAILED, String.format("Operation %s was interrupted before certificate was received from authority", pendingOperation.getOperation().getCode()), "");
+        }
+        pendingCertificateOperationRepository.deleteById(pendingOperation.getUuid());
+    }
+
+    private ClientCertificateRequestDto createCertificateRequestDto(final UUID raProfileUuid, final ClientCertificateSignRequestDto request) {
+        ClientCertificateRequestDto certificateRequestDto = new ClientCertificateRequestDto();
+        certificateRequestDto.setRaProfileUuid(raProfileUuid);
+        certificateRequestDto.setCsrAttributes(request.getCsrAttributes());
+        certificateRequestDto.setSignatureAttributes(request.getSignatureAttributes());
+        certificateRequestDto.setRequest(request.getRequest());
+        certificateRequestDto.setFormat(request.getFormat());
+        certificateRequestDto.setTokenProfileUuid(request.getTokenProfileUuid());
+        certificateRequestDto.setKeyUuid(request.getKeyUuid());
+        certificateRequestDto.setIssueAttributes(request.getAttributes());
+        certificateRequestDto.setCustomAttributes(request.getCustomAttributes());
+        return certificateRequestDto;
+    }
+
+    private List<PreparedIssuanceRequest> prepareIssuanceRequests(final AuthorityTarget authority, final UUID raProfileUuid, final List<ClientCertificateSignRequestDto> requests, final int from, final int to, final List<CertificateIssuanceBatchErrorDto> rejectedRequests) {
+        // issue attributes are validated by connector and CSRs are generated before the chunk is persisted, so no transaction is open while connectors are called
+        final List<PreparedIssuanceRequest> preparedRequests = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            try {
+                final ClientCertificateRequestDto request = createCertificateRequestDto(raProfileUuid, requests.get(i));
+                if ((request.getRequest() == null || request.getRequest().isEmpty()) && (request.getKeyUuid() == null || request.getTokenProfileUuid() == null)) {
+                    throw new ValidationException("Cannot submit certificate request without specifying key or uploaded request content");
+                }
+                final String certificateRequest = generateBase64EncodedCsr(request.getRequest(), request.getFormat(), request.getCsrAttributes(), request.getKeyUuid(), request.getTokenProfileUuid(), request.getSignatureAttributes());
+                certificateApiClient.validateIssueCertificateAttributes(authority.connector(), authority.authorityInstanceUuid(), request.getIssueAttributes() != null ? request.getIssueAttributes() : new ArrayList<>());
+                preparedRequests.add(new PreparedIssuanceRequest(i, request, certificateRequest));
+            } catch (Exception e) {
+                rejectedRequests.add(new CertificateIssuanceBatchErrorDto(i, e.getMessage()));
+            }
+        }
+        return preparedRequests;
+    }
+
+    private List<UUID> submitIssuanceBatchChunk(final UUID batchUuid, final List<BaseAttribute> issueAttributeDefinitions, final List<PreparedIssuanceRequest> preparedRequests, final List<CertificateIssuanceBatchErrorDto> rejectedRequests) {
+        if (preparedRequests.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return persistIssuanceRequests(batchUuid, issueAttributeDefinitions, preparedRequests);
+        } catch (Exception e) {
+            logger.debug("Chunk of bulk issuance batch {} contains invalid certificate request, requests are persisted one by one: {}", batchUuid, e.getMessage());
+        }
+
+        // chunk with invalid request is persisted again request by request, so only invalid requests are rejected
+        final List<UUID> certificateUuids = new ArrayList<>();
+        for (PreparedIssuanceRequest preparedRequest : preparedRequests) {
+            try {
+                certificateUuids.addAll(persistIssuanceRequests(batchUuid, issueAttributeDefinitions, List.of(preparedRequest)));
+            } catch (Exception e) {
+                rejectedRequests.add(new CertificateIssuanceBatchErrorDto(preparedRequest.index(), e.getMessage()));
+            }
+        }
+        return certificateUuids;
+    }
+
+    private List<UUID> persistIssuanceRequests(final UUID batchUuid, final List<BaseAttribute> issueAttributeDefinitions, final List<PreparedIssuanceRequest> preparedRequests) throws ConnectorException, NoSuchAlgorithmException, AttributeException, CertificateRequestException {
+        final List<UUID> certificateUuids = new ArrayList<>();
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            for (PreparedIssuanceRequest preparedRequest : preparedRequests) {
+                final ClientCertificateRequestDto request = preparedRequest.request();
+                attributeEngine.validateCustomAttributesContent(Resource.CERTIFICATE, request.getCustomAttributes());
+                CertificateDetailDto certificate = certificateService.submitCertificateRequest(preparedRequest.certificateRequest(), request.getFormat(), request.getSignatureAttributes(), request.getCsrAttributes(), request.getIssueAttributes(), issueAttributeDefinitions,
+                        request.getKeyUuid(), request.getRaProfileUuid(), request.getSourceCertificateUuid(), null);
+                attributeEngine.updateObjectCustomAttributesContent(Resource.CERTIFICATE, UUID.fromString(certificate.getUuid()), request.getCustomAttributes());
+                certificateUuids.add(UUID.fromString(certificate.getUuid()));
+            }
+            certificateRepository.setIssuanceBatchOfCertificates(batchUuid, certificateUuids);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return certificateUuids;
+    }
+
+    private CertificateIssuanceBatchDto getCertificateIssuanceBatchDto(final CertificateIssuanceBatch batch) {
+        final CertificateIssuanceBatchDto batchDto = new CertificateIssuanceBatchDto();
+        batchDto.setUuid(batch.getUuid().toString());
+        batchDto.setRaProfileUuid(batch.getRaProfileUuid().toString());
+        batchDto.setCreatedAt(batch.getCreatedAt());
+        batchDto.setTotalCount(batch.getTotalCount());
+        batchDto.setRejectedCount(batch.getRejectedCount());
+
+        long persistedCount = 0;
+        for (CertificateStateCountProjection stateCount : certificateRepository.countStatesByIssuanceBatchUuid(batch.getUuid())) {
+            persistedCount += stateCount.count();
+            switch (stateCount.state()) {
+                case REQUESTED, PENDING_ISSUE -> batchDto.setRequestedCount(batchDto.getRequestedCount() + stateCount.count());
+                case PENDING_APPROVAL -> batchDto.setPendingApprovalCount(batchDto.getPendingApprovalCount() + stateCount.count());
+                case FAILED, REJECTED -> batchDto.setFailedCount(batchDto.getFailedCount() + stateCount.count());
+                default -> batchDto.setIssuedCount(batchDto.getIssuedCount() + stateCount.count());
+            }
+        }
+        batchDto.setFinished(persistedCount + batch.getRejectedCount() >= batch.getTotalCount() && batchDto.getRequestedCount() == 0 && batchDto.getPendingApprovalCount() == 0);
+        return batchDto;
+    }
+
+    private AuthorityTarget getAuthorityTarget(final RaProfile raProfile) {
+        final AuthorityInstanceReference authorityInstanceReference = raProfile.getAuthorityInstanceReference();
+        return new AuthorityTarget(authorityInstanceReference.getUuid(), authorityInstanceReference.getConnectorUuid(), authorityInstanceReference.getConnector().mapToDto(), authorityInstanceReference.getAuthorityInstanceUuid());
+    }
+
+    private UUID registerPendingOperation(final UUID certificateUuid, final ResourceAction operation, final AuthorityTarget authority) {
+        final PendingCertificateOperation pendingOperation = new PendingCertificateOperation();
+        pendingOperation.setCertificateUuid(certificateUuid);
+        pendingOperation.setOperation(operation);
+        pendingOperation.setAuthorityInstanceReferenceUuid(authority.authorityInstanceReferenceUuid());
+        pendingOperation.setStartedAt(OffsetDateTime.now());
+        pendingCertificateOperationRepository.save(pendingOperation);
+        return pendingOperation.getUuid();
+    }
+
+    private PreparedRenewal prepareRenewal(final UUID certificateUuid, final ResourceAction action, final boolean replaceInLocations) throws NotFoundException {
+        final PreparedRenewal renewal;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            Certificate certificate = validateNewCertificateForOperation(certificateUuid);
+            Certificate oldCertificate = certificateRepository.findByUuid(certificate.getSourceCertificateUuid()).orElseThrow(() -> new NotFoundException(Certificate.class, certificate.getSourceCertificateUuid()));
+            RaProfile raProfile = certificate.getRaProfile();
+            AuthorityTarget authority = getAuthorityTarget(raProfile);
+
+            logger.debug("Preparing {} of Certificate: {}", action.getCode(), oldCertificate);
+
+            CertificateRenewRequestDto caRequest = new CertificateRenewRequestDto();
+            caRequest.setRequest(certificate.getCertificateRequest().getContent());
+            caRequest.setFormat(certificate.getCertificateRequest().getCertificateRequestFormat());
+            caRequest.setRaProfileAttributes(attributeEngine.getRequestObjectDataAttributesContent(authority.connectorUuid(), null, Resource.RA_PROFILE, raProfile.getUuid()));
+            caRequest.setCertificate(oldCertificate.getCertificateContent().getContent());
+            // TODO: check if retrieved correctly, just metadata with null source object
+            caRequest.setMeta(attributeEngine.getMetadataAttributesDefinitionContent(new ObjectAttributeContentInfo(authority.connectorUuid(), Resource.CERTIFICATE, oldCertificate.getUuid())));
+
+            List<LocationReplacement> locationReplacements = new ArrayList<>();
+            if (replaceInLocations) {
+                for (CertificateLocation cl : oldCertificate.getLocations()) {
+                    PushToLocationRequestDto pushRequest = new PushToLocationRequestDto();
+                    pushRequest.setAttributes(AttributeDefinitionUtils.getClientAttributes(cl.getPushAttributes()));
+                    locationReplacements.add(new LocationReplacement(cl.getLocation().getEntityInstanceReferenceUuid(), cl.getLocation().getSecuredUuid(), cl.getLocation().getName(), pushRequest));
+                }
+            }
+
+            UUID pendingOperationUuid = registerPendingOperation(certificateUuid, action, authority);
+            renewal = new PreparedRenewal(authority, caRequest, pendingOperationUuid, oldCertificate.getUuid(), raProfile.getName(), locationReplacements);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return renewal;
+    }
+
+    private IssuedCertificate completeIssuedCertificate(final UUID certificateUuid, final UUID pendingOperationUuid, final CertificateDataResponseDto caResponse) throws CertificateException, NoSuchAlgorithmException, AlreadyExistException, NotFoundException, AttributeException {
+        final IssuedCertificate issuedCertificate;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            CertificateDetailDto certificateDetailDto = certificateService.issueRequestedCertificate(certificateUuid, caResponse.getCertificateData(), caResponse.getMeta());
+            pendingCertificateOperationRepository.deleteById(pendingOperationUuid);
+            applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.ISSUED));
+
+            final Certificate certificate = certificateRepository.findByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
+            issuedCertificate = new IssuedCertificate(certificateDetailDto, certificate.mapToListDto(), certificate.getLocations().stream().map(CertificateLocation::getId).toList());
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return issuedCertificate;
+    }
+
+    private CertificateDto completeRevokedCertificate(final UUID certificateUuid, final UUID pendingOperationUuid, final UUID connectorUuid, final List<RequestAttributeDto> attributes) throws NotFoundException, AttributeException {
+        final CertificateDto certificateDto;
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            final Certificate certificate = certificateRepository.findByUuid(certificateUuid).orElseThrow(() -> new NotFoundException(Certificate.class, certificateUuid));
+            certificate.setState(CertificateState.REVOKED);
+            certificateRepository.save(certificate);
+            attributeEngine.updateObjectDataAttributesContent(connectorUuid, AttributeOperation.CERTIFICATE_REVOKE, Resource.CERTIFICATE, certificateUuid, attributes);
+            pendingCertificateOperationRepository.deleteById(pendingOperationUuid);
+            applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, CertificateState.REVOKED));
+            certificateDto = certificate.mapToListDto();
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return certificateDto;
+    }
+
+    private void completeFailedOperation(final UUID certificateUuid, final UUID pendingOperationUuid, final CertificateState state) {
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            certificateRepository.findByUuid(certificateUuid).ifPresent(certificate -> {
+                certificate.setState(state);
+                certificateRepository.save(certificate);
+            });
+            pendingCertificateOperationRepository.deleteById(pendingOperationUuid);
+            applicationEventPublisher.publishEvent(new CertificateStateChangedEvent(certificateUuid, state));
         } catch (Exception e) {
-            logger.error("Sending notification for certificate revoke failed. Certificate: {}. Error: {}", certificate, e.getMessage());
+            transactionManager.rollback(status);
+            // operation stays recorded as pending and is resolved by recovery of pending operations
+            logger.error("Failed to record failure of operation with certificate {}: {}", certificateUuid, e.getMessage());
+            return;
+        }
+        transactionManager.commit(status);
+    }
+
+    private void keepAuthorityResponse(final UUID certificateUuid, final UUID pendingOperationUuid, final CertificateDataResponseDto caResponse) {
+        // operation was completed by authority, so it is kept as pending together with response of authority and finished by recovery of pending operations
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            pendingCertificateOperationRepository.findById(pendingOperationUuid).ifPresent(pendingOperation -> {
+                pendingOperation.setAuthorityCompletedAt(OffsetDateTime.now());
+                pendingOperation.setAuthorityResponse(caResponse);
+                pendingCertificateOperationRepository.save(pendingOperation);
+            });
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            logger.error("Failed to record response of authority for operation with certificate {}: {}", certificateUuid, e.getMessage());
+            return;
+        }
+        transactionManager.commit(status);
+    }
+
+    private void discardPendingOperation(final UUID pendingOperationUuid) {
+        // authority was not called, so state of certificate is kept and action can be retried
+        TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            pendingCertificateOperationRepository.deleteById(pendingOperationUuid);
+        } catch (Exception e) {
+            transactionManager.rollback(status);
+            logger.error("Failed to discard pending operation {}: {}", pendingOperationUuid, e.getMessage());
+            return;
         }
+        transactionManager.commit(status);
+    }
+
+    private void replaceCertificateInLocations(final UUID certificateUuid, final PreparedRenewal renewal, final String operation) throws CertificateOperationException {
+        String locationName = null;
+        try {
+            logger.info("Replacing certificates in locations for certificate: {}", certificateUuid);
+            for (LocationReplacement replacement : renewal.locationReplacements()) {
+                locationName = replacement.locationName();
 
-        logger.debug("Certificate revoked: {}", certificate);
+                locationService.removeCertificateFromLocation(SecuredParentUUID.fromUUID(replacement.entityInstanceReferenceUuid()), replacement.locationUuid(), renewal.oldCertificateUuid().toString());
+                certificateEventHistoryService.addEventHistory(renewal.oldCertificateUuid(), CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Removed from Location " + locationName, "");
+
+                locationService.pushCertificateToLocation(SecuredParentUUID.fromUUID(replacement.entityInstanceReferenceUuid()), replacement.locationUuid(), certificateUuid.toString(), replacement.pushRequest());
+                certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.SUCCESS, "Pushed to Location " + locationName, "");
+            }
+        } catch (Exception e) {
+            certificateEventHistoryService.addEventHistory(certificateUuid, CertificateEvent.UPDATE_LOCATION, CertificateEventStatus.FAILED, String.format("Failed to replace certificate in location %s: %s", locationName != null ? locationName : "", e.getMessage()), "");
+            logger.error("Failed to replace certificate in all locations during {} operation: {}", operation, e.getMessage());
+            throw new CertificateOperationException("Failed to replace certificate in all locations during " + operation + " operation: " + e.getMessage());
+        }
     }
 
     private Certificate validateOldCertificateForOperation(String certificateUuid, String raProfileUuid, ResourceAction action) throws NotFoundException {
@@ -986,4 +1443,25 @@ public class ClientOperationServiceImpl implements ClientOperationService {
         }
         return requestB64;
     }
+
+    /**
+     * Request of bulk issuance with CSR prepared and issue attributes validated by connector before the request is persisted
+     */
+    private record PreparedIssuanceRequest(int index, ClientCertificateRequestDto request, String certificateRequest) {
+    }
+
+    /**
+     * Authority instance of certificate operation captured in prepare phase, so it can be called without open transaction
+     */
+    private record AuthorityTarget(UUID authorityInstanceReferenceUuid, UUID connectorUuid, ConnectorDto connector, String authorityInstanceUuid) {
+    }
+
+    private record LocationReplacement(UUID entityInstanceReferenceUuid, SecuredUUID locationUuid, String locationName, PushToLocationRequestDto pushRequest) {
+    }
+
+    private record PreparedRenewal(AuthorityTarget authority, CertificateRenewRequestDto caRequest, UUID pendingOperationUuid, UUID oldCertificateUuid, String raProfileName, List<LocationReplacement> locationReplacements) {
+    }
+
+    private record IssuedCertificate(CertificateDetailDto certificateDetailDto, CertificateDto certificateDto, List<CertificateLocationId> certificateLocationIds) {
+    }
 }
@@ -0,0 +1,84 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.CertificateEventHistoryService;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class CertificateEventHistoryPartitionTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CertificateEventHistoryPartitionTask.class);
+
+    private static final String JOB_NAME = "certificateEventHistoryPartitionJob";
+    private static final String CRON_EXPRESSION = "0 0 3 ? * *";
+
+    private static final int PARTITION_MONTHS_AHEAD = 3;
+
+    // zero or negative retention keeps certificate event history forever
+    @Value("${certificate.event-history.retention:P0D}")
+    private Duration retention;
+
+    private CertificateEventHistoryService certificateEventHistoryService;
+
+    @Autowired
+    public void setCertificateEventHistoryService(CertificateEventHistoryService certificateEventHistoryService) {
+        this.certificateEventHistoryService = certificateEventHistoryService;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        try {
+            int created = certificateEventHistoryService.createEventHistoryPartitions(YearMonth.now(ZoneOffset.UTC).plusMonths(PARTITION_MONTHS_AHEAD));
+            if (retention.isZero() || retention.isNegative()) {
+                return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Created %d partitions of certificate event history".formatted(created));
+            }
+
+            OffsetDateTime dropBefore = OffsetDateTime.now().minus(retention);
+            int dropped = certificateEventHistoryService.dropEventHistoryPartitionsBefore(dropBefore);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Created %d and dropped %d partitions of certificate event history older than %s".formatted(created, dropped, dropBefore));
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error maintaining partitions of certificate event history", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error maintaining partitions of certificate event history: " + e.getMessage());
+        }
+    }
+}
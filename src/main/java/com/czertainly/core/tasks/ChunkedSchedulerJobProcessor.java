@@ -0,0 +1,112 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.exception.SchedulerException;
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.dao.entity.ScheduledJob;
+import com.czertainly.core.dao.entity.ScheduledJobHistory;
+import com.czertainly.core.model.ScheduledTaskChunkResult;
+import com.czertainly.core.model.ScheduledTaskResult;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scheduler job processed in chunks, each of them in its own transaction. Checkpoint of the job is stored in job history
+ * together with changes of the chunk, so job interrupted e.g. by restart of the instance continues from the last checkpoint
+ * when it is executed again. Work of the chunk must join the transaction of the chunk, so it is committed or rolled back
+ * together with the checkpoint. Besides heartbeat renewal, lease of the job is checked before each chunk, so no chunk
+ * is processed after another instance took over the job.
+ */
+public abstract class ChunkedSchedulerJobProcessor extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedSchedulerJobProcessor.class);
+
+    /**
+     * Processes next chunk of the job. Method is called within transaction of the chunk.
+     *
+     * @param jobName    name of the job
+     * @param checkpoint checkpoint returned by previous chunk, null for first chunk of the job
+     * @return result of the chunk
+     */
+    abstract ScheduledTaskChunkResult processChunk(final String jobName, final String checkpoint);
+
+    /**
+     * Completes the job after all chunks are processed
+     *
+     * @param jobName        name of the job
+     * @param processedItems number of items processed by all chunks of the job
+     * @return result of the job
+     */
+    abstract ScheduledTaskResult completeJob(final String jobName, final int processedItems);
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public void processTask(final String jobName) throws SchedulerException, NotFoundException {
+        // job is not executed in single transaction, so connection is not held for whole duration of the job
+        super.processTask(jobName);
+    }
+
+    @Override
+    ScheduledTaskResult performJob(final String jobName) {
+        return processChunks(jobName, null);
+    }
+
+    @Override
+    ScheduledTaskResult executeJob(final String jobName, final ScheduledJobHistory scheduledJobHistory) {
+        return processChunks(jobName, scheduledJobHistory);
+    }
+
+    @Override
+    ScheduledJobHistory registerJobHistory(final ScheduledJob scheduledJob) {
+        // lease is held by this instance, so execution that is still started was interrupted and is resumed
+        final ScheduledJobHistory lastJobHistory = scheduledJobHistoryRepository.findTopByScheduledJobUuidOrderByJobExecutionDesc(scheduledJob.getUuid());
+        if (lastJobHistory != null && lastJobHistory.getSchedulerExecutionStatus() == SchedulerJobExecutionStatus.STARTED) {
+            logger.info("Resuming interrupted job {} from checkpoint {} with {} items processed.", scheduledJob.getJobName(), lastJobHistory.getCheckpoint(), lastJobHistory.getProcessedItems());
+            return lastJobHistory;
+        }
+        return super.registerJobHistory(scheduledJob);
+    }
+
+    private ScheduledTaskResult processChunks(final String jobName, final ScheduledJobHistory scheduledJobHistory) {
+        final TransactionTemplate chunkTransaction = new TransactionTemplate(transactionManager);
+        String checkpoint = scheduledJobHistory == null ? null : scheduledJobHistory.getCheckpoint();
+        int processedItems = scheduledJobHistory == null ? 0 : scheduledJobHistory.getProcessedItems();
+
+        while (true) {
+            if (scheduledJobHistory != null && !renewLease(jobName)) {
+                return null;
+            }
+
+            final String chunkCheckpoint = checkpoint;
+            final int chunkProcessedItems = processedItems;
+            final ScheduledTaskChunkResult chunkResult;
+            try {
+                chunkResult = chunkTransaction.execute(status -> {
+                    final ScheduledTaskChunkResult result = processChunk(jobName, chunkCheckpoint);
+                    if (scheduledJobHistory != null) {
+                        scheduledJobHistory.setCheckpoint(result.checkpoint());
+                        scheduledJobHistory.setProcessedItems(chunkProcessedItems + result.processedItems());
+                        scheduledJobHistoryRepository.save(scheduledJobHistory);
+                    }
+                    return result;
+                });
+            } catch (Exception e) {
+                if (scheduledJobHistory != null) {
+                    scheduledJobHistory.setCheckpoint(chunkCheckpoint);
+                    scheduledJobHistory.setProcessedItems(chunkProcessedItems);
+                }
+                logger.error(MarkerFactory.getMarker("scheduleInfo"), "Unable to process chunk of job {} from checkpoint {}", jobName, chunkCheckpoint, e);
+                return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Job failed after processing %d item(s): %s".formatted(processedItems, e.getMessage()));
+            }
+
+            checkpoint = chunkResult.checkpoint();
+            processedItems += chunkResult.processedItems();
+            if (chunkResult.finished()) {
+                return completeJob(jobName, processedItems);
+            }
+        }
+    }
+}
@@ -16,7 +16,6 @@ import com.czertainly.core.model.ScheduledTaskResult;
 import com.czertainly.core.service.DiscoveryService;
 import com.czertainly.core.util.AuthHelper;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.transaction.Transactional;
 import lombok.NoArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -29,7 +28,6 @@ import java.util.UUID;
 
 @Component
 @NoArgsConstructor
-@Transactional
 public class DiscoveryCertificateTask extends SchedulerJobProcessor {
 
     private static final Logger logger = LoggerFactory.getLogger(DiscoveryCertificateTask.class);
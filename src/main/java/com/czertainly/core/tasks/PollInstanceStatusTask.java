@@ -0,0 +1,139 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
+import com.czertainly.api.model.connector.cryptography.token.TokenInstanceStatusDto;
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.dao.repository.AuthorityInstanceReferenceRepository;
+import com.czertainly.core.dao.repository.EntityInstanceReferenceRepository;
+import com.czertainly.core.dao.repository.TokenInstanceReferenceRepository;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.handler.InstanceStatusPoller;
+import com.czertainly.core.service.handler.InstanceStatusPoller.PolledInstance;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Job polling status of instances. Instances are loaded and polled statuses stored in short transactions,
+ * connectors are called outside of transaction, so database connection is not held while waiting for them.
+ */
+@Component
+@NoArgsConstructor
+public class PollInstanceStatusTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PollInstanceStatusTask.class);
+
+    private static final String JOB_NAME = "pollInstanceStatusJob";
+    private static final String CRON_EXPRESSION = "0 0/5 * ? * *";
+
+    private InstanceStatusPoller instanceStatusPoller;
+    private TokenInstanceReferenceRepository tokenInstanceReferenceRepository;
+    private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
+    private EntityInstanceReferenceRepository entityInstanceReferenceRepository;
+
+    @Autowired
+    public void setInstanceStatusPoller(InstanceStatusPoller instanceStatusPoller) {
+        this.instanceStatusPoller = instanceStatusPoller;
+    }
+
+    @Autowired
+    public void setTokenInstanceReferenceRepository(TokenInstanceReferenceRepository tokenInstanceReferenceRepository) {
+        this.tokenInstanceReferenceRepository = tokenInstanceReferenceRepository;
+    }
+
+    @Autowired
+    public void setAuthorityInstanceReferenceRepository(AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository) {
+        this.authorityInstanceReferenceRepository = authorityInstanceReferenceRepository;
+    }
+
+    @Autowired
+    public void setEntityInstanceReferenceRepository(EntityInstanceReferenceRepository entityInstanceReferenceRepository) {
+        this.entityInstanceReferenceRepository = entityInstanceReferenceRepository;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        try {
+            TransactionTemplate readTransaction = new TransactionTemplate(transactionManager);
+            readTransaction.setReadOnly(true);
+            TransactionTemplate writeTransaction = new TransactionTemplate(transactionManager);
+
+            List<PolledInstance> tokenInstances = readTransaction.execute(status -> tokenInstanceReferenceRepository.findAll().stream()
+                    .filter(instance -> instance.getConnector() != null)
+                    .map(instance -> new PolledInstance(instance.getUuid(), instance.getName(), instance.getConnector().mapToDto(), instance.getTokenInstanceUuid()))
+                    .toList());
+            Map<UUID, TokenInstanceStatusDto> tokenStatuses = instanceStatusPoller.pollTokenInstances(tokenInstances);
+            OffsetDateTime tokensCheckedAt = OffsetDateTime.now();
+            writeTransaction.executeWithoutResult(status -> tokenStatuses.forEach((uuid, tokenStatus) ->
+                    tokenInstanceReferenceRepository.updateStatus(uuid, tokenStatus.getStatus(), tokenStatus, tokensCheckedAt)));
+
+            List<PolledInstance> authorityInstances = readTransaction.execute(status -> authorityInstanceReferenceRepository.findAll().stream()
+                    .filter(instance -> instance.getConnector() != null)
+                    .map(instance -> new PolledInstance(instance.getUuid(), instance.getName(), instance.getConnector().mapToDto(), instance.getAuthorityInstanceUuid()))
+                    .toList());
+            Map<UUID, String> authorityStatuses = instanceStatusPoller.pollAuthorityInstances(authorityInstances);
+            OffsetDateTime authoritiesCheckedAt = OffsetDateTime.now();
+            writeTransaction.executeWithoutResult(status -> groupByStatus(authorityStatuses).forEach((instanceStatus, uuids) ->
+                    authorityInstanceReferenceRepository.updateStatus(uuids, instanceStatus, authoritiesCheckedAt)));
+
+            List<PolledInstance> entityInstances = readTransaction.execute(status -> entityInstanceReferenceRepository.findAll().stream()
+                    .filter(instance -> instance.getConnector() != null)
+                    .map(instance -> new PolledInstance(instance.getUuid(), instance.getName(), instance.getConnector().mapToDto(), instance.getEntityInstanceUuid()))
+                    .toList());
+            Map<UUID, String> entityStatuses = instanceStatusPoller.pollEntityInstances(entityInstances);
+            OffsetDateTime entitiesCheckedAt = OffsetDateTime.now();
+            writeTransaction.executeWithoutResult(status -> groupByStatus(entityStatuses).forEach((instanceStatus, uuids) ->
+                    entityInstanceReferenceRepository.updateStatus(uuids, instanceStatus, entitiesCheckedAt)));
+
+            long tokensRetrieved = tokenStatuses.values().stream().filter(tokenStatus -> tokenStatus.getStatus() != TokenInstanceStatus.UNKNOWN).count();
+            String message = "Status retrieved for %d of %d token instances, %d of %d authority instances and %d of %d entity instances"
+                    .formatted(tokensRetrieved, tokenInstances.size(), countConnected(authorityStatuses), authorityInstances.size(), countConnected(entityStatuses), entityInstances.size());
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, message);
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error polling status of instances", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error polling status of instances: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, List<UUID>> groupByStatus(Map<UUID, String> statuses) {
+        Map<String, List<UUID>> uuidsByStatus = new HashMap<>();
+        statuses.forEach((uuid, status) -> uuidsByStatus.computeIfAbsent(status, k -> new ArrayList<>()).add(uuid));
+        return uuidsByStatus;
+    }
+
+    private static long countConnected(Map<UUID, String> statuses) {
+        return statuses.values().stream().filter(InstanceStatusPoller.INSTANCE_STATUS_CONNECTED::equals).count();
+    }
+}
@@ -0,0 +1,89 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.NotificationService;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class PurgeReadNotificationsTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeReadNotificationsTask.class);
+
+    private static final String JOB_NAME = "purgeReadNotificationsJob";
+    private static final String CRON_EXPRESSION = "0 45 2 ? * *";
+
+    private static final int DELETE_CHUNK_SIZE = 5000;
+
+    // zero or negative retention keeps read notifications forever
+    @Value("${notification.read-retention:P30D}")
+    private Duration retention;
+
+    private NotificationService notificationService;
+
+    @Autowired
+    public void setNotificationService(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        if (retention.isZero() || retention.isNegative()) {
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Retention of read notifications is not configured");
+        }
+
+        OffsetDateTime purgeBefore = OffsetDateTime.now().minus(retention);
+        long deletedRecipients = 0;
+        int deleted;
+        try {
+            // each chunk is deleted in its own transaction to keep transactions and locks short
+            do {
+                deleted = notificationService.deleteReadNotificationsBefore(purgeBefore, DELETE_CHUNK_SIZE);
+                deletedRecipients += deleted;
+            } while (deleted == DELETE_CHUNK_SIZE);
+            // notification is read after it is sent, so notifications of all purged recipients were sent before purge time
+            int deletedNotifications = notificationService.deleteNotificationsWithoutRecipientsBefore(purgeBefore);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Purged %d read notifications of users and %d notifications without recipients read before %s".formatted(deletedRecipients, deletedNotifications, purgeBefore));
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error purging read notifications", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Purged %d read notifications of users before error: %s".formatted(deletedRecipients, e.getMessage()));
+        }
+    }
+}
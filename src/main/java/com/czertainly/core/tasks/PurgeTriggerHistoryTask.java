@@ -0,0 +1,88 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.TriggerService;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class PurgeTriggerHistoryTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PurgeTriggerHistoryTask.class);
+
+    private static final String JOB_NAME = "purgeTriggerHistoryJob";
+    private static final String CRON_EXPRESSION = "0 30 2 ? * *";
+
+    private static final int DELETE_CHUNK_SIZE = 5000;
+
+    // zero or negative retention keeps trigger histories forever
+    @Value("${trigger.history.retention:P90D}")
+    private Duration retention;
+
+    private TriggerService triggerService;
+
+    @Autowired
+    public void setTriggerService(TriggerService triggerService) {
+        this.triggerService = triggerService;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        if (retention.isZero() || retention.isNegative()) {
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Retention of trigger histories is not configured");
+        }
+
+        OffsetDateTime purgeBefore = OffsetDateTime.now().minus(retention);
+        long deletedHistories = 0;
+        int deleted;
+        try {
+            // each chunk is deleted in its own transaction to keep transactions and locks short
+            do {
+                deleted = triggerService.deleteTriggerHistoriesBefore(purgeBefore, DELETE_CHUNK_SIZE);
+                deletedHistories += deleted;
+            } while (deleted == DELETE_CHUNK_SIZE);
+            int deletedSummaries = triggerService.deleteTriggerHistorySummariesBefore(purgeBefore);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Purged %d trigger histories and %d trigger history summaries older than %s".formatted(deletedHistories, deletedSummaries, purgeBefore));
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error purging trigger histories", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Purged %d trigger histories before error: %s".formatted(deletedHistories, e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.v2.ClientOperationService;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class RecoverPendingCertificateOperationsTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecoverPendingCertificateOperationsTask.class);
+
+    private static final String JOB_NAME = "recoverPendingCertificateOperationsJob";
+    private static final String CRON_EXPRESSION = "0 0/15 * ? * *";
+
+    @Value("${certificate.pending-operation.timeout:PT1H}")
+    private Duration pendingOperationTimeout;
+
+    private ClientOperationService clientOperationService;
+
+    @Autowired
+    public void setClientOperationService(ClientOperationService clientOperationService) {
+        this.clientOperationService = clientOperationService;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        try {
+            int recovered = clientOperationService.recoverPendingCertificateOperations(OffsetDateTime.now().minus(pendingOperationTimeout));
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Resolved %d pending certificate operation(s) not finished within %s".formatted(recovered, pendingOperationTimeout));
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error recovering pending certificate operations", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error recovering pending certificate operations: " + e.getMessage());
+        }
+    }
+}
@@ -15,11 +15,29 @@ public class ScheduledTasks {
 
     UpdateIntuneRevocationRequestsTask updateIntuneRevocationRequestsTask;
 
+    SyncAuthIdentitiesTask syncAuthIdentitiesTask;
+
+    PurgeTriggerHistoryTask purgeTriggerHistoryTask;
+
+    CertificateEventHistoryPartitionTask certificateEventHistoryPartitionTask;
+
+    PollInstanceStatusTask pollInstanceStatusTask;
+
+    RecoverPendingCertificateOperationsTask recoverPendingCertificateOperationsTask;
+
+    PurgeReadNotificationsTask purgeReadNotificationsTask;
+
     @Bean
     @ConditionalOnProperty(value = "scheduled-tasks.enabled", matchIfMissing = true, havingValue = "true")
     public Void registerJobs() throws SchedulerException {
         updateCertificateStatusTask.registerScheduler();
         updateIntuneRevocationRequestsTask.registerScheduler();
+        syncAuthIdentitiesTask.registerScheduler();
+        purgeTriggerHistoryTask.registerScheduler();
+        certificateEventHistoryPartitionTask.registerScheduler();
+        pollInstanceStatusTask.registerScheduler();
+        recoverPendingCertificateOperationsTask.registerScheduler();
+        purgeReadNotificationsTask.registerScheduler();
         return null;
     }
 
@@ -34,4 +52,34 @@ public class ScheduledTasks {
     public void setUpdateIntuneRevocationRequestsTask(UpdateIntuneRevocationRequestsTask updateIntuneRevocationRequestsTask) {
         this.updateIntuneRevocationRequestsTask = updateIntuneRevocationRequestsTask;
     }
+
+    @Autowired
+    public void setSyncAuthIdentitiesTask(SyncAuthIdentitiesTask syncAuthIdentitiesTask) {
+        this.syncAuthIdentitiesTask = syncAuthIdentitiesTask;
+    }
+
+    @Autowired
+    public void setPurgeTriggerHistoryTask(PurgeTriggerHistoryTask purgeTriggerHistoryTask) {
+        this.purgeTriggerHistoryTask = purgeTriggerHistoryTask;
+    }
+
+    @Autowired
+    public void setCertificateEventHistoryPartitionTask(CertificateEventHistoryPartitionTask certificateEventHistoryPartitionTask) {
+        this.certificateEventHistoryPartitionTask = certificateEventHistoryPartitionTask;
+    }
+
+    @Autowired
+    public void setPollInstanceStatusTask(PollInstanceStatusTask pollInstanceStatusTask) {
+        this.pollInstanceStatusTask = pollInstanceStatusTask;
+    }
+
+    @Autowired
+    public void setRecoverPendingCertificateOperationsTask(RecoverPendingCertificateOperationsTask recoverPendingCertificateOperationsTask) {
+        this.recoverPendingCertificateOperationsTask = recoverPendingCertificateOperationsTask;
+    }
+
+    @Autowired
+    public void setPurgeReadNotificationsTask(PurgeReadNotificationsTask purgeReadNotificationsTask) {
+        this.purgeReadNotificationsTask = purgeReadNotificationsTask;
+    }
 }
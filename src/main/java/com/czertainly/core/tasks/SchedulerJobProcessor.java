@@ -18,16 +18,37 @@ import com.czertainly.core.security.authn.CzertainlyUserDetails;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 public abstract class SchedulerJobProcessor {
 
     private Logger logger = LoggerFactory.getLogger(SchedulerJobProcessor.class);
 
+    // identification of this instance of application as owner of job leases
+    private static final String LEASE_OWNER = UUID.randomUUID().toString();
+
+    // leases of running jobs are renewed by heartbeat, so lease of long job does not expire while the job is still executed
+    private static final ScheduledExecutorService leaseHeartbeatExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("scheduler-job-lease-heartbeat").factory());
+
+    @Value("${scheduler.job.lease-duration:PT5M}")
+    private Duration leaseDuration;
+
+    protected PlatformTransactionManager transactionManager;
+
     protected SchedulerApiClient schedulerApiClient;
 
     protected ScheduledJobsRepository scheduledJobsRepository;
@@ -51,6 +72,11 @@ public abstract class SchedulerJobProcessor {
         this.scheduledJobHistoryRepository = scheduledJobHistoryRepository;
     }
 
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager;
+    }
+
     @Autowired
     public void setNotificationProducer(NotificationProducer notificationProducer) {
         this.notificationProducer = notificationProducer;
@@ -83,10 +109,85 @@ public abstract class SchedulerJobProcessor {
     }
 
     public void processTask(final String jobName) throws SchedulerException, NotFoundException {
-        final ScheduledJobHistory scheduledJobHistory = registerJobHistory(jobName);
-        final ScheduledTaskResult result = performJob(jobName);
-        updateJobHistory(scheduledJobHistory, result);
-        checkOneTimeJob(jobName, result.getStatus());
+        final ScheduledJob scheduledJob = scheduledJobsRepository.findByJobName(jobName);
+        if (scheduledJob == null) {
+            logger.error("There is no such job {} registered.", jobName);
+            throw new NotFoundException("Scheduled job with name %s not found.".formatted(jobName));
+        }
+
+        if (!renewLease(jobName)) {
+            logger.info("Job {} is already being executed by another instance, execution skipped.", jobName);
+            return;
+        }
+
+        final ScheduledFuture<?> leaseHeartbeat = startLeaseHeartbeat(jobName);
+        try {
+            final ScheduledJobHistory scheduledJobHistory = registerJobHistory(scheduledJob);
+            final ScheduledTaskResult result = executeJob(jobName, scheduledJobHistory);
+            if (result == null) {
+                logger.warn("Lease of job {} expired during execution, job is left to be finished by instance holding the lease.", jobName);
+                return;
+            }
+            updateJobHistory(scheduledJobHistory, result);
+            checkOneTimeJob(jobName, result.getStatus());
+        } finally {
+            leaseHeartbeat.cancel(false);
+            releaseLease(jobName);
+        }
+    }
+
+    /**
+     * Executes the job
+     *
+     * @param jobName             name of the job
+     * @param scheduledJobHistory history of current execution of the job
+     * @return result of the job, null when lease of the job was lost and job is not finished by this instance
+     */
+    ScheduledTaskResult executeJob(final String jobName, final ScheduledJobHistory scheduledJobHistory) {
+        return performJob(jobName);
+    }
+
+    /**
+     * Acquires lease of the job for this instance or prolongs lease already held. Lease is written in separate transaction,
+     * so it is visible to other instances immediately.
+     *
+     * @param jobName name of the job
+     * @return true if this instance holds the lease
+     */
+    boolean renewLease(final String jobName) {
+        final OffsetDateTime now = OffsetDateTime.now();
+        final Integer acquired = newTransaction().execute(status -> scheduledJobsRepository.acquireLease(jobName, LEASE_OWNER, now.plus(leaseDuration), now));
+        return acquired != null && acquired > 0;
+    }
+
+    /**
+     * Starts periodic renewal of lease of the job held by this instance, lease is renewed three times within its duration
+     *
+     * @param jobName name of the job
+     * @return heartbeat to be cancelled when job execution ends
+     */
+    private ScheduledFuture<?> startLeaseHeartbeat(final String jobName) {
+        final long interval = Math.max(1, leaseDuration.toMillis() / 3);
+        return leaseHeartbeatExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                final Integer prolonged = newTransaction().execute(status -> scheduledJobsRepository.prolongLease(jobName, LEASE_OWNER, OffsetDateTime.now().plus(leaseDuration)));
+                if (prolonged == null || prolonged == 0) {
+                    logger.warn("Lease of job {} is no longer held by this instance and cannot be renewed.", jobName);
+                }
+            } catch (Exception e) {
+                logger.warn("Unable to renew lease of job {}: {}", jobName, e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private void releaseLease(final String jobName) {
+        newTransaction().executeWithoutResult(status -> scheduledJobsRepository.releaseLease(jobName, LEASE_OWNER));
+    }
+
+    private TransactionTemplate newTransaction() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transactionTemplate;
     }
 
     private void checkOneTimeJob(final String jobName, final SchedulerJobExecutionStatus status) throws SchedulerException {
@@ -107,13 +208,7 @@ public abstract class SchedulerJobProcessor {
         }
     }
 
-    private ScheduledJobHistory registerJobHistory(final String jobName) throws NotFoundException {
-        final ScheduledJob scheduledJob = scheduledJobsRepository.findByJobName(jobName);
-        if (scheduledJob == null) {
-            logger.error("There is no such job {} registered.", jobName);
-            throw new NotFoundException("Scheduled job with name %s not found.".formatted(jobName));
-        }
-
+    ScheduledJobHistory registerJobHistory(final ScheduledJob scheduledJob) {
         final ScheduledJobHistory scheduledJobHistory = new ScheduledJobHistory();
         scheduledJobHistory.setScheduledJobUuid(scheduledJob.getUuid());
         scheduledJobHistory.setJobExecution(new Date());
@@ -0,0 +1,68 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.auth.AuthIdentityReplica;
+import com.czertainly.core.model.ScheduledTaskResult;
+import jakarta.transaction.Transactional;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MarkerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@NoArgsConstructor
+@Transactional
+public class SyncAuthIdentitiesTask extends SchedulerJobProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncAuthIdentitiesTask.class);
+
+    // scheduled for every 15 minutes, to catch changes of users and roles not made through Core
+    private static final String CRON_EXPRESSION = "0 0/15 * ? * *";
+
+    private static final String JOB_NAME = "syncAuthIdentitiesJob";
+
+    private AuthIdentityReplica authIdentityReplica;
+
+    @Autowired
+    public void setAuthIdentityReplica(AuthIdentityReplica authIdentityReplica) {
+        this.authIdentityReplica = authIdentityReplica;
+    }
+
+    @Override
+    String getDefaultJobName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    String getDefaultCronExpression() {
+        return CRON_EXPRESSION;
+    }
+
+    @Override
+    boolean isDefaultOneTimeJob() {
+        return false;
+    }
+
+    @Override
+    String getJobClassName() {
+        return this.getClass().getName();
+    }
+
+    @Override
+    boolean systemJob() {
+        return true;
+    }
+
+    @Override
+    public ScheduledTaskResult performJob(String jobName) {
+        try {
+            authIdentityReplica.synchronize();
+        } catch (Exception e) {
+            logger.error(MarkerFactory.getMarker("scheduleInfo"), "Error synchronizing users and roles with Auth service", e);
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.FAILED, "Error synchronizing users and roles with Auth service: " + e.getMessage());
+        }
+        return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Synchronized %d users and %d roles".formatted(authIdentityReplica.getUsers().size(), authIdentityReplica.getRoles().size()));
+    }
+}
@@ -4,6 +4,7 @@ import com.czertainly.api.model.core.audit.ObjectType;
 import com.czertainly.api.model.core.audit.OperationType;
 import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
 import com.czertainly.core.aop.AuditLogged;
+import com.czertainly.core.model.ScheduledTaskChunkResult;
 import com.czertainly.core.model.ScheduledTaskResult;
 import com.czertainly.core.service.ApprovalService;
 import com.czertainly.core.service.CertificateService;
@@ -15,11 +16,13 @@ import org.springframework.stereotype.Component;
 @Component
 @NoArgsConstructor
 @Transactional
-public class UpdateCertificateStatusTask extends SchedulerJobProcessor {
+public class UpdateCertificateStatusTask extends ChunkedSchedulerJobProcessor {
 
     private static final String JOB_NAME = "updateCertificateStatusJob";
     private static final String CRON_EXPRESSION = "0 0 * ? * *";
 
+    private static final int CHUNK_SIZE = 100;
+
     private ApprovalService approvalService;
     private CertificateService certificateService;
 
@@ -48,13 +51,24 @@ public class UpdateCertificateStatusTask extends SchedulerJobProcessor {
         return true;
     }
 
+    @Override
+    ScheduledTaskChunkResult processChunk(final String jobName, final String checkpoint) {
+        // checkpoint is number of certificates remaining to be checked in current run, checked certificates get new status validation
+        // timestamp even when their check fails, so every chunk selects certificates not checked in current run yet
+        int remaining = checkpoint == null ? certificateService.getCertificatesStatusUpdateCount() : Integer.parseInt(checkpoint);
+        int chunkSize = Math.min(CHUNK_SIZE, remaining);
+        int certificatesChecked = chunkSize > 0 ? certificateService.updateCertificatesStatusScheduled(chunkSize) : 0;
+        remaining -= certificatesChecked;
+
+        return new ScheduledTaskChunkResult(String.valueOf(remaining), certificatesChecked, remaining <= 0 || certificatesChecked < chunkSize);
+    }
+
     @Override
     @AuditLogged(originator = ObjectType.SCHEDULER, affected = ObjectType.CERTIFICATE, operation = OperationType.UPDATE)
-    public ScheduledTaskResult performJob(final String jobName) {
-        int certificatesUpdated = certificateService.updateCertificatesStatusScheduled();
+    public ScheduledTaskResult completeJob(final String jobName, final int processedItems) {
         int expiredApprovals = approvalService.checkApprovalsExpiration();
 
-        String message = "Updated status of %d certificate(s).".formatted(certificatesUpdated);
+        String message = "Checked status of %d certificate(s).".formatted(processedItems);
         if(expiredApprovals > 0) {
             message += " Expired %d approval(s).".formatted(expiredApprovals);
         }
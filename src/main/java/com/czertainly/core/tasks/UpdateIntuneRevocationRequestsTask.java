@@ -12,6 +12,7 @@ import com.czertainly.core.dao.repository.scep.ScepProfileRepository;
 import com.czertainly.core.intune.carequest.CARequestErrorCodes;
 import com.czertainly.core.intune.carequest.CARevocationRequest;
 import com.czertainly.core.intune.carequest.CARevocationResult;
+import com.czertainly.core.intune.IntuneClientRegistry;
 import com.czertainly.core.intune.scepvalidation.IntuneRevocationClient;
 import com.czertainly.core.model.ScheduledTaskResult;
 import com.czertainly.core.security.authz.SecuredParentUUID;
@@ -27,13 +28,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MarkerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.security.auth.x500.X500Principal;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Properties;
 import java.util.UUID;
 
 @Component
@@ -48,9 +47,6 @@ public class UpdateIntuneRevocationRequestsTask extends SchedulerJobProcessor {
 
     private static final String JOB_NAME = "updateIntuneRevocationRequestsJob";
 
-    @Value("${app.version}")
-    private String appVersion;
-
     private static final int MAX_CA_REQUESTS_TO_DOWNLOAD = 500;
 
     @Autowired
@@ -62,6 +58,9 @@ public class UpdateIntuneRevocationRequestsTask extends SchedulerJobProcessor {
     @Autowired
     private ClientOperationService clientOperationService;
 
+    @Autowired
+    private IntuneClientRegistry intuneClientRegistry;
+
     private AuthHelper authHelper;
 
     @Autowired
@@ -103,13 +102,7 @@ public class UpdateIntuneRevocationRequestsTask extends SchedulerJobProcessor {
         for (ScepProfile scepProfile : scepProfiles) {
             logger.info(MarkerFactory.getMarker("scheduleInfo"), "Processing Intune revocation requests for SCEP profile: {}", scepProfile.getName());
 
-            Properties configProperties = new Properties();
-            configProperties.put("AAD_APP_ID", scepProfile.getIntuneApplicationId());
-            configProperties.put("AAD_APP_KEY", scepProfile.getIntuneApplicationKey());
-            configProperties.put("TENANT", scepProfile.getIntuneTenant());
-            configProperties.put("PROVIDER_NAME_AND_VERSION", "CZERTAINLY-V" + appVersion);
-
-            IntuneRevocationClient intuneRevocationClient = new IntuneRevocationClient(configProperties);
+            IntuneRevocationClient intuneRevocationClient = intuneClientRegistry.getRevocationClient(scepProfile);
 
             List<CARevocationRequest> revocationRequests;
             try {
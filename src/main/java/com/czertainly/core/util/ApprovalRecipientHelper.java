@@ -3,19 +3,16 @@ package com.czertainly.core.util;
 import com.czertainly.api.model.client.approval.ApprovalDetailStepDto;
 import com.czertainly.api.model.client.approval.ApprovalStepRecipientDto;
 import com.czertainly.api.model.client.approvalprofile.ApprovalStepDto;
-import com.czertainly.api.model.core.auth.RoleDto;
-import com.czertainly.api.model.core.auth.UserDto;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.dao.entity.Group;
 import com.czertainly.core.dao.repository.GroupRepository;
-import com.czertainly.core.security.authn.client.RoleManagementApiClient;
-import com.czertainly.core.security.authn.client.UserManagementApiClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -24,12 +21,9 @@ public class ApprovalRecipientHelper {
     private static final Logger logger = LoggerFactory.getLogger(ApprovalRecipientHelper.class);
 
     private GroupRepository groupRepository;
-    private UserManagementApiClient userManagementApiClient;
-    private RoleManagementApiClient roleManagementApiClient;
+    private AuthIdentityReplica authIdentityReplica;
 
     private Map<String, String> groupNames;
-    private Map<String, String> userNames;
-    private Map<String, String> roleNames;
 
     @Autowired
     public void setGroupRepository(GroupRepository groupRepository) {
@@ -37,29 +31,16 @@ public class ApprovalRecipientHelper {
     }
 
     @Autowired
-    public void setUserManagementApiClient(UserManagementApiClient userManagementApiClient) {
-        this.userManagementApiClient = userManagementApiClient;
-    }
-
-    @Autowired
-    public void setRoleManagementApiClient(RoleManagementApiClient roleManagementApiClient) {
-        this.roleManagementApiClient = roleManagementApiClient;
+    public void setAuthIdentityReplica(AuthIdentityReplica authIdentityReplica) {
+        this.authIdentityReplica = authIdentityReplica;
     }
 
     public String getUsername(String userUuid) {
-        if(userNames == null) {
-            loadUsers();
-        }
-
-        return this.userNames.get(userUuid);
+        return authIdentityReplica.findUser(UUID.fromString(userUuid)).map(AuthIdentityReplica.UserInfo::username).orElse(null);
     }
 
     public String getRoleName(String roleUuid) {
-        if(roleNames == null) {
-            loadRoles();
-        }
-
-        return this.roleNames.get(roleUuid);
+        return authIdentityReplica.findRole(UUID.fromString(roleUuid)).map(AuthIdentityReplica.RoleInfo::name).orElse(null);
     }
 
     public String getGroupName(String groupUuid) {
@@ -86,26 +67,6 @@ public class ApprovalRecipientHelper {
         }
     }
 
-    private void loadUsers() {
-        try {
-            this.userNames = this.userManagementApiClient.getUsers().getData().stream().collect(Collectors.toMap(UserDto::getUuid, UserDto::getUsername));
-        }
-        catch (Exception e) {
-            logger.error("Failed to load usernames from Auth service: {}", e.getMessage());
-            this.userNames = new HashMap<>();
-        }
-    }
-
-    private void loadRoles() {
-        try {
-            this.roleNames = this.roleManagementApiClient.getRoles().getData().stream().collect(Collectors.toMap(RoleDto::getUuid, RoleDto::getName));
-        }
-        catch (Exception e) {
-            logger.error("Failed to load role names from Auth service: {}", e.getMessage());
-            this.roleNames = new HashMap<>();
-        }
-    }
-
     private void loadGroups() {
         this.groupNames = this.groupRepository.findAll().stream().collect(Collectors.toMap(g -> g.getUuid().toString(), Group::getName));
     }
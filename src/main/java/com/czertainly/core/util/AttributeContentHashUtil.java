@@ -0,0 +1,84 @@
+package com.czertainly.core.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes stable hashes of attribute content items JSON. Hash is computed over canonical form of JSON
+ * (object keys sorted, null values omitted), so content serialized by different mappers or read back from
+ * JSONB column produces the same hash.
+ */
+public class AttributeContentHashUtil {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private AttributeContentHashUtil() {
+    }
+
+    /**
+     * Computes hash of attribute content item object
+     *
+     * @param content attribute content item
+     * @return hex encoded SHA-256 hash of canonical JSON of content, null if content is null
+     */
+    public static String hash(Object content) {
+        if (content == null) {
+            return null;
+        }
+        return hashCanonical(OBJECT_MAPPER.convertValue(content, Object.class));
+    }
+
+    /**
+     * Computes hash of attribute content item serialized as JSON string
+     *
+     * @param json JSON of attribute content item
+     * @return hex encoded SHA-256 hash of canonical JSON of content, null if JSON is null
+     */
+    public static String hashJson(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return hashCanonical(OBJECT_MAPPER.readValue(json, Object.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to parse attribute content JSON", e);
+        }
+    }
+
+    private static String hashCanonical(Object value) {
+        try {
+            byte[] canonicalJson = OBJECT_MAPPER.writeValueAsBytes(canonicalize(value));
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(canonicalJson));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Unable to compute hash of attribute content", e);
+        }
+    }
+
+    private static Object canonicalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (entry.getValue() != null) {
+                    sorted.put(entry.getKey().toString(), canonicalize(entry.getValue()));
+                }
+            }
+            return sorted;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> items = new ArrayList<>(list.size());
+            for (Object item : list) {
+                items.add(canonicalize(item));
+            }
+            return items;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,92 @@
+package com.czertainly.core.util;
+
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Typed values of attribute content item stored in dedicated indexed columns and used for filtering by attribute content.
+ * String value holds the same text as is returned by <code>jsonb_extract_path_text</code> of data or reference of content item,
+ * typed value is filled only for the column corresponding to attribute content type.
+ *
+ * @param stringValue   text of data or reference of content item
+ * @param numberValue   value of integer and float content
+ * @param dateValue     value of date content
+ * @param timeValue     value of time content
+ * @param datetimeValue value of datetime content
+ * @param booleanValue  value of boolean content
+ */
+public record AttributeContentSearchValues(
+        String stringValue,
+        Double numberValue,
+        LocalDate dateValue,
+        LocalTime timeValue,
+        OffsetDateTime datetimeValue,
+        Boolean booleanValue
+) {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().findAndRegisterModules();
+
+    private static final AttributeContentSearchValues EMPTY = new AttributeContentSearchValues(null, null, null, null, null, null);
+
+    /**
+     * Computes search values from attribute content item object
+     *
+     * @param content     attribute content item
+     * @param contentType content type of attribute definition
+     * @return search values of content item
+     */
+    public static AttributeContentSearchValues fromContent(Object content, AttributeContentType contentType) {
+        if (content == null) {
+            return EMPTY;
+        }
+        return fromJsonNode(OBJECT_MAPPER.convertValue(content, JsonNode.class), contentType);
+    }
+
+    /**
+     * Computes search values from attribute content item serialized as JSON string
+     *
+     * @param json        JSON of attribute content item
+     * @param contentType content type of attribute definition
+     * @return search values of content item
+     */
+    public static AttributeContentSearchValues fromJson(String json, AttributeContentType contentType) {
+        if (json == null) {
+            return EMPTY;
+        }
+        try {
+            return fromJsonNode(OBJECT_MAPPER.readTree(json), contentType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to parse attribute content JSON", e);
+        }
+    }
+
+    private static AttributeContentSearchValues fromJsonNode(JsonNode contentNode, AttributeContentType contentType) {
+        JsonNode valueNode = contentNode == null ? null : contentNode.get(contentType.isFilterByData() ? "data" : "reference");
+        if (valueNode == null || valueNode.isNull()) {
+            return EMPTY;
+        }
+
+        String value = valueNode.isValueNode() ? valueNode.asText() : valueNode.toString();
+        try {
+            return switch (contentType) {
+                case INTEGER, FLOAT -> new AttributeContentSearchValues(value, Double.parseDouble(value), null, null, null, null);
+                case DATE -> new AttributeContentSearchValues(value, null, LocalDate.parse(value), null, null, null);
+                case TIME -> new AttributeContentSearchValues(value, null, null, LocalTime.parse(value), null, null);
+                case DATETIME -> new AttributeContentSearchValues(value, null, null, null, ZonedDateTime.parse(value).toOffsetDateTime(), null);
+                case BOOLEAN -> new AttributeContentSearchValues(value, null, null, null, null, Boolean.parseBoolean(value));
+                default -> new AttributeContentSearchValues(value, null, null, null, null, null);
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            // content not matching its content type is still searchable by its text
+            return new AttributeContentSearchValues(value, null, null, null, null, null);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.czertainly.core.util;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Buffer of items written in batches by background thread, so threads producing the items do not wait for their writes.
+ * Buffered items are written when batch is full, periodically when flush interval is set and when flushed explicitly.
+ * Failed batch is retried with backoff and then written item by item, so only items that cannot be written at all are dropped.
+ * Writer of batch has to write the whole batch or nothing, so no item is written twice when batch is retried.
+ *
+ * @param <T> type of written items
+ */
+public class BufferedBatchWriter<T> implements AutoCloseable, MeterBinder {
+
+    public static final String DROPPED_ITEMS_METRIC = "czertainly.batch-writer.dropped";
+
+    private static final Logger logger = LoggerFactory.getLogger(BufferedBatchWriter.class);
+
+    private static final int MAX_BUFFERED_BATCHES = 20;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String name;
+    private final int batchSize;
+    private final Duration retryBackoff;
+    private final Consumer<List<T>> batchWriter;
+
+    private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final ScheduledExecutorService flushExecutor;
+
+    /**
+     * @param name          name of writer and its background thread
+     * @param batchSize     maximum number of items written in one batch
+     * @param flushInterval interval of periodic writes of buffered items, null to write them only when batch is full
+     * @param batchWriter   writer of one batch of items
+     */
+    public BufferedBatchWriter(String name, int batchSize, Duration flushInterval, Consumer<List<T>> batchWriter) {
+        this(name, batchSize, flushInterval, Duration.ofMillis(500), batchWriter);
+    }
+
+    /**
+     * @param name          name of writer and its background thread
+     * @param batchSize     maximum number of items written in one batch
+     * @param flushInterval interval of periodic writes of buffered items, null to write them only when batch is full
+     * @param retryBackoff  delay before first retry of failed batch, doubled for each next retry
+     * @param batchWriter   writer of one batch of items
+     */
+    public BufferedBatchWriter(String name, int batchSize, Duration flushInterval, Duration retryBackoff, Consumer<List<T>> batchWriter) {
+        this.name = name;
+        this.batchSize = Math.max(1, batchSize);
+        this.retryBackoff = retryBackoff;
+        this.batchWriter = batchWriter;
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name(name).factory());
+
+        if (flushInterval != null && flushInterval.isPositive()) {
+            long interval = flushInterval.toMillis();
+            flushExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Adds items to be written
+     *
+     * @param items items to write
+     */
+    public void add(Collection<? extends T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        buffer.addAll(items);
+        int buffered = bufferedCount.addAndGet(items.size());
+        if (buffered >= MAX_BUFFERED_BATCHES * batchSize) {
+            // background writer does not keep up, write items by calling thread to limit size of buffer
+            flush();
+        } else if (buffered >= batchSize && flushScheduled.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    /**
+     * Writes all buffered items
+     */
+    public synchronized void flush() {
+        List<T> batch = new ArrayList<>(batchSize);
+        T item;
+        while ((item = buffer.poll()) != null) {
+            bufferedCount.decrementAndGet();
+            batch.add(item);
+            if (batch.size() >= batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Stops background thread, waits for batches it is writing and writes all remaining buffered items
+     */
+    @Override
+    public void close() {
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Background thread of {} did not finish writing in {}", name, CLOSE_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        if (droppedCount.get() > 0) {
+            logger.warn("{} dropped {} items that could not be written", name, droppedCount.get());
+        }
+    }
+
+    /**
+     * @return number of items dropped since writer was created, because they could not be written
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(DROPPED_ITEMS_METRIC, droppedCount, AtomicLong::get)
+                .description("Number of items dropped by buffered batch writer, because they could not be written")
+                .tag("writer", name)
+                .register(registry);
+    }
+
+    private void writeBatch(List<T> batch) {
+        Exception failure = null;
+        for (int attempt = 1; attempt <= MAX_WRITE_ATTEMPTS; attempt++) {
+            try {
+                batchWriter.accept(batch);
+                return;
+            } catch (Exception e) {
+                failure = e;
+                logger.warn("Attempt {} to write batch of {} items by {} failed: {}", attempt, batch.size(), name, e.getMessage());
+                if (attempt < MAX_WRITE_ATTEMPTS && !sleep(retryBackoff.multipliedBy(1L << (attempt - 1)))) {
+                    break;
+                }
+            }
+        }
+
+        if (batch.size() == 1) {
+            drop(failure);
+            return;
+        }
+
+        // batch keeps failing, e.g. because of one invalid item, so items are written one by one to keep the valid ones
+        for (T item : batch) {
+            try {
+                batchWriter.accept(List.of(item));
+            } catch (Exception e) {
+                drop(e);
+            }
+        }
+    }
+
+    private void drop(Exception failure) {
+        droppedCount.incrementAndGet();
+        logger.error("Unable to write item by {}, item is dropped: {}", name, failure == null ? null : failure.getMessage());
+    }
+
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -59,7 +59,9 @@ public class DatabaseMigration {
         V202402171510__UpdateAndOptimizeAttributesModelMigration(-1671016899, true),
         V202404021100__CreateCmpUserAndPermissions(-264892945),
         V202404120915__AssignObjectsOwnerAndMultipleGroupsMigration(-305812276),
-        V202408231055__DuplicateCertificates(-1714171989);
+        V202408231055__DuplicateCertificates(-1714171989),
+        V202410021000__AttributeContentItemJsonHash(797674092),
+        V202410071000__AttributeContentItemSearchValues(637219393);
 
       
         private final int checksum;
@@ -34,7 +34,12 @@ public class FilterPredicatesBuilder {
         throw new IllegalStateException("Static utility class");
     }
 
-    private static final List<AttributeContentType> castedAttributeContentData = List.of(AttributeContentType.INTEGER, AttributeContentType.FLOAT, AttributeContentType.DATE, AttributeContentType.TIME, AttributeContentType.DATETIME);
+    /**
+     * Minimal length of searched term for which trigram index can be used for substring search
+     */
+    private static final int TRIGRAM_SEARCH_MIN_LENGTH = 3;
+
+    private static final List<FilterConditionOperator> patternMatchingOperators = List.of(FilterConditionOperator.CONTAINS, FilterConditionOperator.NOT_CONTAINS, FilterConditionOperator.STARTS_WITH, FilterConditionOperator.ENDS_WITH);
 
     public static <T> Predicate getFiltersPredicate(final CriteriaBuilder criteriaBuilder, final CriteriaQuery query, final Root<T> root, final List<SearchFilterRequestDto> filterDtos) {
         Map<String, From> joinedAssociations = new HashMap<>();
@@ -54,7 +59,7 @@ public class FilterPredicatesBuilder {
     private static <T> Predicate getAttributeFilterPredicate(final CriteriaBuilder criteriaBuilder, final CriteriaQuery query, final Root<T> root, final SearchFilterRequestDto filterDto) {
         final Subquery<Integer> subquery = query.subquery(Integer.class);
         final Root<AttributeContent2Object> subqueryRoot = subquery.from(AttributeContent2Object.class);
-        final Join joinContentItem = subqueryRoot.join(AttributeContent2Object_.attributeContentItem, JoinType.INNER);
+        final Join<AttributeContent2Object, AttributeContentItem> joinContentItem = subqueryRoot.join(AttributeContent2Object_.attributeContentItem, JoinType.INNER);
         final Join joinDefinition = joinContentItem.join(AttributeContentItem_.attributeDefinition, JoinType.INNER);
 
         final Resource resource = ResourceToClass.getResourceByClass(root.getJavaType());
@@ -72,16 +77,7 @@ public class FilterPredicatesBuilder {
         predicates.add(criteriaBuilder.equal(subqueryRoot.get(AttributeContent2Object_.objectUuid), root.get(UniquelyIdentified_.uuid.getName())));
 
         if (filterDto.getCondition() != FilterConditionOperator.EMPTY && filterDto.getCondition() != FilterConditionOperator.NOT_EMPTY) {
-            Expression<String> attributeContentExpression = criteriaBuilder.function("jsonb_extract_path_text", String.class, joinContentItem.get(AttributeContentItem_.json), criteriaBuilder.literal(contentType.isFilterByData() ? "data" : "reference"));
-            CriteriaBuilder.SimpleCase<AttributeContentType, Object> contentTypeCaseExpression = criteriaBuilder.selectCase(joinDefinition.get(AttributeDefinition_.contentType));
-
-            if (castedAttributeContentData.contains(contentType)) {
-                contentTypeCaseExpression.when(contentType, attributeContentExpression.as(contentType.getContentDataClass())).otherwise(criteriaBuilder.nullLiteral(contentType.getContentDataClass()));
-            } else {
-                contentTypeCaseExpression.when(contentType, attributeContentExpression).otherwise(criteriaBuilder.nullLiteral(String.class));
-            }
-
-            Predicate conditionPredicate = getAttributeFilterConditionPredicate(criteriaBuilder, filterDto, contentTypeCaseExpression, contentType);
+            Predicate conditionPredicate = getAttributeFilterConditionPredicate(criteriaBuilder, filterDto, getAttributeContentSearchValueExpression(joinContentItem, filterDto.getCondition(), contentType), contentType);
             predicates.add(conditionPredicate);
         }
 
@@ -89,8 +85,23 @@ public class FilterPredicatesBuilder {
         return isNotExistCondition ? criteriaBuilder.not(criteriaBuilder.exists(subquery)) : criteriaBuilder.exists(subquery);
     }
 
+    private static Expression<?> getAttributeContentSearchValueExpression(final Join<AttributeContent2Object, AttributeContentItem> joinContentItem, final FilterConditionOperator condition, final AttributeContentType contentType) {
+        // pattern matching is always evaluated on text of content, other conditions on typed indexed column of content type
+        if (patternMatchingOperators.contains(condition)) {
+            return joinContentItem.get(AttributeContentItem_.stringValue);
+        }
+        return switch (contentType) {
+            case INTEGER, FLOAT -> joinContentItem.get(AttributeContentItem_.numberValue);
+            case DATE -> joinContentItem.get(AttributeContentItem_.dateValue);
+            case TIME -> joinContentItem.get(AttributeContentItem_.timeValue);
+            case DATETIME -> joinContentItem.get(AttributeContentItem_.datetimeValue);
+            case BOOLEAN -> joinContentItem.get(AttributeContentItem_.booleanValue);
+            case null, default -> joinContentItem.get(AttributeContentItem_.stringValue);
+        };
+    }
+
     private static Predicate getAttributeFilterConditionPredicate(final CriteriaBuilder criteriaBuilder, final SearchFilterRequestDto filterDto, final Expression expression, final AttributeContentType contentType) {
-        List<Object> filterValues = prepareAttributeFilterValues(filterDto, contentType);
+        List<Object> filterValues = prepareAttributeFilterValues(filterDto, patternMatchingOperators.contains(filterDto.getCondition()) ? null : contentType);
         boolean multipleValues = filterValues.size() > 1;
 
         Object filterValue = filterValues.isEmpty() ? null : filterValues.getFirst();
@@ -98,9 +109,8 @@ public class FilterPredicatesBuilder {
         return switch (conditionOperator) {
             case EQUALS ->
                     multipleValues ? expression.in(filterValues) : criteriaBuilder.equal(expression, filterValue);
-            case STARTS_WITH -> criteriaBuilder.like(expression, filterValue + "%");
-            case ENDS_WITH -> criteriaBuilder.like(expression, "%" + filterValue);
-            case CONTAINS -> criteriaBuilder.like(expression, "%" + filterValue + "%");
+            case STARTS_WITH, ENDS_WITH, CONTAINS ->
+                    getPatternMatchingPredicate(criteriaBuilder, expression, conditionOperator, filterValue);
             case GREATER -> criteriaBuilder.greaterThan(expression, (Expression) criteriaBuilder.literal(filterValue));
             case GREATER_OR_EQUAL ->
                     criteriaBuilder.greaterThanOrEqualTo(expression, (Expression) criteriaBuilder.literal(filterValue));
@@ -111,6 +121,30 @@ public class FilterPredicatesBuilder {
         };
     }
 
+    /**
+     * Builds pattern matching predicate. String values are matched case-insensitively on lower-cased expression,
+     * so the predicate can use trigram expression indexes of searchable columns. Substring search with term too short
+     * to form trigram is evaluated by position of term in value, so it does not fall into full scan of trigram index.
+     */
+    private static Predicate getPatternMatchingPredicate(final CriteriaBuilder criteriaBuilder, final Expression expression, final FilterConditionOperator conditionOperator, final Object filterValue) {
+        final boolean stringExpression = String.class.equals(expression.getJavaType());
+        final Expression<String> matchedExpression = stringExpression ? criteriaBuilder.lower(expression) : expression;
+        final String searchTerm = stringExpression ? filterValue.toString().toLowerCase() : filterValue.toString();
+        final boolean shortSubstringSearch = stringExpression && searchTerm.length() < TRIGRAM_SEARCH_MIN_LENGTH;
+
+        return switch (conditionOperator) {
+            case STARTS_WITH -> criteriaBuilder.like(matchedExpression, searchTerm + "%");
+            case ENDS_WITH -> criteriaBuilder.like(matchedExpression, "%" + searchTerm);
+            case CONTAINS -> shortSubstringSearch
+                    ? criteriaBuilder.greaterThan(criteriaBuilder.locate(matchedExpression, searchTerm), 0)
+                    : criteriaBuilder.like(matchedExpression, "%" + searchTerm + "%");
+            case NOT_CONTAINS -> shortSubstringSearch
+                    ? criteriaBuilder.equal(criteriaBuilder.locate(matchedExpression, searchTerm), 0)
+                    : criteriaBuilder.notLike(matchedExpression, "%" + searchTerm + "%");
+            default -> throw new ValidationException("Unexpected pattern matching condition: " + conditionOperator);
+        };
+    }
+
     private static List<Object> prepareAttributeFilterValues(final SearchFilterRequestDto filterDto, final AttributeContentType contentType) {
         Serializable filterValue = filterDto.getValue();
 
@@ -123,16 +157,16 @@ public class FilterPredicatesBuilder {
         for (Object value : filterValues) {
             String stringValue = value.toString();
             Object preparedValue = switch (contentType) {
-                case BOOLEAN -> Boolean.parseBoolean(stringValue) ? "true" : "false";
-                case INTEGER -> Integer.parseInt(stringValue);
-                case FLOAT -> Float.parseFloat(stringValue);
+                case BOOLEAN -> Boolean.parseBoolean(stringValue);
+                case INTEGER -> (double) Integer.parseInt(stringValue);
+                case FLOAT -> Double.parseDouble(stringValue);
                 case DATE -> LocalDate.parse(stringValue);
                 case TIME -> LocalTime.parse(stringValue);
                 case DATETIME -> {
                     if (!stringValue.contains("+") && !stringValue.endsWith("Z")) {
                         stringValue += "Z";
                     }
-                    yield ZonedDateTime.parse(stringValue, DateTimeFormatter.ofPattern("[yyyy-MM-dd'T'HH:mm:ss.SSSXXX][yyyy-MM-dd'T'HH:mm:ssXXX][yyyy-MM-dd'T'HH:mmXXX]"));
+                    yield ZonedDateTime.parse(stringValue, DateTimeFormatter.ofPattern("[yyyy-MM-dd'T'HH:mm:ss.SSSXXX][yyyy-MM-dd'T'HH:mm:ssXXX][yyyy-MM-dd'T'HH:mmXXX]")).toOffsetDateTime();
                 }
                 case null, default -> stringValue;
             };
@@ -190,12 +224,11 @@ public class FilterPredicatesBuilder {
                             : criteriaBuilder.or(getNotPresentPredicate(criteriaBuilder, from, expression, hasParent, isParentCollection), multipleValues ? criteriaBuilder.not(expression.in(filterValues)) : criteriaBuilder.notEqual(expression, filterValues.getFirst()));
                 }
             }
-            case STARTS_WITH -> predicate = criteriaBuilder.like(expression, filterValues.getFirst() + "%");
-            case ENDS_WITH -> predicate = criteriaBuilder.like(expression, "%" + filterValues.getFirst());
-            case CONTAINS -> predicate = criteriaBuilder.like(expression, "%" + filterValues.getFirst() + "%");
+            case STARTS_WITH, ENDS_WITH, CONTAINS ->
+                    predicate = getPatternMatchingPredicate(criteriaBuilder, expression, conditionOperator, filterValues.getFirst());
             case NOT_CONTAINS ->
                     predicate = criteriaBuilder.or(getNotPresentPredicate(criteriaBuilder, from, expression, hasParent, isParentCollection),
-                            criteriaBuilder.notLike(expression, "%" + filterValues.getFirst() + "%"));
+                            getPatternMatchingPredicate(criteriaBuilder, expression, conditionOperator, filterValues.getFirst()));
             case EMPTY ->
                     predicate = getNotPresentPredicate(criteriaBuilder, from, expression, hasParent, isParentCollection);
             case NOT_EMPTY ->
@@ -328,8 +361,9 @@ public class FilterPredicatesBuilder {
         final Root<AuditLog> root = criteriaQuery.from(AuditLog.class);
         List<Predicate> rootPredicates = new ArrayList<>();
 
+        // author and object identifier are matched same way as when listing audit logs
         if (StringUtils.isNotBlank(filter.getAuthor())) {
-            rootPredicates.add(criteriaBuilder.equal(root.get("author"), filter.getAuthor()));
+            rootPredicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("author")), filter.getAuthor().toLowerCase()));
         }
 
         if (filter.getCreatedFrom() != null) {
@@ -356,7 +390,7 @@ public class FilterPredicatesBuilder {
         }
 
         if (StringUtils.isNotBlank(filter.getObjectIdentifier())) {
-            rootPredicates.add(criteriaBuilder.equal(root.get("objectIdentifier"), filter.getObjectIdentifier()));
+            rootPredicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("objectIdentifier")), filter.getObjectIdentifier().toLowerCase()));
         }
 
         criteriaQuery.where(criteriaBuilder.and(rootPredicates.toArray(new Predicate[]{})));
@@ -0,0 +1,62 @@
+package db.migration;
+
+import com.czertainly.core.util.AttributeContentHashUtil;
+import com.czertainly.core.util.DatabaseMigration;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+/**
+ * Migration script adding hash of attribute content item JSON used for bulk lookup of existing content items
+ */
+public class V202410021000__AttributeContentItemJsonHash extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V202410021000__AttributeContentItemJsonHash.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public Integer getChecksum() {
+        return DatabaseMigration.JavaMigrationChecksums.V202410021000__AttributeContentItemJsonHash.getChecksum();
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (final Statement statement = context.getConnection().createStatement()) {
+            statement.execute("ALTER TABLE attribute_content_item ADD COLUMN json_hash TEXT NULL");
+        }
+
+        computeJsonHashes(context);
+
+        try (final Statement statement = context.getConnection().createStatement()) {
+            statement.execute("CREATE INDEX attribute_content_item_definition_json_hash_index ON attribute_content_item (attribute_definition_uuid, json_hash)");
+        }
+    }
+
+    private void computeJsonHashes(Context context) throws SQLException {
+        int updatedCount = 0;
+        try (final Statement select = context.getConnection().createStatement();
+             final PreparedStatement updateStatement = context.getConnection().prepareStatement("UPDATE attribute_content_item SET json_hash = ? WHERE uuid = ?")) {
+            try (ResultSet rows = select.executeQuery("SELECT uuid, json FROM attribute_content_item")) {
+                while (rows.next()) {
+                    updateStatement.setString(1, AttributeContentHashUtil.hashJson(rows.getString("json")));
+                    updateStatement.setObject(2, rows.getObject("uuid", UUID.class));
+                    updateStatement.addBatch();
+
+                    if (++updatedCount % BATCH_SIZE == 0) {
+                        updateStatement.executeBatch();
+                    }
+                }
+            }
+            updateStatement.executeBatch();
+        }
+        logger.debug("Computed JSON hash of {} attribute content items.", updatedCount);
+    }
+}
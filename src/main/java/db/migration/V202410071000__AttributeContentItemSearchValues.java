@@ -0,0 +1,89 @@
+package db.migration;
+
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
+import com.czertainly.core.util.AttributeContentSearchValues;
+import com.czertainly.core.util.DatabaseMigration;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.UUID;
+
+/**
+ * Migration script adding typed search columns of attribute content items, so filtering by attribute content
+ * can use indexes instead of extracting and casting value from JSON of every content item
+ */
+public class V202410071000__AttributeContentItemSearchValues extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V202410071000__AttributeContentItemSearchValues.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public Integer getChecksum() {
+        return DatabaseMigration.JavaMigrationChecksums.V202410071000__AttributeContentItemSearchValues.getChecksum();
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (final Statement statement = context.getConnection().createStatement()) {
+            statement.execute("""
+                    ALTER TABLE attribute_content_item
+                        ADD COLUMN string_value TEXT NULL,
+                        ADD COLUMN number_value DOUBLE PRECISION NULL,
+                        ADD COLUMN date_value DATE NULL,
+                        ADD COLUMN time_value TIME NULL,
+                        ADD COLUMN datetime_value TIMESTAMP WITH TIME ZONE NULL,
+                        ADD COLUMN boolean_value BOOLEAN NULL
+                    """);
+        }
+
+        computeSearchValues(context);
+
+        try (final Statement statement = context.getConnection().createStatement()) {
+            // string values can exceed maximal size of B-tree index entry, hash index supports equality lookup of any length
+            statement.execute("CREATE INDEX attribute_content_item_string_value_index ON attribute_content_item USING hash (string_value)");
+            statement.execute("CREATE INDEX attribute_content_item_definition_number_value_index ON attribute_content_item (attribute_definition_uuid, number_value) WHERE number_value IS NOT NULL");
+            statement.execute("CREATE INDEX attribute_content_item_definition_date_value_index ON attribute_content_item (attribute_definition_uuid, date_value) WHERE date_value IS NOT NULL");
+            statement.execute("CREATE INDEX attribute_content_item_definition_time_value_index ON attribute_content_item (attribute_definition_uuid, time_value) WHERE time_value IS NOT NULL");
+            statement.execute("CREATE INDEX attribute_content_item_definition_datetime_value_index ON attribute_content_item (attribute_definition_uuid, datetime_value) WHERE datetime_value IS NOT NULL");
+            statement.execute("CREATE INDEX attribute_content_item_definition_boolean_value_index ON attribute_content_item (attribute_definition_uuid, boolean_value) WHERE boolean_value IS NOT NULL");
+            statement.execute("CREATE INDEX attribute_content_2_object_content_item_object_index ON attribute_content_2_object (attribute_content_item_uuid, object_type, object_uuid)");
+        }
+    }
+
+    private void computeSearchValues(Context context) throws SQLException {
+        int updatedCount = 0;
+        try (final Statement select = context.getConnection().createStatement();
+             final PreparedStatement updateStatement = context.getConnection().prepareStatement("""
+                     UPDATE attribute_content_item SET string_value = ?, number_value = ?, date_value = ?, time_value = ?, datetime_value = ?, boolean_value = ?
+                     WHERE uuid = ?
+                     """)) {
+            try (ResultSet rows = select.executeQuery("SELECT aci.uuid, aci.json, ad.content_type FROM attribute_content_item aci JOIN attribute_definition ad ON ad.uuid = aci.attribute_definition_uuid")) {
+                while (rows.next()) {
+                    AttributeContentSearchValues searchValues = AttributeContentSearchValues.fromJson(rows.getString("json"), AttributeContentType.valueOf(rows.getString("content_type")));
+                    updateStatement.setString(1, searchValues.stringValue());
+                    updateStatement.setObject(2, searchValues.numberValue(), Types.DOUBLE);
+                    updateStatement.setObject(3, searchValues.dateValue(), Types.DATE);
+                    updateStatement.setObject(4, searchValues.timeValue(), Types.TIME);
+                    updateStatement.setObject(5, searchValues.datetimeValue(), Types.TIMESTAMP_WITH_TIMEZONE);
+                    updateStatement.setObject(6, searchValues.booleanValue(), Types.BOOLEAN);
+                    updateStatement.setObject(7, rows.getObject("uuid", UUID.class));
+                    updateStatement.addBatch();
+
+                    if (++updatedCount % BATCH_SIZE == 0) {
+                        updateStatement.executeBatch();
+                    }
+                }
+            }
+            updateStatement.executeBatch();
+        }
+        logger.debug("Computed search values of {} attribute content items.", updatedCount);
+    }
+}
@@ -0,0 +1,16 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- trigram indexes for case-insensitive substring search, expressions must match lower() used by search predicates
+CREATE INDEX certificate_common_name_trgm_index ON certificate USING gin (lower(common_name) gin_trgm_ops);
+CREATE INDEX certificate_subject_dn_trgm_index ON certificate USING gin (lower(subject_dn) gin_trgm_ops);
+CREATE INDEX certificate_issuer_dn_trgm_index ON certificate USING gin (lower(issuer_dn) gin_trgm_ops);
+CREATE INDEX certificate_issuer_common_name_trgm_index ON certificate USING gin (lower(issuer_common_name) gin_trgm_ops);
+CREATE INDEX certificate_subject_alternative_names_trgm_index ON certificate USING gin (lower(subject_alternative_names) gin_trgm_ops);
+CREATE INDEX certificate_serial_number_trgm_index ON certificate USING gin (lower(serial_number) gin_trgm_ops);
+CREATE INDEX certificate_issuer_serial_number_trgm_index ON certificate USING gin (lower(issuer_serial_number) gin_trgm_ops);
+CREATE INDEX certificate_fingerprint_trgm_index ON certificate USING gin (lower(fingerprint) gin_trgm_ops);
+
+CREATE INDEX attribute_content_item_string_value_trgm_index ON attribute_content_item USING gin (lower(string_value) gin_trgm_ops);
+
+CREATE INDEX audit_log_author_trgm_index ON audit_log USING gin (lower(i_author) gin_trgm_ops);
+CREATE INDEX audit_log_object_identifier_trgm_index ON audit_log USING gin (lower(object_identifier) gin_trgm_ops);
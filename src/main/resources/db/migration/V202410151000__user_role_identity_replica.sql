@@ -0,0 +1,27 @@
+-- local replica of user and role identities managed by Auth service
+CREATE TABLE user_identity (
+    uuid UUID PRIMARY KEY,
+    username VARCHAR NOT NULL,
+    email VARCHAR NULL
+);
+
+CREATE TABLE role_identity (
+    uuid UUID PRIMARY KEY,
+    name VARCHAR NOT NULL,
+    email VARCHAR NULL
+);
+
+CREATE TABLE user_identity_role (
+    user_uuid UUID NOT NULL REFERENCES user_identity(uuid) ON DELETE CASCADE,
+    role_uuid UUID NOT NULL,
+    PRIMARY KEY (user_uuid, role_uuid)
+);
+
+CREATE TABLE user_identity_group (
+    user_uuid UUID NOT NULL REFERENCES user_identity(uuid) ON DELETE CASCADE,
+    group_uuid UUID NOT NULL,
+    PRIMARY KEY (user_uuid, group_uuid)
+);
+
+CREATE INDEX user_identity_role_role_uuid_index ON user_identity_role (role_uuid);
+CREATE INDEX user_identity_group_group_uuid_index ON user_identity_group (group_uuid);
@@ -0,0 +1,17 @@
+-- index for purging trigger histories older than configured retention
+CREATE INDEX trigger_history_triggered_at_index ON trigger_history (triggered_at);
+
+-- aggregated trigger results stored instead of histories of individual objects when summary mode is enabled
+CREATE TABLE trigger_history_summary (
+    uuid UUID PRIMARY KEY,
+    trigger_association_resource VARCHAR NOT NULL,
+    trigger_association_object_uuid UUID NOT NULL,
+    objects_resource VARCHAR NOT NULL,
+    objects_evaluated INTEGER NOT NULL,
+    objects_matched INTEGER NOT NULL,
+    objects_ignored INTEGER NOT NULL,
+    objects_failed INTEGER NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+CREATE UNIQUE INDEX trigger_history_summary_association_object_uuid_index ON trigger_history_summary (trigger_association_object_uuid);
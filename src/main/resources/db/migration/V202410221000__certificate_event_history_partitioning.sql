@@ -0,0 +1,43 @@
+-- certificate event history is range partitioned by month of creation, so old events can be dropped by whole partitions
+ALTER TABLE certificate_event_history RENAME TO certificate_event_history_old;
+ALTER TABLE certificate_event_history_old DROP CONSTRAINT IF EXISTS certificate_history_to_certificate_key_1;
+ALTER TABLE certificate_event_history_old DROP CONSTRAINT IF EXISTS certificate_event_history_pkey;
+
+CREATE TABLE certificate_event_history (
+    uuid UUID NOT NULL,
+    i_cre TIMESTAMP NOT NULL,
+    i_upd TIMESTAMP NOT NULL,
+    i_author VARCHAR NOT NULL,
+    event VARCHAR NOT NULL,
+    status VARCHAR NOT NULL,
+    message VARCHAR NOT NULL,
+    additional_information TEXT NULL DEFAULT NULL,
+    certificate_uuid UUID NOT NULL,
+    PRIMARY KEY (uuid, i_cre),
+    CONSTRAINT certificate_event_history_to_certificate_key FOREIGN KEY (certificate_uuid) REFERENCES certificate (uuid) ON UPDATE NO ACTION ON DELETE CASCADE
+) PARTITION BY RANGE (i_cre);
+
+-- events outside of created monthly partitions
+CREATE TABLE certificate_event_history_default PARTITION OF certificate_event_history DEFAULT;
+
+-- monthly partitions from month of oldest event up to three months ahead, further partitions are created by scheduled job
+DO $$
+DECLARE
+    partition_start DATE;
+    partition_end DATE := date_trunc('month', now()) + INTERVAL '4 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(i_cre), now())) INTO partition_start FROM certificate_event_history_old;
+    WHILE partition_start < partition_end LOOP
+        EXECUTE format('CREATE TABLE certificate_event_history_p%s PARTITION OF certificate_event_history FOR VALUES FROM (%L) TO (%L)',
+                       to_char(partition_start, 'YYYYMM'), partition_start, partition_start + INTERVAL '1 month');
+        partition_start := partition_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO certificate_event_history (uuid, i_cre, i_upd, i_author, event, status, message, additional_information, certificate_uuid)
+    SELECT uuid, i_cre, i_upd, i_author, event, status, message, additional_information, certificate_uuid FROM certificate_event_history_old;
+
+DROP TABLE certificate_event_history_old;
+
+-- keyset reads of certificate history ordered from newest events
+CREATE INDEX certificate_event_history_certificate_uuid_index ON certificate_event_history (certificate_uuid, i_cre DESC, uuid DESC);
@@ -0,0 +1,4 @@
+-- time of the last status check of instances by background status poller
+ALTER TABLE token_instance_reference ADD COLUMN status_updated_at TIMESTAMP NULL;
+ALTER TABLE authority_instance_reference ADD COLUMN status_updated_at TIMESTAMP NULL;
+ALTER TABLE entity_instance_reference ADD COLUMN status_updated_at TIMESTAMP NULL;
@@ -0,0 +1,20 @@
+-- certificate lookups by fingerprint and by normalized DN with serial number
+CREATE INDEX certificate_fingerprint_index ON certificate (fingerprint);
+CREATE INDEX certificate_subject_dn_normalized_serial_number_index ON certificate (subject_dn_normalized, serial_number);
+CREATE INDEX certificate_issuer_dn_normalized_serial_number_index ON certificate (issuer_dn_normalized, serial_number);
+
+-- certificates to check status are taken in order of last status check, only certificates with content are checked
+CREATE INDEX certificate_status_validation_timestamp_index ON certificate (status_validation_timestamp ASC NULLS FIRST) WHERE certificate_content_id IS NOT NULL;
+
+-- group and owner associations of objects
+CREATE INDEX group_association_resource_object_uuid_index ON group_association (resource, object_uuid);
+CREATE INDEX group_association_group_uuid_index ON group_association (group_uuid);
+CREATE INDEX owner_association_resource_object_uuid_index ON owner_association (resource, object_uuid);
+CREATE INDEX owner_association_owner_uuid_index ON owner_association (owner_uuid);
+
+-- attribute content of objects
+CREATE INDEX attribute_content_2_object_object_index ON attribute_content_2_object (object_uuid, object_type);
+
+-- recipients of approvals and notifications
+CREATE INDEX approval_recipient_approval_uuid_status_index ON approval_recipient (approval_uuid, status);
+CREATE INDEX notification_recipient_user_uuid_index ON notification_recipient (user_uuid);
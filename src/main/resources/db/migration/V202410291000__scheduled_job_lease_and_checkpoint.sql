@@ -0,0 +1,7 @@
+-- lease of scheduled job held by instance executing it, so job is executed only by single instance at a time
+ALTER TABLE scheduled_job ADD COLUMN lease_owner VARCHAR NULL DEFAULT NULL;
+ALTER TABLE scheduled_job ADD COLUMN lease_expires_at TIMESTAMP NULL DEFAULT NULL;
+
+-- checkpoint of job processed in chunks, interrupted job continues from the last checkpoint
+ALTER TABLE scheduled_job_history ADD COLUMN checkpoint TEXT NULL DEFAULT NULL;
+ALTER TABLE scheduled_job_history ADD COLUMN processed_items INTEGER NOT NULL DEFAULT 0;
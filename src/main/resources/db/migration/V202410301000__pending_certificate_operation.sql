@@ -0,0 +1,13 @@
+-- operations with certificate submitted to authority that were not finished yet, used to recover operations interrupted by crash
+CREATE TABLE pending_certificate_operation (
+    uuid UUID NOT NULL,
+    certificate_uuid UUID NOT NULL,
+    operation VARCHAR NOT NULL,
+    authority_instance_reference_uuid UUID NULL,
+    started_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (uuid),
+    CONSTRAINT pending_certificate_operation_to_certificate_key FOREIGN KEY (certificate_uuid) REFERENCES certificate (uuid) ON UPDATE NO ACTION ON DELETE CASCADE
+);
+
+CREATE INDEX pending_certificate_operation_certificate_uuid_index ON pending_certificate_operation (certificate_uuid);
+CREATE INDEX pending_certificate_operation_started_at_index ON pending_certificate_operation (started_at);
@@ -0,0 +1,15 @@
+-- batches of certificates requested by bulk issuance, progress of batch is derived from state of its certificates
+CREATE TABLE certificate_issuance_batch (
+    uuid UUID NOT NULL,
+    ra_profile_uuid UUID NOT NULL,
+    user_uuid UUID NULL,
+    created_at TIMESTAMP NOT NULL,
+    total_count INTEGER NOT NULL,
+    rejected_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (uuid),
+    CONSTRAINT certificate_issuance_batch_to_ra_profile_key FOREIGN KEY (ra_profile_uuid) REFERENCES ra_profile (uuid) ON UPDATE NO ACTION ON DELETE CASCADE
+);
+
+ALTER TABLE certificate ADD COLUMN issuance_batch_uuid UUID NULL;
+ALTER TABLE certificate ADD CONSTRAINT certificate_to_certificate_issuance_batch_key FOREIGN KEY (issuance_batch_uuid) REFERENCES certificate_issuance_batch (uuid) ON UPDATE NO ACTION ON DELETE SET NULL;
+CREATE INDEX certificate_issuance_batch_uuid_index ON certificate (issuance_batch_uuid) WHERE issuance_batch_uuid IS NOT NULL;
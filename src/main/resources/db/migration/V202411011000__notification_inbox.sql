@@ -0,0 +1,21 @@
+-- time of sending is kept with recipient, so inbox of user is read and paginated from single index
+ALTER TABLE notification_recipient ADD COLUMN sent_at TIMESTAMP;
+UPDATE notification_recipient r SET sent_at = n.sent_at FROM notification n WHERE n.uuid = r.notification_uuid;
+ALTER TABLE notification_recipient ALTER COLUMN sent_at SET NOT NULL;
+
+DROP INDEX notification_recipient_user_uuid_index;
+CREATE INDEX notification_recipient_user_uuid_sent_at_index ON notification_recipient (user_uuid, sent_at DESC, notification_uuid DESC);
+CREATE INDEX notification_recipient_unread_user_uuid_sent_at_index ON notification_recipient (user_uuid, sent_at DESC, notification_uuid DESC) WHERE read_at IS NULL;
+CREATE INDEX notification_recipient_read_at_index ON notification_recipient (read_at) WHERE read_at IS NOT NULL;
+CREATE INDEX notification_sent_at_index ON notification (sent_at);
+
+-- number of unread notifications of user maintained on write
+CREATE TABLE notification_user_counter
+(
+    user_uuid    UUID    NOT NULL,
+    unread_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (user_uuid)
+);
+
+INSERT INTO notification_user_counter (user_uuid, unread_count)
+SELECT user_uuid, COUNT(*) FROM notification_recipient WHERE read_at IS NULL GROUP BY user_uuid;
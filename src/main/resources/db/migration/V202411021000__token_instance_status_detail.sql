@@ -0,0 +1,2 @@
+-- last status of token instance retrieved from connector including its components, shared by all instances of application
+ALTER TABLE token_instance_reference ADD COLUMN status_detail JSONB NULL;
@@ -0,0 +1,3 @@
+-- result of operation received from authority, kept when operation could not be finished so that recovery can finish it
+ALTER TABLE pending_certificate_operation ADD COLUMN authority_completed_at TIMESTAMP NULL;
+ALTER TABLE pending_certificate_operation ADD COLUMN authority_response JSONB NULL;
@@ -0,0 +1,58 @@
+package com.czertainly.core.attribute;
+
+import com.czertainly.api.exception.AttributeException;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.common.attribute.v2.AttributeType;
+import com.czertainly.api.model.common.attribute.v2.CustomAttribute;
+import com.czertainly.api.model.common.attribute.v2.content.AttributeContentType;
+import com.czertainly.api.model.common.attribute.v2.content.IntegerAttributeContent;
+import com.czertainly.api.model.common.attribute.v2.properties.CustomAttributeProperties;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.attribute.engine.AttributeEngine;
+import com.czertainly.core.dao.entity.AttributeContentItem;
+import com.czertainly.core.dao.entity.AttributeDefinition;
+import com.czertainly.core.dao.repository.AttributeContentItemRepository;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+class AttributeContentSearchValuesTest extends BaseSpringBootTest {
+
+    @Autowired
+    private AttributeEngine attributeEngine;
+
+    @Autowired
+    private AttributeContentItemRepository attributeContentItemRepository;
+
+    private AttributeDefinition integerAttributeDefinition;
+
+    @BeforeEach
+    void setUp() throws AttributeException {
+        CustomAttribute integerAttribute = new CustomAttribute();
+        integerAttribute.setUuid(UUID.randomUUID().toString());
+        integerAttribute.setName("integerAttribute");
+        integerAttribute.setType(AttributeType.CUSTOM);
+        integerAttribute.setContentType(AttributeContentType.INTEGER);
+        CustomAttributeProperties properties = new CustomAttributeProperties();
+        properties.setLabel("Integer attribute");
+        integerAttribute.setProperties(properties);
+        integerAttributeDefinition = attributeEngine.updateCustomAttributeDefinition(integerAttribute, List.of(Resource.CERTIFICATE));
+    }
+
+    @Test
+    void testSearchValuesFilledOnWrite() throws NotFoundException, AttributeException {
+        attributeEngine.updateObjectCustomAttributeContent(Resource.CERTIFICATE, UUID.randomUUID(), null, integerAttributeDefinition.getName(), List.of(new IntegerAttributeContent(42)));
+
+        List<AttributeContentItem> contentItems = attributeContentItemRepository.findAll().stream().filter(i -> i.getAttributeDefinitionUuid().equals(integerAttributeDefinition.getUuid())).toList();
+        Assertions.assertEquals(1, contentItems.size());
+        Assertions.assertEquals("42", contentItems.getFirst().getStringValue());
+        Assertions.assertEquals(42.0, contentItems.getFirst().getNumberValue());
+        Assertions.assertNull(contentItems.getFirst().getDateValue());
+        Assertions.assertNull(contentItems.getFirst().getBooleanValue());
+    }
+}
@@ -21,6 +21,7 @@ import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
 import com.czertainly.api.model.core.connector.ConnectorStatus;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.attribute.engine.records.ObjectAttributesContent;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.repository.*;
 import com.czertainly.core.security.authz.SecuredUUID;
@@ -36,6 +37,7 @@ import java.security.GeneralSecurityException;
 import java.security.cert.CertificateException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -57,6 +59,8 @@ public class AttributeEngineTest extends BaseSpringBootTest {
     private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
     @Autowired
     private OwnerAssociationRepository ownerAssociationRepository;
+    @Autowired
+    private AttributeContentItemRepository attributeContentItemRepository;
 
     private Connector connectorAuthority;
     private Connector connectorDiscovery;
@@ -136,6 +140,24 @@ public class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertEquals(3, mappedMetadata.size());
     }
 
+    @Test
+    public void testMetadataAndCustomAttributesProjection() {
+        UUID otherObjectUuid = UUID.randomUUID();
+        var objectsContent = attributeEngine.getObjectsMetadataAndCustomAttributesContent(Resource.CERTIFICATE, List.of(certificate.getUuid(), otherObjectUuid));
+        Assertions.assertEquals(2, objectsContent.size());
+
+        ObjectAttributesContent certificateContent = objectsContent.get(certificate.getUuid());
+        Assertions.assertEquals(attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(Resource.CERTIFICATE, certificate.getUuid())).size(), certificateContent.metadata().size());
+        Assertions.assertEquals(1, certificateContent.customAttributes().size());
+        Assertions.assertEquals("Sales", certificateContent.customAttributes().get(0).getContent().get(0).getData());
+
+        Assertions.assertTrue(objectsContent.get(otherObjectUuid).metadata().isEmpty());
+        Assertions.assertTrue(objectsContent.get(otherObjectUuid).customAttributes().isEmpty());
+
+        var discoveryMetadata = attributeEngine.getObjectsMappedMetadataContent(null, Resource.CERTIFICATE, List.of(certificate.getUuid()), Resource.DISCOVERY, networkDiscoveryUuid);
+        Assertions.assertEquals(1, discoveryMetadata.get(certificate.getUuid()).size());
+    }
+
     @Test
     public void testMetadataContentReplacement() throws AttributeException {
         networkDiscoveryMeta.setContent(List.of(new StringAttributeContent("localhost:1443"), new StringAttributeContent("localhost:2443"), new StringAttributeContent("localhost:3443")));
@@ -156,6 +178,44 @@ public class AttributeEngineTest extends BaseSpringBootTest {
         Assertions.assertEquals("TEST", metadataResponseDto.get().getItems().get(0).getContent().get(0).getReference());
     }
 
+    @Test
+    public void testBulkMetadataContentCreation() throws AttributeException {
+        UUID secondCertificateUuid = UUID.randomUUID();
+        long contentItemsCount = attributeContentItemRepository.count();
+
+        MetadataAttribute firstObjectMeta = new MetadataAttribute();
+        firstObjectMeta.setName(authorityIssueMeta.getName());
+        firstObjectMeta.setUuid(authorityIssueMeta.getUuid());
+        firstObjectMeta.setType(AttributeType.META);
+        firstObjectMeta.setContentType(AttributeContentType.STRING);
+        firstObjectMeta.setProperties(authorityIssueMeta.getProperties());
+        firstObjectMeta.setContent(List.of(new StringAttributeContent("tst-ejbcaUsername=="), new StringAttributeContent("shared-value")));
+
+        MetadataAttribute secondObjectMeta = new MetadataAttribute();
+        secondObjectMeta.setName(authorityIssueMeta.getName());
+        secondObjectMeta.setUuid(authorityIssueMeta.getUuid());
+        secondObjectMeta.setType(AttributeType.META);
+        secondObjectMeta.setContentType(AttributeContentType.STRING);
+        secondObjectMeta.setProperties(authorityIssueMeta.getProperties());
+        secondObjectMeta.setContent(List.of(new StringAttributeContent("shared-value")));
+
+        attributeEngine.updateObjectsMetadataAttributes(Map.of(
+                new ObjectAttributeContentInfo(connectorAuthority.getUuid(), Resource.CERTIFICATE, certificate.getUuid()), List.of(firstObjectMeta),
+                new ObjectAttributeContentInfo(connectorAuthority.getUuid(), Resource.CERTIFICATE, secondCertificateUuid), List.of(secondObjectMeta)));
+
+        // only one new content item should be created and shared by both objects, existing content item should be reused
+        Assertions.assertEquals(contentItemsCount + 1, attributeContentItemRepository.count());
+
+        var mappedMetadata = attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(connectorAuthority.getUuid(), Resource.CERTIFICATE, certificate.getUuid()));
+        Optional<MetadataResponseDto> metadataResponseDto = mappedMetadata.stream().filter(m -> m.getSourceObjectType() == null).findFirst();
+        Assertions.assertTrue(metadataResponseDto.isPresent());
+        Assertions.assertEquals(2, metadataResponseDto.get().getItems().get(0).getContent().size());
+
+        mappedMetadata = attributeEngine.getMappedMetadataContent(new ObjectAttributeContentInfo(connectorAuthority.getUuid(), Resource.CERTIFICATE, secondCertificateUuid));
+        Assertions.assertEquals(1, mappedMetadata.size());
+        Assertions.assertEquals(1, mappedMetadata.get(0).getItems().get(0).getContent().size());
+    }
+
     @Test
     public void testAttributeContentValidation() throws NotFoundException, AttributeException {
         RequestAttributeDto departmentAttributeDto = new RequestAttributeDto();
@@ -0,0 +1,111 @@
+package com.czertainly.core.auth;
+
+import com.czertainly.core.dao.entity.auth.UserIdentity;
+import com.czertainly.core.dao.repository.auth.UserIdentityRepository;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+class AuthIdentityReplicaTest extends BaseSpringBootTest {
+
+    private static final UUID ROLE_UUID = UUID.randomUUID();
+    private static final UUID GROUP_UUID = UUID.randomUUID();
+    private static final UUID USER1_UUID = UUID.randomUUID();
+    private static final UUID USER2_UUID = UUID.randomUUID();
+
+    @DynamicPropertySource
+    static void authServiceProperties(DynamicPropertyRegistry registry) {
+        registry.add("auth-service.base-url", () -> "http://localhost:10002");
+    }
+
+    @Autowired
+    private AuthIdentityReplica authIdentityReplica;
+
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+
+    private WireMockServer mockServer;
+
+    @BeforeEach
+    void setUp() {
+        mockServer = new WireMockServer(10002);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/auth/roles")).willReturn(
+                WireMock.okJson("{\"data\": [{\"uuid\": \"%s\", \"name\": \"operators\", \"email\": \"operators@example.com\", \"systemRole\": false}]}".formatted(ROLE_UUID))
+        ));
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/auth/users")).willReturn(
+                WireMock.okJson("{\"data\": [{\"uuid\": \"%s\", \"username\": \"zoe\", \"email\": \"zoe@example.com\", \"groups\": [{\"uuid\": \"%s\", \"name\": \"group\"}]}, {\"uuid\": \"%s\", \"username\": \"adam\", \"groups\": []}]}".formatted(USER1_UUID, GROUP_UUID, USER2_UUID))
+        ));
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/auth/roles/%s/users".formatted(ROLE_UUID))).willReturn(
+                WireMock.okJson("[{\"uuid\": \"%s\", \"username\": \"adam\"}]".formatted(USER2_UUID))
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+    }
+
+    @Test
+    void testSynchronize() {
+        authIdentityReplica.synchronize();
+        mockServer.resetRequests();
+
+        Assertions.assertEquals(List.of("adam", "zoe"), authIdentityReplica.getUsernames());
+        Assertions.assertEquals("zoe@example.com", authIdentityReplica.findUser(USER1_UUID).orElseThrow().email());
+        Assertions.assertEquals("operators", authIdentityReplica.findRole(ROLE_UUID).orElseThrow().name());
+        Assertions.assertEquals(List.of(USER2_UUID), authIdentityReplica.getRoleUserUuids(ROLE_UUID));
+        Assertions.assertEquals(List.of(USER1_UUID), authIdentityReplica.getGroupUserUuids(GROUP_UUID));
+
+        // lookups are served by replica
+        Assertions.assertTrue(mockServer.getAllServeEvents().isEmpty());
+    }
+
+    @Test
+    void testFindUserNotReplicated() {
+        UUID userUuid = UUID.randomUUID();
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/auth/users/" + userUuid)).willReturn(
+                WireMock.okJson("{\"uuid\": \"%s\", \"username\": \"newUser\"}".formatted(userUuid))
+        ));
+
+        Assertions.assertEquals("newUser", authIdentityReplica.findUser(userUuid).orElseThrow().username());
+        Assertions.assertTrue(authIdentityReplica.findUser(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void testReloadIndexWithChangesOfOtherNode() {
+        authIdentityReplica.synchronize();
+
+        // user replicated by other node is persisted without event on this node
+        UserIdentity userIdentity = new UserIdentity();
+        userIdentity.setUuid(UUID.randomUUID());
+        userIdentity.setUsername("eve");
+        userIdentity.getRoleUuids().add(ROLE_UUID);
+        userIdentityRepository.save(userIdentity);
+        userIdentityRepository.deleteById(USER1_UUID);
+        userIdentityRepository.flush();
+        Assertions.assertEquals(List.of("adam", "zoe"), authIdentityReplica.getUsernames());
+
+        authIdentityReplica.reloadIndex();
+        mockServer.resetRequests();
+
+        Assertions.assertEquals(List.of("adam", "eve"), authIdentityReplica.getUsernames());
+        Assertions.assertEquals(Set.of(USER2_UUID, userIdentity.getUuid()), Set.copyOf(authIdentityReplica.getRoleUserUuids(ROLE_UUID)));
+        Assertions.assertTrue(authIdentityReplica.getGroupUserUuids(GROUP_UUID).isEmpty());
+        Assertions.assertEquals("eve", authIdentityReplica.findUser(userIdentity.getUuid()).orElseThrow().username());
+        Assertions.assertTrue(mockServer.getAllServeEvents().isEmpty());
+    }
+}
@@ -0,0 +1,170 @@
+package com.czertainly.core.config;
+
+import com.czertainly.core.util.AuthHelper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+class ProtocolValidationFilterTest {
+
+    private static final String PROTOCOL_URI = "/api/v1/protocols/acme/profile/new-order";
+    private static final String API_URI = "/api/v1/certificates/upload";
+
+    private final AuthHelper authHelper = Mockito.mock(AuthHelper.class);
+    private final ProtocolValidationFilter filter = new ProtocolValidationFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setAuthHelper(authHelper);
+        filter.setHandlerExceptionResolver(Mockito.mock(HandlerExceptionResolver.class));
+        filter.setMaxBodySize(DataSize.ofKilobytes(64));
+        filter.setMemoryThreshold(DataSize.ofKilobytes(4));
+    }
+
+    @Test
+    void testApiRequestIsNotWrapped() throws Exception {
+        MockHttpServletRequest request = createRequest(API_URI, createBody(128 * 1024));
+        AtomicReference<ServletRequest> filteredRequest = new AtomicReference<>();
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> filteredRequest.set(req));
+
+        // body over maximum size of protocol requests is passed as is
+        Assertions.assertSame(request, filteredRequest.get());
+        Mockito.verifyNoInteractions(authHelper);
+    }
+
+    @Test
+    void testProtocolRequestCachedInMemory() throws Exception {
+        byte[] body = createBody(1024);
+        List<byte[]> readBodies = new ArrayList<>();
+
+        filter.doFilter(createRequest(PROTOCOL_URI, body), new MockHttpServletResponse(), (req, res) -> {
+            CustomHttpServletRequestWrapper wrapper = (CustomHttpServletRequestWrapper) req;
+            Assertions.assertFalse(wrapper.isSpooled());
+            readBodies.add(StreamUtils.copyToByteArray(req.getInputStream()));
+            readBodies.add(StreamUtils.copyToByteArray(req.getInputStream()));
+            res.getOutputStream().write(body);
+        });
+
+        Assertions.assertEquals(2, readBodies.size());
+        Assertions.assertArrayEquals(body, readBodies.get(0));
+        Assertions.assertArrayEquals(body, readBodies.get(1));
+        Mockito.verify(authHelper).authenticateAsSystemUser(AuthHelper.ACME_USERNAME);
+    }
+
+    @Test
+    void testLargeProtocolRequestSpooledToFile() throws Exception {
+        byte[] body = createBody(32 * 1024);
+        long spooledFilesBefore = countSpooledFiles();
+        List<byte[]> readBodies = new ArrayList<>();
+
+        filter.doFilter(createRequest(PROTOCOL_URI, body), new MockHttpServletResponse(), (req, res) -> {
+            Assertions.assertTrue(((CustomHttpServletRequestWrapper) req).isSpooled());
+            readBodies.add(StreamUtils.copyToByteArray(req.getInputStream()));
+            readBodies.add(StreamUtils.copyToByteArray(req.getInputStream()));
+        });
+
+        Assertions.assertArrayEquals(body, readBodies.get(0));
+        Assertions.assertArrayEquals(body, readBodies.get(1));
+        // temporary file is deleted after the request
+        Assertions.assertEquals(spooledFilesBefore, countSpooledFiles());
+    }
+
+    @Test
+    void testTooLargeProtocolRequestRejected() throws Exception {
+        MockHttpServletRequest request = createRequest(PROTOCOL_URI, createBody(128 * 1024));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain filterChain = Mockito.mock(FilterChain.class);
+
+        filter.doFilter(request, response, filterChain);
+
+        Assertions.assertEquals(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, response.getStatus());
+        Mockito.verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void testAllocationRateOfApiRequests() throws Exception {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean && threadMXBean.isThreadAllocatedMemorySupported());
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        filter.setMaxBodySize(DataSize.ofMegabytes(2));
+        filter.setMemoryThreshold(DataSize.ofMegabytes(2));
+
+        int requestsCount = 200;
+        byte[] body = createBody(256 * 1024);
+        byte[] drainBuffer = new byte[8192];
+        FilterChain drainingChain = (req, res) -> {
+            try (InputStream inputStream = req.getInputStream()) {
+                while (inputStream.read(drainBuffer) != -1) {
+                    // body is consumed as controller would do
+                }
+            }
+        };
+
+        // warm up both paths before measuring
+        measureAllocatedBytesPerRequest(threadMXBean, API_URI, body, requestsCount, drainingChain);
+        measureAllocatedBytesPerRequest(threadMXBean, PROTOCOL_URI, body, requestsCount, drainingChain);
+
+        long apiAllocation = measureAllocatedBytesPerRequest(threadMXBean, API_URI, body, requestsCount, drainingChain);
+        long protocolAllocation = measureAllocatedBytesPerRequest(threadMXBean, PROTOCOL_URI, body, requestsCount, drainingChain);
+
+        // body of API requests is streamed without copies, cached protocol bodies are copied to memory
+        Assertions.assertTrue(apiAllocation < body.length / 16, "Allocated %d bytes per API request with body of %d bytes".formatted(apiAllocation, body.length));
+        Assertions.assertTrue(protocolAllocation >= body.length, "Allocated %d bytes per protocol request with body of %d bytes".formatted(protocolAllocation, body.length));
+    }
+
+    private long measureAllocatedBytesPerRequest(com.sun.management.ThreadMXBean threadMXBean, String uri, byte[] body, int requestsCount, FilterChain filterChain) throws Exception {
+        List<MockHttpServletRequest> requests = new ArrayList<>(requestsCount);
+        List<MockHttpServletResponse> responses = new ArrayList<>(requestsCount);
+        for (int i = 0; i < requestsCount; i++) {
+            requests.add(createRequest(uri, body));
+            responses.add(new MockHttpServletResponse());
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < requestsCount; i++) {
+            filter.doFilter(requests.get(i), responses.get(i), filterChain);
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore) / requestsCount;
+    }
+
+    private static MockHttpServletRequest createRequest(String uri, byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setContent(body);
+        return request;
+    }
+
+    private static byte[] createBody(int size) {
+        byte[] body = new byte[size];
+        for (int i = 0; i < size; i++) {
+            body[i] = (byte) i;
+        }
+        return body;
+    }
+
+    private static long countSpooledFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(f -> f.getFileName().toString().startsWith("czertainly-request-")).count();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.czertainly.core.connector;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+class ConnectorCircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private MutableClock clock;
+    private ConnectorCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2024-10-01T10:00:00Z"));
+        circuitBreaker = new ConnectorCircuitBreaker(3, OPEN_DURATION, clock);
+    }
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void testSuccessResetsFailures() {
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordSuccess();
+        circuitBreaker.recordFailure();
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    void testHalfOpenProbe() {
+        openCircuit();
+
+        clock.advance(OPEN_DURATION.minusSeconds(1));
+        Assertions.assertFalse(circuitBreaker.allowRequest());
+
+        clock.advance(Duration.ofSeconds(1));
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        // only one probe request is let through
+        Assertions.assertFalse(circuitBreaker.allowRequest());
+
+        circuitBreaker.recordSuccess();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void testFailedProbeOpensCircuitAgain() {
+        openCircuit();
+
+        clock.advance(OPEN_DURATION);
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordFailure();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        Assertions.assertFalse(circuitBreaker.allowRequest());
+
+        clock.advance(OPEN_DURATION);
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+    }
+
+    @Test
+    void testIgnoredProbeReleased() {
+        openCircuit();
+
+        clock.advance(OPEN_DURATION);
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+        circuitBreaker.recordIgnored();
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        Assertions.assertTrue(circuitBreaker.allowRequest());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.recordFailure();
+        }
+        Assertions.assertEquals(ConnectorCircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.czertainly.core.connector;
+
+import com.czertainly.api.exception.ConnectorCommunicationException;
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+class ConnectorMetadataCacheTest {
+
+    private ConnectorMetadataCache connectorMetadataCache;
+    private ConnectorDto connector;
+
+    @BeforeEach
+    void setUp() {
+        connectorMetadataCache = new ConnectorMetadataCache();
+        ReflectionTestUtils.setField(connectorMetadataCache, "cacheTtl", Duration.ofMinutes(10));
+        ReflectionTestUtils.setField(connectorMetadataCache, "failureThreshold", 2);
+        ReflectionTestUtils.setField(connectorMetadataCache, "openDuration", Duration.ofMinutes(1));
+
+        connector = new ConnectorDto();
+        connector.setUuid(UUID.randomUUID().toString());
+        connector.setName("connector");
+    }
+
+    @Test
+    void testCommunicationFailuresOpenCircuit() {
+        WebClientRequestException requestException = new WebClientRequestException(new ConnectException("Connection refused"),
+                HttpMethod.GET, URI.create("http://localhost"), new HttpHeaders());
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThrows(WebClientRequestException.class, () -> connectorMetadataCache.execute(connector, () -> {
+                throw requestException;
+            }));
+        }
+
+        Assertions.assertThrows(ConnectorCommunicationException.class, () -> connectorMetadataCache.execute(connector, () -> "result"));
+    }
+
+    @Test
+    void testCallerFailuresDoNotOpenCircuit() throws ConnectorException {
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> connectorMetadataCache.execute(connector, () -> {
+                throw new IllegalArgumentException("Unable to map response");
+            }));
+        }
+
+        Assertions.assertEquals("result", connectorMetadataCache.execute(connector, () -> "result"));
+    }
+}
@@ -29,6 +29,7 @@ import com.czertainly.core.service.ResourceObjectAssociationService;
 import com.czertainly.core.util.BaseSpringBootTest;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -123,6 +124,13 @@ public class RuleEvaluatorTest extends BaseSpringBootTest {
         trigger.setActions(List.of(action));
     }
 
+    @AfterEach
+    public void tearDown() {
+        if (mockServer != null) {
+            mockServer.stop();
+        }
+    }
+
     @Test
     public void testCertificateEvaluatorOnProperties() throws RuleException {
 
@@ -345,6 +353,101 @@ public class RuleEvaluatorTest extends BaseSpringBootTest {
         Assertions.assertEquals("ownerName", owner.getName());
     }
 
+    @Test
+    public void testBatchedActionsEquivalentToSequential() throws RuleException, NotFoundException {
+        mockServer = new WireMockServer(10001);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching("/auth/users/[^/]+")).willReturn(
+                WireMock.okJson("{ \"username\": \"ownerName\"}")
+        ));
+
+        // owner is removed first and then set, so result depends on order of performed actions
+        ExecutionItem removeOwnerItem = new ExecutionItem();
+        removeOwnerItem.setFieldSource(FilterFieldSource.PROPERTY);
+        removeOwnerItem.setFieldIdentifier(FilterField.OWNER.toString());
+        executionItem.setFieldSource(FilterFieldSource.PROPERTY);
+        executionItem.setFieldIdentifier(FilterField.OWNER.toString());
+        executionItem.setData(UUID.randomUUID());
+        execution.setItems(List.of(removeOwnerItem, executionItem));
+
+        certificateRuleEvaluator.performActions(trigger, certificate, new TriggerHistory());
+
+        List<Certificate> batchedCertificates = new ArrayList<>();
+        CertificateTriggerActionBatch batch = new CertificateTriggerActionBatch();
+        for (int i = 0; i < 3; i++) {
+            Certificate batchedCertificate = certificateRepository.save(new Certificate());
+            batchedCertificates.add(batchedCertificate);
+            certificateRuleEvaluator.performActions(trigger, 0, batchedCertificate, new TriggerHistory(), batch);
+            Assertions.assertNull(associationService.getOwner(Resource.CERTIFICATE, batchedCertificate.getUuid()));
+        }
+
+        List<CertificateTriggerActionBatch.BatchedAction> batchedActions = batch.getActions();
+        Assertions.assertEquals(2, batchedActions.size());
+        for (CertificateTriggerActionBatch.BatchedAction batchedAction : batchedActions) {
+            List<UUID> certificateUuids = new ArrayList<>(batch.getObjects(batchedAction).stream().map(CertificateTriggerActionBatch.BatchedObject::certificateUuid).toList());
+            Assertions.assertEquals(3, certificateUuids.size());
+            // certificate deleted after it was collected does not fail the rest of the batch
+            certificateUuids.add(UUID.randomUUID());
+            Assertions.assertTrue(certificateRuleEvaluator.performBatchedAction(batchedAction, certificateUuids).isEmpty());
+        }
+
+        NameAndUuidDto sequentialOwner = associationService.getOwner(Resource.CERTIFICATE, certificate.getUuid());
+        Assertions.assertNotNull(sequentialOwner);
+        for (Certificate batchedCertificate : batchedCertificates) {
+            NameAndUuidDto batchedOwner = associationService.getOwner(Resource.CERTIFICATE, batchedCertificate.getUuid());
+            Assertions.assertNotNull(batchedOwner);
+            Assertions.assertEquals(sequentialOwner.getUuid(), batchedOwner.getUuid());
+            Assertions.assertEquals(sequentialOwner.getName(), batchedOwner.getName());
+        }
+    }
+
+    @Test
+    public void testMergedActionsEquivalentToSequential() throws RuleException, NotFoundException {
+        mockServer = new WireMockServer(10001);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching("/auth/users/[^/]+")).willReturn(
+                WireMock.okJson("{ \"username\": \"ownerName\"}")
+        ));
+
+        // owner is removed first and then set, only the last action determines owner of certificate
+        ExecutionItem removeOwnerItem = new ExecutionItem();
+        removeOwnerItem.setFieldSource(FilterFieldSource.PROPERTY);
+        removeOwnerItem.setFieldIdentifier(FilterField.OWNER.toString());
+        executionItem.setFieldSource(FilterFieldSource.PROPERTY);
+        executionItem.setFieldIdentifier(FilterField.OWNER.toString());
+        executionItem.setData(UUID.randomUUID());
+        execution.setItems(List.of(removeOwnerItem, executionItem));
+
+        certificateRuleEvaluator.performActions(trigger, certificate, new TriggerHistory());
+
+        List<Certificate> batchedCertificates = new ArrayList<>();
+        CertificateTriggerActionBatch batch = new CertificateTriggerActionBatch();
+        for (int i = 0; i < 3; i++) {
+            Certificate batchedCertificate = certificateRepository.save(new Certificate());
+            batchedCertificates.add(batchedCertificate);
+            certificateRuleEvaluator.performActions(trigger, 0, batchedCertificate, new TriggerHistory(), batch);
+        }
+
+        Map<UUID, CertificateTriggerActionBatch.ObjectAction> lastActions = batch.getLastActions(FilterField.OWNER);
+        Assertions.assertEquals(3, lastActions.size());
+        Map<UUID, List<UUID>> certificatePropertyUuids = new LinkedHashMap<>();
+        lastActions.forEach((certificateUuid, objectAction) -> certificatePropertyUuids.put(certificateUuid, objectAction.action().propertyUuids()));
+        // certificate deleted after it was collected does not fail the rest of the batch
+        certificatePropertyUuids.put(UUID.randomUUID(), List.of());
+        certificateRuleEvaluator.performMergedActions(FilterField.OWNER, certificatePropertyUuids);
+
+        NameAndUuidDto sequentialOwner = associationService.getOwner(Resource.CERTIFICATE, certificate.getUuid());
+        Assertions.assertNotNull(sequentialOwner);
+        for (Certificate batchedCertificate : batchedCertificates) {
+            NameAndUuidDto batchedOwner = associationService.getOwner(Resource.CERTIFICATE, batchedCertificate.getUuid());
+            Assertions.assertNotNull(batchedOwner);
+            Assertions.assertEquals(sequentialOwner.getUuid(), batchedOwner.getUuid());
+            Assertions.assertEquals(sequentialOwner.getName(), batchedOwner.getName());
+        }
+    }
+
     @Test
     public void testSetRaProfile() throws RuleException {
         mockServer = new WireMockServer(0);
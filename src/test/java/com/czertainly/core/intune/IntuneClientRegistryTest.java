@@ -0,0 +1,50 @@
+package com.czertainly.core.intune;
+
+import com.czertainly.core.dao.entity.scep.ScepProfile;
+import com.czertainly.core.intune.scepvalidation.IntuneScepServiceClient;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+class IntuneClientRegistryTest extends BaseSpringBootTest {
+
+    @Autowired
+    private IntuneClientRegistry intuneClientRegistry;
+
+    private ScepProfile scepProfile;
+
+    @BeforeEach
+    void setUp() {
+        scepProfile = new ScepProfile();
+        scepProfile.setUuidFromString(UUID.randomUUID().toString());
+        scepProfile.setName("intuneScepProfile");
+        scepProfile.setIntuneEnabled(true);
+        scepProfile.setIntuneTenant("tenant.onmicrosoft.com");
+        scepProfile.setIntuneApplicationId(UUID.randomUUID().toString());
+        scepProfile.setIntuneApplicationKey("applicationKey");
+    }
+
+    @Test
+    void testClientReused() {
+        IntuneScepServiceClient client = intuneClientRegistry.getScepServiceClient(scepProfile);
+        Assertions.assertSame(client, intuneClientRegistry.getScepServiceClient(scepProfile));
+        Assertions.assertSame(intuneClientRegistry.getRevocationClient(scepProfile), intuneClientRegistry.getRevocationClient(scepProfile));
+    }
+
+    @Test
+    void testClientRebuiltOnSettingsChange() {
+        IntuneScepServiceClient client = intuneClientRegistry.getScepServiceClient(scepProfile);
+
+        scepProfile.setIntuneApplicationKey("changedApplicationKey");
+        IntuneScepServiceClient changedClient = intuneClientRegistry.getScepServiceClient(scepProfile);
+        Assertions.assertNotSame(client, changedClient);
+        Assertions.assertSame(changedClient, intuneClientRegistry.getScepServiceClient(scepProfile));
+
+        intuneClientRegistry.evict(scepProfile.getUuid());
+        Assertions.assertNotSame(changedClient, intuneClientRegistry.getScepServiceClient(scepProfile));
+    }
+}
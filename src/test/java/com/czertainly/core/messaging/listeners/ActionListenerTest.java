@@ -0,0 +1,134 @@
+package com.czertainly.core.messaging.listeners;
+
+import com.czertainly.api.exception.MessageHandlingException;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.ApprovalProfileRelation;
+import com.czertainly.core.dao.repository.ApprovalProfileRelationRepository;
+import com.czertainly.core.messaging.model.ActionMessage;
+import com.czertainly.core.messaging.producers.ActionProducer;
+import com.czertainly.core.messaging.producers.NotificationProducer;
+import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.service.handler.AuthorityBusyException;
+import com.czertainly.core.service.v2.ClientOperationService;
+import com.czertainly.core.util.AuthHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActionListenerTest {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+    @Mock
+    private ApprovalProfileRelationRepository approvalProfileRelationRepository;
+
+    @Mock
+    private ClientOperationService clientOperationService;
+
+    @Mock
+    private NotificationProducer notificationProducer;
+
+    @Mock
+    private AuthHelper authHelper;
+
+    @Mock
+    private ActionProducer actionProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ActionListener actionListener;
+
+    private final UUID raProfileUuid = UUID.randomUUID();
+    private final UUID userUuid = UUID.randomUUID();
+    private final List<UUID> certificateUuids = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(actionListener, "authorityBusyRetryDelay", RETRY_DELAY);
+    }
+
+    @Test
+    void testGroupedActionWithApprovalSplitToSingleActions() throws MessageHandlingException {
+        when(approvalProfileRelationRepository.findByResourceUuidAndResource(raProfileUuid, Resource.RA_PROFILE)).thenReturn(Optional.of(List.of(new ApprovalProfileRelation())));
+
+        actionListener.processMessage(createGroupedMessage());
+
+        ArgumentCaptor<ActionMessage> messageCaptor = ArgumentCaptor.forClass(ActionMessage.class);
+        verify(actionProducer, times(2)).produceMessage(messageCaptor.capture());
+        Assertions.assertEquals(certificateUuids, messageCaptor.getAllValues().stream().map(ActionMessage::getResourceUuid).toList());
+        for (ActionMessage message : messageCaptor.getAllValues()) {
+            Assertions.assertNull(message.getResourceUuids());
+            Assertions.assertEquals(raProfileUuid, message.getApprovalProfileResourceUuid());
+            Assertions.assertEquals(userUuid, message.getUserUuid());
+            Assertions.assertEquals(ResourceAction.ISSUE, message.getResourceAction());
+        }
+        verifyNoInteractions(clientOperationService);
+    }
+
+    @Test
+    void testGroupedActionIssuedInBatch() throws MessageHandlingException {
+        when(approvalProfileRelationRepository.findByResourceUuidAndResource(raProfileUuid, Resource.RA_PROFILE)).thenReturn(Optional.empty());
+        when(clientOperationService.issueCertificateBatchAction(raProfileUuid, certificateUuids, false)).thenReturn(List.of());
+
+        actionListener.processMessage(createGroupedMessage());
+
+        verify(authHelper).authenticateAsUser(userUuid);
+        verifyNoInteractions(actionProducer);
+    }
+
+    @Test
+    void testGroupedActionPostponedCertificatesDelayed() throws MessageHandlingException {
+        when(approvalProfileRelationRepository.findByResourceUuidAndResource(raProfileUuid, Resource.RA_PROFILE)).thenReturn(Optional.empty());
+        when(clientOperationService.issueCertificateBatchAction(raProfileUuid, certificateUuids, false)).thenReturn(List.of(certificateUuids.get(1)));
+
+        actionListener.processMessage(createGroupedMessage());
+
+        ArgumentCaptor<ActionMessage> messageCaptor = ArgumentCaptor.forClass(ActionMessage.class);
+        verify(actionProducer).produceDelayedMessage(messageCaptor.capture(), eq(RETRY_DELAY));
+        Assertions.assertEquals(List.of(certificateUuids.get(1)), messageCaptor.getValue().getResourceUuids());
+        verify(actionProducer, never()).produceMessage(any());
+    }
+
+    @Test
+    void testActionPostponedWhenAuthorityBusy() throws Exception {
+        ActionMessage actionMessage = createGroupedMessage();
+        actionMessage.setResourceUuids(null);
+        actionMessage.setResourceUuid(certificateUuids.get(0));
+        when(approvalProfileRelationRepository.findByResourceUuidAndResource(raProfileUuid, Resource.RA_PROFILE)).thenReturn(Optional.empty());
+        doThrow(new AuthorityBusyException(UUID.randomUUID())).when(clientOperationService).issueCertificateAction(certificateUuids.get(0), false);
+
+        actionListener.processMessage(actionMessage);
+
+        verify(actionProducer).produceDelayedMessage(actionMessage, RETRY_DELAY);
+        verifyNoInteractions(notificationProducer);
+    }
+
+    private ActionMessage createGroupedMessage() {
+        ActionMessage actionMessage = new ActionMessage();
+        actionMessage.setApprovalProfileResource(Resource.RA_PROFILE);
+        actionMessage.setApprovalProfileResourceUuid(raProfileUuid);
+        actionMessage.setUserUuid(userUuid);
+        actionMessage.setResource(Resource.CERTIFICATE);
+        actionMessage.setResourceAction(ResourceAction.ISSUE);
+        actionMessage.setResourceUuids(certificateUuids);
+        return actionMessage;
+    }
+}
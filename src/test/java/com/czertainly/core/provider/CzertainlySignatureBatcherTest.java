@@ -0,0 +1,151 @@
+package com.czertainly.core.provider;
+
+import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataRequestDto;
+import com.czertainly.api.model.connector.cryptography.operations.SignDataResponseDto;
+import com.czertainly.api.model.connector.cryptography.operations.data.SignatureRequestData;
+import com.czertainly.api.model.connector.cryptography.operations.data.SignatureResponseData;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.core.provider.key.CzertainlyPrivateKey;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+class CzertainlySignatureBatcherTest {
+
+    private static final String ALGORITHM = "SHA256withRSA";
+
+    private final CzertainlyPrivateKey privateKey = new CzertainlyPrivateKey("tokenInstance", "key", new ConnectorDto(), "RSA");
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private CryptographicOperationsApiClient apiClient;
+    private SimpleMeterRegistry meterRegistry;
+    private CzertainlySignatureBatcher signatureBatcher;
+
+    @BeforeEach
+    void setUp() {
+        apiClient = Mockito.mock(CryptographicOperationsApiClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+        signatureBatcher = new CzertainlySignatureBatcher(apiClient, meterRegistry, 10, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        signatureBatcher.close();
+    }
+
+    @Test
+    void testSign() throws Exception {
+        given(apiClient.signData(any(), any(), any(), any())).willAnswer(invocation -> echoSignatures(invocation.getArgument(3)));
+
+        Assertions.assertArrayEquals(bytes("data"), signatureBatcher.sign(privateKey, ALGORITHM, List.of(), bytes("data")));
+        Assertions.assertEquals(List.of(1), batchSizes);
+        Assertions.assertEquals(1, meterRegistry.get(CzertainlySignatureBatcher.SIGN_LATENCY_METRIC).tag("key", "key").timer().count());
+        Assertions.assertEquals(1, meterRegistry.get(CzertainlySignatureBatcher.CONNECTOR_LATENCY_METRIC).tag("key", "key").timer().count());
+    }
+
+    @Test
+    void testConcurrentRequestsBatched() throws Exception {
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+        given(apiClient.signData(any(), any(), any(), any())).willAnswer(invocation -> {
+            callStarted.countDown();
+            Assertions.assertTrue(releaseCall.await(10, TimeUnit.SECONDS));
+            return echoSignatures(invocation.getArgument(3));
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        List<CompletableFuture<byte[]>> results = new ArrayList<>();
+        threads.add(startSigning("first", results));
+        Assertions.assertTrue(callStarted.await(10, TimeUnit.SECONDS));
+
+        // requests arriving while the only allowed call is in flight wait for it and are sent together
+        for (String data : List.of("a", "b", "c")) {
+            threads.add(startSigning(data, results));
+        }
+        for (Thread thread : threads.subList(1, threads.size())) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(10);
+            }
+        }
+        releaseCall.countDown();
+
+        List<String> signatures = new ArrayList<>();
+        for (CompletableFuture<byte[]> result : results) {
+            signatures.add(new String(result.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+        }
+        Assertions.assertEquals(List.of("first", "a", "b", "c"), signatures);
+        Assertions.assertEquals(List.of(1, 3), batchSizes);
+
+        DistributionSummary batchSize = meterRegistry.get(CzertainlySignatureBatcher.BATCH_SIZE_METRIC).tag("key", "key").summary();
+        Assertions.assertEquals(2, batchSize.count());
+        Assertions.assertEquals(4, batchSize.totalAmount());
+        Assertions.assertEquals(4, meterRegistry.get(CzertainlySignatureBatcher.SIGN_LATENCY_METRIC).tag("key", "key").timer().count());
+    }
+
+    @Test
+    void testConnectorFailure() throws Exception {
+        given(apiClient.signData(any(), any(), any(), any())).willThrow(ConnectorException.class);
+
+        SignatureException exception = Assertions.assertThrows(SignatureException.class, () -> signatureBatcher.sign(privateKey, ALGORITHM, List.of(), bytes("data")));
+        Assertions.assertInstanceOf(ConnectorException.class, exception.getCause());
+
+        // failed call does not block following requests
+        Mockito.reset(apiClient);
+        given(apiClient.signData(any(), any(), any(), any())).willAnswer(invocation -> echoSignatures(invocation.getArgument(3)));
+        Assertions.assertArrayEquals(bytes("data"), signatureBatcher.sign(privateKey, ALGORITHM, List.of(), bytes("data")));
+    }
+
+    @Test
+    void testMissingSignature() throws Exception {
+        given(apiClient.signData(any(), any(), any(), any())).willReturn(new SignDataResponseDto());
+
+        Assertions.assertThrows(SignatureException.class, () -> signatureBatcher.sign(privateKey, ALGORITHM, List.of(), bytes("data")));
+    }
+
+    private Thread startSigning(String data, List<CompletableFuture<byte[]>> results) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        results.add(result);
+        return Thread.ofPlatform().start(() -> {
+            try {
+                result.complete(signatureBatcher.sign(privateKey, ALGORITHM, List.of(), bytes(data)));
+            } catch (SignatureException e) {
+                result.completeExceptionally(e);
+            }
+        });
+    }
+
+    private SignDataResponseDto echoSignatures(SignDataRequestDto requestDto) {
+        batchSizes.add(requestDto.getData().size());
+        List<SignatureResponseData> signatures = new ArrayList<>();
+        for (SignatureRequestData data : requestDto.getData()) {
+            SignatureResponseData signature = new SignatureResponseData();
+            signature.setData(data.getData());
+            signatures.add(signature);
+        }
+        SignDataResponseDto responseDto = new SignDataResponseDto();
+        responseDto.setSignatures(signatures);
+        return responseDto;
+    }
+
+    private static byte[] bytes(String data) {
+        return data.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,336 @@
+package com.czertainly.core.repository;
+
+import com.czertainly.api.model.client.approval.ApprovalStatusEnum;
+import com.czertainly.api.model.client.certificate.SearchFilterRequestDto;
+import com.czertainly.api.model.common.attribute.v2.AttributeType;
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.api.model.core.search.FilterConditionOperator;
+import com.czertainly.api.model.core.search.FilterFieldSource;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.core.dao.repository.ApprovalRecipientRepository;
+import com.czertainly.core.dao.repository.AttributeContent2ObjectRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.GroupAssociationRepository;
+import com.czertainly.core.dao.repository.NotificationRecipientRepository;
+import com.czertainly.core.dao.repository.OwnerAssociationRepository;
+import com.czertainly.core.security.authz.SecurityFilter;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.czertainly.core.util.FilterPredicatesBuilder;
+import db.migration.V202206151000__AttributeChanges;
+import db.migration.V202211031400__AttributeV2Changes;
+import db.migration.V202211141030__AttributeV2TablesAndMigration;
+import db.migration.V202301311500__PublicKeyMigration;
+import db.migration.V202303160830__AttributeContentJsonMigration;
+import db.migration.V202306141503__CertificateRequest;
+import db.migration.V202311071500__IssuerAndSubjectDnMigration;
+import db.migration.V202402171510__UpdateAndOptimizeAttributesModelMigration;
+import db.migration.V202408231055__DuplicateCertificates;
+import db.migration.V202410021000__AttributeContentItemJsonHash;
+import db.migration.V202410071000__AttributeContentItemSearchValues;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.api.migration.Context;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Checks that hot repository queries are served by indexes and do not regress to sequential scans.
+ * Schema is created by Flyway migrations, SQL generated for repository methods is captured and its generic plan is explained,
+ * so the plan is the one used by prepared statement for any bound values.
+ */
+class QueryPlanIndexTest extends BaseSpringBootTest {
+
+    private static final int GENERATED_ROWS_COUNT = 20000;
+    private static final UUID OBJECT_UUID = UUID.fromString("5f3c2f4e-7d1a-4a8e-9b61-2c0d4e8f1a42");
+
+    @DynamicPropertySource
+    static void migratedSchemaProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:tc:postgresql:13-alpine://localhost:55432/czertainly-query-plan?currentSchema=core");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("spring.jpa.properties.hibernate.default_schema", () -> "core");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", CapturingStatementInspector.class::getName);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.flyway.schemas", () -> "core");
+        // Java migrations are not scanned from classpath, they are provided by migration configuration
+        registry.add("spring.flyway.locations", () -> "filesystem:src/main/resources/db/migration");
+    }
+
+    @TestConfiguration
+    static class MigrationConfiguration {
+
+        @Bean
+        FlywayConfigurationCustomizer javaMigrationsCustomizer() {
+            return configuration -> configuration.javaMigrations(
+                    new V202206151000__AttributeChanges(),
+                    new V202209211100__Access_Control(),
+                    new V202211031400__AttributeV2Changes(),
+                    new V202211141030__AttributeV2TablesAndMigration(),
+                    new V202301311500__PublicKeyMigration(),
+                    new V202303160830__AttributeContentJsonMigration(),
+                    new V202306141503__CertificateRequest(),
+                    new V202311071500__IssuerAndSubjectDnMigration(),
+                    new V202402171510__UpdateAndOptimizeAttributesModelMigration(),
+                    new V202404120915__AssignObjectsOwnerAndMultipleGroupsMigration(),
+                    new V202408231055__DuplicateCertificates(),
+                    new V202410021000__AttributeContentItemJsonHash(),
+                    new V202410071000__AttributeContentItemSearchValues());
+        }
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private GroupAssociationRepository groupAssociationRepository;
+
+    @Autowired
+    private OwnerAssociationRepository ownerAssociationRepository;
+
+    @Autowired
+    private AttributeContent2ObjectRepository attributeContent2ObjectRepository;
+
+    @Autowired
+    private ApprovalRecipientRepository approvalRecipientRepository;
+
+    @Autowired
+    private NotificationRecipientRepository notificationRecipientRepository;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.flush();
+        // foreign keys are not checked for seeded rows, setting is reverted together with test transaction
+        entityManager.createNativeQuery("SET LOCAL session_replication_role = replica").executeUpdate();
+
+        seed("""
+                INSERT INTO certificate (uuid, i_cre, i_upd, subject_type, fingerprint, subject_dn_normalized, issuer_dn_normalized, serial_number,
+                                         validation_status, certificate_content_id, status_validation_timestamp)
+                SELECT gen_random_uuid(), now(), now(), 'END_ENTITY', md5(CAST(g AS text)), 'cn=subject' || g, 'cn=issuer' || (g % 100), to_hex(g),
+                       CASE WHEN g % 10 = 0 THEN 'REVOKED' ELSE 'VALID' END, CASE WHEN g % 20 = 0 THEN NULL ELSE g END,
+                       CASE WHEN g % 50 = 0 THEN NULL ELSE now() - g * INTERVAL '1 minute' END
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO group_association (uuid, resource, object_uuid, group_uuid)
+                SELECT gen_random_uuid(), CASE WHEN g % 2 = 0 THEN 'CERTIFICATE' ELSE 'RA_PROFILE' END, gen_random_uuid(), gen_random_uuid()
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO owner_association (uuid, resource, object_uuid, owner_uuid, owner_username)
+                SELECT gen_random_uuid(), 'CERTIFICATE', gen_random_uuid(), gen_random_uuid(), 'owner' || (g % 100)
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO attribute_definition (uuid, attribute_uuid, name, label, type, content_type, operation, definition, enabled, created_at, updated_at)
+                SELECT CAST(md5('definition' || g) AS uuid), gen_random_uuid(), 'attribute' || g, 'Attribute ' || g, CASE WHEN g % 2 = 0 THEN 'CUSTOM' ELSE 'DATA' END,
+                       CASE WHEN g % 4 = 2 THEN 'INTEGER' ELSE 'STRING' END, CASE WHEN g % 4 = 1 THEN 'discovery' END, CAST('{}' AS jsonb), true, now(), now()
+                FROM generate_series(1, LEAST(?1, 100)) g
+                """);
+        seed("""
+                INSERT INTO attribute_content_item (uuid, attribute_definition_uuid, json, string_value, number_value)
+                SELECT CAST(md5('item' || g) AS uuid), CAST(md5('definition' || (g % 100 + 1)) AS uuid), jsonb_build_object('data', g), CAST(g AS text),
+                       CASE WHEN (g % 100 + 1) % 4 = 2 THEN g END
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO attribute_content_2_object (uuid, attribute_content_item_uuid, object_type, object_uuid, item_order)
+                SELECT gen_random_uuid(), CAST(md5('item' || g) AS uuid), 'CERTIFICATE', gen_random_uuid(), 0
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO approval_recipient (uuid, user_uuid, approval_step_uuid, approval_uuid, status, created_at)
+                SELECT gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), gen_random_uuid(), CASE WHEN g % 3 = 0 THEN 'PENDING' ELSE 'APPROVED' END, now()
+                FROM generate_series(1, ?1) g
+                """);
+        seed("""
+                INSERT INTO notification_recipient (uuid, notification_uuid, user_uuid, sent_at, read_at)
+                SELECT gen_random_uuid(), gen_random_uuid(), CAST(md5('user' || (g % 200)) AS uuid), now() - g * INTERVAL '1 minute', CASE WHEN g % 2 = 0 THEN now() END
+                FROM generate_series(1, ?1) g
+                """);
+
+        for (String table : List.of("certificate", "group_association", "owner_association", "attribute_definition", "attribute_content_item",
+                "attribute_content_2_object", "approval_recipient", "notification_recipient")) {
+            entityManager.createNativeQuery("ANALYZE " + table).executeUpdate();
+        }
+    }
+
+    @Test
+    void testCertificateLookupsUseIndex() {
+        assertIndexScan(explain(captureQuery(() -> certificateRepository.findByFingerprint("fingerprint"))),
+                "certificate", "certificate_fingerprint_index");
+        assertIndexScan(explain(captureQuery(() -> certificateRepository.findBySubjectDnNormalized("cn=subject"))),
+                "certificate", "certificate_subject_dn_normalized_serial_number_index");
+        assertIndexScan(explain(captureQuery(() -> certificateRepository.findBySubjectDnNormalizedAndSerialNumber("cn=subject", "01"))),
+                "certificate", "certificate_subject_dn_normalized_serial_number_index");
+        assertIndexScan(explain(captureQuery(() -> certificateRepository.findByIssuerDnNormalizedAndSerialNumber("cn=issuer", "01"))),
+                "certificate", "certificate_issuer_dn_normalized_serial_number_index");
+    }
+
+    @Test
+    void testCertificatesToCheckStatusUseIndex() {
+        String query = captureQuery(() -> certificateRepository.findCertificatesToCheckStatus(LocalDateTime.now().minusDays(1),
+                List.of(CertificateValidationStatus.REVOKED, CertificateValidationStatus.EXPIRED), PageRequest.of(0, 100)));
+        assertIndexScan(explain(query), "certificate", "certificate_status_validation_timestamp_index");
+    }
+
+    @Test
+    void testObjectAssociationsUseIndex() {
+        assertIndexScan(explain(captureQuery(() -> groupAssociationRepository.findByResourceAndObjectUuid(Resource.CERTIFICATE, OBJECT_UUID))),
+                "group_association", "group_association_resource_object_uuid_index");
+        assertIndexScan(explain(captureQuery(() -> groupAssociationRepository.findGroupsOfObjects(Resource.CERTIFICATE, List.of(OBJECT_UUID, UUID.randomUUID())))),
+                "group_association", "group_association_resource_object_uuid_index");
+        assertIndexScan(explain(captureQuery(() -> ownerAssociationRepository.findByResourceAndObjectUuid(Resource.CERTIFICATE, OBJECT_UUID))),
+                "owner_association", "owner_association_resource_object_uuid_index");
+        assertIndexScan(explain(captureQuery(() -> ownerAssociationRepository.findOwnersOfObjects(Resource.CERTIFICATE, List.of(OBJECT_UUID, UUID.randomUUID())))),
+                "owner_association", "owner_association_resource_object_uuid_index");
+    }
+
+    @Test
+    void testObjectAttributeContentUsesIndex() {
+        String query = captureQuery(() -> attributeContent2ObjectRepository.getObjectDataAttributesContentNoConnector(AttributeType.DATA, "discovery", Resource.CERTIFICATE, OBJECT_UUID));
+        assertIndexScan(explain(query), "attribute_content_2_object", "attribute_content_2_object_object_index");
+    }
+
+    @Test
+    void testAttributeFilterUsesTypedSearchColumnIndex() {
+        // query is built by the same filter predicates as certificate listing, definition 'attribute2' is custom integer attribute
+        List<SearchFilterRequestDto> filters = List.of(new SearchFilterRequestDto(FilterFieldSource.CUSTOM, "attribute2|INTEGER", FilterConditionOperator.EQUALS, 4242));
+        String query = captureQuery(() -> certificateRepository.findUsingSecurityFilter(SecurityFilter.create(), List.of(),
+                (root, cb, cr) -> FilterPredicatesBuilder.getFiltersPredicate(cb, cr, root, filters), PageRequest.of(0, 10), (root, cb) -> cb.desc(root.get("created"))));
+        assertIndexScan(explain(query), "attribute_content_item", "attribute_content_item_definition_number_value_index");
+    }
+
+    @Test
+    void testApprovalRecipientLookupsUseIndex() {
+        assertIndexScan(explain(captureQuery(() -> approvalRecipientRepository.findApprovalRecipientsByApprovalUuidAndStatus(OBJECT_UUID, ApprovalStatusEnum.PENDING))),
+                "approval_recipient", "approval_recipient_approval_uuid_status_index");
+        assertIndexScan(explain(captureQuery(() -> approvalRecipientRepository.findByApprovalUuidAndUserUuid(OBJECT_UUID, OBJECT_UUID))),
+                "approval_recipient", "approval_recipient_approval_uuid_status_index");
+    }
+
+    @Test
+    void testNotificationInboxUsesIndex() {
+        Date sentAt = new Date();
+        assertIndexScan(explain(captureQuery(() -> notificationRecipientRepository.findInboxPage(OBJECT_UUID, PageRequest.of(0, 20)))),
+                "notification_recipient", "notification_recipient_user_uuid_sent_at_index");
+        assertIndexScan(explain(captureQuery(() -> notificationRecipientRepository.findInboxPageAfter(OBJECT_UUID, sentAt, OBJECT_UUID, PageRequest.of(0, 20)))),
+                "notification_recipient", "notification_recipient_user_uuid_sent_at_index");
+        assertIndexScan(explain(captureQuery(() -> notificationRecipientRepository.countByUserUuid(OBJECT_UUID))),
+                "notification_recipient", "notification_recipient_user_uuid_sent_at_index");
+        assertIndexScan(explain(captureQuery(() -> notificationRecipientRepository.findUnreadInboxPage(OBJECT_UUID, PageRequest.of(0, 20)))),
+                "notification_recipient", "notification_recipient_unread_user_uuid_sent_at_index");
+        assertIndexScan(explain(captureQuery(() -> notificationRecipientRepository.findUnreadInboxPageAfter(OBJECT_UUID, sentAt, OBJECT_UUID, PageRequest.of(0, 20)))),
+                "notification_recipient", "notification_recipient_unread_user_uuid_sent_at_index");
+    }
+
+    private void seed(String insert) {
+        entityManager.createNativeQuery(insert).setParameter(1, GENERATED_ROWS_COUNT).executeUpdate();
+    }
+
+    private String captureQuery(Runnable repositoryCall) {
+        CapturingStatementInspector.statements.clear();
+        repositoryCall.run();
+        return CapturingStatementInspector.statements.stream()
+                .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Repository call did not execute any query"));
+    }
+
+    private void assertIndexScan(String plan, String table, String indexName) {
+        Assertions.assertFalse(plan.contains("Seq Scan on " + table + " "), "Query should not scan whole table " + table + ": " + plan);
+        Assertions.assertTrue(plan.contains(indexName), "Query should use index " + indexName + ": " + plan);
+    }
+
+    private String explain(String query) {
+        // JDBC parameters are replaced by parameters of prepared statement and its generic plan is explained, values bound to it do not matter
+        StringBuilder preparedQuery = new StringBuilder();
+        int parametersCount = 0;
+        for (char c : query.toCharArray()) {
+            if (c == '?') {
+                preparedQuery.append('$').append(++parametersCount);
+            } else {
+                preparedQuery.append(c);
+            }
+        }
+        String parameters = parametersCount == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parametersCount, "NULL")) + ")";
+
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE query_plan AS " + preparedQuery);
+                List<String> planRows = new ArrayList<>();
+                try (ResultSet rows = statement.executeQuery("EXPLAIN EXECUTE query_plan" + parameters)) {
+                    while (rows.next()) {
+                        planRows.add(rows.getString(1));
+                    }
+                } finally {
+                    statement.execute("DEALLOCATE query_plan");
+                }
+                return String.join(System.lineSeparator(), planRows);
+            }
+        });
+    }
+
+    /**
+     * Captures SQL statements prepared by Hibernate, so plans are checked for queries generated for repository methods
+     */
+    public static class CapturingStatementInspector implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    /**
+     * Migration creates users and roles in auth service, only its changes of database schema are applied for test
+     */
+    static class V202209211100__Access_Control extends db.migration.V202209211100__Access_Control {
+
+        @Override
+        public void migrate(Context context) throws Exception {
+            try (Statement statement = context.getConnection().createStatement()) {
+                ReflectionTestUtils.invokeMethod(this, "createCertificateUserReference", statement);
+                ReflectionTestUtils.invokeMethod(this, "performCleanups", statement);
+            }
+        }
+    }
+
+    /**
+     * Migration updates permissions in auth service, only its changes of database schema are applied for test,
+     * there are no groups and owners to migrate in empty database
+     */
+    static class V202404120915__AssignObjectsOwnerAndMultipleGroupsMigration extends db.migration.V202404120915__AssignObjectsOwnerAndMultipleGroupsMigration {
+
+        @Override
+        public void migrate(Context context) throws Exception {
+            ReflectionTestUtils.invokeMethod(this, "createDBTable", context);
+            ReflectionTestUtils.invokeMethod(this, "cleanDbStructure", context);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.exception.AcmeProblemDocumentException;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.core.acme.*;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.entity.acme.*;
+import com.czertainly.core.dao.repository.RaProfileRepository;
+import com.czertainly.core.dao.repository.acme.*;
+import com.czertainly.core.service.acme.AcmeChallengeValidationService;
+import com.czertainly.core.service.acme.AcmeConstants;
+import com.czertainly.core.service.acme.AcmeService;
+import com.czertainly.core.service.acme.impl.AcmeChallengeValidationServiceImpl;
+import com.czertainly.core.util.AcmeCommonHelper;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+
+// validation reads challenge and stores its result in transactions of its own, so test does not run in transaction and uses its own database
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AcmeChallengeValidationServiceTest extends BaseSpringBootTest {
+
+    private static final String BASE_URI = "https://localhost:8443/api/acme/";
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(200);
+    private static final Duration VALIDATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:tc:postgresql:13-alpine://localhost:55432/czertainly-acme-challenge-validation");
+    }
+
+    @Autowired
+    private AcmeService acmeService;
+
+    @Autowired
+    private AcmeChallengeValidationService acmeChallengeValidationService;
+
+    @Autowired
+    private RaProfileRepository raProfileRepository;
+
+    @Autowired
+    private AcmeProfileRepository acmeProfileRepository;
+
+    @Autowired
+    private AcmeAccountRepository acmeAccountRepository;
+
+    @Autowired
+    private AcmeOrderRepository acmeOrderRepository;
+
+    @Autowired
+    private AcmeAuthorizationRepository acmeAuthorizationRepository;
+
+    @Autowired
+    private AcmeChallengeRepository acmeChallengeRepository;
+
+    private WireMockServer mockServer;
+    private KeyPair accountKeyPair;
+    private AcmeProfile acmeProfile;
+    private AcmeAccount acmeAccount;
+
+    @BeforeEach
+    void setUp() throws NoSuchAlgorithmException {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        ReflectionTestUtils.setField(acmeChallengeValidationService, "retryBackoff", RETRY_BACKOFF);
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        accountKeyPair = keyPairGenerator.generateKeyPair();
+
+        String suffix = UUID.randomUUID().toString();
+        RaProfile raProfile = new RaProfile();
+        raProfile.setName("challengeRaProfile-" + suffix);
+        raProfile.setEnabled(true);
+        raProfile = raProfileRepository.save(raProfile);
+
+        acmeProfile = new AcmeProfile();
+        acmeProfile.setName("challengeAcmeProfile-" + suffix);
+        acmeProfile.setRaProfile(raProfile);
+        acmeProfile.setRetryInterval(30);
+        acmeProfile.setValidity(30);
+        acmeProfile.setEnabled(true);
+        acmeProfile.setDisableNewOrders(false);
+        acmeProfile = acmeProfileRepository.save(acmeProfile);
+
+        acmeAccount = new AcmeAccount();
+        acmeAccount.setAccountId("account-" + suffix);
+        acmeAccount.setStatus(AccountStatus.VALID);
+        acmeAccount.setEnabled(true);
+        acmeAccount.setTermsOfServiceAgreed(true);
+        acmeAccount.setAcmeProfile(acmeProfile);
+        acmeAccount.setRaProfile(raProfile);
+        acmeAccount.setPublicKey(Base64.getEncoder().encodeToString(accountKeyPair.getPublic().getEncoded()));
+        acmeAccount = acmeAccountRepository.save(acmeAccount);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(acmeChallengeValidationService, "retryBackoff", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(acmeChallengeValidationService, "maxAttempts", 3);
+        mockServer.stop();
+    }
+
+    @Test
+    void testChallengeValidatedAfterSubmitted() throws AcmeProblemDocumentException, NotFoundException, NoSuchAlgorithmException, InvalidKeySpecException, InterruptedException {
+        AcmeChallenge challenge = createChallenge("token1", ChallengeStatus.PENDING);
+        stubChallengeResponse("token1", keyAuthorization("token1"));
+
+        ResponseEntity<Challenge> response = acmeService.validateChallenge(acmeProfile.getName(), challenge.getChallengeId(),
+                URI.create(BASE_URI + acmeProfile.getName() + "/chall/" + challenge.getChallengeId()), false);
+
+        // challenge is moved to processing and client is asked to poll it later, result is stored once validation completes
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(ChallengeStatus.PROCESSING, response.getBody().getStatus());
+        Assertions.assertEquals("30", response.getHeaders().getFirst(AcmeConstants.RETRY_HEADER_NAME));
+
+        Assertions.assertEquals(ChallengeStatus.VALID, awaitValidation(challenge).getStatus());
+        Assertions.assertNotNull(acmeChallengeRepository.findByUuid(challenge.getUuid()).orElseThrow().getValidated());
+        AcmeAuthorization authorization = acmeAuthorizationRepository.findByUuid(challenge.getAuthorizationUuid()).orElseThrow();
+        Assertions.assertEquals(AuthorizationStatus.VALID, authorization.getStatus());
+        Assertions.assertEquals(OrderStatus.READY, acmeOrderRepository.findByUuid(authorization.getOrderUuid()).orElseThrow().getStatus());
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo(challengePath("token1"))));
+    }
+
+    @Test
+    void testFailedValidationRetriedWithBackoff() throws InterruptedException {
+        AcmeChallenge challenge = createChallenge("token2", ChallengeStatus.PROCESSING);
+        // key authorization is published only after the first attempt
+        mockServer.stubFor(WireMock.get(challengePath("token2")).inScenario("publishing").whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(WireMock.notFound()).willSetStateTo("published"));
+        mockServer.stubFor(WireMock.get(challengePath("token2")).inScenario("publishing").whenScenarioStateIs("published")
+                .willReturn(WireMock.ok(keyAuthorization("token2") + "\n")));
+
+        long start = System.nanoTime();
+        acmeChallengeValidationService.submitValidation(challenge.getUuid());
+
+        Assertions.assertEquals(ChallengeStatus.VALID, awaitValidation(challenge).getStatus());
+        Assertions.assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(RETRY_BACKOFF) >= 0);
+        mockServer.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(challengePath("token2"))));
+    }
+
+    @Test
+    void testChallengeInvalidAfterMaxAttempts() throws InterruptedException {
+        ReflectionTestUtils.setField(acmeChallengeValidationService, "maxAttempts", 2);
+        AcmeChallenge challenge = createChallenge("token3", ChallengeStatus.PROCESSING);
+        stubChallengeResponse("token3", "wrongKeyAuthorization");
+
+        acmeChallengeValidationService.submitValidation(challenge.getUuid());
+
+        Assertions.assertEquals(ChallengeStatus.INVALID, awaitValidation(challenge).getStatus());
+        Assertions.assertEquals(AuthorizationStatus.PENDING, acmeAuthorizationRepository.findByUuid(challenge.getAuthorizationUuid()).orElseThrow().getStatus());
+        mockServer.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(challengePath("token3"))));
+    }
+
+    @Test
+    void testProcessingValidationsResumed() throws InterruptedException {
+        AcmeChallenge processingChallenge = createChallenge("token4", ChallengeStatus.PROCESSING);
+        AcmeChallenge pendingChallenge = createChallenge("token5", ChallengeStatus.PENDING);
+        stubChallengeResponse("token4", keyAuthorization("token4"));
+        stubChallengeResponse("token5", keyAuthorization("token5"));
+
+        ((AcmeChallengeValidationServiceImpl) acmeChallengeValidationService).resumeValidations();
+
+        // only challenge left in processing status is validated, pending challenge waits for request of client
+        Assertions.assertEquals(ChallengeStatus.VALID, awaitValidation(processingChallenge).getStatus());
+        Assertions.assertEquals(ChallengeStatus.PENDING, acmeChallengeRepository.findByUuid(pendingChallenge.getUuid()).orElseThrow().getStatus());
+        mockServer.verify(0, WireMock.getRequestedFor(WireMock.urlPathEqualTo(challengePath("token5"))));
+    }
+
+    private AcmeChallenge createChallenge(String token, ChallengeStatus status) {
+        AcmeOrder order = new AcmeOrder();
+        order.setOrderId("order-" + token);
+        order.setStatus(OrderStatus.PENDING);
+        order.setAcmeAccount(acmeAccount);
+        order = acmeOrderRepository.save(order);
+
+        AcmeAuthorization authorization = new AcmeAuthorization();
+        authorization.setAuthorizationId("authz-" + token);
+        authorization.setStatus(AuthorizationStatus.PENDING);
+        authorization.setWildcard(false);
+        // challenge response is served by stub server, so its address is the identifier
+        authorization.setIdentifier("{\"type\":\"dns\",\"value\":\"localhost:%d\"}".formatted(mockServer.port()));
+        authorization.setOrderUuid(order.getUuid());
+        authorization = acmeAuthorizationRepository.save(authorization);
+
+        AcmeChallenge challenge = new AcmeChallenge();
+        challenge.setChallengeId("chall-" + token + "-" + UUID.randomUUID());
+        challenge.setStatus(status);
+        challenge.setType(ChallengeType.HTTP01);
+        challenge.setToken(token);
+        challenge.setAuthorizationUuid(authorization.getUuid());
+        return acmeChallengeRepository.save(challenge);
+    }
+
+    private AcmeChallenge awaitValidation(AcmeChallenge challenge) throws InterruptedException {
+        long deadline = System.nanoTime() + VALIDATION_TIMEOUT.toNanos();
+        AcmeChallenge current = acmeChallengeRepository.findByUuid(challenge.getUuid()).orElseThrow();
+        while (current.getStatus() == ChallengeStatus.PROCESSING && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            current = acmeChallengeRepository.findByUuid(challenge.getUuid()).orElseThrow();
+        }
+        return current;
+    }
+
+    private void stubChallengeResponse(String token, String response) {
+        mockServer.stubFor(WireMock.get(challengePath(token)).willReturn(WireMock.ok(response)));
+    }
+
+    private String keyAuthorization(String token) {
+        return AcmeCommonHelper.createKeyAuthorization(token, accountKeyPair.getPublic());
+    }
+
+    private static String challengePath(String token) {
+        return "/.well-known/acme-challenge/" + token;
+    }
+}
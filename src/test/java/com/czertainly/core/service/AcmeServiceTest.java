@@ -30,17 +30,21 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
 
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
+// data of tests are rolled back, so ACME context cached by one test must not be used by another one
+@TestPropertySource(properties = "acme.context-cache.ttl=PT0S")
 public class AcmeServiceTest extends BaseSpringBootTest {
 
     private static final String BASE_URI = "https://localhost:8443/api/acme/";
@@ -194,7 +198,7 @@ public class AcmeServiceTest extends BaseSpringBootTest {
         authorization1.setAuthorizationId(AUTHORIZATION_ID_PENDING);
         authorization1.setStatus(AuthorizationStatus.PENDING);
         authorization1.setWildcard(false);
-        authorization1.setOrderUuid(order1.getUuid());
+        authorization1.setOrder(order1);
         acmeAuthorizationRepository.save(authorization1);
 
         AcmeChallenge challenge2 = new AcmeChallenge();
@@ -429,6 +433,28 @@ public class AcmeServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals(AuthorizationStatus.PENDING, authorization.getBody().getStatus());
     }
 
+    @Test
+    public void testValidateChallenge() throws AcmeProblemDocumentException, NotFoundException, NoSuchAlgorithmException, InvalidKeySpecException {
+        AcmeChallenge challenge = new AcmeChallenge();
+        challenge.setChallengeId("challenge456");
+        challenge.setStatus(ChallengeStatus.PENDING);
+        challenge.setType(ChallengeType.HTTP01);
+        challenge.setToken("token456");
+        challenge.setAuthorization(acmeAuthorizationRepository.findByAuthorizationId(AUTHORIZATION_ID_PENDING).orElseThrow());
+        acmeChallengeRepository.save(challenge);
+
+        URI requestUri = URI.create(BASE_URI + ACME_PROFILE_NAME + "/chall/" + challenge.getChallengeId());
+        ResponseEntity<Challenge> response = acmeService.validateChallenge(ACME_PROFILE_NAME, challenge.getChallengeId(), requestUri, false);
+
+        // status code is 200 and client is asked to poll the challenge later
+        Assertions.assertEquals(HttpStatus.OK, response.getStatusCode());
+        Assertions.assertEquals(ChallengeStatus.PROCESSING, Objects.requireNonNull(response.getBody()).getStatus());
+        Assertions.assertEquals("30", response.getHeaders().getFirst(AcmeConstants.RETRY_HEADER_NAME));
+        Assertions.assertEquals(ChallengeStatus.PROCESSING, acmeChallengeRepository.findByUuid(challenge.getUuid()).orElseThrow().getStatus());
+        // validation is submitted only after the transaction is committed, completion is covered by AcmeChallengeValidationServiceTest
+        mockServer.verify(0, WireMock.getRequestedFor(WireMock.urlPathMatching("/.well-known/acme-challenge/.*")));
+    }
+
     @Test
     public void testFinalize() throws URISyntaxException {
         String baseUri = BASE_URI + ACME_PROFILE_NAME;
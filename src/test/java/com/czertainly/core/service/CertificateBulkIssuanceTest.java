@@ -0,0 +1,193 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.model.common.attribute.v2.content.StringAttributeContent;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.connector.ConnectorStatus;
+import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
+import com.czertainly.core.dao.entity.AuthorityInstanceReference;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.Connector;
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.repository.AuthorityInstanceReferenceRepository;
+import com.czertainly.core.dao.repository.CertificateIssuanceBatchRepository;
+import com.czertainly.core.dao.repository.CertificateRepository;
+import com.czertainly.core.dao.repository.ConnectorRepository;
+import com.czertainly.core.dao.repository.RaProfileRepository;
+import com.czertainly.core.messaging.configuration.RabbitMQConstants;
+import com.czertainly.core.messaging.model.ActionMessage;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
+import com.czertainly.core.model.CertificateIssuanceBatchErrorDto;
+import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.service.v2.ClientOperationService;
+import com.czertainly.core.util.AttributeDefinitionUtils;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+// bulk issuance commits its own transactions, so test does not run in transaction and uses its own database
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CertificateBulkIssuanceTest extends BaseSpringBootTest {
+
+    private static final String ISSUE_ATTRIBUTES_PATH = "/v2/authorityProvider/authorities/[^/]+/certificates/issue/attributes";
+    private static final String VALIDATE_ISSUE_ATTRIBUTES_PATH = "/v2/authorityProvider/authorities/[^/]+/certificates/issue/attributes/validate";
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:tc:postgresql:13-alpine://localhost:55432/czertainly-bulk-issuance");
+    }
+
+    @Autowired
+    private ClientOperationService clientOperationService;
+
+    @Autowired
+    private ConnectorRepository connectorRepository;
+
+    @Autowired
+    private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
+
+    @Autowired
+    private RaProfileRepository raProfileRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateIssuanceBatchRepository certificateIssuanceBatchRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    private WireMockServer mockServer;
+    private RaProfile raProfile;
+
+    @BeforeEach
+    void setUp() {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        Connector connector = new Connector();
+        connector.setName("bulkIssuanceConnector");
+        connector.setUrl("http://localhost:" + mockServer.port());
+        connector.setStatus(ConnectorStatus.CONNECTED);
+        connector = connectorRepository.save(connector);
+
+        AuthorityInstanceReference authorityInstanceReference = new AuthorityInstanceReference();
+        authorityInstanceReference.setName("bulkIssuanceAuthority");
+        authorityInstanceReference.setAuthorityInstanceUuid("1l");
+        authorityInstanceReference.setConnector(connector);
+        authorityInstanceReference = authorityInstanceReferenceRepository.save(authorityInstanceReference);
+
+        raProfile = new RaProfile();
+        raProfile.setName("bulkIssuanceRaProfile");
+        raProfile.setAuthorityInstanceReference(authorityInstanceReference);
+        raProfile.setEnabled(true);
+        raProfile = raProfileRepository.save(raProfile);
+
+        Mockito.clearInvocations(rabbitTemplate);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+    }
+
+    @Test
+    void testIssueCertificatesSubmittedInChunks() throws ConnectorException {
+        stubIssueAttributes();
+        ReflectionTestUtils.setField(clientOperationService, "bulkIssuanceChunkSize", 2);
+        CertificateIssuanceBatchDto batchDto;
+        try {
+            batchDto = clientOperationService.issueCertificates(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), List.of(createRequest(), createRequest(), createRequest()));
+        } finally {
+            ReflectionTestUtils.setField(clientOperationService, "bulkIssuanceChunkSize", 100);
+        }
+
+        Assertions.assertEquals(3, batchDto.getTotalCount());
+        Assertions.assertEquals(3, batchDto.getRequestedCount());
+        Assertions.assertEquals(0, batchDto.getRejectedCount());
+        Assertions.assertTrue(batchDto.getRejectedRequests().isEmpty());
+        // definitions of issue attributes are listed once for the batch, attributes of each request are validated by connector
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathMatching(ISSUE_ATTRIBUTES_PATH)));
+        mockServer.verify(3, WireMock.postRequestedFor(WireMock.urlPathMatching(VALIDATE_ISSUE_ATTRIBUTES_PATH)));
+
+        List<ActionMessage> actionMessages = captureActionMessages(2);
+        Assertions.assertEquals(2, actionMessages.get(0).getResourceUuids().size());
+        Assertions.assertEquals(1, actionMessages.get(1).getResourceUuids().size());
+        for (ActionMessage actionMessage : actionMessages) {
+            Assertions.assertEquals(raProfile.getUuid(), actionMessage.getApprovalProfileResourceUuid());
+            for (UUID certificateUuid : actionMessage.getResourceUuids()) {
+                Certificate certificate = certificateRepository.findByUuid(certificateUuid).orElseThrow();
+                Assertions.assertEquals(CertificateState.REQUESTED, certificate.getState());
+                Assertions.assertEquals(UUID.fromString(batchDto.getUuid()), certificate.getIssuanceBatchUuid());
+            }
+        }
+    }
+
+    @Test
+    void testIssueCertificatesInvalidRequestsRejected() throws ConnectorException {
+        stubIssueAttributes();
+        ClientCertificateSignRequestDto invalidCsrRequest = createRequest();
+        invalidCsrRequest.setRequest("invalid");
+        // request passes validation by connector, but its custom attribute is rejected when the chunk is persisted
+        ClientCertificateSignRequestDto invalidCustomAttributeRequest = createRequest();
+        invalidCustomAttributeRequest.setCustomAttributes(AttributeDefinitionUtils.createAttributes(UUID.randomUUID().toString(), "unknownCustomAttribute", List.of(new StringAttributeContent("ref", "value"))));
+
+        CertificateIssuanceBatchDto batchDto = clientOperationService.issueCertificates(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), List.of(createRequest(), invalidCsrRequest, invalidCustomAttributeRequest));
+
+        Assertions.assertEquals(List.of(1, 2), batchDto.getRejectedRequests().stream().map(CertificateIssuanceBatchErrorDto::getIndex).toList());
+        Assertions.assertEquals(2, batchDto.getRejectedCount());
+        Assertions.assertEquals(1, batchDto.getRequestedCount());
+        mockServer.verify(2, WireMock.postRequestedFor(WireMock.urlPathMatching(VALIDATE_ISSUE_ATTRIBUTES_PATH)));
+
+        // valid request of the failed chunk is persisted separately and enqueued
+        ActionMessage actionMessage = captureActionMessages(1).getFirst();
+        Assertions.assertEquals(1, actionMessage.getResourceUuids().size());
+        Assertions.assertEquals(UUID.fromString(batchDto.getUuid()), certificateRepository.findByUuid(actionMessage.getResourceUuids().getFirst()).orElseThrow().getIssuanceBatchUuid());
+    }
+
+    @Test
+    void testIssueCertificatesAuthorityUnavailable() {
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching(ISSUE_ATTRIBUTES_PATH)).willReturn(WireMock.serverError()));
+
+        Assertions.assertThrows(ConnectorException.class, () -> clientOperationService.issueCertificates(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), List.of(createRequest())));
+
+        Assertions.assertTrue(certificateIssuanceBatchRepository.findAll().stream().noneMatch(batch -> raProfile.getUuid().equals(batch.getRaProfileUuid())));
+        captureActionMessages(0);
+    }
+
+    private void stubIssueAttributes() {
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching(ISSUE_ATTRIBUTES_PATH)).willReturn(WireMock.okJson("[]")));
+        mockServer.stubFor(WireMock.post(WireMock.urlPathMatching(VALIDATE_ISSUE_ATTRIBUTES_PATH)).willReturn(WireMock.okJson("true")));
+    }
+
+    private ClientCertificateSignRequestDto createRequest() {
+        ClientCertificateSignRequestDto request = new ClientCertificateSignRequestDto();
+        request.setRequest(ClientOperationServiceV2Test.SAMPLE_PKCS10);
+        request.setAttributes(List.of());
+        return request;
+    }
+
+    private List<ActionMessage> captureActionMessages(int count) {
+        ArgumentCaptor<ActionMessage> actionMessageCaptor = ArgumentCaptor.forClass(ActionMessage.class);
+        Mockito.verify(rabbitTemplate, Mockito.times(count)).convertAndSend(Mockito.eq(RabbitMQConstants.EXCHANGE_NAME), Mockito.eq(RabbitMQConstants.ACTION_ROUTING_KEY), actionMessageCaptor.capture());
+        return actionMessageCaptor.getAllValues();
+    }
+}
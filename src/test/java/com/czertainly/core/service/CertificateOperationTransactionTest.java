@@ -0,0 +1,212 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.clients.v2.CertificateApiClient;
+import com.czertainly.api.exception.CertificateOperationException;
+import com.czertainly.api.exception.ConnectorException;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.api.model.core.certificate.CertificateValidationStatus;
+import com.czertainly.api.model.core.connector.ConnectorStatus;
+import com.czertainly.api.model.core.v2.ClientCertificateRevocationDto;
+import com.czertainly.api.model.core.v2.ClientCertificateSignRequestDto;
+import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.repository.*;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
+import com.czertainly.core.model.auth.ResourceAction;
+import com.czertainly.core.security.authz.SecuredParentUUID;
+import com.czertainly.core.service.v2.ClientOperationService;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.czertainly.core.util.CertificateUtil;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+// certificate operations commit their own transactions around the call of authority, so test does not run in transaction and uses its own database
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CertificateOperationTransactionTest extends BaseSpringBootTest {
+
+    private static final String ISSUE_PATH = "/v2/authorityProvider/authorities/[^/]+/certificates/issue";
+    private static final String REVOKE_PATH = "/v2/authorityProvider/authorities/[^/]+/certificates/revoke";
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:tc:postgresql:13-alpine://localhost:55432/czertainly-certificate-operation");
+    }
+
+    @Autowired
+    private ClientOperationService clientOperationService;
+
+    @Autowired
+    private CertificateApiClient certificateApiClient;
+
+    @Autowired
+    private ConnectorRepository connectorRepository;
+
+    @Autowired
+    private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
+
+    @Autowired
+    private RaProfileRepository raProfileRepository;
+
+    @Autowired
+    private CertificateRepository certificateRepository;
+
+    @Autowired
+    private CertificateContentRepository certificateContentRepository;
+
+    @Autowired
+    private PendingCertificateOperationRepository pendingCertificateOperationRepository;
+
+    private WireMockServer mockServer;
+    private RaProfile raProfile;
+    private X509Certificate x509Cert;
+
+    // state observed by the thread calling authority at the time of the call
+    private final List<Boolean> transactionActiveDuringCall = new ArrayList<>();
+    private final List<List<ResourceAction>> pendingOperationsDuringCall = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        String suffix = UUID.randomUUID().toString();
+        Connector connector = new Connector();
+        connector.setName("operationConnector-" + suffix);
+        connector.setUrl("http://localhost:" + mockServer.port());
+        connector.setStatus(ConnectorStatus.CONNECTED);
+        connector = connectorRepository.save(connector);
+
+        AuthorityInstanceReference authorityInstanceReference = new AuthorityInstanceReference();
+        authorityInstanceReference.setName("operationAuthority-" + suffix);
+        authorityInstanceReference.setAuthorityInstanceUuid("1l");
+        authorityInstanceReference.setConnector(connector);
+        authorityInstanceReference = authorityInstanceReferenceRepository.save(authorityInstanceReference);
+
+        raProfile = new RaProfile();
+        raProfile.setName("operationRaProfile-" + suffix);
+        raProfile.setAuthorityInstanceReference(authorityInstanceReference);
+        raProfile.setEnabled(true);
+        raProfile = raProfileRepository.save(raProfile);
+
+        InputStream keyStoreStream = CertificateServiceTest.class.getClassLoader().getResourceAsStream("client1.p12");
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(keyStoreStream, "123456".toCharArray());
+        x509Cert = (X509Certificate) keyStore.getCertificate("1");
+
+        CertificateApiClient observingClient = Mockito.spy(certificateApiClient);
+        Mockito.doAnswer(invocation -> {
+            observeAuthorityCall();
+            return invocation.callRealMethod();
+        }).when(observingClient).issueCertificate(Mockito.any(), Mockito.any(), Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            observeAuthorityCall();
+            return invocation.callRealMethod();
+        }).when(observingClient).revokeCertificate(Mockito.any(), Mockito.any(), Mockito.any());
+        ReflectionTestUtils.setField(clientOperationService, "certificateApiClient", observingClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(clientOperationService, "certificateApiClient", certificateApiClient);
+        mockServer.stop();
+    }
+
+    @Test
+    void testRevokeCertificateAuthorityCalledOutsideTransaction() throws NotFoundException, CertificateOperationException {
+        mockServer.stubFor(WireMock.post(WireMock.urlPathMatching(REVOKE_PATH)).willReturn(WireMock.ok()));
+
+        CertificateContent certificateContent = certificateContentRepository.save(new CertificateContent());
+        Certificate certificate = new Certificate();
+        certificate.setSubjectDn("revokedCertificate");
+        certificate.setIssuerDn("revokedCertificate");
+        certificate.setSerialNumber("987654321");
+        certificate.setCertificateContent(certificateContent);
+        certificate.setCertificateContentId(certificateContent.getId());
+        certificate.setState(CertificateState.ISSUED);
+        certificate.setValidationStatus(CertificateValidationStatus.VALID);
+        certificate.setRaProfile(raProfile);
+        certificate = certificateRepository.save(certificate);
+
+        ClientCertificateRevocationDto request = new ClientCertificateRevocationDto();
+        request.setAttributes(List.of());
+        clientOperationService.revokeCertificateAction(certificate.getUuid(), request, true);
+
+        // pending operation was committed before authority was called and no transaction was held during the call
+        Assertions.assertEquals(List.of(false), transactionActiveDuringCall);
+        Assertions.assertEquals(List.of(List.of(ResourceAction.REVOKE)), pendingOperationsDuringCall);
+        Assertions.assertEquals(CertificateState.REVOKED, certificateRepository.findByUuid(certificate.getUuid()).orElseThrow().getState());
+        Assertions.assertEquals(0, pendingCertificateOperationRepository.count());
+    }
+
+    @Test
+    void testIssuedCertificateFailedToBeStoredFinishedByRecovery() throws Exception {
+        String certificateData = Base64.getEncoder().encodeToString(x509Cert.getEncoded());
+        mockServer.stubFor(WireMock.post(WireMock.urlPathMatching(ISSUE_PATH)).willReturn(WireMock.okJson("{ \"certificateData\": \"" + certificateData + "\" }")));
+        mockServer.stubFor(WireMock.get(WireMock.urlPathMatching(ISSUE_PATH + "/attributes")).willReturn(WireMock.okJson("[]")));
+        mockServer.stubFor(WireMock.post(WireMock.urlPathMatching(ISSUE_PATH + "/attributes/validate")).willReturn(WireMock.okJson("true")));
+        UUID certificateUuid = createRequestedCertificate();
+
+        // certificate with the same fingerprint makes storing of issued certificate fail
+        Certificate conflictingCertificate = new Certificate();
+        conflictingCertificate.setState(CertificateState.ISSUED);
+        conflictingCertificate.setFingerprint(CertificateUtil.getThumbprint(x509Cert));
+        conflictingCertificate = certificateRepository.save(conflictingCertificate);
+
+        Assertions.assertThrows(CertificateOperationException.class, () -> clientOperationService.issueCertificateAction(certificateUuid, true));
+
+        Assertions.assertEquals(List.of(false), transactionActiveDuringCall);
+        Assertions.assertEquals(List.of(List.of(ResourceAction.ISSUE)), pendingOperationsDuringCall);
+        // certificate issued by authority is not marked as failed, response of authority is kept with pending operation
+        Assertions.assertEquals(CertificateState.REQUESTED, certificateRepository.findByUuid(certificateUuid).orElseThrow().getState());
+        PendingCertificateOperation pendingOperation = pendingCertificateOperationRepository.findAll().getFirst();
+        Assertions.assertEquals(certificateUuid, pendingOperation.getCertificateUuid());
+        Assertions.assertNotNull(pendingOperation.getAuthorityCompletedAt());
+        Assertions.assertEquals(certificateData, pendingOperation.getAuthorityResponse().getCertificateData());
+
+        certificateRepository.delete(conflictingCertificate);
+        Assertions.assertEquals(1, clientOperationService.recoverPendingCertificateOperations(OffsetDateTime.now().plusMinutes(1)));
+
+        Certificate issuedCertificate = certificateRepository.findByUuid(certificateUuid).orElseThrow();
+        Assertions.assertEquals(CertificateState.ISSUED, issuedCertificate.getState());
+        Assertions.assertEquals(CertificateUtil.getThumbprint(x509Cert), issuedCertificate.getFingerprint());
+        Assertions.assertEquals(0, pendingCertificateOperationRepository.count());
+        mockServer.verify(1, WireMock.postRequestedFor(WireMock.urlPathMatching(ISSUE_PATH)));
+    }
+
+    private UUID createRequestedCertificate() throws ConnectorException {
+        ClientCertificateSignRequestDto request = new ClientCertificateSignRequestDto();
+        request.setRequest(ClientOperationServiceV2Test.SAMPLE_PKCS10);
+        request.setAttributes(List.of());
+        CertificateIssuanceBatchDto batchDto = clientOperationService.issueCertificates(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), List.of(request));
+        UUID batchUuid = UUID.fromString(batchDto.getUuid());
+        return certificateRepository.findAll().stream().filter(certificate -> batchUuid.equals(certificate.getIssuanceBatchUuid())).findFirst().orElseThrow().getUuid();
+    }
+
+    private void observeAuthorityCall() {
+        // with no transaction active, repository reads in a transaction of its own and sees only committed pending operations
+        transactionActiveDuringCall.add(TransactionSynchronizationManager.isActualTransactionActive());
+        pendingOperationsDuringCall.add(pendingCertificateOperationRepository.findAll().stream().map(PendingCertificateOperation::getOperation).toList());
+    }
+}
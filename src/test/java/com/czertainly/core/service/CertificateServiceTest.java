@@ -18,14 +18,18 @@ import com.czertainly.api.model.core.connector.FunctionGroupCode;
 import com.czertainly.api.model.core.search.SearchFieldDataByGroupDto;
 import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.attribute.engine.records.ObjectAttributeContentInfo;
+import com.czertainly.core.auth.AuthIdentityReplica;
 import com.czertainly.core.dao.entity.*;
+import com.czertainly.core.dao.entity.auth.UserIdentity;
 import com.czertainly.core.dao.repository.*;
+import com.czertainly.core.dao.repository.auth.UserIdentityRepository;
 import com.czertainly.core.security.authz.SecuredUUID;
 import com.czertainly.core.security.authz.SecurityFilter;
 import com.czertainly.core.util.BaseSpringBootTest;
 import com.czertainly.core.util.MetaDefinitions;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.NotSupportedException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -42,7 +46,10 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 public class CertificateServiceTest extends BaseSpringBootTest {
@@ -69,6 +76,16 @@ public class CertificateServiceTest extends BaseSpringBootTest {
     private ResourceObjectAssociationService associationService;
     @Autowired
     private OwnerAssociationRepository ownerAssociationRepository;
+    @Autowired
+    private CertificateEventHistoryService certificateEventHistoryService;
+    @Autowired
+    private CertificateEventHistoryRepository certificateEventHistoryRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private UserIdentityRepository userIdentityRepository;
+    @Autowired
+    private AuthIdentityReplica authIdentityReplica;
 
     private AttributeEngine attributeEngine;
 
@@ -343,6 +360,94 @@ public class CertificateServiceTest extends BaseSpringBootTest {
         Assertions.assertThrows(NotFoundException.class, () -> certificateService.updateCertificateObjects(certificate.getSecuredUuid(), uuidDto));
     }
 
+    @Test
+    public void testBulkSetGroupsAndRemoveOwner() throws NotFoundException {
+        Map<UUID, List<String>> previousGroups = associationService.setGroups(Resource.CERTIFICATE, List.of(certificate.getUuid()), Set.of(group.getUuid()));
+        Assertions.assertEquals(1, previousGroups.size());
+        Assertions.assertTrue(previousGroups.get(certificate.getUuid()).isEmpty());
+        Assertions.assertEquals(List.of(group.getUuid()), associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid()));
+
+        // certificates already having requested groups are not changed
+        Assertions.assertTrue(associationService.setGroups(Resource.CERTIFICATE, List.of(certificate.getUuid()), Set.of(group.getUuid())).isEmpty());
+        Assertions.assertEquals(1, associationService.setGroups(Resource.CERTIFICATE, List.of(certificate.getUuid()), Set.of()).size());
+        Assertions.assertTrue(associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid()).isEmpty());
+
+        Map<UUID, String> previousOwners = associationService.setOwner(Resource.CERTIFICATE, List.of(certificate.getUuid()), null);
+        Assertions.assertEquals("ownerName", previousOwners.get(certificate.getUuid()));
+        Assertions.assertNull(associationService.getOwner(Resource.CERTIFICATE, certificate.getUuid()));
+    }
+
+    @Test
+    public void testSetGroupsOfObjects() throws NotFoundException {
+        Group otherGroup = new Group();
+        otherGroup.setName("otherGroup");
+        otherGroup = groupRepository.save(otherGroup);
+
+        Assertions.assertEquals(1, associationService.setGroups(Resource.CERTIFICATE, Map.of(certificate.getUuid(), Set.of(group.getUuid(), otherGroup.getUuid()))).size());
+        Assertions.assertEquals(Set.of(group.getUuid(), otherGroup.getUuid()), Set.copyOf(associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid())));
+
+        // only removed group association is deleted, previous groups are returned
+        Map<UUID, List<String>> previousGroups = associationService.setGroups(Resource.CERTIFICATE, Map.of(certificate.getUuid(), Set.of(otherGroup.getUuid())));
+        Assertions.assertEquals(2, previousGroups.get(certificate.getUuid()).size());
+        Assertions.assertEquals(List.of(otherGroup.getUuid()), associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid()));
+
+        associationService.addGroup(Resource.CERTIFICATE, certificate.getUuid(), group.getUuid());
+        Assertions.assertEquals(Set.of(group.getUuid(), otherGroup.getUuid()), Set.copyOf(associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid())));
+        Assertions.assertThrows(NotFoundException.class, () -> associationService.addGroup(Resource.CERTIFICATE, certificate.getUuid(), UUID.randomUUID()));
+    }
+
+    @Test
+    public void testSetOwnersOfObjects() throws NotFoundException {
+        UserIdentity owner = new UserIdentity();
+        owner.setUuid(UUID.randomUUID());
+        owner.setUsername("newOwner");
+        userIdentityRepository.saveAndFlush(owner);
+        authIdentityReplica.reloadIndex();
+
+        // owner of certificate is updated, unowned object gets new owner association
+        UUID unownedObjectUuid = UUID.randomUUID();
+        Map<UUID, UUID> objectOwnerUuids = new HashMap<>();
+        objectOwnerUuids.put(certificate.getUuid(), owner.getUuid());
+        objectOwnerUuids.put(unownedObjectUuid, owner.getUuid());
+        Map<UUID, String> previousOwners = associationService.setOwners(Resource.CERTIFICATE, objectOwnerUuids);
+        Assertions.assertEquals(2, previousOwners.size());
+        Assertions.assertEquals("ownerName", previousOwners.get(certificate.getUuid()));
+        Assertions.assertNull(previousOwners.get(unownedObjectUuid));
+        Assertions.assertEquals("newOwner", associationService.getOwner(Resource.CERTIFICATE, certificate.getUuid()).getName());
+        Assertions.assertEquals(owner.getUuid().toString(), associationService.getOwner(Resource.CERTIFICATE, unownedObjectUuid).getUuid());
+
+        // objects already having requested owner are not changed, owner of other object is removed
+        objectOwnerUuids.put(unownedObjectUuid, null);
+        previousOwners = associationService.setOwners(Resource.CERTIFICATE, objectOwnerUuids);
+        Assertions.assertEquals(Set.of(unownedObjectUuid), previousOwners.keySet());
+        Assertions.assertEquals("newOwner", previousOwners.get(unownedObjectUuid));
+        Assertions.assertNull(associationService.getOwner(Resource.CERTIFICATE, unownedObjectUuid));
+
+        Assertions.assertThrows(NotFoundException.class, () -> associationService.setOwners(Resource.CERTIFICATE, Map.of(certificate.getUuid(), UUID.randomUUID())));
+    }
+
+    @Test
+    public void testUpdateCertificatesGroupsOfObjects() throws NotFoundException {
+        Group otherGroup = new Group();
+        otherGroup.setName("otherGroup");
+        otherGroup = groupRepository.save(otherGroup);
+
+        Map<SecuredUUID, Set<UUID>> certificateGroupUuids = new HashMap<>();
+        certificateGroupUuids.put(certificate.getSecuredUuid(), Set.of(group.getUuid(), otherGroup.getUuid()));
+        certificateGroupUuids.put(SecuredUUID.fromUUID(UUID.randomUUID()), Set.of(group.getUuid()));
+        certificateService.updateCertificatesGroups(certificateGroupUuids);
+
+        Assertions.assertEquals(Set.of(group.getUuid(), otherGroup.getUuid()), Set.copyOf(associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid())));
+
+        // only removed group association of certificate is deleted
+        certificateService.updateCertificatesGroups(Map.of(certificate.getSecuredUuid(), Set.of(otherGroup.getUuid())));
+        Assertions.assertEquals(List.of(otherGroup.getUuid()), associationService.getGroupUuids(Resource.CERTIFICATE, certificate.getUuid()));
+    }
+
+    @Test
+    public void testBulkSetGroups_groupNotFound() {
+        Assertions.assertThrows(NotFoundException.class, () -> associationService.setGroups(Resource.CERTIFICATE, List.of(certificate.getUuid()), Set.of(UUID.randomUUID())));
+    }
 
     @Test
     @Disabled("get user from API")
@@ -394,6 +499,34 @@ public class CertificateServiceTest extends BaseSpringBootTest {
         Assertions.assertThrows(NotFoundException.class, () -> certificateService.getCertificate(certificate.getSecuredUuid()));
     }
 
+    @Test
+    public void testGetCertificateEventHistoryPages() throws NotFoundException {
+        List<CertificateEventHistory> histories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            histories.add(certificateEventHistoryService.getEventHistory(CertificateEvent.UPDATE_VALIDATION_STATUS, CertificateEventStatus.SUCCESS, "Validation " + i, "", certificate));
+        }
+        certificateEventHistoryRepository.saveAll(histories);
+        // events are read back from database as keyset pages compare creation times stored by database
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> allEvents = certificateEventHistoryService.getCertificateEventHistory(certificate.getUuid()).stream().map(CertificateEventHistoryDto::getUuid).toList();
+        Assertions.assertEquals(5, allEvents.size());
+
+        List<String> pagedEvents = new ArrayList<>();
+        List<CertificateEventHistoryDto> page = certificateEventHistoryService.getCertificateEventHistory(certificate.getUuid(), null, null, 2);
+        while (!page.isEmpty()) {
+            Assertions.assertTrue(page.size() <= 2);
+            page.forEach(event -> pagedEvents.add(event.getUuid()));
+            CertificateEventHistoryDto last = page.getLast();
+            page = certificateEventHistoryService.getCertificateEventHistory(certificate.getUuid(), last.getCreated(), UUID.fromString(last.getUuid()), 2);
+        }
+        Assertions.assertEquals(allEvents.size(), pagedEvents.size());
+        Assertions.assertEquals(Set.copyOf(allEvents), Set.copyOf(pagedEvents));
+
+        Assertions.assertThrows(NotFoundException.class, () -> certificateEventHistoryService.getCertificateEventHistory(UUID.randomUUID(), null, null, 2));
+    }
+
     @Test
     public void testDownloadCertificate() throws NotFoundException, CertificateException, IOException {
         CertificateContent certificateContentDownload = new CertificateContent();
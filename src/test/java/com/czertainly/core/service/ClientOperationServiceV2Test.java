@@ -19,10 +19,14 @@ import com.czertainly.core.attribute.engine.AttributeEngine;
 import com.czertainly.core.dao.entity.*;
 import com.czertainly.core.dao.entity.Certificate;
 import com.czertainly.core.dao.repository.*;
+import com.czertainly.core.model.CertificateIssuanceBatchDto;
+import com.czertainly.core.model.auth.ResourceAction;
 import com.czertainly.core.model.request.CertificateRequest;
 import com.czertainly.core.model.request.CrmfCertificateRequest;
 import com.czertainly.core.security.authz.SecuredParentUUID;
 import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.handler.AuthorityBusyException;
+import com.czertainly.core.service.handler.AuthorityOperationLimiter;
 import com.czertainly.core.service.v2.ClientOperationService;
 import com.czertainly.core.util.AttributeDefinitionUtils;
 import com.czertainly.core.util.BaseSpringBootTest;
@@ -39,6 +43,7 @@ import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -46,6 +51,7 @@ import java.math.BigInteger;
 import java.security.*;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.time.OffsetDateTime;
 import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
@@ -55,7 +61,7 @@ public class ClientOperationServiceV2Test extends BaseSpringBootTest {
 
     public static final String RA_PROFILE_NAME = "testRaProfile1";
 
-    private static final String SAMPLE_PKCS10 = "-----BEGIN CERTIFICATE REQUEST-----\n" +
+    static final String SAMPLE_PKCS10 = "-----BEGIN CERTIFICATE REQUEST-----\n" +
             "MIICzDCCAbQCAQAwgYYxCzAJBgNVBAYTAkVOMQ0wCwYDVQQIDARub25lMQ0wCwYD\n" +
             "VQQHDARub25lMRIwEAYDVQQKDAlXaWtpcGVkaWExDTALBgNVBAsMBG5vbmUxGDAW\n" +
             "BgNVBAMMDyoud2lraXBlZGlhLm9yZzEcMBoGCSqGSIb3DQEJARYNbm9uZUBub25l\n" +
@@ -86,6 +92,12 @@ public class ClientOperationServiceV2Test extends BaseSpringBootTest {
     private CertificateRepository certificateRepository;
     @Autowired
     private CertificateContentRepository certificateContentRepository;
+    @Autowired
+    private PendingCertificateOperationRepository pendingCertificateOperationRepository;
+    @Autowired
+    private CertificateIssuanceBatchRepository certificateIssuanceBatchRepository;
+    @Autowired
+    private AuthorityOperationLimiter authorityOperationLimiter;
 
     private RaProfile raProfile;
     private AuthorityInstanceReference authorityInstanceReference;
@@ -224,6 +236,44 @@ public class ClientOperationServiceV2Test extends BaseSpringBootTest {
 //        clientOperationService.issueCertificate(authorityInstanceReference.getSecuredParentUuid(), raProfile.getSecuredUuid(), request);
     }
 
+    @Test
+    public void testIssueCertificates_validationFail() {
+        Assertions.assertThrows(ValidationException.class, () -> clientOperationService.issueCertificates(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), List.of()));
+    }
+
+    @Test
+    public void testGetCertificateIssuanceBatch() throws NotFoundException {
+        CertificateIssuanceBatch batch = new CertificateIssuanceBatch();
+        batch.setRaProfileUuid(raProfile.getUuid());
+        batch.setCreatedAt(OffsetDateTime.now());
+        batch.setTotalCount(3);
+        batch.setRejectedCount(1);
+        batch = certificateIssuanceBatchRepository.save(batch);
+
+        Certificate requestedCertificate = new Certificate();
+        requestedCertificate.setState(CertificateState.REQUESTED);
+        requestedCertificate.setRaProfile(raProfile);
+        requestedCertificate.setIssuanceBatchUuid(batch.getUuid());
+        certificateRepository.save(requestedCertificate);
+        certificate.setIssuanceBatchUuid(batch.getUuid());
+        certificateRepository.save(certificate);
+
+        CertificateIssuanceBatchDto batchDto = clientOperationService.getCertificateIssuanceBatch(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), batch.getUuid());
+        Assertions.assertEquals(3, batchDto.getTotalCount());
+        Assertions.assertEquals(1, batchDto.getRejectedCount());
+        Assertions.assertEquals(1, batchDto.getRequestedCount());
+        Assertions.assertEquals(1, batchDto.getIssuedCount());
+        Assertions.assertFalse(batchDto.isFinished());
+
+        requestedCertificate.setState(CertificateState.FAILED);
+        certificateRepository.save(requestedCertificate);
+        batchDto = clientOperationService.getCertificateIssuanceBatch(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), batch.getUuid());
+        Assertions.assertEquals(1, batchDto.getFailedCount());
+        Assertions.assertTrue(batchDto.isFinished());
+
+        Assertions.assertThrows(NotFoundException.class, () -> clientOperationService.getCertificateIssuanceBatch(SecuredParentUUID.fromUUID(raProfile.getAuthorityInstanceReferenceUuid()), raProfile.getSecuredUuid(), UUID.randomUUID()));
+    }
+
     @Disabled
     @Test
     public void testIssueCertificate_validationFail() {
@@ -295,6 +345,68 @@ public class ClientOperationServiceV2Test extends BaseSpringBootTest {
         ClientCertificateRevocationDto request = new ClientCertificateRevocationDto();
         request.setAttributes(List.of());
         clientOperationService.revokeCertificateAction(certificate.getUuid(), request, true);
+
+        Assertions.assertEquals(CertificateState.REVOKED, certificateRepository.findByUuid(certificate.getUuid()).orElseThrow().getState());
+        Assertions.assertEquals(0, pendingCertificateOperationRepository.count());
+    }
+
+    @Test
+    public void testRevokeCertificate_authorityFail() {
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v2/authorityProvider/authorities/[^/]+/certificates/revoke"))
+                .willReturn(WireMock.serverError()));
+
+        ClientCertificateRevocationDto request = new ClientCertificateRevocationDto();
+        request.setAttributes(List.of());
+        Assertions.assertThrows(CertificateOperationException.class, () -> clientOperationService.revokeCertificateAction(certificate.getUuid(), request, true));
+
+        Assertions.assertEquals(CertificateState.ISSUED, certificateRepository.findByUuid(certificate.getUuid()).orElseThrow().getState());
+        Assertions.assertEquals(0, pendingCertificateOperationRepository.count());
+    }
+
+    @Test
+    public void testRevokeCertificate_authorityBusy() {
+        mockServer.stubFor(WireMock
+                .post(WireMock.urlPathMatching("/v2/authorityProvider/authorities/[^/]+/certificates/revoke"))
+                .willReturn(WireMock.ok()));
+
+        ClientCertificateRevocationDto request = new ClientCertificateRevocationDto();
+        request.setAttributes(List.of());
+        // no operation can be started with the authority, so it is busy for the action
+        ReflectionTestUtils.setField(authorityOperationLimiter, "maxConcurrentOperations", 0);
+        try {
+            Assertions.assertThrows(AuthorityBusyException.class, () -> clientOperationService.revokeCertificateAction(certificate.getUuid(), request, true));
+        } finally {
+            ReflectionTestUtils.setField(authorityOperationLimiter, "maxConcurrentOperations", 4);
+        }
+
+        mockServer.verify(0, WireMock.postRequestedFor(WireMock.urlPathMatching("/v2/authorityProvider/authorities/[^/]+/certificates/revoke")));
+        Assertions.assertEquals(CertificateState.ISSUED, certificateRepository.findByUuid(certificate.getUuid()).orElseThrow().getState());
+        Assertions.assertEquals(0, pendingCertificateOperationRepository.count());
+    }
+
+    @Test
+    public void testRecoverPendingCertificateOperations() {
+        certificate.setState(CertificateState.REQUESTED);
+        certificateRepository.save(certificate);
+
+        PendingCertificateOperation interruptedOperation = new PendingCertificateOperation();
+        interruptedOperation.setCertificateUuid(certificate.getUuid());
+        interruptedOperation.setOperation(ResourceAction.ISSUE);
+        interruptedOperation.setAuthorityInstanceReferenceUuid(authorityInstanceReference.getUuid());
+        interruptedOperation.setStartedAt(OffsetDateTime.now().minusHours(2));
+        pendingCertificateOperationRepository.save(interruptedOperation);
+
+        PendingCertificateOperation runningOperation = new PendingCertificateOperation();
+        runningOperation.setCertificateUuid(certificate.getUuid());
+        runningOperation.setOperation(ResourceAction.ISSUE);
+        runningOperation.setAuthorityInstanceReferenceUuid(authorityInstanceReference.getUuid());
+        runningOperation.setStartedAt(OffsetDateTime.now());
+        pendingCertificateOperationRepository.save(runningOperation);
+
+        Assertions.assertEquals(1, clientOperationService.recoverPendingCertificateOperations(OffsetDateTime.now().minusHours(1)));
+        Assertions.assertEquals(CertificateState.FAILED, certificateRepository.findByUuid(certificate.getUuid()).orElseThrow().getState());
+        Assertions.assertEquals(List.of(runningOperation.getUuid()), pendingCertificateOperationRepository.findAll().stream().map(PendingCertificateOperation::getUuid).toList());
     }
 
     @Test
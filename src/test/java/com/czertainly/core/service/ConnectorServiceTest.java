@@ -304,6 +304,28 @@ class ConnectorServiceTest extends BaseSpringBootTest {
         Assertions.assertNotNull(attributes);
     }
 
+    @Test
+    void testGetAttributes_cached() throws ConnectorException {
+        FunctionGroupCode code = FunctionGroupCode.CREDENTIAL_PROVIDER;
+        String kind = "ApiKey";
+
+        mockServer.stubFor(WireMock
+                .get(WireMock.urlPathMatching("/v1/" + code.getCode() + "/" + kind + "/attributes"))
+                .willReturn(WireMock.okJson("[]")));
+
+        connectorService.getAttributes(connector.getSecuredUuid(), code, kind);
+        connectorService.getAttributes(connector.getSecuredUuid(), code, kind);
+        mockServer.verify(1, WireMock.getRequestedFor(WireMock.urlPathMatching("/v1/" + code.getCode() + "/" + kind + "/attributes")));
+
+        // health check drops cached metadata of connector
+        mockServer.stubFor(WireMock
+                .get("/v1/health")
+                .willReturn(WireMock.okJson("{ \"status\": \"ok\" }")));
+        connectorService.checkHealth(connector.getSecuredUuid());
+        connectorService.getAttributes(connector.getSecuredUuid(), code, kind);
+        mockServer.verify(2, WireMock.getRequestedFor(WireMock.urlPathMatching("/v1/" + code.getCode() + "/" + kind + "/attributes")));
+    }
+
     @Test
     void testGetAttributes_validationFail() {
         Assertions.assertThrows(
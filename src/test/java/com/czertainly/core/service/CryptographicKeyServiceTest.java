@@ -547,4 +547,56 @@ public class CryptographicKeyServiceTest extends BaseSpringBootTest {
 
         Assertions.assertEquals(5, cryptographicKeyItemRepository.count());
     }
+
+    @Test
+    public void testSync_reconciliation() throws ConnectorException, AttributeException, NotFoundException {
+        mockServer.stubFor(WireMock
+                .get(WireMock.urlPathMatching("/v1/cryptographyProvider/tokens/[^/]+/keys"))
+                .willReturn(WireMock.okJson("""
+                        [
+                            {
+                                "name":"renamedKey",
+                                "uuid":"%s",
+                                "association":"",
+                                "keyData":{
+                                    "type":"Private",
+                                    "algorithm":"RSA",
+                                    "format":"Raw",
+                                    "value":{"value":"changedKeyValue"},
+                                    "length":2048
+                                }
+                            },
+                            {
+                                "name":"newKey",
+                                "uuid":"e7426f1e-8ccc-11ed-a1eb-0242ac120007",
+                                "association":"",
+                                "keyData":{
+                                    "type":"Secret",
+                                    "algorithm":"RSA",
+                                    "format":"Raw",
+                                    "value":{"value":"sampleKeyValue"},
+                                    "length":1024
+                                }
+                            }
+                        ]""".formatted(content.getUuid().toString())
+                ))
+        );
+        cryptographicKeyService.syncKeys(tokenInstanceReference.getSecuredParentUuid());
+
+        Assertions.assertEquals(3, cryptographicKeyItemRepository.count());
+
+        CryptographicKeyItem changedItem = cryptographicKeyItemRepository.findByUuid(content.getUuid()).orElseThrow(() -> new NotFoundException(CryptographicKeyItem.class, content.getUuid()));
+        Assertions.assertEquals("renamedKey", changedItem.getName());
+        Assertions.assertEquals(2048, changedItem.getLength());
+        Assertions.assertNotNull(changedItem.getFingerprint());
+
+        // key item not present in token anymore is deactivated
+        CryptographicKeyItem removedItem = cryptographicKeyItemRepository.findByUuid(content1.getUuid()).orElseThrow(() -> new NotFoundException(CryptographicKeyItem.class, content1.getUuid()));
+        Assertions.assertEquals(KeyState.DEACTIVATED, removedItem.getState());
+        Assertions.assertFalse(removedItem.isEnabled());
+
+        CryptographicKeyItem newItem = cryptographicKeyItemRepository.findByKeyReferenceUuid(UUID.fromString("e7426f1e-8ccc-11ed-a1eb-0242ac120007")).getFirst();
+        Assertions.assertEquals(KeyState.ACTIVE, newItem.getState());
+        Assertions.assertEquals("newKey", newItem.getCryptographicKey().getName());
+    }
 }
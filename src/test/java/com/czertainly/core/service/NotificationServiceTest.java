@@ -0,0 +1,133 @@
+package com.czertainly.core.service;
+
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.exception.ValidationException;
+import com.czertainly.api.model.client.notification.NotificationDto;
+import com.czertainly.api.model.client.notification.NotificationRequestDto;
+import com.czertainly.api.model.client.notification.NotificationResponseDto;
+import com.czertainly.core.dao.repository.NotificationRecipientRepository;
+import com.czertainly.core.dao.repository.NotificationRepository;
+import com.czertainly.core.dao.repository.NotificationUserCounterRepository;
+import com.czertainly.core.model.NotificationInboxDto;
+import com.czertainly.core.util.AuthHelper;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+class NotificationServiceTest extends BaseSpringBootTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationRecipientRepository notificationRecipientRepository;
+
+    @Autowired
+    private NotificationUserCounterRepository notificationUserCounterRepository;
+
+    private String loggedUserUuid;
+    private final String otherUserUuid = UUID.randomUUID().toString();
+    private final List<String> notificationUuids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws ValidationException {
+        loggedUserUuid = AuthHelper.getUserProfile().getUser().getUuid();
+        notificationUuids.add(notificationService.createNotificationForUser("Own notification", null, loggedUserUuid, null, null).getUuid());
+        notificationUuids.add(notificationService.createNotificationForUsers("Shared notification", null, List.of(loggedUserUuid, otherUserUuid, loggedUserUuid), null, null).getUuid());
+        notificationUuids.add(notificationService.createNotificationForUser("Another own notification", null, loggedUserUuid, null, null).getUuid());
+    }
+
+    @Test
+    void testUnreadCountersMaintainedOnWrite() {
+        Assertions.assertEquals(3, notificationService.getUnreadNotificationsCount());
+        Assertions.assertEquals(1, notificationUserCounterRepository.findUnreadCountByUserUuid(UUID.fromString(otherUserUuid)).orElseThrow());
+
+        notificationService.bulkMarkNotificationAsRead(notificationUuids.subList(0, 2));
+        Assertions.assertEquals(1, notificationService.getUnreadNotificationsCount());
+        // already read notifications do not change the counter
+        notificationService.bulkMarkNotificationAsRead(notificationUuids);
+        Assertions.assertEquals(0, notificationService.getUnreadNotificationsCount());
+        Assertions.assertEquals(1, notificationUserCounterRepository.findUnreadCountByUserUuid(UUID.fromString(otherUserUuid)).orElseThrow());
+    }
+
+    @Test
+    void testListNotifications() {
+        notificationService.bulkMarkNotificationAsRead(List.of(notificationUuids.get(1)));
+
+        NotificationRequestDto request = new NotificationRequestDto();
+        request.setUnread(true);
+        NotificationResponseDto response = notificationService.listNotifications(request);
+        Assertions.assertEquals(2, response.getTotalItems());
+        Assertions.assertTrue(response.getItems().stream().allMatch(n -> n.getReadAt() == null));
+
+        request.setUnread(false);
+        response = notificationService.listNotifications(request);
+        Assertions.assertEquals(3, response.getTotalItems());
+        Assertions.assertNotNull(response.getItems().stream().filter(n -> n.getUuid().equals(notificationUuids.get(1))).findFirst().orElseThrow().getReadAt());
+    }
+
+    @Test
+    void testListInboxNotifications() throws ValidationException {
+        NotificationInboxDto firstPage = notificationService.listInboxNotifications(false, null, 2);
+        Assertions.assertEquals(2, firstPage.getItems().size());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+        Assertions.assertEquals(3, firstPage.getUnreadCount());
+
+        NotificationInboxDto secondPage = notificationService.listInboxNotifications(false, firstPage.getNextCursor(), 2);
+        Assertions.assertEquals(1, secondPage.getItems().size());
+        Assertions.assertNull(secondPage.getNextCursor());
+
+        List<String> listedUuids = new ArrayList<>(firstPage.getItems().stream().map(NotificationDto::getUuid).toList());
+        listedUuids.addAll(secondPage.getItems().stream().map(NotificationDto::getUuid).toList());
+        Assertions.assertEquals(new HashSet<>(notificationUuids), new HashSet<>(listedUuids));
+
+        notificationService.bulkMarkNotificationAsRead(notificationUuids.subList(0, 2));
+        NotificationInboxDto unreadPage = notificationService.listInboxNotifications(true, null, 2);
+        Assertions.assertEquals(List.of(notificationUuids.get(2)), unreadPage.getItems().stream().map(NotificationDto::getUuid).toList());
+        Assertions.assertNull(unreadPage.getNextCursor());
+
+        Assertions.assertThrows(ValidationException.class, () -> notificationService.listInboxNotifications(false, "invalid", 2));
+    }
+
+    @Test
+    void testDeleteNotifications() throws NotFoundException {
+        notificationService.markNotificationAsRead(notificationUuids.get(0));
+        notificationService.bulkDeleteNotifications(notificationUuids.subList(0, 2));
+
+        Assertions.assertEquals(1, notificationService.getUnreadNotificationsCount());
+        Assertions.assertFalse(notificationRepository.existsById(UUID.fromString(notificationUuids.get(0))));
+        // notification is kept for other recipients
+        Assertions.assertTrue(notificationRepository.existsById(UUID.fromString(notificationUuids.get(1))));
+
+        notificationService.deleteNotification(notificationUuids.get(2));
+        Assertions.assertEquals(0, notificationService.getUnreadNotificationsCount());
+        Assertions.assertThrows(NotFoundException.class, () -> notificationService.deleteNotification(notificationUuids.get(2)));
+        Assertions.assertThrows(NotFoundException.class, () -> notificationService.markNotificationAsRead(notificationUuids.get(2)));
+    }
+
+    @Test
+    void testDeleteReadNotifications() {
+        notificationService.bulkMarkNotificationAsRead(notificationUuids.subList(0, 2));
+
+        // service methods run in new transaction that does not see data of the test, repository is called directly
+        OffsetDateTime purgeBefore = OffsetDateTime.now().plusMinutes(1);
+        Assertions.assertEquals(1, notificationRecipientRepository.deleteChunkByReadAtBefore(purgeBefore, 1));
+        Assertions.assertEquals(1, notificationRecipientRepository.deleteChunkByReadAtBefore(purgeBefore, 1));
+        Assertions.assertEquals(0, notificationRecipientRepository.deleteChunkByReadAtBefore(purgeBefore, 1));
+        Assertions.assertEquals(1, notificationRepository.deleteWithoutRecipientsBySentAtBefore(purgeBefore));
+        Assertions.assertFalse(notificationRepository.existsById(UUID.fromString(notificationUuids.get(0))));
+        Assertions.assertTrue(notificationRepository.existsById(UUID.fromString(notificationUuids.get(1))));
+        Assertions.assertEquals(1, notificationService.getUnreadNotificationsCount());
+    }
+}
@@ -6,6 +6,7 @@ import com.czertainly.api.exception.ConnectorException;
 import com.czertainly.api.exception.NotFoundException;
 import com.czertainly.api.model.client.cryptography.token.TokenInstanceRequestDto;
 import com.czertainly.api.model.common.NameAndUuidDto;
+import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
 import com.czertainly.api.model.core.connector.ConnectorStatus;
 import com.czertainly.api.model.core.connector.FunctionGroupCode;
 import com.czertainly.api.model.core.cryptography.token.TokenInstanceDetailDto;
@@ -129,6 +130,16 @@ public class TokenInstanceServiceTest extends BaseSpringBootTest {
         Assertions.assertEquals(tokenInstanceReference.getConnector().getUuid().toString(), dto.getConnectorUuid());
     }
 
+    @Test
+    public void testGetTokenInstanceReturnsLastKnownStatus() throws ConnectorException {
+        tokenInstanceReference.setStatus(TokenInstanceStatus.ACTIVATED);
+        tokenInstanceReferenceRepository.save(tokenInstanceReference);
+
+        TokenInstanceDetailDto dto = tokenInstanceService.getTokenInstance(tokenInstanceReference.getSecuredUuid());
+        Assertions.assertEquals(TokenInstanceStatus.ACTIVATED, dto.getStatus().getStatus());
+        mockServer.verify(0, WireMock.getRequestedFor(WireMock.urlPathMatching("/v1/cryptographyProvider/tokens/[^/]+/status")));
+    }
+
     @Test
     public void testGetTokenInstance_notFound() {
         Assertions.assertThrows(
@@ -0,0 +1,90 @@
+package com.czertainly.core.service.cmp.message.handler;
+
+import com.czertainly.api.interfaces.core.cmp.error.CmpProcessingException;
+import com.czertainly.api.model.core.certificate.CertificateState;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.event.transaction.CertificateStateChangedEvent;
+import com.czertainly.core.security.authz.SecuredUUID;
+import com.czertainly.core.service.CertificateService;
+import com.czertainly.core.service.handler.CertificateStateCompletionRegistry;
+import jakarta.persistence.EntityManager;
+import org.bouncycastle.asn1.DEROctetString;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class PollFeatureTest {
+
+    private static final DEROctetString TID = new DEROctetString(new byte[]{1, 2, 3, 4});
+
+    @InjectMocks
+    private PollFeature pollFeature;
+
+    @Mock
+    private CertificateService certificateService;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private CertificateStateCompletionRegistry certificateStateCompletionRegistry = new CertificateStateCompletionRegistry();
+
+    private Certificate certificate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        certificate = new Certificate();
+        certificate.setUuid(UUID.randomUUID());
+        certificate.setSerialNumber("0a1b");
+        certificate.setState(CertificateState.REQUESTED);
+        given(certificateService.getCertificateEntity(any(SecuredUUID.class))).willReturn(certificate);
+    }
+
+    @Test
+    void testCompletedBySignal() throws CmpProcessingException {
+        long start = System.currentTimeMillis();
+        signalState(CertificateState.ISSUED);
+
+        Certificate polledCert = pollFeature.pollCertificate(TID, null, certificate.getUuid().toString(), CertificateState.ISSUED);
+
+        Assertions.assertEquals(CertificateState.ISSUED, polledCert.getState());
+        // completion signal is handled before fallback check of database
+        Assertions.assertTrue(System.currentTimeMillis() - start < 4000);
+    }
+
+    @Test
+    void testFailedOperationEndsWaiting() {
+        long start = System.currentTimeMillis();
+        signalState(CertificateState.FAILED);
+
+        Assertions.assertThrows(CmpProcessingException.class,
+                () -> pollFeature.pollCertificate(TID, null, certificate.getUuid().toString(), CertificateState.ISSUED));
+        Assertions.assertTrue(System.currentTimeMillis() - start < 4000);
+    }
+
+    @Test
+    void testAlreadyInExpectedState() throws CmpProcessingException {
+        certificate.setState(CertificateState.ISSUED);
+
+        Certificate polledCert = pollFeature.pollCertificate(TID, null, certificate.getUuid().toString(), CertificateState.ISSUED);
+        Assertions.assertEquals(CertificateState.ISSUED, polledCert.getState());
+    }
+
+    private void signalState(CertificateState state) {
+        CompletableFuture.runAsync(() -> {
+            certificate.setState(state);
+            certificateStateCompletionRegistry.handleCertificateStateChangedEvent(new CertificateStateChangedEvent(certificate.getUuid(), state));
+        }, CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,117 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.core.dao.entity.RaProfile;
+import com.czertainly.core.dao.entity.acme.AcmeProfile;
+import com.czertainly.core.event.transaction.AcmeAccountChangedEvent;
+import com.czertainly.core.event.transaction.AcmeProfileChangedEvent;
+import com.czertainly.core.util.AcmePublicKeyProcessor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.time.Duration;
+
+class AcmeContextCacheTest {
+
+    private static final String PROFILE_NAME = "acmeProfile";
+
+    private AcmeContextCache acmeContextCache;
+
+    @BeforeEach
+    void setUp() {
+        acmeContextCache = new AcmeContextCache();
+        ReflectionTestUtils.setField(acmeContextCache, "cacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(acmeContextCache, "maxAccounts", 2);
+    }
+
+    @Test
+    void testProfileContextCached() {
+        RaProfile raProfile = new RaProfile();
+        raProfile.setEnabled(true);
+        AcmeProfile acmeProfile = new AcmeProfile();
+        acmeProfile.setEnabled(true);
+        acmeProfile.setDisableNewOrders(false);
+        acmeProfile.setTermsOfServiceUrl("https://localhost/terms");
+        acmeProfile.setWebsite("https://localhost");
+
+        Assertions.assertNull(acmeContextCache.getProfile(PROFILE_NAME, false));
+        acmeContextCache.putProfile(PROFILE_NAME, false, acmeProfile, raProfile);
+
+        AcmeContextCache.ProfileContext context = acmeContextCache.getProfile(PROFILE_NAME, false);
+        Assertions.assertNotNull(context);
+        Assertions.assertTrue(context.acmeProfileEnabled());
+        Assertions.assertTrue(context.raProfileEnabled());
+        Assertions.assertFalse(context.disableNewOrders());
+        Assertions.assertEquals("https://localhost/terms", context.directoryMeta().getTermsOfService());
+        Assertions.assertEquals("https://localhost", context.directoryMeta().getWebsite());
+        Assertions.assertNull(acmeContextCache.getProfile(PROFILE_NAME, true), "RA profile with the same name is cached separately");
+
+        acmeContextCache.handleAcmeProfileChangedEvent(new AcmeProfileChangedEvent());
+        Assertions.assertNull(acmeContextCache.getProfile(PROFILE_NAME, false));
+    }
+
+    @Test
+    void testProfileContextWithoutAssociatedProfile() {
+        RaProfile raProfile = new RaProfile();
+        raProfile.setEnabled(false);
+        AcmeContextCache.ProfileContext context = acmeContextCache.putProfile(PROFILE_NAME, true, null, raProfile);
+
+        Assertions.assertFalse(context.acmeProfilePresent());
+        Assertions.assertFalse(context.acmeProfileEnabled());
+        Assertions.assertTrue(context.raProfilePresent());
+        Assertions.assertFalse(context.raProfileEnabled());
+        Assertions.assertNull(context.directoryMeta());
+    }
+
+    @Test
+    void testProfileContextExpired() {
+        ReflectionTestUtils.setField(acmeContextCache, "cacheTtl", Duration.ZERO);
+        acmeContextCache.putProfile(PROFILE_NAME, false, new AcmeProfile(), null);
+
+        Assertions.assertNull(acmeContextCache.getProfile(PROFILE_NAME, false));
+    }
+
+    @Test
+    void testAccountKeyParsedOnce() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String publicKey = generatePublicKey();
+
+        Assertions.assertNull(acmeContextCache.getAccountKey("account1"));
+        PublicKey parsedKey = acmeContextCache.loadAccountKey("account1", publicKey);
+        Assertions.assertSame(parsedKey, acmeContextCache.getAccountKey("account1"));
+        Assertions.assertSame(parsedKey, acmeContextCache.loadAccountKey("account1", publicKey));
+
+        // changed key of account is parsed again even before cached key is dropped
+        String newPublicKey = generatePublicKey();
+        PublicKey newParsedKey = acmeContextCache.loadAccountKey("account1", newPublicKey);
+        Assertions.assertNotSame(parsedKey, newParsedKey);
+        Assertions.assertEquals(newPublicKey, AcmePublicKeyProcessor.publicKeyPemStringFromObject(newParsedKey));
+        Assertions.assertSame(newParsedKey, acmeContextCache.getAccountKey("account1"));
+
+        acmeContextCache.handleAcmeAccountChangedEvent(new AcmeAccountChangedEvent("account1"));
+        Assertions.assertNull(acmeContextCache.getAccountKey("account1"));
+    }
+
+    @Test
+    void testAccountKeysLimited() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        String publicKey = generatePublicKey();
+        acmeContextCache.loadAccountKey("account1", publicKey);
+        acmeContextCache.loadAccountKey("account2", publicKey);
+        PublicKey parsedKey = acmeContextCache.loadAccountKey("account3", publicKey);
+
+        Assertions.assertNotNull(parsedKey);
+        Assertions.assertNotNull(acmeContextCache.getAccountKey("account1"));
+        Assertions.assertNotNull(acmeContextCache.getAccountKey("account2"));
+        Assertions.assertNull(acmeContextCache.getAccountKey("account3"));
+    }
+
+    private static String generatePublicKey() throws NoSuchAlgorithmException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        return AcmePublicKeyProcessor.publicKeyPemStringFromObject(keyPairGenerator.generateKeyPair().getPublic());
+    }
+}
@@ -0,0 +1,182 @@
+package com.czertainly.core.service.handler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.naming.NamingException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AcmeDnsResolverTest {
+
+    private static final String RECORD_NAME = "_acme-challenge.example.com";
+
+    private final Map<String, List<String>> txtRecords = new ConcurrentHashMap<>();
+    private final AtomicInteger queryCount = new AtomicInteger();
+
+    private DatagramSocket dnsSocket;
+    private Thread dnsThread;
+    private AcmeDnsResolver acmeDnsResolver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dnsSocket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        dnsThread = Thread.ofVirtual().start(this::serveDns);
+
+        acmeDnsResolver = new AcmeDnsResolver();
+        ReflectionTestUtils.setField(acmeDnsResolver, "timeout", Duration.ofSeconds(1));
+        ReflectionTestUtils.setField(acmeDnsResolver, "positiveTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(acmeDnsResolver, "negativeTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(acmeDnsResolver, "cacheSize", 100);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        acmeDnsResolver.close();
+        dnsSocket.close();
+        dnsThread.join();
+    }
+
+    @Test
+    void testTxtRecordsResolvedAndCached() throws NamingException {
+        txtRecords.put(RECORD_NAME, List.of("token1", "token2"));
+
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME));
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME.toUpperCase()));
+        Assertions.assertEquals(1, queryCount.get());
+    }
+
+    @Test
+    void testMissingRecordCachedShortly() throws NamingException {
+        Assertions.assertTrue(resolve(RECORD_NAME).isEmpty());
+        Assertions.assertTrue(resolve(RECORD_NAME).isEmpty());
+        Assertions.assertEquals(1, queryCount.get());
+
+        // record published after negative result expired is picked up by next lookup
+        ReflectionTestUtils.setField(acmeDnsResolver, "negativeTtl", Duration.ZERO);
+        Assertions.assertTrue(resolve("_acme-challenge.other.com").isEmpty());
+        txtRecords.put("_acme-challenge.other.com", List.of("token1"));
+        Assertions.assertEquals(List.of("token1"), resolve("_acme-challenge.other.com"));
+        Assertions.assertEquals(3, queryCount.get());
+    }
+
+    @Test
+    void testCachedRecordsWithoutExpectedValueRefreshed() throws NamingException {
+        ReflectionTestUtils.setField(acmeDnsResolver, "negativeTtl", Duration.ZERO);
+        txtRecords.put(RECORD_NAME, List.of("token1"));
+        Assertions.assertEquals(List.of("token1"), resolve(RECORD_NAME, "token1"));
+
+        // record of other challenge of the same domain published after first lookup is not hidden by cached result
+        txtRecords.put(RECORD_NAME, List.of("token1", "token2"));
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME, "token2"));
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME, "token1"));
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME, "token2"));
+        Assertions.assertEquals(2, queryCount.get());
+
+        Assertions.assertEquals(List.of("token1", "token2"), resolve(RECORD_NAME, "token3"));
+        Assertions.assertEquals(3, queryCount.get());
+    }
+
+    @Test
+    void testContextReused() throws NamingException {
+        txtRecords.put(RECORD_NAME, List.of("token1"));
+        ReflectionTestUtils.setField(acmeDnsResolver, "positiveTtl", Duration.ZERO);
+
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(List.of("token1"), resolve(RECORD_NAME));
+        }
+        Assertions.assertEquals(5, queryCount.get());
+    }
+
+    @Test
+    void testUnreachableResolverFailed() throws IOException, NamingException {
+        ReflectionTestUtils.setField(acmeDnsResolver, "timeout", Duration.ofMillis(100));
+        int unusedPort;
+        try (DatagramSocket unusedSocket = new DatagramSocket(0, InetAddress.getLoopbackAddress())) {
+            unusedPort = unusedSocket.getLocalPort();
+        }
+        Assertions.assertThrows(NamingException.class, () -> acmeDnsResolver.resolveTxtRecords(RECORD_NAME, null, "127.0.0.1", String.valueOf(unusedPort)));
+
+        txtRecords.put(RECORD_NAME, List.of("token1"));
+        Assertions.assertEquals(List.of("token1"), resolve(RECORD_NAME));
+    }
+
+    private List<String> resolve(String name) throws NamingException {
+        return resolve(name, null);
+    }
+
+    private List<String> resolve(String name, String expectedValue) throws NamingException {
+        return acmeDnsResolver.resolveTxtRecords(name, expectedValue, "127.0.0.1", String.valueOf(dnsSocket.getLocalPort()));
+    }
+
+    private void serveDns() {
+        byte[] buffer = new byte[512];
+        while (!dnsSocket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                dnsSocket.receive(packet);
+                queryCount.incrementAndGet();
+                byte[] response = createResponse(packet.getData(), packet.getLength());
+                dnsSocket.send(new DatagramPacket(response, response.length, packet.getSocketAddress()));
+            } catch (IOException e) {
+                // socket closed at the end of test
+            }
+        }
+    }
+
+    private byte[] createResponse(byte[] query, int length) {
+        // question section starts after 12 bytes of header and ends with 4 bytes of type and class after the name
+        int offset = 12;
+        List<String> labels = new ArrayList<>();
+        while (query[offset] != 0) {
+            int labelLength = query[offset];
+            labels.add(new String(query, offset + 1, labelLength, StandardCharsets.US_ASCII));
+            offset += labelLength + 1;
+        }
+        int questionEnd = Math.min(offset + 5, length);
+        List<String> values = txtRecords.get(String.join(".", labels).toLowerCase());
+
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        response.write(query[0]);
+        response.write(query[1]);
+        response.write(0x81);
+        response.write(values == null ? 0x83 : 0x80);
+        writeShort(response, 1);
+        writeShort(response, values == null ? 0 : values.size());
+        writeShort(response, 0);
+        writeShort(response, 0);
+        response.write(query, 12, questionEnd - 12);
+        if (values != null) {
+            for (String value : values) {
+                byte[] valueBytes = value.getBytes(StandardCharsets.US_ASCII);
+                writeShort(response, 0xC00C);
+                writeShort(response, 16);
+                writeShort(response, 1);
+                writeShort(response, 0);
+                writeShort(response, 60);
+                writeShort(response, valueBytes.length + 1);
+                response.write(valueBytes.length);
+                response.write(valueBytes, 0, valueBytes.length);
+            }
+        }
+        return response.toByteArray();
+    }
+
+    private static void writeShort(ByteArrayOutputStream stream, int value) {
+        stream.write((value >> 8) & 0xFF);
+        stream.write(value & 0xFF);
+    }
+}
@@ -0,0 +1,95 @@
+package com.czertainly.core.service.handler;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+
+class AcmeHttpChallengeClientTest {
+
+    private static final String CHALLENGE_PATH = "/.well-known/acme-challenge/token123";
+    private static final String KEY_AUTHORIZATION = "token123.thumbprint";
+
+    private WireMockServer mockServer;
+    private AcmeHttpChallengeClient acmeHttpChallengeClient;
+
+    @BeforeEach
+    void setUp() {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+
+        acmeHttpChallengeClient = new AcmeHttpChallengeClient();
+        ReflectionTestUtils.setField(acmeHttpChallengeClient, "timeout", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(acmeHttpChallengeClient, "maxResponseSize", 64);
+        acmeHttpChallengeClient.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+    }
+
+    @Test
+    void testChallengeResponse() throws IOException {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.ok(KEY_AUTHORIZATION)));
+
+        Assertions.assertEquals(KEY_AUTHORIZATION, acmeHttpChallengeClient.getResponse(challengeUri()));
+        Assertions.assertEquals(KEY_AUTHORIZATION, acmeHttpChallengeClient.getResponse(challengeUri()));
+        mockServer.verify(2, WireMock.getRequestedFor(WireMock.urlEqualTo(CHALLENGE_PATH)));
+    }
+
+    @Test
+    void testRedirectFollowed() throws IOException {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.temporaryRedirect("/redirected")));
+        mockServer.stubFor(WireMock.get("/redirected").willReturn(WireMock.ok(KEY_AUTHORIZATION)));
+
+        Assertions.assertEquals(KEY_AUTHORIZATION, acmeHttpChallengeClient.getResponse(challengeUri()));
+    }
+
+    @Test
+    void testRedirectToOtherPortRejected() {
+        int otherPort = mockServer.port() == 65535 ? mockServer.port() - 1 : mockServer.port() + 1;
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.temporaryRedirect("http://localhost:" + otherPort + "/redirected")));
+
+        Assertions.assertThrows(IOException.class, () -> acmeHttpChallengeClient.getResponse(challengeUri()));
+    }
+
+    @Test
+    void testRedirectLoopStopped() {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.temporaryRedirect(CHALLENGE_PATH)));
+
+        Assertions.assertThrows(IOException.class, () -> acmeHttpChallengeClient.getResponse(challengeUri()));
+    }
+
+    @Test
+    void testUnsuccessfulResponse() throws IOException {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.notFound().withBody(KEY_AUTHORIZATION)));
+
+        Assertions.assertEquals("", acmeHttpChallengeClient.getResponse(challengeUri()));
+    }
+
+    @Test
+    void testResponseSizeLimited() throws IOException {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.ok("a".repeat(1000))));
+
+        Assertions.assertEquals(64, acmeHttpChallengeClient.getResponse(challengeUri()).length());
+    }
+
+    @Test
+    void testSlowResponseTimedOut() {
+        mockServer.stubFor(WireMock.get(CHALLENGE_PATH).willReturn(WireMock.ok(KEY_AUTHORIZATION).withFixedDelay(2000)));
+
+        Assertions.assertThrows(IOException.class, () -> acmeHttpChallengeClient.getResponse(challengeUri()));
+    }
+
+    private URI challengeUri() {
+        return URI.create("http://localhost:" + mockServer.port() + CHALLENGE_PATH);
+    }
+}
@@ -0,0 +1,128 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.core.certificate.CertificateEvent;
+import com.czertainly.api.model.core.certificate.CertificateEventStatus;
+import com.czertainly.core.dao.entity.CertificateEventHistory;
+import com.czertainly.core.service.CertificateEventHistoryService;
+import com.czertainly.core.util.BufferedBatchWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CertificateEventHistoryAppenderTest {
+
+    @InjectMocks
+    private CertificateEventHistoryAppender certificateEventHistoryAppender;
+
+    @Mock
+    private CertificateEventHistoryService certificateEventHistoryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(certificateEventHistoryAppender, "batchSize", 2);
+        certificateEventHistoryAppender.setTransactionManager(transactionManager);
+        certificateEventHistoryAppender.setMeterRegistry(meterRegistry);
+        certificateEventHistoryAppender.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        certificateEventHistoryAppender.close();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testHistoriesWrittenWithAuthenticationOfAuthor() {
+        List<String> authors = new ArrayList<>();
+        doAnswer(invocation -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            authors.add(authentication == null ? null : authentication.getName());
+            return null;
+        }).when(certificateEventHistoryService).saveEventHistories(anyList());
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("author", null));
+        certificateEventHistoryAppender.append(List.of(createHistory()));
+        SecurityContextHolder.clearContext();
+        certificateEventHistoryAppender.flush();
+
+        Assertions.assertEquals(List.of("author"), authors);
+        Assertions.assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void testHistoriesWrittenAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            certificateEventHistoryAppender.append(List.of(createHistory()));
+            certificateEventHistoryAppender.flush();
+            verify(certificateEventHistoryService, never()).saveEventHistories(anyList());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        certificateEventHistoryAppender.flush();
+        verify(certificateEventHistoryService).saveEventHistories(anyList());
+    }
+
+    @Test
+    void testRolledBackHistoriesNotWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            certificateEventHistoryAppender.append(List.of(createHistory()));
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        certificateEventHistoryAppender.flush();
+        verify(certificateEventHistoryService, never()).saveEventHistories(anyList());
+    }
+
+    @Test
+    void testFailedBatchRetried() {
+        doThrow(new IllegalStateException("Database unavailable")).doNothing().when(certificateEventHistoryService).saveEventHistories(anyList());
+
+        certificateEventHistoryAppender.append(List.of(createHistory(), createHistory()));
+        certificateEventHistoryAppender.flush();
+
+        // batch is inserted in one transaction, so it is retried as a whole and no history is dropped
+        verify(certificateEventHistoryService, times(2)).saveEventHistories(argThat(histories -> histories.size() == 2));
+        verify(transactionManager, times(2)).getTransaction(any());
+        Assertions.assertEquals(0, meterRegistry.get(BufferedBatchWriter.DROPPED_ITEMS_METRIC).functionCounter().count());
+    }
+
+    private CertificateEventHistory createHistory() {
+        CertificateEventHistory history = new CertificateEventHistory();
+        history.setCertificateUuid(UUID.randomUUID());
+        history.setEvent(CertificateEvent.UPDATE_VALIDATION_STATUS);
+        history.setStatus(CertificateEventStatus.SUCCESS);
+        history.setMessage("Validated");
+        return history;
+    }
+}
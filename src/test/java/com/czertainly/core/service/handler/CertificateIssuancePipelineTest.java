@@ -0,0 +1,62 @@
+package com.czertainly.core.service.handler;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+class CertificateIssuancePipelineTest {
+
+    private final AuthorityOperationLimiter authorityOperationLimiter = new AuthorityOperationLimiter();
+    private final CertificateIssuancePipeline pipeline = new CertificateIssuancePipeline();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(authorityOperationLimiter, "maxConcurrentOperations", 2);
+        ReflectionTestUtils.setField(pipeline, "pipelineDepth", 8);
+        pipeline.setAuthorityOperationLimiter(authorityOperationLimiter);
+    }
+
+    @Test
+    void testPipelineDepthLimitedByAuthority() {
+        Assertions.assertEquals(2, pipeline.getEffectivePipelineDepth());
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<UUID> certificateUuids = IntStream.range(0, 10).mapToObj(i -> UUID.randomUUID()).toList();
+        CertificateIssuancePipeline.IssuanceResult result = pipeline.submit(UUID.randomUUID(), certificateUuids, certificateUuid -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+        });
+
+        Assertions.assertTrue(result.failures().isEmpty());
+        Assertions.assertTrue(result.postponed().isEmpty());
+        Assertions.assertTrue(maxRunning.get() <= 2);
+    }
+
+    @Test
+    void testBusyAuthorityPostponesCertificate() {
+        UUID failedUuid = UUID.randomUUID();
+        UUID postponedUuid = UUID.randomUUID();
+        UUID issuedUuid = UUID.randomUUID();
+
+        CertificateIssuancePipeline.IssuanceResult result = pipeline.submit(UUID.randomUUID(), List.of(failedUuid, postponedUuid, issuedUuid), certificateUuid -> {
+            if (certificateUuid.equals(failedUuid)) {
+                throw new IllegalStateException("Rejected by authority");
+            }
+            if (certificateUuid.equals(postponedUuid)) {
+                throw new AuthorityBusyException(UUID.randomUUID());
+            }
+        });
+
+        Assertions.assertEquals(Map.of(failedUuid, "Rejected by authority"), result.failures());
+        Assertions.assertEquals(List.of(postponedUuid), result.postponed());
+    }
+}
@@ -0,0 +1,108 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.clients.cryptography.CryptographicOperationsApiClient;
+import com.czertainly.api.exception.ValidationException;
+import com.czertainly.api.model.common.enums.cryptography.KeyAlgorithm;
+import com.czertainly.api.model.common.enums.cryptography.KeyType;
+import com.czertainly.api.model.core.connector.ConnectorDto;
+import com.czertainly.core.dao.entity.Certificate;
+import com.czertainly.core.dao.entity.Connector;
+import com.czertainly.core.dao.entity.CryptographicKey;
+import com.czertainly.core.dao.entity.CryptographicKeyItem;
+import com.czertainly.core.dao.entity.TokenInstanceReference;
+import com.czertainly.core.service.CryptographicKeyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Security;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+class CzertainlyProviderRegistryTest {
+
+    private CryptographicKeyService cryptographicKeyService;
+    private CzertainlyProviderRegistry czertainlyProviderRegistry;
+    private Certificate certificate;
+    private CryptographicKeyItem item;
+
+    @BeforeEach
+    void setUp() {
+        cryptographicKeyService = Mockito.mock(CryptographicKeyService.class);
+        czertainlyProviderRegistry = new CzertainlyProviderRegistry();
+        czertainlyProviderRegistry.setCryptographicOperationsApiClient(Mockito.mock(CryptographicOperationsApiClient.class));
+        czertainlyProviderRegistry.setCryptographicKeyService(cryptographicKeyService);
+        czertainlyProviderRegistry.setMeterRegistry(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(czertainlyProviderRegistry, "keyCacheTtl", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(czertainlyProviderRegistry, "signBatchSize", 16);
+        ReflectionTestUtils.setField(czertainlyProviderRegistry, "signMaxInFlight", 4);
+        czertainlyProviderRegistry.init();
+
+        Connector connector = Mockito.mock(Connector.class);
+        given(connector.mapToDto()).willReturn(new ConnectorDto());
+        TokenInstanceReference tokenInstanceReference = new TokenInstanceReference();
+        tokenInstanceReference.setUuid(UUID.randomUUID());
+        tokenInstanceReference.setTokenInstanceUuid(UUID.randomUUID().toString());
+        tokenInstanceReference.setConnector(connector);
+
+        CryptographicKey key = new CryptographicKey();
+        key.setUuid(UUID.randomUUID());
+        key.setTokenInstanceReference(tokenInstanceReference);
+
+        item = new CryptographicKeyItem();
+        item.setUuid(UUID.randomUUID());
+        item.setKeyReferenceUuid(UUID.randomUUID());
+        item.setType(KeyType.PRIVATE_KEY);
+        item.setKeyAlgorithm(KeyAlgorithm.RSA);
+        given(cryptographicKeyService.getKeyItemFromKey(any(), any())).willReturn(item);
+
+        certificate = new Certificate();
+        certificate.setKey(key);
+    }
+
+    @AfterEach
+    void tearDown() {
+        czertainlyProviderRegistry.close();
+    }
+
+    @Test
+    void testProviderKeyCached() {
+        CzertainlyProviderRegistry.ProviderKey providerKey = czertainlyProviderRegistry.getProviderKey(certificate);
+
+        Assertions.assertEquals(item.getKeyReferenceUuid().toString(), providerKey.privateKey().getKeyUuid());
+        Assertions.assertEquals(certificate.getKey().getTokenInstanceReference().getTokenInstanceUuid(), providerKey.privateKey().getTokenInstanceUuid());
+        Assertions.assertEquals(KeyAlgorithm.RSA, providerKey.keyAlgorithm());
+        Assertions.assertNull(Security.getProvider(providerKey.provider().getName()), "Provider should not be registered in JCA");
+
+        Assertions.assertSame(providerKey, czertainlyProviderRegistry.getProviderKey(certificate));
+        Mockito.verify(cryptographicKeyService, Mockito.times(1)).getKeyItemFromKey(any(), any());
+    }
+
+    @Test
+    void testProviderReusedAfterKeyExpired() {
+        ReflectionTestUtils.setField(czertainlyProviderRegistry, "keyCacheTtl", Duration.ZERO);
+
+        CzertainlyProviderRegistry.ProviderKey providerKey = czertainlyProviderRegistry.getProviderKey(certificate);
+        CzertainlyProviderRegistry.ProviderKey reloadedProviderKey = czertainlyProviderRegistry.getProviderKey(certificate);
+
+        Assertions.assertNotSame(providerKey, reloadedProviderKey);
+        Assertions.assertSame(providerKey.provider(), reloadedProviderKey.provider());
+        Mockito.verify(cryptographicKeyService, Mockito.times(2)).getKeyItemFromKey(any(), any());
+    }
+
+    @Test
+    void testCertificateWithoutKey() {
+        Certificate certificateWithoutKey = new Certificate();
+        Assertions.assertThrows(ValidationException.class, () -> czertainlyProviderRegistry.getProviderKey(certificateWithoutKey));
+
+        given(cryptographicKeyService.getKeyItemFromKey(any(), any())).willReturn(null);
+        Assertions.assertThrows(ValidationException.class, () -> czertainlyProviderRegistry.getProviderKey(certificate));
+    }
+}
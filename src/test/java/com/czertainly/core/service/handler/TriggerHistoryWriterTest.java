@@ -0,0 +1,103 @@
+package com.czertainly.core.service.handler;
+
+import com.czertainly.api.model.core.auth.Resource;
+import com.czertainly.core.dao.entity.workflows.TriggerHistory;
+import com.czertainly.core.service.TriggerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TriggerHistoryWriterTest {
+
+    @InjectMocks
+    private TriggerHistoryWriter triggerHistoryWriter;
+
+    @Mock
+    private TriggerService triggerService;
+
+    private final UUID discoveryUuid = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(triggerHistoryWriter, "batchSize", 2);
+        triggerHistoryWriter.setMeterRegistry(new SimpleMeterRegistry());
+        triggerHistoryWriter.init();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testHistoriesWrittenInBatches() {
+        triggerHistoryWriter.start(Resource.DISCOVERY, discoveryUuid, Resource.CERTIFICATE);
+        for (int i = 0; i < 5; i++) {
+            triggerHistoryWriter.add(discoveryUuid, List.of(createHistory(true, true)), false);
+        }
+        triggerHistoryWriter.complete(discoveryUuid);
+        triggerHistoryWriter.close();
+
+        ArgumentCaptor<List<TriggerHistory>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(triggerService, atLeast(3)).saveTriggerHistories(batchCaptor.capture());
+        int written = 0;
+        for (List<TriggerHistory> batch : batchCaptor.getAllValues()) {
+            Assertions.assertTrue(batch.size() <= 2);
+            written += batch.size();
+        }
+        Assertions.assertEquals(5, written);
+        verify(triggerService, never()).updateTriggerHistorySummary(any(), any(), any(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testSummaryOnly() {
+        ReflectionTestUtils.setField(triggerHistoryWriter, "summaryOnly", true);
+        triggerHistoryWriter.start(Resource.DISCOVERY, discoveryUuid, Resource.CERTIFICATE);
+
+        TriggerHistory failedHistory = createHistory(true, false);
+        triggerHistoryWriter.add(discoveryUuid, List.of(createHistory(false, false), failedHistory), false);
+        triggerHistoryWriter.add(discoveryUuid, List.of(createHistory(true, true)), true);
+        triggerHistoryWriter.add(discoveryUuid, List.of(createHistory(false, false)), false);
+        // object already counted as failed is not counted again
+        triggerHistoryWriter.addActionFailures(discoveryUuid, UUID.randomUUID(), Map.of(), Set.of(failedHistory.getObjectUuid()));
+        triggerHistoryWriter.complete(discoveryUuid);
+
+        verify(triggerService).updateTriggerHistorySummary(Resource.DISCOVERY, discoveryUuid, Resource.CERTIFICATE, 3, 2, 1, 1);
+        verify(triggerService, never()).saveTriggerHistories(anyList());
+        verify(triggerService, never()).createTriggerHistoryRecords(any(), any());
+
+        // histories are written again once run is completed
+        triggerHistoryWriter.add(discoveryUuid, List.of(createHistory(true, true)), false);
+        triggerHistoryWriter.flush();
+        verify(triggerService).saveTriggerHistories(anyList());
+        verify(triggerService, times(1)).updateTriggerHistorySummary(any(), eq(discoveryUuid), any(), anyInt(), anyInt(), anyInt(), anyInt());
+    }
+
+    private TriggerHistory createHistory(boolean conditionsMatched, boolean actionsPerformed) {
+        TriggerHistory triggerHistory = new TriggerHistory();
+        triggerHistory.setUuid(UUID.randomUUID());
+        triggerHistory.setTriggerUuid(UUID.randomUUID());
+        triggerHistory.setTriggerAssociationObjectUuid(discoveryUuid);
+        triggerHistory.setObjectUuid(UUID.randomUUID());
+        triggerHistory.setTriggeredAt(OffsetDateTime.now());
+        triggerHistory.setConditionsMatched(conditionsMatched);
+        triggerHistory.setActionsPerformed(actionsPerformed);
+        return triggerHistory;
+    }
+}
@@ -0,0 +1,262 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.clients.SchedulerApiClient;
+import com.czertainly.api.exception.NotFoundException;
+import com.czertainly.api.exception.SchedulerException;
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.dao.entity.ScheduledJob;
+import com.czertainly.core.dao.entity.ScheduledJobHistory;
+import com.czertainly.core.dao.repository.ScheduledJobHistoryRepository;
+import com.czertainly.core.dao.repository.ScheduledJobsRepository;
+import com.czertainly.core.messaging.producers.NotificationProducer;
+import com.czertainly.core.model.ScheduledTaskChunkResult;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.util.BaseSpringBootTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+// chunks and leases are committed by the job, so test does not run in transaction and its data are deleted after each test
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ChunkedSchedulerJobProcessorTest extends BaseSpringBootTest {
+
+    private static final String JOB_NAME = "chunkedTestJob";
+    private static final String OTHER_LEASE_OWNER = "otherInstance";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScheduledJobsRepository scheduledJobsRepository;
+
+    @Autowired
+    private ScheduledJobHistoryRepository scheduledJobHistoryRepository;
+
+    private ScheduledJob scheduledJob;
+    private TestChunkedJob job;
+
+    @BeforeEach
+    void setUp() {
+        scheduledJob = new ScheduledJob();
+        scheduledJob.setJobName(JOB_NAME);
+        scheduledJob.setCronExpression("0 0 * ? * *");
+        scheduledJob.setEnabled(true);
+        scheduledJob.setSystem(true);
+        scheduledJob.setJobClassName(TestChunkedJob.class.getName());
+        scheduledJob = scheduledJobsRepository.save(scheduledJob);
+
+        job = new TestChunkedJob();
+        job.setTransactionManager(transactionManager);
+        job.setScheduledJobsRepository(scheduledJobsRepository);
+        job.setScheduledJobHistoryRepository(scheduledJobHistoryRepository);
+        job.setSchedulerApiClient(Mockito.mock(SchedulerApiClient.class));
+        job.setNotificationProducer(Mockito.mock(NotificationProducer.class));
+        ReflectionTestUtils.setField(job, "leaseDuration", Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduledJobHistoryRepository.deleteAll(loadHistories());
+        scheduledJobsRepository.deleteById(scheduledJob.getUuid());
+    }
+
+    @Test
+    void testJobProcessedInChunks() throws SchedulerException, NotFoundException {
+        job.processTask(JOB_NAME);
+
+        Assertions.assertEquals(Arrays.asList(null, "2", "4"), job.processedCheckpoints);
+        ScheduledJobHistory history = loadLastHistory();
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, history.getSchedulerExecutionStatus());
+        Assertions.assertEquals("5", history.getCheckpoint());
+        Assertions.assertEquals(TestChunkedJob.ITEMS_COUNT, history.getProcessedItems());
+        Assertions.assertNull(scheduledJobsRepository.findByJobName(JOB_NAME).getLeaseOwner());
+    }
+
+    @Test
+    void testInterruptedJobResumedFromCheckpoint() throws SchedulerException, NotFoundException {
+        ScheduledJobHistory interruptedHistory = new ScheduledJobHistory();
+        interruptedHistory.setScheduledJobUuid(scheduledJob.getUuid());
+        interruptedHistory.setJobExecution(new Date());
+        interruptedHistory.setSchedulerExecutionStatus(SchedulerJobExecutionStatus.STARTED);
+        interruptedHistory.setCheckpoint("2");
+        interruptedHistory.setProcessedItems(2);
+        interruptedHistory = scheduledJobHistoryRepository.save(interruptedHistory);
+
+        job.processTask(JOB_NAME);
+
+        Assertions.assertEquals(List.of("2", "4"), job.processedCheckpoints);
+        ScheduledJobHistory history = loadLastHistory();
+        Assertions.assertEquals(interruptedHistory.getUuid(), history.getUuid());
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, history.getSchedulerExecutionStatus());
+        Assertions.assertEquals(TestChunkedJob.ITEMS_COUNT, history.getProcessedItems());
+        Assertions.assertEquals(1, loadHistories().size());
+    }
+
+    @Test
+    void testJobSkippedWhenLeaseHeldByAnotherInstance() throws SchedulerException, NotFoundException {
+        setLease(OTHER_LEASE_OWNER, OffsetDateTime.now().plusMinutes(5));
+
+        job.processTask(JOB_NAME);
+
+        Assertions.assertTrue(job.processedCheckpoints.isEmpty());
+        Assertions.assertFalse(scheduledJobHistoryRepository.existsByScheduledJobUuid(scheduledJob.getUuid()));
+        Assertions.assertEquals(OTHER_LEASE_OWNER, scheduledJobsRepository.findByJobName(JOB_NAME).getLeaseOwner());
+    }
+
+    @Test
+    void testExpiredLeaseTakenOver() throws SchedulerException, NotFoundException {
+        setLease(OTHER_LEASE_OWNER, OffsetDateTime.now().minusMinutes(1));
+
+        job.processTask(JOB_NAME);
+
+        Assertions.assertEquals(Arrays.asList(null, "2", "4"), job.processedCheckpoints);
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, loadLastHistory().getSchedulerExecutionStatus());
+        Assertions.assertNull(scheduledJobsRepository.findByJobName(JOB_NAME).getLeaseOwner());
+    }
+
+    @Test
+    void testExecutionStoppedWhenLeaseTakenOver() throws SchedulerException, NotFoundException {
+        // another instance takes over the job after first chunk, e.g. when lease expired while instance was unresponsive
+        job.chunkHook = checkpoint -> {
+            ScheduledJob chunkScheduledJob = scheduledJobsRepository.findByJobName(JOB_NAME);
+            chunkScheduledJob.setLeaseOwner(OTHER_LEASE_OWNER);
+            scheduledJobsRepository.save(chunkScheduledJob);
+        };
+
+        job.processTask(JOB_NAME);
+
+        Assertions.assertEquals(Arrays.asList((String) null), job.processedCheckpoints);
+        ScheduledJobHistory history = loadLastHistory();
+        Assertions.assertEquals(SchedulerJobExecutionStatus.STARTED, history.getSchedulerExecutionStatus());
+        Assertions.assertEquals("2", history.getCheckpoint());
+        Assertions.assertEquals(2, history.getProcessedItems());
+        Assertions.assertEquals(OTHER_LEASE_OWNER, scheduledJobsRepository.findByJobName(JOB_NAME).getLeaseOwner());
+    }
+
+    @Test
+    void testFailedChunkRolledBackWithCheckpoint() throws SchedulerException, NotFoundException {
+        job.chunkHook = checkpoint -> {
+            if ("2".equals(checkpoint)) {
+                ScheduledJob chunkScheduledJob = scheduledJobsRepository.findByJobName(JOB_NAME);
+                chunkScheduledJob.setCronExpression("0 0 0 ? * *");
+                scheduledJobsRepository.save(chunkScheduledJob);
+                throw new IllegalStateException("Chunk failed");
+            }
+        };
+
+        job.processTask(JOB_NAME);
+
+        ScheduledJobHistory history = loadLastHistory();
+        Assertions.assertEquals(SchedulerJobExecutionStatus.FAILED, history.getSchedulerExecutionStatus());
+        Assertions.assertEquals("2", history.getCheckpoint());
+        Assertions.assertEquals(2, history.getProcessedItems());
+        Assertions.assertEquals("0 0 * ? * *", scheduledJobsRepository.findByJobName(JOB_NAME).getCronExpression());
+    }
+
+    @Test
+    void testLeaseRenewedByHeartbeatDuringLongChunk() throws SchedulerException, NotFoundException {
+        ReflectionTestUtils.setField(job, "leaseDuration", Duration.ofMillis(300));
+        TransactionTemplate otherInstanceTransaction = new TransactionTemplate(transactionManager);
+        otherInstanceTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Integer> otherInstanceAcquired = new ArrayList<>();
+        job.chunkHook = checkpoint -> {
+            if (checkpoint == null) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                OffsetDateTime now = OffsetDateTime.now();
+                otherInstanceAcquired.add(otherInstanceTransaction.execute(status -> scheduledJobsRepository.acquireLease(JOB_NAME, OTHER_LEASE_OWNER, now.plusMinutes(5), now)));
+            }
+        };
+
+        job.processTask(JOB_NAME);
+
+        Assertions.assertEquals(List.of(0), otherInstanceAcquired);
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, loadLastHistory().getSchedulerExecutionStatus());
+    }
+
+    private void setLease(String leaseOwner, OffsetDateTime leaseExpiresAt) {
+        scheduledJob.setLeaseOwner(leaseOwner);
+        scheduledJob.setLeaseExpiresAt(leaseExpiresAt);
+        scheduledJob = scheduledJobsRepository.save(scheduledJob);
+    }
+
+    private List<ScheduledJobHistory> loadHistories() {
+        return scheduledJobHistoryRepository.findAll().stream().filter(history -> scheduledJob.getUuid().equals(history.getScheduledJobUuid())).toList();
+    }
+
+    private ScheduledJobHistory loadLastHistory() {
+        return scheduledJobHistoryRepository.findTopByScheduledJobUuidOrderByJobExecutionDesc(scheduledJob.getUuid());
+    }
+
+    /**
+     * Job processing items in chunks of two, checkpoint is number of already processed items
+     */
+    static class TestChunkedJob extends ChunkedSchedulerJobProcessor {
+
+        static final int ITEMS_COUNT = 5;
+        private static final int CHUNK_SIZE = 2;
+
+        private final List<String> processedCheckpoints = new ArrayList<>();
+        private Consumer<String> chunkHook = checkpoint -> {
+        };
+
+        @Override
+        String getDefaultJobName() {
+            return JOB_NAME;
+        }
+
+        @Override
+        String getDefaultCronExpression() {
+            return null;
+        }
+
+        @Override
+        boolean isDefaultOneTimeJob() {
+            return false;
+        }
+
+        @Override
+        String getJobClassName() {
+            return getClass().getName();
+        }
+
+        @Override
+        boolean systemJob() {
+            return true;
+        }
+
+        @Override
+        ScheduledTaskChunkResult processChunk(String jobName, String checkpoint) {
+            processedCheckpoints.add(checkpoint);
+            chunkHook.accept(checkpoint);
+            int processed = checkpoint == null ? 0 : Integer.parseInt(checkpoint);
+            int chunkItems = Math.min(CHUNK_SIZE, ITEMS_COUNT - processed);
+            return new ScheduledTaskChunkResult(String.valueOf(processed + chunkItems), chunkItems, processed + chunkItems >= ITEMS_COUNT);
+        }
+
+        @Override
+        ScheduledTaskResult completeJob(String jobName, int processedItems) {
+            return new ScheduledTaskResult(SchedulerJobExecutionStatus.SUCCESS, "Processed %d item(s).".formatted(processedItems));
+        }
+    }
+}
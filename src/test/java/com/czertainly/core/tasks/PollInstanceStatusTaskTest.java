@@ -0,0 +1,152 @@
+package com.czertainly.core.tasks;
+
+import com.czertainly.api.model.connector.cryptography.enums.TokenInstanceStatus;
+import com.czertainly.api.model.connector.cryptography.token.TokenInstanceStatusDto;
+import com.czertainly.api.model.core.connector.ConnectorStatus;
+import com.czertainly.api.model.scheduler.SchedulerJobExecutionStatus;
+import com.czertainly.core.dao.entity.AuthorityInstanceReference;
+import com.czertainly.core.dao.entity.Connector;
+import com.czertainly.core.dao.entity.EntityInstanceReference;
+import com.czertainly.core.dao.entity.TokenInstanceReference;
+import com.czertainly.core.dao.repository.AuthorityInstanceReferenceRepository;
+import com.czertainly.core.dao.repository.ConnectorRepository;
+import com.czertainly.core.dao.repository.EntityInstanceReferenceRepository;
+import com.czertainly.core.dao.repository.TokenInstanceReferenceRepository;
+import com.czertainly.core.model.ScheduledTaskResult;
+import com.czertainly.core.service.handler.InstanceStatusPoller;
+import com.czertainly.core.util.BaseSpringBootTest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class PollInstanceStatusTaskTest extends BaseSpringBootTest {
+
+    @Autowired
+    private PollInstanceStatusTask pollInstanceStatusTask;
+
+    @Autowired
+    private ConnectorRepository connectorRepository;
+
+    @Autowired
+    private TokenInstanceReferenceRepository tokenInstanceReferenceRepository;
+
+    @Autowired
+    private AuthorityInstanceReferenceRepository authorityInstanceReferenceRepository;
+
+    @Autowired
+    private EntityInstanceReferenceRepository entityInstanceReferenceRepository;
+
+    private WireMockServer mockServer;
+    private Connector connector;
+
+    @BeforeEach
+    void setUp() {
+        mockServer = new WireMockServer(0);
+        mockServer.start();
+        WireMock.configureFor("localhost", mockServer.port());
+
+        connector = new Connector();
+        connector.setName("instanceStatusConnector");
+        connector.setUrl("http://localhost:" + mockServer.port());
+        connector.setStatus(ConnectorStatus.CONNECTED);
+        connector = connectorRepository.save(connector);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockServer.stop();
+    }
+
+    @Test
+    void testPollTokenInstanceStatus() throws JsonProcessingException {
+        TokenInstanceReference reachable = createTokenInstance("reachableToken", "1l");
+        TokenInstanceReference unreachable = createTokenInstance("unreachableToken", "2l");
+        TokenInstanceStatusDto status = new TokenInstanceStatusDto();
+        status.setStatus(TokenInstanceStatus.ACTIVATED);
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/cryptographyProvider/tokens/1l/status"))
+                .willReturn(WireMock.okJson(new ObjectMapper().writeValueAsString(status))));
+
+        ScheduledTaskResult result = pollInstanceStatusTask.performJob("pollInstanceStatusJob");
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, result.getStatus());
+
+        // status is stored in database, so it is returned by every instance of application
+        TokenInstanceReference reachableStored = tokenInstanceReferenceRepository.findByUuid(reachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(TokenInstanceStatus.ACTIVATED, reachableStored.getStatus());
+        Assertions.assertNotNull(reachableStored.getStatusDetail());
+        Assertions.assertEquals(TokenInstanceStatus.ACTIVATED, reachableStored.getStatusDetail().getStatus());
+        Assertions.assertNotNull(reachableStored.getStatusUpdatedAt());
+
+        TokenInstanceReference unreachableStored = tokenInstanceReferenceRepository.findByUuid(unreachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(TokenInstanceStatus.UNKNOWN, unreachableStored.getStatus());
+        Assertions.assertNotNull(unreachableStored.getStatusUpdatedAt());
+    }
+
+    @Test
+    void testPollAuthorityInstanceStatus() {
+        AuthorityInstanceReference reachable = createAuthorityInstance("reachableAuthority", "1l");
+        AuthorityInstanceReference unreachable = createAuthorityInstance("unreachableAuthority", "2l");
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/authorityProvider/authorities/1l")).willReturn(WireMock.okJson("{}")));
+
+        ScheduledTaskResult result = pollInstanceStatusTask.performJob("pollInstanceStatusJob");
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, result.getStatus());
+        Assertions.assertTrue(result.getResultMessage().contains("1 of 2 authority instances"));
+
+        AuthorityInstanceReference reachableStored = authorityInstanceReferenceRepository.findByUuid(reachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(InstanceStatusPoller.INSTANCE_STATUS_CONNECTED, reachableStored.getStatus());
+        Assertions.assertNotNull(reachableStored.getStatusUpdatedAt());
+        AuthorityInstanceReference unreachableStored = authorityInstanceReferenceRepository.findByUuid(unreachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(InstanceStatusPoller.INSTANCE_STATUS_UNAVAILABLE, unreachableStored.getStatus());
+        Assertions.assertNotNull(unreachableStored.getStatusUpdatedAt());
+    }
+
+    @Test
+    void testPollEntityInstanceStatus() {
+        EntityInstanceReference reachable = createEntityInstance("reachableEntity", "1l");
+        EntityInstanceReference unreachable = createEntityInstance("unreachableEntity", "2l");
+        mockServer.stubFor(WireMock.get(WireMock.urlPathEqualTo("/v1/entityProvider/entities/1l")).willReturn(WireMock.okJson("{}")));
+
+        ScheduledTaskResult result = pollInstanceStatusTask.performJob("pollInstanceStatusJob");
+        Assertions.assertEquals(SchedulerJobExecutionStatus.SUCCESS, result.getStatus());
+        Assertions.assertTrue(result.getResultMessage().contains("1 of 2 entity instances"));
+
+        EntityInstanceReference reachableStored = entityInstanceReferenceRepository.findByUuid(reachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(InstanceStatusPoller.INSTANCE_STATUS_CONNECTED, reachableStored.getStatus());
+        Assertions.assertNotNull(reachableStored.getStatusUpdatedAt());
+        EntityInstanceReference unreachableStored = entityInstanceReferenceRepository.findByUuid(unreachable.getUuid()).orElseThrow();
+        Assertions.assertEquals(InstanceStatusPoller.INSTANCE_STATUS_UNAVAILABLE, unreachableStored.getStatus());
+        Assertions.assertNotNull(unreachableStored.getStatusUpdatedAt());
+    }
+
+    private TokenInstanceReference createTokenInstance(String name, String tokenInstanceUuid) {
+        TokenInstanceReference tokenInstanceReference = new TokenInstanceReference();
+        tokenInstanceReference.setName(name);
+        tokenInstanceReference.setConnector(connector);
+        tokenInstanceReference.setKind("sample");
+        tokenInstanceReference.setTokenInstanceUuid(tokenInstanceUuid);
+        return tokenInstanceReferenceRepository.save(tokenInstanceReference);
+    }
+
+    private AuthorityInstanceReference createAuthorityInstance(String name, String authorityInstanceUuid) {
+        AuthorityInstanceReference authorityInstanceReference = new AuthorityInstanceReference();
+        authorityInstanceReference.setName(name);
+        authorityInstanceReference.setConnector(connector);
+        authorityInstanceReference.setKind("sample");
+        authorityInstanceReference.setAuthorityInstanceUuid(authorityInstanceUuid);
+        return authorityInstanceReferenceRepository.save(authorityInstanceReference);
+    }
+
+    private EntityInstanceReference createEntityInstance(String name, String entityInstanceUuid) {
+        EntityInstanceReference entityInstanceReference = new EntityInstanceReference();
+        entityInstanceReference.setName(name);
+        entityInstanceReference.setConnector(connector);
+        entityInstanceReference.setKind("sample");
+        entityInstanceReference.setEntityInstanceUuid(entityInstanceUuid);
+        return entityInstanceReferenceRepository.save(entityInstanceReference);
+    }
+}
@@ -0,0 +1,123 @@
+package com.czertainly.core.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+class BufferedBatchWriterTest {
+
+    private static final Duration RETRY_BACKOFF = Duration.ofMillis(10);
+
+    private final List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+
+    private BufferedBatchWriter<Integer> batchWriter;
+
+    @AfterEach
+    void tearDown() {
+        batchWriter.close();
+    }
+
+    @Test
+    void testItemsWrittenInBatches() {
+        batchWriter = new BufferedBatchWriter<>("test-writer", 2, null, batches::add);
+        for (int i = 0; i < 5; i++) {
+            batchWriter.add(List.of(i));
+        }
+        batchWriter.flush();
+
+        int written = 0;
+        for (List<Integer> batch : batches) {
+            Assertions.assertTrue(batch.size() <= 2);
+            written += batch.size();
+        }
+        Assertions.assertEquals(5, written);
+    }
+
+    @Test
+    void testItemsWrittenByCallingThreadWhenBufferIsFull() {
+        Thread callingThread = Thread.currentThread();
+        List<Thread> writingThreads = new CopyOnWriteArrayList<>();
+        batchWriter = new BufferedBatchWriter<>("test-writer", 1, null, batch -> {
+            writingThreads.add(Thread.currentThread());
+            batches.add(batch);
+        });
+
+        // 20 batches are buffered at once, so they are written before adding returns
+        batchWriter.add(IntStream.range(0, 20).boxed().toList());
+
+        Assertions.assertEquals(20, batches.size());
+        Assertions.assertEquals(List.of(callingThread), writingThreads.stream().distinct().toList());
+    }
+
+    @Test
+    void testItemsWrittenPeriodically() throws InterruptedException {
+        CountDownLatch written = new CountDownLatch(1);
+        batchWriter = new BufferedBatchWriter<>("test-writer", 10, Duration.ofMillis(10), batch -> {
+            batches.add(batch);
+            written.countDown();
+        });
+
+        batchWriter.add(List.of(1));
+        Assertions.assertTrue(written.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(List.of(1)), batches);
+    }
+
+    @Test
+    void testFailedBatchRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        batchWriter = new BufferedBatchWriter<>("test-writer", 2, null, RETRY_BACKOFF, batch -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("Unable to write");
+            }
+            batches.add(batch);
+        });
+
+        batchWriter.add(List.of(1, 2));
+        batchWriter.flush();
+
+        Assertions.assertEquals(2, attempts.get());
+        Assertions.assertEquals(List.of(List.of(1, 2)), batches);
+        Assertions.assertEquals(0, batchWriter.getDroppedCount());
+    }
+
+    @Test
+    void testFailedBatchWrittenItemByItem() {
+        Consumer<List<Integer>> failingWriter = batch -> {
+            if (batch.contains(0)) {
+                throw new IllegalStateException("Unable to write");
+            }
+            batches.add(batch);
+        };
+        batchWriter = new BufferedBatchWriter<>("test-writer", 3, null, RETRY_BACKOFF, failingWriter);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        batchWriter.bindTo(meterRegistry);
+
+        batchWriter.add(List.of(0, 1, 2));
+        batchWriter.flush();
+
+        // only item that cannot be written at all is dropped
+        Assertions.assertEquals(List.of(List.of(1), List.of(2)), batches);
+        Assertions.assertEquals(1, batchWriter.getDroppedCount());
+        Assertions.assertEquals(1, meterRegistry.get(BufferedBatchWriter.DROPPED_ITEMS_METRIC).tag("writer", "test-writer").functionCounter().count());
+    }
+
+    @Test
+    void testBufferedItemsWrittenOnClose() {
+        batchWriter = new BufferedBatchWriter<>("test-writer", 10, Duration.ofHours(1), batches::add);
+
+        batchWriter.add(List.of(1, 2));
+        batchWriter.close();
+
+        Assertions.assertEquals(List.of(List.of(1, 2)), batches);
+    }
+}
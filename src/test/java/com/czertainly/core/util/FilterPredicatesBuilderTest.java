@@ -218,6 +218,14 @@ class FilterPredicatesBuilderTest extends BaseSpringBootTest {
         testLikePredicate(predicateTest, "%" + TEST_VALUE);
     }
 
+    @Test
+    void testContainsShortTermPredicate() {
+        final Predicate filterPredicate = FilterPredicatesBuilder.getFiltersPredicate(criteriaBuilder, criteriaQuery, root, List.of(new SearchFilterRequestDTODummy(FilterField.COMMON_NAME, FilterConditionOperator.CONTAINS, "te")));
+        Predicate predicateTest = ((SqmJunctionPredicate) filterPredicate).getPredicates().getFirst();
+        Assertions.assertInstanceOf(SqmComparisonPredicate.class, predicateTest);
+        Assertions.assertEquals(ComparisonOperator.GREATER_THAN, ((SqmComparisonPredicate) predicateTest).getSqmOperator());
+    }
+
     @Test
     void testEmptyPredicate() {
         final Predicate filterPredicate = FilterPredicatesBuilder.getFiltersPredicate(criteriaBuilder, criteriaQuery, root, List.of(prepareDummyFilterRequest(FilterConditionOperator.EMPTY)));
@@ -405,6 +413,14 @@ class FilterPredicatesBuilderTest extends BaseSpringBootTest {
         SearchRequestDto searchRequestDto8 = new SearchRequestDto();
         searchRequestDto8.setFilters(List.of(new SearchFilterRequestDto(FilterFieldSource.CUSTOM, ATTR_IDENTIFIER, FilterConditionOperator.ENDS_WITH, "1")));
         Assertions.assertEquals(Set.of(certificate1.getUuid()), getUuidsFromListCertificatesResponse(certificateService.listCertificates(new SecurityFilter(), searchRequestDto8)));
+
+        SearchRequestDto searchRequestDto9 = new SearchRequestDto();
+        searchRequestDto9.setFilters(List.of(new SearchFilterRequestDto(FilterFieldSource.CUSTOM, ATTR_IDENTIFIER, FilterConditionOperator.CONTAINS, "VALUE")));
+        Assertions.assertEquals(Set.of(certificate1.getUuid(), certificate2.getUuid()), getUuidsFromListCertificatesResponse(certificateService.listCertificates(new SecurityFilter(), searchRequestDto9)));
+
+        SearchRequestDto searchRequestDto10 = new SearchRequestDto();
+        searchRequestDto10.setFilters(List.of(new SearchFilterRequestDto(FilterFieldSource.CUSTOM, ATTR_IDENTIFIER, FilterConditionOperator.CONTAINS, "e1")));
+        Assertions.assertEquals(Set.of(certificate1.getUuid()), getUuidsFromListCertificatesResponse(certificateService.listCertificates(new SecurityFilter(), searchRequestDto10)));
     }
 
     @Test